@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws;
+
+import javax.annotation.Nullable;
+
+import com.amazonaws.services.lambda.runtime.Context;
+
+/**
+ * Timeouts derived from the remaining execution time of a Lambda function.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class LambdaTimeouts {
+
+	/**
+	 * Time reserved to map and return a response once waiting for an
+	 * asynchronous response has been given up.
+	 */
+	public static final long RESPONSE_MARGIN_MILLIS = 250;
+
+	private LambdaTimeouts() {
+		// no instance
+	}
+
+	/**
+	 * Returns how long to wait for a suspended (asynchronous) response: the
+	 * remaining execution time of the function minus
+	 * {@link #RESPONSE_MARGIN_MILLIS}.
+	 *
+	 * @param lambdaContext
+	 *            the lambda context; if {@code null} there's no limit
+	 * @return the timeout in milliseconds or {@link Long#MAX_VALUE} if there's
+	 *         no limit
+	 */
+	public static long getAsyncResponseTimeoutMillis(@Nullable Context lambdaContext) {
+		if (lambdaContext == null) {
+			return Long.MAX_VALUE;
+		}
+		return Math.max(0, lambdaContext.getRemainingTimeInMillis() - RESPONSE_MARGIN_MILLIS);
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import com.amazonaws.services.lambda.runtime.Context;
+
+public class LambdaTimeoutsTest {
+
+	@Test
+	public void getAsyncResponseTimeoutMillis_NoContextGiven_ShouldReturnNoLimit() {
+		assertEquals(Long.MAX_VALUE, LambdaTimeouts.getAsyncResponseTimeoutMillis(null));
+	}
+
+	@Test
+	public void getAsyncResponseTimeoutMillis_ContextGiven_ShouldSubtractMarginFromRemainingTime() {
+		Context context = mock(Context.class);
+		when(context.getRemainingTimeInMillis()).thenReturn(3000);
+		assertEquals(3000 - LambdaTimeouts.RESPONSE_MARGIN_MILLIS,
+				LambdaTimeouts.getAsyncResponseTimeoutMillis(context));
+	}
+
+	@Test
+	public void getAsyncResponseTimeoutMillis_LessThanMarginRemaining_ShouldReturnZero() {
+		Context context = mock(Context.class);
+		when(context.getRemainingTimeInMillis()).thenReturn(10);
+		assertEquals(0, LambdaTimeouts.getAsyncResponseTimeoutMillis(context));
+	}
+}
@@ -48,7 +48,24 @@ public final class DefaultServiceRequest extends ServiceDto implements ServiceRe
 
 	public DefaultServiceRequest(@Nullable String body, @Nonnull Map<String, List<String>> headers,
 			@Nonnull URI requestUri, @Nonnull String httpMethod) {
-		super(body, headers, Collections.emptyMap());
+		this(body, headers, requestUri, httpMethod, false);
+	}
+
+	/**
+	 * @param body
+	 *            the body - Base64 encoded if {@code base64Encoded} is true
+	 * @param headers
+	 *            the request headers
+	 * @param requestUri
+	 *            the request URI
+	 * @param httpMethod
+	 *            the HTTP method
+	 * @param base64Encoded
+	 *            whether the body is Base64 encoded
+	 */
+	public DefaultServiceRequest(@Nullable String body, @Nonnull Map<String, List<String>> headers,
+			@Nonnull URI requestUri, @Nonnull String httpMethod, boolean base64Encoded) {
+		super(body, headers, base64Encoded, Collections.emptyMap());
 		setRequestUri(requestUri);
 		setHttpMethod(httpMethod);
 	}
@@ -108,17 +125,18 @@ public final class DefaultServiceRequest extends ServiceDto implements ServiceRe
 		}
 		DefaultServiceRequest castOther = (DefaultServiceRequest) other;
 		return Objects.equals(getBody(), castOther.getBody()) && Objects.equals(getHeaders(), castOther.getHeaders())
-				&& Objects.equals(requestUri, castOther.requestUri) && Objects.equals(httpMethod, castOther.httpMethod);
+				&& Objects.equals(requestUri, castOther.requestUri) && Objects.equals(httpMethod, castOther.httpMethod)
+				&& isBase64Encoded() == castOther.isBase64Encoded();
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(getBody(), getHeaders(), requestUri, httpMethod);
+		return Objects.hash(getBody(), getHeaders(), requestUri, httpMethod, isBase64Encoded());
 	}
 
 	@Override
 	public String toString() {
 		return "ServiceRequestImpl [body=" + getBody() + ", headers=" + getHeaders() + ", requestUri=" + requestUri
-				+ ", httpMethod=" + httpMethod + "]";
+				+ ", httpMethod=" + httpMethod + ", base64Encoded=" + isBase64Encoded() + "]";
 	}
 }
@@ -44,7 +44,24 @@ public final class DefaultServiceResponse extends ServiceDto implements ServiceR
 
 	public DefaultServiceResponse(@Nullable String body, @Nonnull Map<String, List<String>> headers, int statusCode,
 			@Nullable String reasonPhrase) {
-		super(body, headers, null);
+		this(body, headers, statusCode, reasonPhrase, false);
+	}
+
+	/**
+	 * @param body
+	 *            the body - Base64 encoded if {@code base64Encoded} is true
+	 * @param headers
+	 *            the response headers
+	 * @param statusCode
+	 *            the status code
+	 * @param reasonPhrase
+	 *            the reason phrase
+	 * @param base64Encoded
+	 *            whether the body is Base64 encoded
+	 */
+	public DefaultServiceResponse(@Nullable String body, @Nonnull Map<String, List<String>> headers, int statusCode,
+			@Nullable String reasonPhrase, boolean base64Encoded) {
+		super(body, headers, base64Encoded, null);
 		setStatusCode(statusCode);
 		setReasonPhrase(reasonPhrase);
 	}
@@ -87,17 +104,18 @@ public final class DefaultServiceResponse extends ServiceDto implements ServiceR
 		DefaultServiceResponse castOther = (DefaultServiceResponse) other;
 		return Objects.equals(getBody(), castOther.getBody()) && Objects.equals(getHeaders(), castOther.getHeaders())
 				&& Objects.equals(statusCode, castOther.statusCode)
-				&& Objects.equals(reasonPhrase, castOther.reasonPhrase);
+				&& Objects.equals(reasonPhrase, castOther.reasonPhrase)
+				&& isBase64Encoded() == castOther.isBase64Encoded();
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(getBody(), getHeaders(), statusCode, reasonPhrase);
+		return Objects.hash(getBody(), getHeaders(), statusCode, reasonPhrase, isBase64Encoded());
 	}
 
 	@Override
 	public String toString() {
 		return "ServiceResponseImpl [body=" + getBody() + ", headers=" + getHeaders() + ", statusCode="
-				+ statusCode + ", reasonPhrase=" + reasonPhrase + "]";
+				+ statusCode + ", reasonPhrase=" + reasonPhrase + ", base64Encoded=" + isBase64Encoded() + "]";
 	}
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.service.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Batch of service requests to be handled by a single lambda function
+ * invocation in order to save the per-invocation overhead of chatty services.
+ * <p>
+ * The function responds with a {@link ServiceBatchResponse} containing the
+ * responses in the order of the requests.
+ * <p>
+ * Note: this object is mutable for de-serialization frameworks, only.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class ServiceBatchRequest {
+	private List<DefaultServiceRequest> requests = Collections.emptyList();
+
+	/**
+	 * For de-serialization frameworks, only.
+	 */
+	public ServiceBatchRequest() {
+		// for de-serialization
+	}
+
+	public ServiceBatchRequest(@Nonnull List<DefaultServiceRequest> requests) {
+		setRequests(requests);
+	}
+
+	public List<DefaultServiceRequest> getRequests() {
+		return requests;
+	}
+
+	/**
+	 * For de-serialization frameworks, only.
+	 */
+	public void setRequests(@Nonnull List<DefaultServiceRequest> requests) {
+		requireNonNull(requests);
+		this.requests = Collections.unmodifiableList(new ArrayList<>(requests));
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (other == null) {
+			return false;
+		}
+		if (!getClass().equals(other.getClass())) {
+			return false;
+		}
+		ServiceBatchRequest castOther = (ServiceBatchRequest) other;
+		return Objects.equals(requests, castOther.requests);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(requests);
+	}
+
+	@Override
+	public String toString() {
+		return "ServiceBatchRequest [requests=" + requests + "]";
+	}
+}
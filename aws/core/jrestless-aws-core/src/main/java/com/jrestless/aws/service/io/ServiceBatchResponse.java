@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.service.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Responses to a {@link ServiceBatchRequest} - in the order of the requests.
+ * <p>
+ * Note: this object is mutable for de-serialization frameworks, only.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class ServiceBatchResponse {
+	private List<DefaultServiceResponse> responses = Collections.emptyList();
+
+	/**
+	 * For de-serialization frameworks, only.
+	 */
+	public ServiceBatchResponse() {
+		// for de-serialization
+	}
+
+	public ServiceBatchResponse(@Nonnull List<DefaultServiceResponse> responses) {
+		setResponses(responses);
+	}
+
+	public List<DefaultServiceResponse> getResponses() {
+		return responses;
+	}
+
+	/**
+	 * For de-serialization frameworks, only.
+	 */
+	public void setResponses(@Nonnull List<DefaultServiceResponse> responses) {
+		requireNonNull(responses);
+		this.responses = Collections.unmodifiableList(new ArrayList<>(responses));
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (other == null) {
+			return false;
+		}
+		if (!getClass().equals(other.getClass())) {
+			return false;
+		}
+		ServiceBatchResponse castOther = (ServiceBatchResponse) other;
+		return Objects.equals(responses, castOther.responses);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(responses);
+	}
+
+	@Override
+	public String toString() {
+		return "ServiceBatchResponse [responses=" + responses + "]";
+	}
+}
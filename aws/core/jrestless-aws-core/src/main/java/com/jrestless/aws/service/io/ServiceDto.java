@@ -2,28 +2,29 @@ package com.jrestless.aws.service.io;
 
 import static java.util.Objects.requireNonNull;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.jrestless.core.http.HeaderMap;
+
 abstract class ServiceDto {
 	private String body;
 	private Map<String, List<String>> headers;
+	private boolean base64Encoded;
 
 	ServiceDto(Map<String, List<String>> defaultHeaders) {
 		headers = defaultHeaders;
 	}
 
-	ServiceDto(@Nullable String body, @Nonnull Map<String, List<String>> headers,
+	ServiceDto(@Nullable String body, @Nonnull Map<String, List<String>> headers, boolean base64Encoded,
 			Map<String, List<String>> defaultHeaders) {
 		this(defaultHeaders);
 		setBody(body);
 		setHeaders(headers);
+		setBase64Encoded(base64Encoded);
 	}
 
 	public String getBody() {
@@ -48,17 +49,17 @@ abstract class ServiceDto {
 	 */
 	public void setHeaders(@Nonnull Map<String, List<String>> headers) {
 		requireNonNull(headers);
-		this.headers = headers.entrySet().stream()
-				.filter(e -> e.getKey() != null)
-				.filter(e -> e.getValue() != null)
-				.collect(Collectors.collectingAndThen(
-						Collectors.toMap(
-								Map.Entry::getKey,
-								ServiceDto::copyList),
-						Collections::unmodifiableMap));
+		this.headers = HeaderMap.unmodifiableMultivaluedCopyOf(headers);
+	}
+
+	public boolean isBase64Encoded() {
+		return base64Encoded;
 	}
 
-	private static List<String> copyList(Map.Entry<String, List<String>> header) {
-		return Collections.unmodifiableList(new ArrayList<>(header.getValue()));
+	/**
+	 * For de-serialization frameworks, only.
+	 */
+	public void setBase64Encoded(boolean base64Encoded) {
+		this.base64Encoded = base64Encoded;
 	}
 }
@@ -27,6 +27,9 @@ import java.util.Map;
  *
  */
 public interface ServiceRequest {
+	/**
+	 * @return the body - Base64 encoded if {@link #isBase64Encoded()} is true
+	 */
 	String getBody();
 	/**
 	 * @return the headers (immutable)
@@ -34,4 +37,14 @@ public interface ServiceRequest {
 	Map<String, List<String>> getHeaders();
 	URI getRequestUri();
 	String getHttpMethod();
+
+	/**
+	 * Returns whether the body is Base64 encoded, i.e. whether it carries
+	 * arbitrary bytes rather than UTF-8 text.
+	 *
+	 * @return true if the body is Base64 encoded
+	 */
+	default boolean isBase64Encoded() {
+		return false;
+	}
 }
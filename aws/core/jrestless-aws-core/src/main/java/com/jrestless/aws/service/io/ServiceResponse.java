@@ -26,9 +26,22 @@ import java.util.Map;
  *
  */
 public interface ServiceResponse {
+	/**
+	 * @return the body - Base64 encoded if {@link #isBase64Encoded()} is true
+	 */
 	String getBody();
 	Map<String, List<String>> getHeaders();
 	int getStatusCode();
 	String getReasonPhrase();
 
+	/**
+	 * Returns whether the body is Base64 encoded, i.e. whether it carries
+	 * arbitrary bytes rather than UTF-8 text.
+	 *
+	 * @return true if the body is Base64 encoded
+	 */
+	default boolean isBase64Encoded() {
+		return false;
+	}
+
 }
@@ -4,6 +4,8 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.Constructor;
 import java.net.URI;
@@ -155,6 +157,40 @@ public class DefaultServiceRequestTest {
 			.testPreconditionsAndValidCombinations();
 	}
 
+	@Test
+	public void testBase64Encoded() {
+		assertFalse(new DefaultServiceRequest(null, ImmutableMap.of(), URI.create("/"), "GET").isBase64Encoded());
+		assertTrue(new DefaultServiceRequest(null, ImmutableMap.of(), URI.create("/"), "GET", true).isBase64Encoded());
+		DefaultServiceRequest dto = new DefaultServiceRequest();
+		assertFalse(dto.isBase64Encoded());
+		dto.setBase64Encoded(true);
+		assertTrue(dto.isBase64Encoded());
+	}
+
+	@Test
+	public void testEqualsWithBase64Encoded() {
+		new CopyConstructorEqualsTester(getBase64EncodedConstructor())
+			// body
+			.addArguments(0, null, "", "123")
+			// headers
+			.addArguments(1, ImmutableMap.of(), ImmutableMap.of("123", ImmutableList.of()), ImmutableMap.of("123", ImmutableList.of("1")))
+			// requestUri
+			.addArguments(2, URI.create("/"), URI.create("/a"))
+			// httpMethod
+			.addArguments(3, "GET", "POST")
+			// base64Encoded
+			.addArguments(4, false, true)
+			.testEquals();
+	}
+
+	private Constructor<DefaultServiceRequest> getBase64EncodedConstructor() {
+		try {
+			return DefaultServiceRequest.class.getConstructor(String.class, Map.class, URI.class, String.class, boolean.class);
+		} catch (NoSuchMethodException | SecurityException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	private Constructor<DefaultServiceRequest> getConstructor() {
 		try {
 			return DefaultServiceRequest.class.getConstructor(String.class, Map.class, URI.class, String.class);
@@ -5,6 +5,8 @@ import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
@@ -154,6 +156,40 @@ public class DefaultServiceResponseTest {
 			.testPreconditionsAndValidCombinations();
 	}
 
+	@Test
+	public void testBase64Encoded() {
+		assertFalse(new DefaultServiceResponse(null, emptyMap(), 200, "a").isBase64Encoded());
+		assertTrue(new DefaultServiceResponse(null, emptyMap(), 200, "a", true).isBase64Encoded());
+		DefaultServiceResponse dto = new DefaultServiceResponse();
+		assertFalse(dto.isBase64Encoded());
+		dto.setBase64Encoded(true);
+		assertTrue(dto.isBase64Encoded());
+	}
+
+	@Test
+	public void testEqualsWithBase64Encoded() {
+		new CopyConstructorEqualsTester(getBase64EncodedConstructor())
+			// body
+			.addArguments(0, null, "", "123")
+			// headers
+			.addArguments(1, ImmutableMap.of(), ImmutableMap.of("123", ImmutableList.of()), ImmutableMap.of("123", ImmutableList.of("1")))
+			// statusCode
+			.addArguments(2, 200, 400)
+			// reasonPhrase
+			.addArguments(3, null, "a", "b")
+			// base64Encoded
+			.addArguments(4, false, true)
+			.testEquals();
+	}
+
+	private Constructor<DefaultServiceResponse> getBase64EncodedConstructor() {
+		try {
+			return DefaultServiceResponse.class.getConstructor(String.class, Map.class, int.class, String.class, boolean.class);
+		} catch (NoSuchMethodException | SecurityException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	private Constructor<DefaultServiceResponse> getConstructor() {
 		try {
 			return DefaultServiceResponse.class.getConstructor(String.class, Map.class, int.class, String.class);
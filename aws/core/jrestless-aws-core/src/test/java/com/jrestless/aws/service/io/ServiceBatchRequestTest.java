@@ -0,0 +1,65 @@
+package com.jrestless.aws.service.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Constructor;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.jrestless.test.ConstructorPreconditionsTester;
+import com.jrestless.test.CopyConstructorEqualsTester;
+
+public class ServiceBatchRequestTest {
+
+	private static final DefaultServiceRequest ELEMENT0 = new DefaultServiceRequest(null, ImmutableMap.of(), URI.create("/0"), "GET");
+	private static final DefaultServiceRequest ELEMENT1 = new DefaultServiceRequest("1", ImmutableMap.of(), URI.create("/1"), "POST");
+
+	@Test
+	public void testGetters() {
+		assertEquals(ImmutableList.of(ELEMENT0, ELEMENT1), new ServiceBatchRequest(ImmutableList.of(ELEMENT0, ELEMENT1)).getRequests());
+		assertEquals(Collections.emptyList(), new ServiceBatchRequest().getRequests());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testListImmutability() {
+		new ServiceBatchRequest(new ArrayList<>()).getRequests().add(ELEMENT0);
+	}
+
+	@Test
+	public void testListCopied() {
+		List<DefaultServiceRequest> elements = new ArrayList<>();
+		elements.add(ELEMENT0);
+		ServiceBatchRequest batch = new ServiceBatchRequest(elements);
+		elements.add(ELEMENT1);
+		assertEquals(1, batch.getRequests().size());
+	}
+
+	@Test
+	public void testEquals() {
+		new CopyConstructorEqualsTester(getConstructor())
+			.addArguments(0, ImmutableList.of(), ImmutableList.of(ELEMENT0), ImmutableList.of(ELEMENT0, ELEMENT1))
+			.testEquals();
+	}
+
+	@Test
+	public void testPreconditions() {
+		new ConstructorPreconditionsTester(getConstructor())
+			.addValidArgs(0, ImmutableList.of(ELEMENT0))
+			.addInvalidNpeArg(0)
+			.testPreconditionsAndValidCombinations();
+	}
+
+	private Constructor<ServiceBatchRequest> getConstructor() {
+		try {
+			return ServiceBatchRequest.class.getConstructor(List.class);
+		} catch (NoSuchMethodException | SecurityException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.jrestless.aws.service.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.jrestless.test.ConstructorPreconditionsTester;
+import com.jrestless.test.CopyConstructorEqualsTester;
+
+public class ServiceBatchResponseTest {
+
+	private static final DefaultServiceResponse ELEMENT0 = new DefaultServiceResponse(null, ImmutableMap.of(), 200, "OK");
+	private static final DefaultServiceResponse ELEMENT1 = new DefaultServiceResponse("1", ImmutableMap.of(), 404, "Not Found");
+
+	@Test
+	public void testGetters() {
+		assertEquals(ImmutableList.of(ELEMENT0, ELEMENT1), new ServiceBatchResponse(ImmutableList.of(ELEMENT0, ELEMENT1)).getResponses());
+		assertEquals(Collections.emptyList(), new ServiceBatchResponse().getResponses());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testListImmutability() {
+		new ServiceBatchResponse(new ArrayList<>()).getResponses().add(ELEMENT0);
+	}
+
+	@Test
+	public void testListCopied() {
+		List<DefaultServiceResponse> elements = new ArrayList<>();
+		elements.add(ELEMENT0);
+		ServiceBatchResponse batch = new ServiceBatchResponse(elements);
+		elements.add(ELEMENT1);
+		assertEquals(1, batch.getResponses().size());
+	}
+
+	@Test
+	public void testEquals() {
+		new CopyConstructorEqualsTester(getConstructor())
+			.addArguments(0, ImmutableList.of(), ImmutableList.of(ELEMENT0), ImmutableList.of(ELEMENT0, ELEMENT1))
+			.testEquals();
+	}
+
+	@Test
+	public void testPreconditions() {
+		new ConstructorPreconditionsTester(getConstructor())
+			.addValidArgs(0, ImmutableList.of(ELEMENT0))
+			.addInvalidNpeArg(0)
+			.testPreconditionsAndValidCombinations();
+	}
+
+	private Constructor<ServiceBatchResponse> getConstructor() {
+		try {
+			return ServiceBatchResponse.class.getConstructor(List.class);
+		} catch (NoSuchMethodException | SecurityException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import javax.ws.rs.core.Feature;
+import javax.ws.rs.core.FeatureContext;
+import javax.ws.rs.core.MediaType;
+
+import com.jrestless.aws.gateway.io.GatewayCompressionFilter;
+import com.jrestless.aws.gateway.io.GatewayCompressionWriteInterceptor;
+
+/**
+ * Opt-in feature that compresses responses using gzip or deflate - depending
+ * on the request's {@code Accept-Encoding} header.
+ * <p>
+ * Compressed responses are flagged as binary and are therefore base64
+ * encoded (see {@link GatewayFeature}). AWS API Gateway passes the compressed
+ * response on to the client only if binary media types are configured that
+ * match the request's {@code Accept} header.
+ * <p>
+ * By default
+ * <ul>
+ * <li>entities smaller than {@value #DEFAULT_MINIMUM_SIZE} bytes (if the size
+ * is known upfront) are not compressed
+ * <li>only text, JSON, XML, JavaScript and SVG entities are compressed
+ * <li>the default compression level is used
+ * </ul>
+ * <p>
+ * Don't combine this feature with Jersey's {@code EncodingFilter} and its
+ * encoders; responses would be compressed twice otherwise.
+ * <p>
+ * Registers:
+ * <ul>
+ * <li>{@link GatewayCompressionFilter}
+ * <li>{@link GatewayCompressionWriteInterceptor}
+ * </ul>
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class GatewayCompressionFeature implements Feature {
+
+	public static final long DEFAULT_MINIMUM_SIZE = 1024;
+	public static final List<MediaType> DEFAULT_MEDIA_TYPES = Collections.unmodifiableList(Arrays.asList(
+			new MediaType("text", MediaType.MEDIA_TYPE_WILDCARD),
+			MediaType.APPLICATION_JSON_TYPE,
+			MediaType.APPLICATION_XML_TYPE,
+			new MediaType("application", "javascript"),
+			MediaType.APPLICATION_SVG_XML_TYPE));
+
+	private final long minimumSize;
+	private final List<MediaType> mediaTypes;
+	private final int compressionLevel;
+
+	public GatewayCompressionFeature() {
+		this(DEFAULT_MINIMUM_SIZE, DEFAULT_MEDIA_TYPES, Deflater.DEFAULT_COMPRESSION);
+	}
+
+	private GatewayCompressionFeature(long minimumSize, List<MediaType> mediaTypes, int compressionLevel) {
+		this.minimumSize = minimumSize;
+		this.mediaTypes = mediaTypes;
+		this.compressionLevel = compressionLevel;
+	}
+
+	@Override
+	public boolean configure(FeatureContext context) {
+		context.register(new GatewayCompressionFilter(minimumSize, mediaTypes));
+		context.register(new GatewayCompressionWriteInterceptor(compressionLevel));
+		return true;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static final class Builder {
+
+		private long minimumSize = DEFAULT_MINIMUM_SIZE;
+		private List<MediaType> mediaTypes = DEFAULT_MEDIA_TYPES;
+		private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+		private Builder() {
+			// use GatewayCompressionFeature#builder()
+		}
+
+		/**
+		 * Sets the minimum size in bytes an entity must have in order to get
+		 * compressed. Entities with an unknown size are always compressed.
+		 */
+		public Builder setMinimumSize(long minimumSize) {
+			if (minimumSize < 0) {
+				throw new IllegalArgumentException("minimumSize must not be negative");
+			}
+			this.minimumSize = minimumSize;
+			return this;
+		}
+
+		/**
+		 * Sets the media types to compress. Wildcards are supported.
+		 */
+		public Builder setMediaTypes(Collection<MediaType> mediaTypes) {
+			this.mediaTypes = Collections.unmodifiableList(new ArrayList<>(requireNonNull(mediaTypes)));
+			return this;
+		}
+
+		/**
+		 * Sets the compression level (0-9 or
+		 * {@link Deflater#DEFAULT_COMPRESSION}).
+		 */
+		public Builder setCompressionLevel(int compressionLevel) {
+			if ((compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION)
+					&& compressionLevel != Deflater.DEFAULT_COMPRESSION) {
+				throw new IllegalArgumentException("invalid compression level " + compressionLevel);
+			}
+			this.compressionLevel = compressionLevel;
+			return this;
+		}
+
+		public GatewayCompressionFeature build() {
+			return new GatewayCompressionFeature(minimumSize, mediaTypes, compressionLevel);
+		}
+	}
+}
@@ -16,21 +16,26 @@
 package com.jrestless.aws.gateway.handler;
 
 import static com.jrestless.aws.gateway.io.GatewayBinaryResponseCheckFilter.HEADER_BINARY_RESPONSE;
+import static com.jrestless.aws.gateway.io.GatewayBinaryWriteInterceptor.HEADER_BINARY_RESPONSE_LENGTH;
 import static java.util.Objects.requireNonNull;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.UnsupportedEncodingException;
 import java.net.URI;
-import java.net.URLEncoder;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
+import javax.annotation.Nullable;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.Response.StatusType;
 
@@ -41,13 +46,19 @@ import org.slf4j.LoggerFactory;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.jrestless.aws.AwsFeature;
+import com.jrestless.aws.LambdaTimeouts;
 import com.jrestless.aws.gateway.GatewayFeature;
+import com.jrestless.aws.gateway.io.BlobSink;
+import com.jrestless.aws.gateway.io.BlobSpillingOutputStream;
+import com.jrestless.aws.gateway.io.DefaultGatewayRequest;
 import com.jrestless.aws.gateway.io.GatewayBinaryReadInterceptor;
 import com.jrestless.aws.gateway.io.GatewayRequest;
 import com.jrestless.aws.gateway.io.GatewayResponse;
+import com.jrestless.core.container.handler.PooledBufferResponseWriter;
 import com.jrestless.core.container.handler.SimpleRequestHandler;
-import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
+import com.jrestless.core.container.io.Base64DecodingInputStream;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.PresizableByteArrayOutputStream;
 import com.jrestless.core.util.HeaderUtils;
 
 /**
@@ -65,9 +76,20 @@ import com.jrestless.core.util.HeaderUtils;
 public abstract class GatewayRequestHandler
 		extends SimpleRequestHandler<GatewayRequestAndLambdaContext, GatewayResponse> {
 
+	/**
+	 * The default maximum size of a response entity (as returned to AWS API
+	 * Gateway, i.e. base64 encoded for binary responses) before it gets
+	 * spilled; leaves some room for the headers and JSON escaping below the
+	 * 6MB limit of AWS Lambda.
+	 */
+	public static final long DEFAULT_RESPONSE_SPILL_THRESHOLD = 5L * 1024 * 1024;
+
 	private static final Logger LOG = LoggerFactory.getLogger(GatewayRequestHandler.class);
 
+	private static final int REQUEST_URI_CACHE_SIZE = 256;
+
 	private final URI baseUri;
+	private final GatewayRequestUriBuilder requestUriBuilder = new GatewayRequestUriBuilder(REQUEST_URI_CACHE_SIZE);
 
 	protected GatewayRequestHandler() {
 		this(URI.create("/"));
@@ -83,43 +105,33 @@ public abstract class GatewayRequestHandler
 		GatewayRequest request = requestAndLambdaContext.getGatewayRequest();
 		requireNonNull(request);
 		requireNonNull(request.getPath());
-		String body = request.getBody();
-		InputStream entityStream;
-		if (body != null) {
-			entityStream = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
-		} else {
-			entityStream = new ByteArrayInputStream(new byte[0]);
-		}
-		URI requestUri = URI.create(appendQueryParams(request.getPath(), request.getQueryStringParameters()));
-		return new DefaultJRestlessContainerRequest(baseUri, requestUri, request.getHttpMethod(), entityStream,
+		InputStream entityStream = createEntityStream(request);
+		URI requestUri = requestUriBuilder.build(request.getPath(), request.getQueryStringParameters());
+		return createDefaultContainerRequest(baseUri, requestUri, request.getHttpMethod(), entityStream,
 				HeaderUtils.expandHeaders(request.getHeaders()));
 	}
 
-	private String appendQueryParams(String requestUri, Map<String, String> queryParameters) {
-		if (!queryParameters.isEmpty()) {
-			StringBuilder requestUriBuilder = new StringBuilder(requestUri);
-			requestUriBuilder.append("?");
-			boolean first = true;
-			for (Map.Entry<String, String> queryParam : queryParameters.entrySet()) {
-				if (!first) {
-					requestUriBuilder.append("&");
-				}
-				requestUriBuilder.append(encodeQueryParam(queryParam.getKey()));
-				requestUriBuilder.append("=");
-				requestUriBuilder.append(encodeQueryParam(queryParam.getValue()));
-				first = false;
-			}
-			return requestUriBuilder.toString();
+	/**
+	 * Creates the entity stream for the request's body.
+	 * <p>
+	 * By default the body gets encoded into a byte array using UTF-8 unless
+	 * the body is base64-encoded. A base64-encoded body gets decoded lazily
+	 * from the body string ({@link Base64DecodingInputStream}) so that the
+	 * (potentially large) payload is never copied; the
+	 * {@link GatewayBinaryReadInterceptor} won't decode it again in this
+	 * case.
+	 *
+	 * @param request
+	 * @return the request's entity stream
+	 */
+	protected InputStream createEntityStream(GatewayRequest request) {
+		String body = request.getBody();
+		if (body == null) {
+			return new ByteArrayInputStream(new byte[0]);
+		} else if (request.isBase64Encoded()) {
+			return new Base64DecodingInputStream(body);
 		} else {
-			return requestUri;
-		}
-	}
-
-	private String encodeQueryParam(String param) {
-		try {
-			return URLEncoder.encode(param, StandardCharsets.UTF_8.name());
-		} catch (UnsupportedEncodingException e) {
-			throw new QueryParameterEncodingException(e);
+			return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
 		}
 	}
 
@@ -128,6 +140,20 @@ public abstract class GatewayRequestHandler
 			JRestlessContainerRequest containerRequest, GatewayRequestAndLambdaContext requestAndLambdaContext) {
 		GatewayRequest request = requestAndLambdaContext.getGatewayRequest();
 		Context lambdaContext = requestAndLambdaContext.getLambdaContext();
+		initializeRequestScope(actualContainerRequest, request, lambdaContext);
+		// the entity stream might have been decoded already (see createEntityStream)
+		boolean decodedAlready = containerRequest.getEntityStream() instanceof Base64DecodingInputStream;
+		actualContainerRequest.setProperty(GatewayBinaryReadInterceptor.PROPERTY_BASE_64_ENCODED_REQUEST,
+				request.isBase64Encoded() && !decodedAlready);
+	}
+
+	@Override
+	protected void extendWarmUpJerseyContainerRequest(ContainerRequest actualContainerRequest) {
+		initializeRequestScope(actualContainerRequest, new DefaultGatewayRequest(), null);
+	}
+
+	private void initializeRequestScope(ContainerRequest actualContainerRequest, GatewayRequest request,
+			@Nullable Context lambdaContext) {
 		actualContainerRequest.setRequestScopedInitializer(locator -> {
 			Ref<GatewayRequest> gatewayRequestRef = locator
 					.<Ref<GatewayRequest>>getService(GatewayFeature.GATEWAY_REQUEST_TYPE);
@@ -143,14 +169,60 @@ public abstract class GatewayRequestHandler
 				LOG.error("AwsFeature has not been registered. Context injection won't work.");
 			}
 		});
-		actualContainerRequest.setProperty(GatewayBinaryReadInterceptor.PROPERTY_BASE_64_ENCODED_REQUEST,
-				request.isBase64Encoded());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The default implementation uses the remaining execution time of the
+	 * function; see {@link LambdaTimeouts#getAsyncResponseTimeoutMillis(Context)}.
+	 */
+	@Override
+	protected long getAsyncResponseTimeoutMillis(GatewayRequestAndLambdaContext requestAndContext) {
+		return LambdaTimeouts.getAsyncResponseTimeoutMillis(requestAndContext.getLambdaContext());
 	}
 
 	@Override
 	protected SimpleResponseWriter<GatewayResponse> createResponseWriter(
 			GatewayRequestAndLambdaContext requestAndContext) {
-		return new ResponseWriter();
+		BlobSink blobSink = getResponseBlobSink();
+		if (blobSink == null) {
+			return new ResponseWriter();
+		}
+		String httpMethod = requestAndContext.getGatewayRequest().getHttpMethod();
+		StatusType redirectStatus = HttpMethod.GET.equals(httpMethod) || HttpMethod.HEAD.equals(httpMethod)
+				? Status.FOUND : Status.SEE_OTHER;
+		return new ResponseWriter(blobSink, getResponseSpillThreshold(), redirectStatus);
+	}
+
+	/**
+	 * Returns the sink response entities get spilled to if they exceed
+	 * {@link #getResponseSpillThreshold()}. The client then gets redirected
+	 * (302 for GET and HEAD requests, 303 otherwise) to the stored entity.
+	 * <p>
+	 * Spilling is disabled by default ({@code null}).
+	 * <p>
+	 * Note: {@link GatewayRequestStreamHandler} uses its own response writer
+	 * and doesn't spill.
+	 *
+	 * @return the sink or {@code null} to disable spilling
+	 */
+	@Nullable
+	protected BlobSink getResponseBlobSink() {
+		return null;
+	}
+
+	/**
+	 * Returns the maximum number of bytes of a response entity that are
+	 * returned to AWS API Gateway directly. Only used if a
+	 * {@link #getResponseBlobSink() blob sink} is set.
+	 * <p>
+	 * Defaults to {@value #DEFAULT_RESPONSE_SPILL_THRESHOLD}.
+	 *
+	 * @return the spill threshold in bytes
+	 */
+	protected long getResponseSpillThreshold() {
+		return DEFAULT_RESPONSE_SPILL_THRESHOLD;
 	}
 
 	@Override
@@ -169,34 +241,176 @@ public abstract class GatewayRequestHandler
 		}
 	}
 
-	protected static class ResponseWriter implements SimpleResponseWriter<GatewayResponse> {
+	/**
+	 * Response writer that buffers the response entity in memory.
+	 * <p>
+	 * If a {@link BlobSink} is given, entities of successful responses
+	 * exceeding the spill threshold are written into a blob (see
+	 * {@link BlobSpillingOutputStream}) and a redirect to the blob's location
+	 * is returned instead. The redirect keeps all response headers but the
+	 * entity headers. If the response turns out to be a failure after the
+	 * entity has been spilled, the blob is discarded and the failure is
+	 * returned without an entity.
+	 *
+	 * @author Bjoern Bilger
+	 *
+	 */
+	protected static class ResponseWriter extends PooledBufferResponseWriter<GatewayResponse> {
+		// headers describing the entity => not meaningful for a redirect or a response without an entity
+		private static final Set<String> ENTITY_HEADERS = createEntityHeaders();
+		private final BlobSink blobSink;
+		private final long spillThreshold;
+		private final StatusType redirectStatus;
 		private GatewayResponse response;
+		private BlobSpillingOutputStream spillingEntityOutputStream;
 
 		public ResponseWriter() {
 			// allow usage by GatewayRequestHandler subclasses
+			this.blobSink = null;
+			this.spillThreshold = -1;
+			this.redirectStatus = null;
+		}
+
+		/**
+		 * @param blobSink
+		 *            the sink to spill oversized entities to
+		 * @param spillThreshold
+		 *            the maximum number of bytes returned directly
+		 * @param redirectStatus
+		 *            the status of the redirect to the spilled entity
+		 */
+		public ResponseWriter(BlobSink blobSink, long spillThreshold, StatusType redirectStatus) {
+			this.blobSink = requireNonNull(blobSink);
+			this.spillThreshold = spillThreshold;
+			this.redirectStatus = requireNonNull(redirectStatus);
 		}
 
 		@Override
 		public OutputStream getEntityOutputStream() {
-			return new ByteArrayOutputStream();
+			PresizableByteArrayOutputStream entityBuffer = acquireEntityBuffer();
+			if (blobSink != null) {
+				spillingEntityOutputStream = new BlobSpillingOutputStream(blobSink, spillThreshold, entityBuffer);
+				return spillingEntityOutputStream;
+			}
+			return entityBuffer;
 		}
 
 		@Override
-		public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
-				OutputStream entityOutputStream) throws IOException {
-			List<String> binaryResponseHeader = headers.get(HEADER_BINARY_RESPONSE);
-			boolean binaryResponse = binaryResponseHeader != null
-					&& binaryResponseHeader.size() == 1
-					&& "true".equals(binaryResponseHeader.get(0));
-			Map<String, String> flattenedHeaders = HeaderUtils.flattenHeaders(headers,
-					headerName -> !HEADER_BINARY_RESPONSE.equals(headerName));
-			String body = ((ByteArrayOutputStream) entityOutputStream).toString(StandardCharsets.UTF_8.name());
-			response = new GatewayResponse(body, flattenedHeaders, statusType, binaryResponse);
+		public void beforeEntityWrite(StatusType statusType, long contentLength, Map<String, List<String>> headers) {
+			long expectedEntityLength = getExpectedEntityLength(contentLength, headers);
+			if (spillingEntityOutputStream != null) {
+				if (!isSuccessful(statusType)) {
+					// the client would be redirected to the entity of a failure
+					spillingEntityOutputStream.disableSpilling();
+				}
+				spillingEntityOutputStream.prepare(flattenResponseHeaders(headers), isBinaryResponse(headers),
+						expectedEntityLength);
+			} else {
+				super.beforeEntityWrite(statusType, expectedEntityLength, headers);
+			}
+		}
+
+		@Override
+		protected void writeBufferedResponse(StatusType statusType, Map<String, List<String>> headers,
+				PresizableByteArrayOutputStream entityBuffer) throws IOException {
+			if (spillingEntityOutputStream != null) {
+				if (spillingEntityOutputStream.isSpilled() && !isSuccessful(statusType)) {
+					// e.g. the entity write failed => don't publish the (truncated) entity
+					spillingEntityOutputStream.abort();
+					response = new GatewayResponse(null, flattenNonEntityHeaders(headers), statusType, false);
+					return;
+				}
+				// completes the blob if the entity has been spilled
+				spillingEntityOutputStream.close();
+				if (spillingEntityOutputStream.isSpilled()) {
+					Map<String, String> redirectHeaders = new HashMap<>(flattenNonEntityHeaders(headers));
+					redirectHeaders.put(HttpHeaders.LOCATION, spillingEntityOutputStream.getLocation().toString());
+					response = new GatewayResponse(null, redirectHeaders, redirectStatus, false);
+					return;
+				}
+			}
+			boolean binaryResponse = isBinaryResponse(headers);
+			// base64 is plain ASCII and ISO-8859-1 the cheapest charset to decode ASCII with
+			Charset charset = binaryResponse ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8;
+			String body = entityBuffer.toString(charset);
+			response = new GatewayResponse(body, flattenResponseHeaders(headers), statusType, binaryResponse);
 		}
 
 		@Override
 		public GatewayResponse getResponse() {
 			return response;
 		}
+
+		/**
+		 * Checks if the response has been flagged as binary response by
+		 * {@link com.jrestless.aws.gateway.io.GatewayBinaryResponseCheckFilter}.
+		 *
+		 * @param headers
+		 *            the response headers
+		 * @return true if the response is binary and so base64 encoded
+		 */
+		protected static boolean isBinaryResponse(Map<String, List<String>> headers) {
+			List<String> binaryResponseHeader = headers.get(HEADER_BINARY_RESPONSE);
+			return binaryResponseHeader != null
+					&& binaryResponseHeader.size() == 1
+					&& "true".equals(binaryResponseHeader.get(0));
+		}
+
+		/**
+		 * Returns the expected length of the entity: either the given content
+		 * length or the length of the base64 encoded entity as determined by
+		 * {@link com.jrestless.aws.gateway.io.GatewayBinaryWriteInterceptor}.
+		 *
+		 * @param contentLength
+		 *            the content length or -1 if unknown
+		 * @param headers
+		 *            the response headers
+		 * @return the expected length of the entity or -1 if unknown
+		 */
+		protected static long getExpectedEntityLength(long contentLength, Map<String, List<String>> headers) {
+			if (contentLength >= 0) {
+				return contentLength;
+			}
+			List<String> binaryResponseLengthHeader = headers.get(HEADER_BINARY_RESPONSE_LENGTH);
+			if (binaryResponseLengthHeader != null && binaryResponseLengthHeader.size() == 1) {
+				try {
+					return Long.parseLong(binaryResponseLengthHeader.get(0));
+				} catch (NumberFormatException e) {
+					return -1;
+				}
+			}
+			return -1;
+		}
+
+		private static Set<String> createEntityHeaders() {
+			Set<String> entityHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+			Collections.addAll(entityHeaders, HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LENGTH,
+					HttpHeaders.CONTENT_ENCODING, HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.CONTENT_LOCATION,
+					HttpHeaders.CONTENT_DISPOSITION, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.LOCATION,
+					"Content-MD5", "Content-Range");
+			return Collections.unmodifiableSet(entityHeaders);
+		}
+
+		private static boolean isSuccessful(StatusType statusType) {
+			return statusType.getFamily() == Status.Family.SUCCESSFUL;
+		}
+
+		private static Map<String, String> flattenNonEntityHeaders(Map<String, List<String>> headers) {
+			return HeaderUtils.flattenHeaders(headers, headerName -> !HEADER_BINARY_RESPONSE.equals(headerName)
+					&& !HEADER_BINARY_RESPONSE_LENGTH.equals(headerName) && !ENTITY_HEADERS.contains(headerName));
+		}
+
+		/**
+		 * Flattens the response headers and removes the internal binary
+		 * response headers.
+		 *
+		 * @param headers
+		 *            the response headers
+		 * @return the flattened response headers
+		 */
+		protected static Map<String, String> flattenResponseHeaders(Map<String, List<String>> headers) {
+			return HeaderUtils.flattenHeaders(headers, headerName -> !HEADER_BINARY_RESPONSE.equals(headerName)
+					&& !HEADER_BINARY_RESPONSE_LENGTH.equals(headerName));
+		}
 	}
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.handler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.Response.StatusType;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.jrestless.aws.gateway.io.DefaultGatewayRequest;
+import com.jrestless.aws.gateway.io.GatewayRequest;
+import com.jrestless.aws.gateway.io.GatewayRequestJsonReader;
+import com.jrestless.aws.gateway.io.GatewayResponse;
+import com.jrestless.aws.gateway.io.GatewayResponseJsonWriter;
+import com.jrestless.aws.gateway.io.JsonStringEscapingOutputStream;
+import com.jrestless.core.container.io.CharSequenceInputStream;
+import com.jrestless.core.container.io.PresizableByteArrayOutputStream;
+
+/**
+ * AWS lambda request stream handler that uses
+ * {@link com.jrestless.core.container.JRestlessHandlerContainer} and so Jersey
+ * to process incoming requests from AWS API Gateay.
+ * <p>
+ * In contrast to {@link GatewayRequestObjectHandler} the request is parsed
+ * from the lambda's input stream using a streaming JSON parser and the
+ * response is written directly into the lambda's output stream. The request
+ * body is not copied into a byte array but gets encoded while Jersey reads
+ * it. This reduces the memory footprint for large payloads.
+ * <p>
+ * The response entity gets JSON escaped while it is written by Jersey into a
+ * buffer that is reused for all requests of the same thread. The buffer's
+ * content is then written as is into the lambda's output stream. So the
+ * response body is never materialized as a {@link String} and the
+ * {@link GatewayResponse} passed to {@code onRequestSuccess} has no body. If {@code onRequestSuccess} returns another
+ * response, then that response gets written, instead.
+ * <p>
+ * Implementations must provide a no-args constructor.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public abstract class GatewayRequestStreamHandler extends GatewayRequestHandler implements RequestStreamHandler {
+
+	private final GatewayRequestJsonReader requestReader = new GatewayRequestJsonReader();
+	private final GatewayResponseJsonWriter responseWriter = new GatewayResponseJsonWriter();
+	private final ThreadLocal<BufferedResponseWriter> bufferedResponseWriters = ThreadLocal
+			.withInitial(BufferedResponseWriter::new);
+
+	protected GatewayRequestStreamHandler() {
+		super();
+	}
+
+	protected GatewayRequestStreamHandler(URI baseUri) {
+		super(baseUri);
+	}
+
+	@Override
+	public void handleRequest(InputStream input, OutputStream output, Context lambdaContext) throws IOException {
+		DefaultGatewayRequest request = requestReader.read(input);
+		GatewayResponse response = delegateRequest(new GatewayRequestAndLambdaContext(request, lambdaContext));
+		BufferedResponseWriter bufferedResponseWriter = bufferedResponseWriters.get();
+		if (response != null && response == bufferedResponseWriter.getResponse()) {
+			responseWriter.write(response, bufferedResponseWriter.getJsonEscapedBody(), output);
+		} else {
+			responseWriter.write(response, output);
+		}
+	}
+
+	@Override
+	protected InputStream createEntityStream(GatewayRequest request) {
+		String body = request.getBody();
+		if (body != null && !request.isBase64Encoded()) {
+			return new CharSequenceInputStream(body, StandardCharsets.UTF_8);
+		}
+		// base64-encoded bodies get decoded lazily
+		return super.createEntityStream(request);
+	}
+
+	@Override
+	protected SimpleResponseWriter<GatewayResponse> createResponseWriter(
+			GatewayRequestAndLambdaContext requestAndContext) {
+		BufferedResponseWriter bufferedResponseWriter = bufferedResponseWriters.get();
+		bufferedResponseWriter.reset();
+		return bufferedResponseWriter;
+	}
+
+	/**
+	 * Response writer that JSON escapes the response entity into a reusable
+	 * buffer.
+	 * <p>
+	 * The response created by this writer doesn't have a body; the body must
+	 * be retrieved via {@link #getJsonEscapedBody()}.
+	 *
+	 * @author Bjoern Bilger
+	 *
+	 */
+	protected static class BufferedResponseWriter implements SimpleResponseWriter<GatewayResponse> {
+
+		private final PresizableByteArrayOutputStream jsonEscapedBody = new PresizableByteArrayOutputStream();
+		private GatewayResponse response;
+
+		/**
+		 * Resets the writer so that it can be used for another request.
+		 */
+		public void reset() {
+			jsonEscapedBody.reset();
+			response = null;
+		}
+
+		@Override
+		public OutputStream getEntityOutputStream() {
+			return new JsonStringEscapingOutputStream(jsonEscapedBody);
+		}
+
+		@Override
+		public void beforeEntityWrite(StatusType statusType, long contentLength, Map<String, List<String>> headers) {
+			// escaping doesn't change the length of base64 encoded entities
+			jsonEscapedBody.reserve(ResponseWriter.getExpectedEntityLength(contentLength, headers));
+		}
+
+		@Override
+		public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
+				OutputStream entityOutputStream) throws IOException {
+			entityOutputStream.flush();
+			response = new GatewayResponse(null, ResponseWriter.flattenResponseHeaders(headers), statusType,
+					ResponseWriter.isBinaryResponse(headers));
+		}
+
+		@Override
+		public GatewayResponse getResponse() {
+			return response;
+		}
+
+		/**
+		 * @return the JSON escaped response body
+		 */
+		public ByteArrayOutputStream getJsonEscapedBody() {
+			return jsonEscapedBody;
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.handler;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.jrestless.aws.gateway.handler.GatewayRequestHandler.QueryParameterEncodingException;
+
+/**
+ * Creates request URIs from the path and the query parameters of a
+ * {@link com.jrestless.aws.gateway.io.GatewayRequest}.
+ * <p>
+ * Query parameter keys and values are URL encoded (as
+ * {@link URLEncoder#encode(String, String)} does) but the encoding gets
+ * skipped for values that consist of safe characters, only.
+ * <p>
+ * Request URIs of requests without query parameters are cached in a bounded
+ * LRU cache since they depend on the path, only.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+final class GatewayRequestUriBuilder {
+
+	private static final int INITIAL_CACHE_CAPACITY = 16;
+	private static final float CACHE_LOAD_FACTOR = 0.75f;
+	private static final int ESTIMATED_QUERY_PARAM_LENGTH = 16;
+
+	private final Map<String, URI> pathUriCache;
+
+	/**
+	 * @param cacheSize
+	 *            the maximum number of cached request URIs; 0 disables the
+	 *            cache
+	 */
+	GatewayRequestUriBuilder(int cacheSize) {
+		if (cacheSize < 0) {
+			throw new IllegalArgumentException("cacheSize may not be negative");
+		}
+		if (cacheSize == 0) {
+			pathUriCache = null;
+		} else {
+			pathUriCache = Collections.synchronizedMap(new LinkedHashMap<String, URI>(INITIAL_CACHE_CAPACITY,
+					CACHE_LOAD_FACTOR, true) {
+				private static final long serialVersionUID = 1L;
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, URI> eldest) {
+					return size() > cacheSize;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Creates the request URI.
+	 *
+	 * @param path
+	 *            the request path
+	 * @param queryParameters
+	 *            the (unencoded) query parameters; may be null
+	 * @return the request URI
+	 */
+	URI build(@Nonnull String path, @Nullable Map<String, String> queryParameters) {
+		requireNonNull(path, "path may not be null");
+		if (queryParameters == null || queryParameters.isEmpty()) {
+			return buildWithoutQuery(path);
+		}
+		StringBuilder requestUriBuilder = new StringBuilder(path.length()
+				+ ESTIMATED_QUERY_PARAM_LENGTH * queryParameters.size());
+		requestUriBuilder.append(path);
+		char separator = '?';
+		for (Map.Entry<String, String> queryParam : queryParameters.entrySet()) {
+			requestUriBuilder.append(separator);
+			requestUriBuilder.append(encodeQueryParam(queryParam.getKey()));
+			requestUriBuilder.append('=');
+			requestUriBuilder.append(encodeQueryParam(queryParam.getValue()));
+			separator = '&';
+		}
+		return URI.create(requestUriBuilder.toString());
+	}
+
+	private URI buildWithoutQuery(String path) {
+		if (pathUriCache == null) {
+			return URI.create(path);
+		}
+		URI uri = pathUriCache.get(path);
+		if (uri == null) {
+			uri = URI.create(path);
+			pathUriCache.put(path, uri);
+		}
+		return uri;
+	}
+
+	// for JUnit
+	int getCacheSize() {
+		return pathUriCache == null ? 0 : pathUriCache.size();
+	}
+
+	/**
+	 * Encodes the query parameter like {@link URLEncoder} but returns the
+	 * parameter as it is, if it contains safe characters, only.
+	 */
+	static String encodeQueryParam(String param) {
+		for (int i = 0; i < param.length(); i++) {
+			if (!isSafe(param.charAt(i))) {
+				return urlEncode(param);
+			}
+		}
+		return param;
+	}
+
+	private static boolean isSafe(char c) {
+		return (c >= 'a' && c <= 'z')
+				|| (c >= 'A' && c <= 'Z')
+				|| (c >= '0' && c <= '9')
+				|| c == '.' || c == '-' || c == '*' || c == '_';
+	}
+
+	private static String urlEncode(String param) {
+		try {
+			return URLEncoder.encode(param, StandardCharsets.UTF_8.name());
+		} catch (UnsupportedEncodingException e) {
+			throw new QueryParameterEncodingException(e);
+		}
+	}
+}
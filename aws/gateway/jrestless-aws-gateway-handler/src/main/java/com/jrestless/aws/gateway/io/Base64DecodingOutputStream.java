@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Output stream that decodes the base64-encoded characters (RFC 4648, basic
+ * alphabet, optionally padded) written to it and writes the decoded bytes to
+ * the underlying stream.
+ * <p>
+ * The decoded bytes are buffered and written in chunks.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+final class Base64DecodingOutputStream extends FilterOutputStream {
+
+	private static final char PADDING = '=';
+	private static final int BITS_PER_CHAR = 6;
+	private static final int CHARS_PER_QUANTUM = 4;
+	private static final int BYTE_MASK = 0xFF;
+	private static final int BYTE_SHIFT = 8;
+	private static final int BUFFER_SIZE = 8190;
+	private static final int[] DECODE_TABLE = createDecodeTable();
+
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int bufferCount;
+	private int bits;
+	private int sextets;
+	private int paddingChars;
+	private long position;
+	private boolean closed;
+
+	Base64DecodingOutputStream(OutputStream out) {
+		super(out);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		char c = (char) (b & BYTE_MASK);
+		if (c == PADDING) {
+			if (sextets < 2 || sextets + paddingChars >= CHARS_PER_QUANTUM) {
+				throw new IOException("illegal base64 padding at position " + position);
+			}
+			paddingChars++;
+		} else {
+			if (paddingChars > 0) {
+				throw new IOException("base64 data after padding at position " + position);
+			}
+			int sextet = c < DECODE_TABLE.length ? DECODE_TABLE[c] : -1;
+			if (sextet < 0) {
+				throw new IOException("illegal base64 character '" + c + "' at position " + position);
+			}
+			bits = (bits << BITS_PER_CHAR) | sextet;
+			if (++sextets == CHARS_PER_QUANTUM) {
+				flushQuantum();
+			}
+		}
+		position++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		for (int i = off; i < off + len; i++) {
+			write(b[i]);
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try (OutputStream o = out) {
+			if (sextets == 1) {
+				throw new IOException("the last unit of the base64 data has a single character, only");
+			}
+			if (sextets > 0) {
+				flushQuantum();
+			}
+			flushBuffer();
+		}
+	}
+
+	/*
+	 * Writes the (up to) three bytes of the current (possibly incomplete)
+	 * quantum into the buffer.
+	 */
+	private void flushQuantum() throws IOException {
+		int byteCount = sextets * BITS_PER_CHAR / BYTE_SHIFT;
+		int decoded = bits >>> (sextets * BITS_PER_CHAR - byteCount * BYTE_SHIFT);
+		if (bufferCount + byteCount > buffer.length) {
+			flushBuffer();
+		}
+		for (int i = byteCount - 1; i >= 0; i--) {
+			buffer[bufferCount++] = (byte) (decoded >>> (i * BYTE_SHIFT));
+		}
+		bits = 0;
+		sextets = 0;
+	}
+
+	private void flushBuffer() throws IOException {
+		if (bufferCount > 0) {
+			out.write(buffer, 0, bufferCount);
+			bufferCount = 0;
+		}
+	}
+
+	private static int[] createDecodeTable() {
+		String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+		int[] table = new int[Byte.MAX_VALUE + 1];
+		Arrays.fill(table, -1);
+		for (int i = 0; i < alphabet.length(); i++) {
+			table[alphabet.charAt(i)] = i;
+		}
+		return table;
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Output stream that base64-encodes (RFC 4648, basic alphabet, padded) the
+ * bytes written to it and writes the encoded characters to the underlying
+ * stream.
+ * <p>
+ * The bytes are buffered and encoded in chunks of a multiple of three bytes,
+ * so padding is added when the stream gets closed, only.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+final class Base64EncodingOutputStream extends FilterOutputStream {
+
+	private static final int BYTES_PER_QUANTUM = 3;
+	// must be a multiple of BYTES_PER_QUANTUM so that no padding is added in between
+	private static final int CHUNK_SIZE = BYTES_PER_QUANTUM * 1024;
+
+	private final Base64.Encoder encoder = Base64.getEncoder();
+	private final byte[] chunk = new byte[CHUNK_SIZE];
+	private final byte[] encodedChunk = new byte[(int) GatewayBinaryWriteInterceptor.getEncodedLength(CHUNK_SIZE)];
+	private int chunkCount;
+	private boolean closed;
+
+	Base64EncodingOutputStream(OutputStream out) {
+		super(out);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		chunk[chunkCount++] = (byte) b;
+		if (chunkCount == chunk.length) {
+			encodeChunk();
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		int offset = off;
+		int remaining = len;
+		while (remaining > 0) {
+			int count = Math.min(remaining, chunk.length - chunkCount);
+			System.arraycopy(b, offset, chunk, chunkCount, count);
+			chunkCount += count;
+			offset += count;
+			remaining -= count;
+			if (chunkCount == chunk.length) {
+				encodeChunk();
+			}
+		}
+	}
+
+	/**
+	 * Flushes the underlying stream. Bytes not forming a complete chunk are
+	 * kept until the stream gets closed since they'd be padded otherwise.
+	 */
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try (OutputStream o = out) {
+			if (chunkCount > 0) {
+				out.write(encoder.encode(Arrays.copyOf(chunk, chunkCount)));
+				chunkCount = 0;
+			}
+		}
+	}
+
+	private void encodeChunk() throws IOException {
+		out.write(encodedChunk, 0, encoder.encode(chunk, encodedChunk));
+		chunkCount = 0;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+/**
+ * SPI for stores response entities get spilled to if they are too large to be
+ * returned to AWS API Gateway directly (see {@link BlobSpillingOutputStream}).
+ * <p>
+ * The client gets redirected to the returned location, so the location must
+ * be accessible by the client (e.g. a pre-signed S3 URL).
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public interface BlobSink {
+
+	/**
+	 * Opens a new blob.
+	 *
+	 * @param headers
+	 *            the (flattened) response headers like {@code Content-Type}
+	 *            or {@code Content-Encoding}; implementations may store them
+	 *            along with the blob
+	 * @return the opened blob
+	 * @throws IOException
+	 */
+	@Nonnull
+	Blob open(@Nonnull Map<String, String> headers) throws IOException;
+
+	/**
+	 * A blob being written.
+	 *
+	 * @author Bjoern Bilger
+	 *
+	 */
+	interface Blob {
+
+		/**
+		 * @return the stream the blob's content gets written to; the stream
+		 *         gets closed before {@link #complete()} or {@link #abort()}
+		 *         is invoked
+		 */
+		@Nonnull
+		OutputStream getOutputStream();
+
+		/**
+		 * Completes the blob. Invoked once, after all data has been written
+		 * and the output stream has been closed.
+		 *
+		 * @return the location of the stored blob
+		 * @throws IOException
+		 */
+		@Nonnull
+		URI complete() throws IOException;
+
+		/**
+		 * Discards the blob, e.g. because the entity is incomplete or the
+		 * response is not a successful one. Invoked once, instead of
+		 * {@link #complete()}, after the output stream has been closed. The
+		 * blob must not be published.
+		 *
+		 * @throws IOException
+		 */
+		void abort() throws IOException;
+	}
+}
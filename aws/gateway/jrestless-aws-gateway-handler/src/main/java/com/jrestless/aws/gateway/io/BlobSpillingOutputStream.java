@@ -0,0 +1,271 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.jrestless.core.container.io.PresizableByteArrayOutputStream;
+
+/**
+ * Output stream that buffers the response entity in memory as long as it
+ * doesn't exceed the given threshold. Once the threshold would be exceeded,
+ * a blob gets opened in the given {@link BlobSink}: the buffered bytes and
+ * everything written afterwards go into the blob instead. If the expected
+ * length of the entity is known upfront and exceeds the threshold, the
+ * entity is streamed into a blob right away.
+ * <p>
+ * Base64-encoded (binary) entities get decoded before they are written into
+ * the blob.
+ * <p>
+ * The blob gets completed when the stream is closed; its location is
+ * available via {@link #getLocation()} afterwards. A blob that must not be
+ * published gets discarded by {@link #abort()}ing the stream instead.
+ * <p>
+ * The stream is not thread-safe.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class BlobSpillingOutputStream extends OutputStream {
+
+	private final BlobSink blobSink;
+	private final long threshold;
+	private PresizableByteArrayOutputStream buffer;
+	private Map<String, String> headers = Collections.emptyMap();
+	private boolean base64Encoded;
+	private boolean spillOnFirstWrite;
+	private boolean spillingDisabled;
+	private BlobSink.Blob blob;
+	private OutputStream blobOutputStream;
+	private URI location;
+	private boolean closed;
+	private boolean aborted;
+
+	/**
+	 * @param blobSink
+	 *            the sink to spill the entity to
+	 * @param threshold
+	 *            the maximum number of bytes kept in memory
+	 */
+	public BlobSpillingOutputStream(@Nonnull BlobSink blobSink, long threshold) {
+		this(blobSink, threshold, new PresizableByteArrayOutputStream());
+	}
+
+	/**
+	 * @param blobSink
+	 *            the sink to spill the entity to
+	 * @param threshold
+	 *            the maximum number of bytes kept in memory
+	 * @param buffer
+	 *            the (empty) buffer to keep the entity in, e.g. a pooled one
+	 */
+	public BlobSpillingOutputStream(@Nonnull BlobSink blobSink, long threshold,
+			@Nonnull PresizableByteArrayOutputStream buffer) {
+		if (threshold < 0) {
+			throw new IllegalArgumentException("threshold must not be negative");
+		}
+		this.blobSink = requireNonNull(blobSink);
+		this.threshold = threshold;
+		this.buffer = requireNonNull(buffer);
+	}
+
+	/**
+	 * Passes the response's meta data on before the entity gets written.
+	 *
+	 * @param responseHeaders
+	 *            the (flattened) response headers passed on to the sink
+	 * @param base64EncodedEntity
+	 *            {@code true} if the entity will be base64-encoded
+	 * @param expectedLength
+	 *            the expected number of bytes to be written or -1 if
+	 *            unknown
+	 */
+	public void prepare(@Nonnull Map<String, String> responseHeaders, boolean base64EncodedEntity,
+			long expectedLength) {
+		if (isSpilled()) {
+			throw new IllegalStateException("the entity is being spilled already");
+		}
+		this.headers = requireNonNull(responseHeaders);
+		this.base64Encoded = base64EncodedEntity;
+		// don't buffer what is going to be spilled anyway
+		spillOnFirstWrite = !spillingDisabled && expectedLength > threshold;
+		if (!spillOnFirstWrite) {
+			buffer.reserve(expectedLength);
+		}
+	}
+
+	/**
+	 * Keeps the entity in memory regardless of its size, e.g. because the
+	 * response is not a successful one and so must not be redirected.
+	 */
+	public void disableSpilling() {
+		if (isSpilled()) {
+			throw new IllegalStateException("the entity is being spilled already");
+		}
+		spillingDisabled = true;
+		spillOnFirstWrite = false;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		checkOpen();
+		if (isSpillRequired(1)) {
+			spill();
+		}
+		if (blobOutputStream != null) {
+			blobOutputStream.write(b);
+		} else {
+			buffer.write(b);
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		checkOpen();
+		if (isSpillRequired(len)) {
+			spill();
+		}
+		if (blobOutputStream != null) {
+			blobOutputStream.write(b, off, len);
+		} else {
+			buffer.write(b, off, len);
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		if (blobOutputStream != null) {
+			blobOutputStream.flush();
+		}
+	}
+
+	/**
+	 * Closes the stream and - if the entity has been spilled - completes the
+	 * blob. The blob gets aborted if it cannot be completed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (blobOutputStream != null) {
+			try {
+				blobOutputStream.close();
+				location = requireNonNull(blob.complete(), "blob sink must return a location");
+			} catch (IOException | RuntimeException e) {
+				aborted = true;
+				try {
+					blob.abort();
+				} catch (IOException | RuntimeException abortException) {
+					e.addSuppressed(abortException);
+				}
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Closes the stream and - if the entity has been spilled - discards the
+	 * blob instead of completing it. Does nothing if the blob has been
+	 * aborted by a failed {@link #close()} already.
+	 *
+	 * @throws IllegalStateException
+	 *             if the stream has been closed already
+	 */
+	public void abort() throws IOException {
+		if (aborted) {
+			return;
+		}
+		if (closed) {
+			throw new IllegalStateException("the stream has been closed already");
+		}
+		closed = true;
+		aborted = true;
+		if (blobOutputStream != null) {
+			try {
+				blobOutputStream.close();
+			} finally {
+				blob.abort();
+			}
+		}
+	}
+
+	/**
+	 * @return {@code true} if the entity is (being) written into a blob
+	 */
+	public boolean isSpilled() {
+		return blobOutputStream != null;
+	}
+
+	/**
+	 * @return the location of the completed blob or {@code null} if the
+	 *         entity hasn't been spilled or the stream hasn't been closed,
+	 *         yet
+	 */
+	@Nullable
+	public URI getLocation() {
+		return location;
+	}
+
+	/**
+	 * Decodes the entity buffered in memory.
+	 *
+	 * @param charset
+	 * @return the buffered entity
+	 */
+	@Nonnull
+	public String toString(@Nonnull Charset charset) {
+		if (isSpilled()) {
+			throw new IllegalStateException("the entity has been spilled");
+		}
+		return buffer.toString(charset);
+	}
+
+	private boolean isSpillRequired(int len) {
+		return blobOutputStream == null && !spillingDisabled
+				&& (spillOnFirstWrite || buffer.size() + (long) len > threshold);
+	}
+
+	private void spill() throws IOException {
+		blob = requireNonNull(blobSink.open(headers), "blob sink must return a blob");
+		OutputStream out = requireNonNull(blob.getOutputStream());
+		if (base64Encoded) {
+			out = new Base64DecodingOutputStream(out);
+		}
+		buffer.writeTo(out);
+		// release the buffered entity (the buffer's owner might still hold on to it)
+		buffer.reset();
+		buffer = null;
+		blobOutputStream = out;
+	}
+
+	private void checkOpen() throws IOException {
+		if (closed) {
+			throw new IOException("stream has been closed");
+		}
+	}
+}
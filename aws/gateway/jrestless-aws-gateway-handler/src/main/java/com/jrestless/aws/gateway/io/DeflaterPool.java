@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import java.util.zip.Deflater;
+
+/**
+ * Keeps one idle {@link Deflater} per thread and format so that the native
+ * resources of a deflater don't have to be allocated and freed for each
+ * response.
+ * <p>
+ * Deflaters are thread-confined: a deflater acquired by a thread must be
+ * released by the same thread and must not be used after it has been
+ * released.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+final class DeflaterPool {
+
+	private final int level;
+	private final ThreadLocal<Deflater> idleRawDeflaters = new ThreadLocal<>();
+	private final ThreadLocal<Deflater> idleZlibDeflaters = new ThreadLocal<>();
+
+	DeflaterPool(int level) {
+		if ((level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)
+				&& level != Deflater.DEFAULT_COMPRESSION) {
+			throw new IllegalArgumentException("invalid compression level " + level);
+		}
+		this.level = level;
+	}
+
+	/**
+	 * Returns the idle deflater of the current thread or creates a new one.
+	 *
+	 * @param nowrap
+	 *            {@code true} for a deflater that writes raw deflate data (as
+	 *            used by gzip); {@code false} for a deflater that writes the
+	 *            zlib format
+	 * @return a deflater in its initial state
+	 */
+	Deflater acquire(boolean nowrap) {
+		ThreadLocal<Deflater> idleDeflaters = getIdleDeflaters(nowrap);
+		Deflater deflater = idleDeflaters.get();
+		if (deflater == null) {
+			return new Deflater(level, nowrap);
+		}
+		idleDeflaters.remove();
+		return deflater;
+	}
+
+	/**
+	 * Resets the given deflater and keeps it as the idle deflater of the
+	 * current thread. If there is one already, the deflater gets ended.
+	 *
+	 * @param deflater
+	 *            the deflater previously acquired with the same
+	 *            {@code nowrap} flag
+	 * @param nowrap
+	 *            the flag the deflater has been acquired with
+	 */
+	void release(Deflater deflater, boolean nowrap) {
+		ThreadLocal<Deflater> idleDeflaters = getIdleDeflaters(nowrap);
+		if (idleDeflaters.get() == null) {
+			deflater.reset();
+			idleDeflaters.set(deflater);
+		} else {
+			deflater.end();
+		}
+	}
+
+	int getLevel() {
+		return level;
+	}
+
+	private ThreadLocal<Deflater> getIdleDeflaters(boolean nowrap) {
+		return nowrap ? idleRawDeflaters : idleZlibDeflaters;
+	}
+}
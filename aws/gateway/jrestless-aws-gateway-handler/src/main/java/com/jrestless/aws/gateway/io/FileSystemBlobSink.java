@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * {@link BlobSink} that stores blobs as files in a local directory. Meant to
+ * be used for testing.
+ * <p>
+ * The location of a blob is either the file's URI or - if a base URI is
+ * given - the file's name resolved against the base URI. Response headers
+ * are not stored.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class FileSystemBlobSink implements BlobSink {
+
+	private static final String FILE_PREFIX = "response-";
+	private static final String FILE_SUFFIX = ".blob";
+
+	private final Path directory;
+	private final URI baseUri;
+
+	public FileSystemBlobSink(@Nonnull Path directory) {
+		this(directory, null);
+	}
+
+	/**
+	 * @param directory
+	 *            the directory to store the blobs in
+	 * @param baseUri
+	 *            the URI the blobs' file names get resolved against; the
+	 *            files' URIs are used if {@code null}
+	 */
+	public FileSystemBlobSink(@Nonnull Path directory, @Nullable URI baseUri) {
+		this.directory = requireNonNull(directory);
+		this.baseUri = baseUri;
+	}
+
+	@Override
+	public Blob open(Map<String, String> headers) throws IOException {
+		Path file = Files.createTempFile(directory, FILE_PREFIX, FILE_SUFFIX);
+		OutputStream out = new BufferedOutputStream(Files.newOutputStream(file));
+		return new Blob() {
+			@Override
+			public OutputStream getOutputStream() {
+				return out;
+			}
+
+			@Override
+			public URI complete() {
+				if (baseUri == null) {
+					return file.toUri();
+				}
+				return baseUri.resolve(file.getFileName().toString());
+			}
+
+			@Override
+			public void abort() throws IOException {
+				Files.deleteIfExists(file);
+			}
+		};
+	}
+}
@@ -15,11 +15,13 @@
  */
 package com.jrestless.aws.gateway.io;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.Base64;
 
 import javax.annotation.Priority;
 import javax.ws.rs.Priorities;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.WriterInterceptor;
 import javax.ws.rs.ext.WriterInterceptorContext;
 
@@ -32,6 +34,15 @@ import javax.ws.rs.ext.WriterInterceptorContext;
  * The set priority makes sure that the interceptor is called after any other
  * entity coder.
  * <p>
+ * If the length of the entity is known upfront, the length of the base64
+ * encoded entity will be passed on in the internal header
+ * {@value #HEADER_BINARY_RESPONSE_LENGTH} so that the response buffer can be
+ * sized accordingly. This is the case for {@code byte[]} and {@link File}
+ * entities and if the {@code Content-Length} header is set - unless the
+ * response is compressed. The entity is encoded in chunks while it is being
+ * written; the following interceptors and the
+ * {@link javax.ws.rs.ext.MessageBodyWriter} are invoked as usual.
+ * <p>
  * Note: AWS API Gateway will convert the base64 encoded response into binary
  * data only if
  * <ol>
@@ -47,14 +58,48 @@ import javax.ws.rs.ext.WriterInterceptorContext;
 @Priority(Priorities.ENTITY_CODER - GatewayBinaryWriteInterceptor.PRIORITY_OFFSET)
 public class GatewayBinaryWriteInterceptor implements WriterInterceptor {
 
+	public static final String HEADER_BINARY_RESPONSE_LENGTH = "X-JRestlessAwsApiGatewayBinaryResponseLength";
 	static final int PRIORITY_OFFSET = 100;
+	private static final int BYTES_PER_QUANTUM = 3;
+	private static final int CHARS_PER_QUANTUM = 4;
 
 	@Override
 	public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
-		Object headerValue = context.getHeaders().getFirst(GatewayBinaryResponseCheckFilter.HEADER_BINARY_RESPONSE);
-		if (Boolean.TRUE.equals(headerValue)) {
-			context.setOutputStream(Base64.getEncoder().wrap(context.getOutputStream()));
+		MultivaluedMap<String, Object> headers = context.getHeaders();
+		Object headerValue = headers.getFirst(GatewayBinaryResponseCheckFilter.HEADER_BINARY_RESPONSE);
+		if (!Boolean.TRUE.equals(headerValue)) {
+			context.proceed();
+			return;
+		}
+		// compressed later on => the length is unknown
+		if (!headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+			long entityLength = getEntityLength(context.getEntity(), headers);
+			if (entityLength >= 0) {
+				headers.putSingle(HEADER_BINARY_RESPONSE_LENGTH, Long.toString(getEncodedLength(entityLength)));
+			}
 		}
+		context.setOutputStream(new Base64EncodingOutputStream(context.getOutputStream()));
 		context.proceed();
 	}
+
+	private static long getEntityLength(Object entity, MultivaluedMap<String, Object> headers) {
+		if (entity instanceof byte[]) {
+			return ((byte[]) entity).length;
+		} else if (entity instanceof File && ((File) entity).isFile()) {
+			return ((File) entity).length();
+		}
+		Object contentLength = headers.getFirst(HttpHeaders.CONTENT_LENGTH);
+		if (contentLength != null) {
+			try {
+				return Long.parseLong(contentLength.toString());
+			} catch (NumberFormatException e) {
+				return -1;
+			}
+		}
+		return -1;
+	}
+
+	static long getEncodedLength(long length) {
+		return (length + BYTES_PER_QUANTUM - 1) / BYTES_PER_QUANTUM * CHARS_PER_QUANTUM;
+	}
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * Filter that decides if a response gets compressed by
+ * {@link GatewayCompressionWriteInterceptor}.
+ * <p>
+ * A response gets compressed if
+ * <ol>
+ * <li>it has an entity and is not encoded already
+ * <li>its media type is compatible with one of the configured media types
+ * <li>its size is unknown or at least the configured minimum size
+ * <li>the client accepts "gzip" or "deflate" (see {@code Accept-Encoding};
+ * gzip is preferred if both are equally acceptable)
+ * </ol>
+ * If so, the {@code Content-Encoding} header is set accordingly, a
+ * {@code Content-Length} header is removed and the negotiated encoding is
+ * passed on to the interceptor via the property
+ * {@value #PROPERTY_RESPONSE_COMPRESSION}. Since the {@code Content-Encoding}
+ * header is set, {@link GatewayBinaryResponseCheckFilter} flags the response
+ * as binary so that the compressed entity gets base64 encoded.
+ * <p>
+ * The set priority makes sure that the filter is invoked before
+ * {@link GatewayBinaryResponseCheckFilter}.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+// response filters are invoked in descending order => before GatewayBinaryResponseCheckFilter
+@Priority(Priorities.ENTITY_CODER)
+public class GatewayCompressionFilter implements ContainerResponseFilter {
+
+	public static final String PROPERTY_RESPONSE_COMPRESSION = "compressionAwsApiGatewayResponse";
+	public static final String ENCODING_GZIP = "gzip";
+	public static final String ENCODING_DEFLATE = "deflate";
+
+	private static final String ENCODING_ANY = "*";
+	private static final String QUALITY_PARAMETER = "q";
+
+	private final long minimumSize;
+	private final List<MediaType> mediaTypes;
+
+	/**
+	 * @param minimumSize
+	 *            the minimum size in bytes an entity must have to get
+	 *            compressed (if its size is known upfront)
+	 * @param mediaTypes
+	 *            the media types to compress (wildcards are supported)
+	 */
+	public GatewayCompressionFilter(long minimumSize, @Nonnull Collection<MediaType> mediaTypes) {
+		if (minimumSize < 0) {
+			throw new IllegalArgumentException("minimumSize must not be negative");
+		}
+		this.minimumSize = minimumSize;
+		this.mediaTypes = Collections.unmodifiableList(new ArrayList<>(requireNonNull(mediaTypes)));
+	}
+
+	@Override
+	public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+			throws IOException {
+		if (!responseContext.hasEntity()) {
+			return;
+		}
+		MultivaluedMap<String, Object> headers = responseContext.getHeaders();
+		if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+				|| !isCompressibleMediaType(responseContext.getMediaType())) {
+			return;
+		}
+		headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		long entitySize = getEntitySize(responseContext.getEntity(), headers);
+		if (entitySize >= 0 && entitySize < minimumSize) {
+			return;
+		}
+		String encoding = selectEncoding(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+		if (encoding != null) {
+			headers.putSingle(HttpHeaders.CONTENT_ENCODING, encoding);
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+			requestContext.setProperty(PROPERTY_RESPONSE_COMPRESSION, encoding);
+		}
+	}
+
+	private boolean isCompressibleMediaType(@Nullable MediaType mediaType) {
+		if (mediaType == null) {
+			return false;
+		}
+		for (MediaType compressibleMediaType : mediaTypes) {
+			if (compressibleMediaType.isCompatible(mediaType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static long getEntitySize(Object entity, MultivaluedMap<String, Object> headers) {
+		if (entity instanceof byte[]) {
+			return ((byte[]) entity).length;
+		} else if (entity instanceof String) {
+			// a lower bound of the size in bytes which is good enough
+			return ((String) entity).length();
+		} else if (entity instanceof File && ((File) entity).isFile()) {
+			return ((File) entity).length();
+		}
+		Object contentLength = headers.getFirst(HttpHeaders.CONTENT_LENGTH);
+		if (contentLength != null) {
+			try {
+				return Long.parseLong(contentLength.toString());
+			} catch (NumberFormatException e) {
+				return -1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Selects the encoding with the highest quality that is supported. gzip
+	 * wins over deflate if both have the same quality.
+	 *
+	 * @param acceptEncoding
+	 *            the value of the {@code Accept-Encoding} header
+	 * @return the selected encoding or {@code null} if none of the supported
+	 *         encodings is acceptable
+	 */
+	@Nullable
+	static String selectEncoding(@Nullable String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return null;
+		}
+		float gzipQuality = -1;
+		float deflateQuality = -1;
+		float anyQuality = -1;
+		for (String acceptedEncoding : acceptEncoding.split(",")) {
+			String[] codingAndParams = acceptedEncoding.split(";");
+			String coding = codingAndParams[0].trim();
+			float quality = parseQuality(codingAndParams);
+			if (ENCODING_GZIP.equalsIgnoreCase(coding) || "x-gzip".equalsIgnoreCase(coding)) {
+				gzipQuality = Math.max(gzipQuality, quality);
+			} else if (ENCODING_DEFLATE.equalsIgnoreCase(coding)) {
+				deflateQuality = Math.max(deflateQuality, quality);
+			} else if (ENCODING_ANY.equals(coding)) {
+				anyQuality = Math.max(anyQuality, quality);
+			}
+		}
+		// explicitly listed encodings take precedence over "*"
+		gzipQuality = gzipQuality < 0 ? anyQuality : gzipQuality;
+		deflateQuality = deflateQuality < 0 ? anyQuality : deflateQuality;
+		if (gzipQuality > 0 && gzipQuality >= deflateQuality) {
+			return ENCODING_GZIP;
+		} else if (deflateQuality > 0) {
+			return ENCODING_DEFLATE;
+		}
+		return null;
+	}
+
+	private static float parseQuality(String[] codingAndParams) {
+		for (int i = 1; i < codingAndParams.length; i++) {
+			String param = codingAndParams[i].trim();
+			int separator = param.indexOf('=');
+			if (separator > 0 && QUALITY_PARAMETER.equalsIgnoreCase(param.substring(0, separator).trim())) {
+				try {
+					return Float.parseFloat(param.substring(separator + 1).trim());
+				} catch (NumberFormatException e) {
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import java.io.IOException;
+import java.util.zip.Deflater;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * Write interceptor that compresses the response entity using the encoding
+ * negotiated by {@link GatewayCompressionFilter}.
+ * <p>
+ * Deflaters are reused per thread.
+ * <p>
+ * The set priority makes sure that the interceptor is invoked after
+ * {@link GatewayBinaryWriteInterceptor}, i.e. the entity gets compressed
+ * first and the compressed entity gets base64 encoded.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@Priority(Priorities.ENTITY_CODER)
+public class GatewayCompressionWriteInterceptor implements WriterInterceptor {
+
+	private final DeflaterPool deflaterPool;
+
+	public GatewayCompressionWriteInterceptor() {
+		this(Deflater.DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 * @param compressionLevel
+	 *            the compression level (0-9) or
+	 *            {@link Deflater#DEFAULT_COMPRESSION}
+	 */
+	public GatewayCompressionWriteInterceptor(int compressionLevel) {
+		this.deflaterPool = new DeflaterPool(compressionLevel);
+	}
+
+	@Override
+	public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+		Object encoding = context.getProperty(GatewayCompressionFilter.PROPERTY_RESPONSE_COMPRESSION);
+		if (encoding == null) {
+			context.proceed();
+			return;
+		}
+		boolean gzip = GatewayCompressionFilter.ENCODING_GZIP.equals(encoding);
+		if (!gzip && !GatewayCompressionFilter.ENCODING_DEFLATE.equals(encoding)) {
+			throw new IllegalStateException("unsupported encoding " + encoding);
+		}
+		PooledDeflaterOutputStream compressingStream = new PooledDeflaterOutputStream(context.getOutputStream(),
+				deflaterPool, gzip);
+		context.setOutputStream(compressingStream);
+		try {
+			context.proceed();
+			// the stream gets closed by Jersey but the deflater can be released right away
+			compressingStream.finish();
+		} finally {
+			compressingStream.abort();
+		}
+	}
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads a {@link DefaultGatewayRequest} from the JSON representation passed by
+ * AWS API Gateway (Lambda Function Proxy) using a streaming JSON parser.
+ * <p>
+ * In contrast to the de-serialization done by the AWS Lambda runtime for
+ * {@link com.amazonaws.services.lambda.runtime.RequestHandler RequestHandler}
+ * no intermediate object tree is created. Unknown properties are skipped.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class GatewayRequestJsonReader {
+
+	private final JsonFactory jsonFactory;
+
+	public GatewayRequestJsonReader() {
+		this(new JsonFactory());
+	}
+
+	public GatewayRequestJsonReader(@Nonnull JsonFactory jsonFactory) {
+		this.jsonFactory = requireNonNull(jsonFactory, "jsonFactory may not be null");
+	}
+
+	/**
+	 * Reads the request from the given stream.
+	 *
+	 * @param inputStream
+	 *            the stream to read the request from; the stream won't be
+	 *            closed
+	 * @return the request or null if the JSON value is null or if the stream is
+	 *         empty
+	 * @throws IOException
+	 *             if the stream cannot be read or if it doesn't contain a valid
+	 *             request
+	 */
+	@Nullable
+	public DefaultGatewayRequest read(@Nonnull InputStream inputStream) throws IOException {
+		requireNonNull(inputStream, "inputStream may not be null");
+		try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+			parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+			JsonToken token = parser.nextToken();
+			if (token == null || token == JsonToken.VALUE_NULL) {
+				return null;
+			}
+			return readRequest(parser);
+		}
+	}
+
+	private static DefaultGatewayRequest readRequest(JsonParser parser) throws IOException {
+		expectStartObject(parser);
+		DefaultGatewayRequest request = new DefaultGatewayRequest();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			parser.nextToken();
+			switch (fieldName) {
+			case "resource":
+				request.setResource(parser.getValueAsString());
+				break;
+			case "path":
+				request.setPath(parser.getValueAsString());
+				break;
+			case "httpMethod":
+				request.setHttpMethod(parser.getValueAsString());
+				break;
+			case "headers":
+				request.setHeaders(readStringMap(parser));
+				break;
+			case "queryStringParameters":
+				request.setQueryStringParameters(readStringMap(parser));
+				break;
+			case "pathParameters":
+				request.setPathParameters(readStringMap(parser));
+				break;
+			case "stageVariables":
+				request.setStageVariables(readStringMap(parser));
+				break;
+			case "requestContext":
+				request.setRequestContext(readRequestContext(parser));
+				break;
+			case "body":
+				request.setBody(parser.getValueAsString());
+				break;
+			case "isBase64Encoded":
+				request.setIsBase64Encoded(parser.getValueAsBoolean());
+				break;
+			default:
+				parser.skipChildren();
+			}
+		}
+		return request;
+	}
+
+	private static DefaultGatewayRequestContext readRequestContext(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		expectStartObject(parser);
+		DefaultGatewayRequestContext requestContext = new DefaultGatewayRequestContext();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			parser.nextToken();
+			switch (fieldName) {
+			case "accountId":
+				requestContext.setAccountId(parser.getValueAsString());
+				break;
+			case "resourceId":
+				requestContext.setResourceId(parser.getValueAsString());
+				break;
+			case "stage":
+				requestContext.setStage(parser.getValueAsString());
+				break;
+			case "requestId":
+				requestContext.setRequestId(parser.getValueAsString());
+				break;
+			case "identity":
+				requestContext.setIdentity(readIdentity(parser));
+				break;
+			case "resourcePath":
+				requestContext.setResourcePath(parser.getValueAsString());
+				break;
+			case "httpMethod":
+				requestContext.setHttpMethod(parser.getValueAsString());
+				break;
+			case "apiId":
+				requestContext.setApiId(parser.getValueAsString());
+				break;
+			case "authorizer":
+				requestContext.setAuthorizer(readObjectMap(parser));
+				break;
+			default:
+				parser.skipChildren();
+			}
+		}
+		return requestContext;
+	}
+
+	private static DefaultGatewayIdentity readIdentity(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		expectStartObject(parser);
+		DefaultGatewayIdentity identity = new DefaultGatewayIdentity();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			parser.nextToken();
+			switch (fieldName) {
+			case "cognitoIdentityPoolId":
+				identity.setCognitoIdentityPoolId(parser.getValueAsString());
+				break;
+			case "accountId":
+				identity.setAccountId(parser.getValueAsString());
+				break;
+			case "cognitoIdentityId":
+				identity.setCognitoIdentityId(parser.getValueAsString());
+				break;
+			case "caller":
+				identity.setCaller(parser.getValueAsString());
+				break;
+			case "apiKey":
+				identity.setApiKey(parser.getValueAsString());
+				break;
+			case "sourceIp":
+				identity.setSourceIp(parser.getValueAsString());
+				break;
+			case "cognitoAuthenticationType":
+				identity.setCognitoAuthenticationType(parser.getValueAsString());
+				break;
+			case "cognitoAuthenticationProvider":
+				identity.setCognitoAuthenticationProvider(parser.getValueAsString());
+				break;
+			case "userArn":
+				identity.setUserArn(parser.getValueAsString());
+				break;
+			case "userAgent":
+				identity.setUserAgent(parser.getValueAsString());
+				break;
+			case "user":
+				identity.setUser(parser.getValueAsString());
+				break;
+			default:
+				parser.skipChildren();
+			}
+		}
+		return identity;
+	}
+
+	private static Map<String, String> readStringMap(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		expectStartObject(parser);
+		Map<String, String> map = new LinkedHashMap<>();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String key = parser.getCurrentName();
+			parser.nextToken();
+			if (parser.getCurrentToken().isScalarValue()) {
+				map.put(key, parser.getValueAsString());
+			} else {
+				throw new JsonParseException(parser, "expected a scalar value for '" + key + "'");
+			}
+		}
+		return map;
+	}
+
+	private static Map<String, Object> readObjectMap(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		expectStartObject(parser);
+		Map<String, Object> map = new LinkedHashMap<>();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String key = parser.getCurrentName();
+			parser.nextToken();
+			map.put(key, readValue(parser));
+		}
+		return map;
+	}
+
+	private static Object readValue(JsonParser parser) throws IOException {
+		switch (parser.getCurrentToken()) {
+		case START_OBJECT:
+			return readObjectMap(parser);
+		case START_ARRAY:
+			List<Object> list = new ArrayList<>();
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				list.add(readValue(parser));
+			}
+			return list;
+		case VALUE_STRING:
+			return parser.getText();
+		case VALUE_NUMBER_INT:
+		case VALUE_NUMBER_FLOAT:
+			return parser.getNumberValue();
+		case VALUE_TRUE:
+			return Boolean.TRUE;
+		case VALUE_FALSE:
+			return Boolean.FALSE;
+		case VALUE_NULL:
+			return null;
+		default:
+			throw new JsonParseException(parser, "unexpected token " + parser.getCurrentToken());
+		}
+	}
+
+	private static void expectStartObject(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+			throw new JsonParseException(parser, "expected an object but got " + parser.getCurrentToken());
+		}
+	}
+}
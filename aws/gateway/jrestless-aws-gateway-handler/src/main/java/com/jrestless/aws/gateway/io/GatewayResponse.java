@@ -17,14 +17,14 @@ package com.jrestless.aws.gateway.io;
 
 import static java.util.Objects.requireNonNull;
 
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.ws.rs.core.Response.StatusType;
+
+import com.jrestless.core.http.CaseInsensitiveMap;
 /**
  * The response that will be the passed back to the API Gateway.
  * <p>
@@ -47,7 +47,8 @@ public final class GatewayResponse {
 		requireNonNull(statusType);
 		this.statusCode = statusType.getStatusCode();
 		this.body = body;
-		this.headers = Collections.unmodifiableMap(new HashMap<>(headers));
+		// not copied if the headers are unmodifiable already (e.g. flattened by HeaderUtils)
+		this.headers = CaseInsensitiveMap.unmodifiableCopyOf(headers);
 		this.base64Encoded = base64Encoded;
 	}
 
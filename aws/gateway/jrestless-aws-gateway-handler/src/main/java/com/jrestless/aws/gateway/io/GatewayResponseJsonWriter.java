@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes a {@link GatewayResponse} in the JSON representation expected by AWS
+ * API Gateway (Lambda Function Proxy) directly into a stream using a streaming
+ * JSON generator.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class GatewayResponseJsonWriter {
+
+	private final JsonFactory jsonFactory;
+
+	public GatewayResponseJsonWriter() {
+		this(new JsonFactory());
+	}
+
+	public GatewayResponseJsonWriter(@Nonnull JsonFactory jsonFactory) {
+		this.jsonFactory = requireNonNull(jsonFactory, "jsonFactory may not be null");
+	}
+
+	/**
+	 * Writes the response as UTF-8 encoded JSON into the given stream.
+	 *
+	 * @param response
+	 *            the response to write
+	 * @param outputStream
+	 *            the stream to write the response to; the stream gets flushed
+	 *            but won't be closed
+	 * @throws IOException
+	 */
+	public void write(@Nonnull GatewayResponse response, @Nonnull OutputStream outputStream) throws IOException {
+		write(response, null, outputStream);
+	}
+
+	/**
+	 * Writes the response as UTF-8 encoded JSON into the given stream.
+	 * <p>
+	 * If a JSON escaped body is given, then it will be written as the
+	 * response's body instead of {@link GatewayResponse#getBody()}, without
+	 * any further copying or escaping.
+	 *
+	 * @param response
+	 *            the response to write
+	 * @param jsonEscapedBody
+	 *            the UTF-8 encoded body, already escaped to be used as the
+	 *            content of a JSON string (s.
+	 *            {@link JsonStringEscapingOutputStream}); may be null
+	 * @param outputStream
+	 *            the stream to write the response to; the stream gets flushed
+	 *            but won't be closed
+	 * @throws IOException
+	 */
+	public void write(@Nonnull GatewayResponse response, @Nullable ByteArrayOutputStream jsonEscapedBody,
+			@Nonnull OutputStream outputStream) throws IOException {
+		requireNonNull(response, "response may not be null");
+		requireNonNull(outputStream, "outputStream may not be null");
+		try (JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.writeStartObject();
+			generator.writeNumberField("statusCode", response.getStatusCode());
+			generator.writeObjectFieldStart("headers");
+			for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+				generator.writeStringField(header.getKey(), header.getValue());
+			}
+			generator.writeEndObject();
+			generator.writeBooleanField("isBase64Encoded", response.isIsBase64Encoded());
+			// the body must be the last field since the generator's state is bypassed for an escaped body
+			if (jsonEscapedBody == null) {
+				generator.writeStringField("body", response.getBody());
+			} else {
+				generator.writeFieldName("body");
+				// writes the separator and the opening quote
+				generator.writeRawValue("\"");
+				generator.flush();
+				jsonEscapedBody.writeTo(outputStream);
+				generator.writeRaw('"');
+			}
+			generator.writeEndObject();
+		}
+	}
+}
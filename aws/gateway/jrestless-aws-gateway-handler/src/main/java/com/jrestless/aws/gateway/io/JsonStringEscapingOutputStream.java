@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Output stream that escapes UTF-8 encoded bytes so that they can be used as
+ * the content of a JSON string (without the surrounding quotes).
+ * <p>
+ * Quotation marks, reverse solidi and control characters get escaped, all
+ * other bytes - including multi-byte UTF-8 sequences - are passed through
+ * as they are. So the bytes written to this stream must be valid UTF-8.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class JsonStringEscapingOutputStream extends FilterOutputStream {
+
+	private static final int BYTE_MASK = 0xFF;
+	private static final int FIRST_NON_CONTROL_CHAR = 0x20;
+	private static final int HEX_RADIX_MASK = 0xF;
+	private static final int HEX_DIGIT_SHIFT = 4;
+	private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[][] ESCAPES = createEscapes();
+
+	public JsonStringEscapingOutputStream(@Nonnull OutputStream out) {
+		super(requireNonNull(out, "out may not be null"));
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		byte[] escape = ESCAPES[b & BYTE_MASK];
+		if (escape == null) {
+			out.write(b);
+		} else {
+			out.write(escape);
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		requireNonNull(b);
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		int end = off + len;
+		int unescapedStart = off;
+		for (int i = off; i < end; i++) {
+			byte[] escape = ESCAPES[b[i] & BYTE_MASK];
+			if (escape != null) {
+				if (i > unescapedStart) {
+					out.write(b, unescapedStart, i - unescapedStart);
+				}
+				out.write(escape);
+				unescapedStart = i + 1;
+			}
+		}
+		if (end > unescapedStart) {
+			out.write(b, unescapedStart, end - unescapedStart);
+		}
+	}
+
+	private static byte[][] createEscapes() {
+		byte[][] escapes = new byte[BYTE_MASK + 1][];
+		for (int c = 0; c < FIRST_NON_CONTROL_CHAR; c++) {
+			escapes[c] = new byte[] {'\\', 'u', '0', '0',
+					HEX_DIGITS[(c >> HEX_DIGIT_SHIFT) & HEX_RADIX_MASK], HEX_DIGITS[c & HEX_RADIX_MASK]};
+		}
+		escapes['\b'] = new byte[] {'\\', 'b'};
+		escapes['\t'] = new byte[] {'\\', 't'};
+		escapes['\n'] = new byte[] {'\\', 'n'};
+		escapes['\f'] = new byte[] {'\\', 'f'};
+		escapes['\r'] = new byte[] {'\\', 'r'};
+		escapes['"'] = new byte[] {'\\', '"'};
+		escapes['\\'] = new byte[] {'\\', '\\'};
+		return escapes;
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * {@link DeflaterOutputStream} that writes either the gzip or the zlib
+ * ("deflate") format using a deflater from a {@link DeflaterPool}.
+ * <p>
+ * The deflater is returned to the pool as soon as the stream is finished
+ * (or closed).
+ *
+ * @author Bjoern Bilger
+ *
+ */
+final class PooledDeflaterOutputStream extends DeflaterOutputStream {
+
+	private static final int GZIP_MAGIC = 0x8b1f;
+	private static final int BITS_PER_BYTE = 8;
+	private static final int BYTE_MASK = 0xff;
+	private static final int BUFFER_SIZE = 8192;
+	private static final byte[] GZIP_HEADER = {
+		(byte) GZIP_MAGIC,
+		(byte) (GZIP_MAGIC >> BITS_PER_BYTE),
+		Deflater.DEFLATED,
+		0, // flags
+		0, 0, 0, 0, // modification time
+		0, // extra flags
+		0 // operating system
+	};
+
+	private final DeflaterPool pool;
+	private final boolean gzip;
+	private final CRC32 crc;
+	private boolean finished;
+
+	PooledDeflaterOutputStream(OutputStream out, DeflaterPool pool, boolean gzip) throws IOException {
+		super(out, pool.acquire(gzip), BUFFER_SIZE);
+		this.pool = pool;
+		this.gzip = gzip;
+		if (gzip) {
+			crc = new CRC32();
+			out.write(GZIP_HEADER);
+		} else {
+			crc = null;
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (finished) {
+			throw new IOException("stream has been finished");
+		}
+		super.write(b, off, len);
+		if (gzip) {
+			crc.update(b, off, len);
+		}
+	}
+
+	@Override
+	public void finish() throws IOException {
+		if (finished) {
+			return;
+		}
+		finished = true;
+		try {
+			super.finish();
+			if (gzip) {
+				writeIntLittleEndian((int) crc.getValue());
+				writeIntLittleEndian((int) def.getBytesRead());
+			}
+		} finally {
+			pool.release(def, gzip);
+		}
+	}
+
+	/**
+	 * Returns the deflater to the pool without writing any remaining data.
+	 * Does nothing if the stream has been finished already.
+	 */
+	void abort() {
+		if (!finished) {
+			finished = true;
+			pool.release(def, gzip);
+		}
+	}
+
+	private void writeIntLittleEndian(int value) throws IOException {
+		for (int i = 0; i < Integer.BYTES; i++) {
+			out.write((value >>> (i * BITS_PER_BYTE)) & BYTE_MASK);
+		}
+	}
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Test;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.jrestless.aws.gateway.handler.GatewayRequestObjectHandler;
+import com.jrestless.aws.gateway.io.DefaultGatewayRequest;
+import com.jrestless.aws.gateway.io.GatewayResponse;
+
+public class GatewayCompressionFeatureIntTest {
+
+	private static final String LARGE_TEXT = repeat('a', 2000);
+	private static final String SMALL_TEXT = repeat('a', 100);
+
+	private final Context context = mock(Context.class);
+
+	@Test
+	public void gzip_LargeText_ShouldCompressAndEncodeBase64() throws IOException {
+		GatewayResponse response = handle(new GatewayCompressionFeature(), "/text/large", "gzip");
+		assertEquals(200, response.getStatusCode());
+		assertTrue(response.isIsBase64Encoded());
+		assertEquals("gzip", response.getHeaders().get(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaders().get(HttpHeaders.VARY));
+		assertNull(response.getHeaders().get(HttpHeaders.CONTENT_LENGTH));
+		assertEquals(LARGE_TEXT, gunzip(response.getBody()));
+	}
+
+	@Test
+	public void deflate_LargeText_ShouldCompressAndEncodeBase64() throws IOException {
+		GatewayResponse response = handle(new GatewayCompressionFeature(), "/text/large", "deflate");
+		assertTrue(response.isIsBase64Encoded());
+		assertEquals("deflate", response.getHeaders().get(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(LARGE_TEXT, inflate(response.getBody()));
+	}
+
+	@Test
+	public void gzip_StreamingOutputWithUnknownSize_ShouldCompress() throws IOException {
+		GatewayResponse response = handle(new GatewayCompressionFeature(), "/text/streaming", "gzip");
+		assertEquals("gzip", response.getHeaders().get(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(SMALL_TEXT, gunzip(response.getBody()));
+	}
+
+	@Test
+	public void gzip_SmallText_ShouldNotCompress() {
+		GatewayResponse response = handle(new GatewayCompressionFeature(), "/text/small", "gzip");
+		assertFalse(response.isIsBase64Encoded());
+		assertNull(response.getHeaders().get(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaders().get(HttpHeaders.VARY));
+		assertEquals(SMALL_TEXT, response.getBody());
+	}
+
+	@Test
+	public void gzip_SmallTextAndZeroMinimumSize_ShouldCompress() throws IOException {
+		GatewayCompressionFeature feature = GatewayCompressionFeature.builder().setMinimumSize(0).build();
+		GatewayResponse response = handle(feature, "/text/small", "gzip");
+		assertEquals("gzip", response.getHeaders().get(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(SMALL_TEXT, gunzip(response.getBody()));
+	}
+
+	@Test
+	public void gzip_NonCompressibleMediaType_ShouldNotCompress() {
+		GatewayResponse response = handle(new GatewayCompressionFeature(), "/octet-stream", "gzip");
+		assertNull(response.getHeaders().get(HttpHeaders.CONTENT_ENCODING));
+		assertNull(response.getHeaders().get(HttpHeaders.VARY));
+		// binary but not compressed
+		assertEquals(LARGE_TEXT, new String(Base64.getDecoder().decode(response.getBody()), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void gzip_ConfiguredMediaType_ShouldCompress() throws IOException {
+		GatewayCompressionFeature feature = GatewayCompressionFeature.builder()
+				.setMediaTypes(Arrays.asList(MediaType.APPLICATION_OCTET_STREAM_TYPE))
+				.build();
+		GatewayResponse response = handle(feature, "/octet-stream", "gzip");
+		assertEquals("gzip", response.getHeaders().get(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(LARGE_TEXT, gunzip(response.getBody()));
+	}
+
+	@Test
+	public void noAcceptEncoding_LargeText_ShouldNotCompress() {
+		GatewayResponse response = handle(new GatewayCompressionFeature(), "/text/large", null);
+		assertNull(response.getHeaders().get(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(LARGE_TEXT, response.getBody());
+	}
+
+	@Test
+	public void gzipExcluded_LargeText_ShouldFallBackToDeflate() throws IOException {
+		GatewayResponse response = handle(new GatewayCompressionFeature(), "/text/large", "gzip;q=0, deflate");
+		assertEquals("deflate", response.getHeaders().get(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(LARGE_TEXT, inflate(response.getBody()));
+	}
+
+	@Test
+	public void identityOnly_LargeText_ShouldNotCompress() {
+		GatewayResponse response = handle(new GatewayCompressionFeature(), "/text/large", "identity");
+		assertNull(response.getHeaders().get(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(LARGE_TEXT, response.getBody());
+	}
+
+	@Test
+	public void gzip_MultipleRequests_ShouldReuseDeflaterProperly() throws IOException {
+		GatewayRequestObjectHandler handler = createHandler(new GatewayCompressionFeature());
+		for (int i = 0; i < 3; i++) {
+			assertEquals(LARGE_TEXT, gunzip(handler.handleRequest(createRequest("/text/large", "gzip"), context)
+					.getBody()));
+			assertEquals(LARGE_TEXT, inflate(handler.handleRequest(createRequest("/text/large", "deflate"), context)
+					.getBody()));
+		}
+	}
+
+	private GatewayResponse handle(GatewayCompressionFeature feature, String path, String acceptEncoding) {
+		return createHandler(feature).handleRequest(createRequest(path, acceptEncoding), context);
+	}
+
+	private static GatewayRequestObjectHandler createHandler(GatewayCompressionFeature feature) {
+		ResourceConfig config = new ResourceConfig();
+		config.register(GatewayFeature.class);
+		config.register(feature);
+		config.register(TestResource.class);
+		GatewayRequestObjectHandler handler = new GatewayRequestObjectHandler() { };
+		handler.init(config);
+		handler.start();
+		return handler;
+	}
+
+	private static DefaultGatewayRequest createRequest(String path, String acceptEncoding) {
+		DefaultGatewayRequest request = new DefaultGatewayRequest();
+		request.setHttpMethod("GET");
+		request.setPath(path);
+		if (acceptEncoding != null) {
+			Map<String, String> headers = new HashMap<>();
+			headers.put(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+			request.setHeaders(headers);
+		}
+		return request;
+	}
+
+	private static String gunzip(String base64Body) throws IOException {
+		return read(new GZIPInputStream(Base64.getDecoder().wrap(toStream(base64Body))));
+	}
+
+	private static String inflate(String base64Body) throws IOException {
+		return read(new InflaterInputStream(Base64.getDecoder().wrap(toStream(base64Body))));
+	}
+
+	private static InputStream toStream(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private static String read(InputStream in) throws IOException {
+		try (InputStream is = in) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			int read;
+			while ((read = is.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static String repeat(char c, int count) {
+		char[] chars = new char[count];
+		Arrays.fill(chars, c);
+		return new String(chars);
+	}
+
+	@Path("/")
+	public static class TestResource {
+		@GET
+		@Path("text/large")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String getLargeText() {
+			return LARGE_TEXT;
+		}
+
+		@GET
+		@Path("text/small")
+		@Produces(MediaType.TEXT_PLAIN)
+		public String getSmallText() {
+			return SMALL_TEXT;
+		}
+
+		@GET
+		@Path("text/streaming")
+		@Produces(MediaType.TEXT_PLAIN)
+		public StreamingOutput getStreamingText() {
+			return out -> out.write(SMALL_TEXT.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@GET
+		@Path("octet-stream")
+		@Produces(MediaType.APPLICATION_OCTET_STREAM)
+		public byte[] getOctetStream() {
+			return LARGE_TEXT.getBytes(StandardCharsets.UTF_8);
+		}
+	}
+}
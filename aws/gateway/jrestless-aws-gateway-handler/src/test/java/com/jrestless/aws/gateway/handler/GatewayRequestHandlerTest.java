@@ -18,24 +18,30 @@ package com.jrestless.aws.gateway.handler;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response.Status;
 
 import org.glassfish.hk2.api.ServiceLocator;
@@ -51,13 +57,17 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.jrestless.aws.AwsFeature;
 import com.jrestless.aws.gateway.GatewayFeature;
+import com.jrestless.aws.gateway.io.BlobSink;
 import com.jrestless.aws.gateway.io.DefaultGatewayRequest;
 import com.jrestless.aws.gateway.io.GatewayBinaryResponseCheckFilter;
+import com.jrestless.aws.gateway.io.GatewayBinaryWriteInterceptor;
 import com.jrestless.aws.gateway.io.GatewayRequest;
 import com.jrestless.aws.gateway.io.GatewayResponse;
 import com.jrestless.core.container.JRestlessHandlerContainer;
 import com.jrestless.core.container.handler.SimpleRequestHandler.SimpleResponseWriter;
+import com.jrestless.core.container.io.Base64DecodingInputStream;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.PresizableByteArrayOutputStream;
 
 public class GatewayRequestHandlerTest {
 
@@ -162,6 +172,35 @@ public class GatewayRequestHandlerTest {
 		assertEquals("abc", toString((ByteArrayInputStream) is));
 	}
 
+	@Test
+	public void createContainerRequest_Base64EncodedBodyGiven_ShouldDecodeBodyLazily() throws IOException {
+		GatewayRequestAndLambdaContext request = createMinimalRequest();
+		((DefaultGatewayRequest) request.getGatewayRequest()).setBody("YWJj");
+		((DefaultGatewayRequest) request.getGatewayRequest()).setIsBase64Encoded(true);
+		JRestlessContainerRequest containerRequest = gatewayHandler.createContainerRequest(request);
+		InputStream is = containerRequest.getEntityStream();
+		assertEquals(Base64DecodingInputStream.class, is.getClass());
+		byte[] decoded = new byte[3];
+		assertEquals(3, is.read(decoded));
+		assertEquals("abc", new String(decoded, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void createContainerRequest_HeadersGiven_ShouldNotCopyHeaders() {
+		Map<String, String> headers = new HashMap<>();
+		headers.put("a", "a0");
+		GatewayRequest gatewayRequest = mock(GatewayRequest.class);
+		when(gatewayRequest.getPath()).thenReturn("/");
+		when(gatewayRequest.getHttpMethod()).thenReturn("GET");
+		when(gatewayRequest.getHeaders()).thenReturn(headers);
+		JRestlessContainerRequest containerRequest = gatewayHandler
+				.createContainerRequest(new GatewayRequestAndLambdaContext(gatewayRequest, null));
+		assertEquals(Collections.singletonMap("a", singletonList("a0")), containerRequest.getHeaders());
+		// the container request must be a view on the gateway request's headers
+		headers.put("b", "b0");
+		assertEquals(singletonList("b0"), containerRequest.getHeaders().get("b"));
+	}
+
 	@Test
 	public void createContainerRequest_HttpMethodGiven_ShouldUseHttpMethod() {
 		GatewayRequestAndLambdaContext request = createMinimalRequest();
@@ -282,6 +321,78 @@ public class GatewayRequestHandlerTest {
 		assertFalse(responseWriter.getResponse().isIsBase64Encoded());
 	}
 
+	@Test
+	public void testResponseWriterFiltersInternalBinaryLengthHeader() throws IOException {
+		Map<String, List<String>> headers = new HashMap<>();
+		headers.put("a_k", Collections.singletonList("a_v"));
+		headers.put(GatewayBinaryWriteInterceptor.HEADER_BINARY_RESPONSE_LENGTH, Collections.singletonList("4"));
+		SimpleResponseWriter<GatewayResponse> responseWriter = gatewayHandler.createResponseWriter(null);
+		responseWriter.writeResponse(Status.OK, headers, new ByteArrayOutputStream());
+		assertEquals(ImmutableMap.of("a_k", "a_v"), responseWriter.getResponse().getHeaders());
+	}
+
+	@Test
+	public void testResponseWriterPresizesEntityOutputStreamByContentLength() {
+		SimpleResponseWriter<GatewayResponse> responseWriter = gatewayHandler.createResponseWriter(null);
+		PresizableByteArrayOutputStream out = (PresizableByteArrayOutputStream) responseWriter.getEntityOutputStream();
+		responseWriter.beforeEntityWrite(Status.OK, 1000, Collections.emptyMap());
+		assertTrue(out.capacity() >= 1000);
+	}
+
+	@Test
+	public void testResponseWriterPresizesEntityOutputStreamByBinaryLengthHeader() {
+		SimpleResponseWriter<GatewayResponse> responseWriter = gatewayHandler.createResponseWriter(null);
+		PresizableByteArrayOutputStream out = (PresizableByteArrayOutputStream) responseWriter.getEntityOutputStream();
+		responseWriter.beforeEntityWrite(Status.OK, -1, ImmutableMap.of(GatewayBinaryWriteInterceptor.HEADER_BINARY_RESPONSE_LENGTH,
+				Collections.singletonList("2000")));
+		assertTrue(out.capacity() >= 2000);
+	}
+
+	@Test
+	public void testResponseWriterDiscardsSpilledEntityOfFailedResponse() throws IOException {
+		BlobSink.Blob blob = mock(BlobSink.Blob.class);
+		when(blob.getOutputStream()).thenReturn(new ByteArrayOutputStream());
+		BlobSink blobSink = mock(BlobSink.class);
+		when(blobSink.open(any())).thenReturn(blob);
+		GatewayRequestHandler.ResponseWriter responseWriter = new GatewayRequestHandler.ResponseWriter(blobSink, 2,
+				Status.FOUND);
+		Map<String, List<String>> headers = ImmutableMap.of(HttpHeaders.CACHE_CONTROL, singletonList("no-cache"),
+				HttpHeaders.CONTENT_TYPE, singletonList("text/plain"));
+		OutputStream out = responseWriter.getEntityOutputStream();
+		responseWriter.beforeEntityWrite(Status.OK, -1, headers);
+		out.write("test".getBytes(StandardCharsets.UTF_8));
+		// the entity write failed => JRestlessContainerResponseWriter#failure
+		responseWriter.writeResponse(Status.INTERNAL_SERVER_ERROR, headers, out);
+		verify(blob).abort();
+		verify(blob, never()).complete();
+		GatewayResponse response = responseWriter.getResponse();
+		assertEquals(Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatusCode());
+		assertNull(response.getBody());
+		assertEquals(ImmutableMap.of(HttpHeaders.CACHE_CONTROL, "no-cache"), response.getHeaders());
+	}
+
+	@Test
+	public void testResponseWriterDoesNotSpillEntityOfUnsuccessfulResponse() throws IOException {
+		BlobSink blobSink = mock(BlobSink.class);
+		GatewayRequestHandler.ResponseWriter responseWriter = new GatewayRequestHandler.ResponseWriter(blobSink, 2,
+				Status.FOUND);
+		OutputStream out = responseWriter.getEntityOutputStream();
+		responseWriter.beforeEntityWrite(Status.NOT_FOUND, 4, Collections.emptyMap());
+		out.write("test".getBytes(StandardCharsets.UTF_8));
+		responseWriter.writeResponse(Status.NOT_FOUND, Collections.emptyMap(), out);
+		verifyZeroInteractions(blobSink);
+		assertEquals(Status.NOT_FOUND.getStatusCode(), responseWriter.getResponse().getStatusCode());
+		assertEquals("test", responseWriter.getResponse().getBody());
+	}
+
+	@Test
+	public void testResponseWriterIgnoresInvalidBinaryLengthHeader() {
+		assertEquals(-1, GatewayRequestHandler.ResponseWriter.getExpectedEntityLength(-1,
+				ImmutableMap.of(GatewayBinaryWriteInterceptor.HEADER_BINARY_RESPONSE_LENGTH,
+						Collections.singletonList("abc"))));
+		assertEquals(-1, GatewayRequestHandler.ResponseWriter.getExpectedEntityLength(-1, Collections.emptyMap()));
+	}
+
 	private GatewayRequestAndLambdaContext createMinimalRequest() {
 		DefaultGatewayRequest request = new DefaultGatewayRequest();
 		request.setPath("/");
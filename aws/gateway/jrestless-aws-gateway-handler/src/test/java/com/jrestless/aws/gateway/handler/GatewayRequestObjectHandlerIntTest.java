@@ -15,6 +15,7 @@
  */
 package com.jrestless.aws.gateway.handler;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -26,6 +27,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
@@ -35,11 +37,16 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.security.Principal;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Logger;
@@ -47,6 +54,7 @@ import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import javax.activation.DataSource;
+import javax.annotation.Priority;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.DELETE;
@@ -54,6 +62,7 @@ import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
+import javax.ws.rs.Priorities;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -61,6 +70,8 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
 
 import org.glassfish.hk2.utilities.Binder;
 import org.glassfish.jersey.logging.LoggingFeature;
@@ -68,7 +79,9 @@ import org.glassfish.jersey.message.GZipEncoder;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.server.filter.EncodingFilter;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 
 import com.amazonaws.services.lambda.runtime.Context;
@@ -78,9 +91,12 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
 import com.jrestless.aws.gateway.GatewayFeature;
+import com.jrestless.aws.gateway.io.BlobSink;
 import com.jrestless.aws.gateway.io.DefaultGatewayRequest;
 import com.jrestless.aws.gateway.io.DefaultGatewayRequestContext;
+import com.jrestless.aws.gateway.io.FileSystemBlobSink;
 import com.jrestless.aws.gateway.io.GatewayBinaryResponseCheckFilter;
+import com.jrestless.aws.gateway.io.GatewayBinaryWriteInterceptor;
 import com.jrestless.aws.gateway.io.GatewayIdentity;
 import com.jrestless.aws.gateway.io.GatewayRequest;
 import com.jrestless.aws.gateway.io.GatewayRequestContext;
@@ -88,6 +104,8 @@ import com.jrestless.aws.gateway.io.GatewayResponse;
 import com.jrestless.aws.security.CognitoUserPoolAuthorizerPrincipal;
 import com.jrestless.aws.security.CustomAuthorizerPrincipal;
 import com.jrestless.core.container.dpi.InstanceBinder;
+import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
 
 public class GatewayRequestObjectHandlerIntTest {
 
@@ -97,6 +115,9 @@ public class GatewayRequestObjectHandlerIntTest {
 	private TestService testService;
 	private Context context = mock(Context.class);
 
+	@Rule
+	public TemporaryFolder blobFolder = new TemporaryFolder();
+
 	@Before
 	public void setup() {
 		ResourceConfig config = new ResourceConfig();
@@ -113,6 +134,23 @@ public class GatewayRequestObjectHandlerIntTest {
 		handler.start();
 	}
 
+	@Test
+	public void warmUp_DefaultRequests_ShouldNotInvokeResources() {
+		handler.warmUp(2);
+		verifyZeroInteractions(testService);
+	}
+
+	@Test
+	public void warmUp_CustomRequests_ShouldInjectEmptyGatewayRequest() {
+		handler.warmUpRequests = Collections.singletonList(new DefaultJRestlessContainerRequest(URI.create("/"),
+				URI.create("/inject-gateway-request"), "PUT", new ByteArrayInputStream(new byte[0]),
+				Collections.emptyMap()));
+		handler.warmUp();
+		ArgumentCaptor<GatewayRequest> gatewayRequestCaptor = ArgumentCaptor.forClass(GatewayRequest.class);
+		verify(testService).injectGatewayRequest(gatewayRequestCaptor.capture());
+		assertNull(gatewayRequestCaptor.getValue().getPath());
+	}
+
 	@Test
 	public void testLambdaContextInjection() {
 		DefaultGatewayRequest request = new DefaultGatewayRequest();
@@ -221,6 +259,54 @@ public class GatewayRequestObjectHandlerIntTest {
 		testBase64Encoding("/data-source");
 	}
 
+	@Test
+	public void testBase64EncodingOfLargeByteArray() {
+		testLargeBase64Encoding("/large-byte-array");
+	}
+
+	@Test
+	public void testBase64EncodingOfLargeFile() {
+		testLargeBase64Encoding("/large-file");
+	}
+
+	@Test
+	public void testBase64EncodingOfLargeStreamingOutputWithContentLength() {
+		testLargeBase64Encoding("/large-streaming-output");
+	}
+
+	@Test
+	public void testBase64EncodingOfByteArrayAndFile_ShouldInvokeUserWriterInterceptors() {
+		ResourceConfig config = new ResourceConfig();
+		config.register(GatewayFeature.class);
+		config.register(new InstanceBinder.Builder().addInstance(testService, TestService.class).build());
+		config.register(TestResource.class);
+		config.register(AppendingWriterInterceptor.class);
+		handler = new GatewayRequestObjectHandlerImpl();
+		handler.init(config);
+		handler.start();
+		for (String path : new String[] { "/byte-array", "/file" }) {
+			DefaultGatewayRequest request = new DefaultGatewayRequest();
+			request.setHttpMethod("GET");
+			request.setPath(path);
+			GatewayResponse response = handler.handleRequest(request, context);
+			assertTrue(response.isIsBase64Encoded());
+			assertEquals(Base64.getEncoder().encodeToString("test!".getBytes()), response.getBody());
+		}
+	}
+
+	@Test
+	public void testBase64EncodingOfByteArrayWithContentEncoding() throws IOException {
+		DefaultGatewayRequest request = new DefaultGatewayRequest();
+		request.setHttpMethod("GET");
+		request.setPath("/large-byte-array");
+		request.setHeaders(ImmutableMap.of(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+		GatewayResponse response = handler.handleRequest(request, context);
+		assertTrue(response.isIsBase64Encoded());
+		byte[] bytes = Base64.getDecoder().decode(response.getBody());
+		InputStream unzipStream = new GZIPInputStream(new ByteArrayInputStream(bytes));
+		assertArrayEquals(TestResource.LARGE_ENTITY, toBytes(unzipStream));
+	}
+
 	@Test
 	public void testBase64EncodingWithContentEncoding() throws IOException {
 		DefaultGatewayRequest request = new DefaultGatewayRequest();
@@ -234,6 +320,81 @@ public class GatewayRequestObjectHandlerIntTest {
 		assertEquals("test", new String(toBytes(unzipStream)));
 	}
 
+	@Test
+	public void spill_LargeBinaryEntity_ShouldRedirectToDecodedBlob() throws IOException {
+		handler.blobSink = new FileSystemBlobSink(blobFolder.getRoot().toPath());
+		handler.spillThreshold = 1000;
+		DefaultGatewayRequest request = new DefaultGatewayRequest();
+		request.setHttpMethod("GET");
+		request.setPath("/large-byte-array");
+		GatewayResponse response = handler.handleRequest(request, context);
+		assertEquals(Status.FOUND.getStatusCode(), response.getStatusCode());
+		assertNull(response.getBody());
+		assertFalse(response.isIsBase64Encoded());
+		assertNull(response.getHeaders().get(HttpHeaders.CONTENT_TYPE));
+		URI location = URI.create(response.getHeaders().get(HttpHeaders.LOCATION));
+		assertArrayEquals(TestResource.LARGE_ENTITY, Files.readAllBytes(Paths.get(location)));
+	}
+
+	@Test
+	public void spill_LargeEntity_ShouldKeepNonEntityHeadersOnRedirect() throws IOException {
+		handler.blobSink = new FileSystemBlobSink(blobFolder.getRoot().toPath());
+		handler.spillThreshold = 1000;
+		DefaultGatewayRequest request = new DefaultGatewayRequest();
+		request.setHttpMethod("GET");
+		request.setPath("/large-byte-array-with-headers");
+		GatewayResponse response = handler.handleRequest(request, context);
+		assertEquals(Status.FOUND.getStatusCode(), response.getStatusCode());
+		assertEquals("max-age=60", response.getHeaders().get(HttpHeaders.CACHE_CONTROL));
+		assertTrue(response.getHeaders().get(HttpHeaders.VARY).startsWith("Accept"));
+		assertNull(response.getHeaders().get(HttpHeaders.CONTENT_TYPE));
+		assertNull(response.getHeaders().get(HttpHeaders.CONTENT_LENGTH));
+		URI location = URI.create(response.getHeaders().get(HttpHeaders.LOCATION));
+		assertArrayEquals(TestResource.LARGE_ENTITY, Files.readAllBytes(Paths.get(location)));
+	}
+
+	@Test
+	public void spill_LargeEntityOfUnsuccessfulResponse_ShouldNotSpill() throws IOException {
+		handler.blobSink = new FileSystemBlobSink(blobFolder.getRoot().toPath());
+		handler.spillThreshold = 1000;
+		DefaultGatewayRequest request = new DefaultGatewayRequest();
+		request.setHttpMethod("GET");
+		request.setPath("/large-not-found");
+		GatewayResponse response = handler.handleRequest(request, context);
+		assertEquals(Status.NOT_FOUND.getStatusCode(), response.getStatusCode());
+		assertTrue(response.isIsBase64Encoded());
+		assertArrayEquals(TestResource.LARGE_ENTITY, Base64.getDecoder().decode(response.getBody()));
+		assertEquals(0, blobFolder.getRoot().list().length);
+	}
+
+	@Test
+	public void spill_LargeEntityOfUnknownLengthOnPost_ShouldRedirectWithSeeOther() throws IOException {
+		handler.blobSink = new FileSystemBlobSink(blobFolder.getRoot().toPath(), URI.create("https://blobs/"));
+		handler.spillThreshold = 10;
+		ObjectMapper mapper = new ObjectMapper();
+		DefaultGatewayRequest request = new DefaultGatewayRequest();
+		request.setHttpMethod("POST");
+		request.setBody(mapper.writeValueAsString(new Entity("1234567890")));
+		request.setPath("/round-trip");
+		request.setHeaders(ImmutableMap.of(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON,
+				HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON));
+		GatewayResponse response = handler.handleRequest(request, context);
+		assertEquals(Status.SEE_OTHER.getStatusCode(), response.getStatusCode());
+		String location = response.getHeaders().get(HttpHeaders.LOCATION);
+		assertTrue(location.startsWith("https://blobs/"));
+		String fileName = location.substring("https://blobs/".length());
+		assertEquals(mapper.writeValueAsString(new Entity("1234567890")),
+				new String(Files.readAllBytes(blobFolder.getRoot().toPath().resolve(fileName)), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void spill_EntityBelowThreshold_ShouldNotSpill() {
+		handler.blobSink = new FileSystemBlobSink(blobFolder.getRoot().toPath());
+		handler.spillThreshold = 1000;
+		testBase64Encoding("/byte-array");
+		assertEquals(0, blobFolder.getRoot().list().length);
+	}
+
 	private byte[] toBytes(InputStream is) throws IOException {
 	    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
 	    int nRead;
@@ -255,6 +416,17 @@ public class GatewayRequestObjectHandlerIntTest {
 		assertFalse(response.getHeaders().containsKey(GatewayBinaryResponseCheckFilter.HEADER_BINARY_RESPONSE));
 	}
 
+	private void testLargeBase64Encoding(String path) {
+		DefaultGatewayRequest request = new DefaultGatewayRequest();
+		request.setHttpMethod("GET");
+		request.setPath(path);
+		GatewayResponse response = handler.handleRequest(request, context);
+		assertTrue(response.isIsBase64Encoded());
+		assertArrayEquals(TestResource.LARGE_ENTITY, Base64.getDecoder().decode(response.getBody()));
+		assertFalse(response.getHeaders().containsKey(GatewayBinaryResponseCheckFilter.HEADER_BINARY_RESPONSE));
+		assertFalse(response.getHeaders().containsKey(GatewayBinaryWriteInterceptor.HEADER_BINARY_RESPONSE_LENGTH));
+	}
+
 	@Test
 	public void testBase64Decoding() {
 		DefaultGatewayRequest request = new DefaultGatewayRequest();
@@ -338,6 +510,16 @@ public class GatewayRequestObjectHandlerIntTest {
 	@Singleton // singleton in order to test proxies
 	public static class TestResource {
 
+		static final byte[] LARGE_ENTITY = createLargeEntity();
+
+		private static byte[] createLargeEntity() {
+			byte[] entity = new byte[100_001];
+			for (int i = 0; i < entity.length; i++) {
+				entity[i] = (byte) (i * 31);
+			}
+			return entity;
+		}
+
 		@javax.ws.rs.core.Context
 		private Context lambdaContextMember;
 
@@ -421,6 +603,45 @@ public class GatewayRequestObjectHandlerIntTest {
 			return "test".getBytes();
 		}
 
+		@Path("/large-byte-array")
+		@GET
+		public byte[] getLargeByteArray() {
+			return LARGE_ENTITY;
+		}
+
+		@Path("/large-byte-array-with-headers")
+		@GET
+		public Response getLargeByteArrayWithHeaders() {
+			return Response.ok(LARGE_ENTITY)
+					.header(HttpHeaders.CACHE_CONTROL, "max-age=60")
+					.header(HttpHeaders.VARY, "Accept")
+					.build();
+		}
+
+		@Path("/large-not-found")
+		@GET
+		public Response getLargeNotFound() {
+			return Response.status(Status.NOT_FOUND).entity(LARGE_ENTITY).build();
+		}
+
+		@Path("/large-file")
+		@GET
+		public File getLargeFile() throws IOException {
+			File file = File.createTempFile("some-large-test-file", ".test");
+			file.deleteOnExit();
+			try (OutputStream os = new FileOutputStream(file)) {
+				os.write(LARGE_ENTITY);
+			}
+			return file;
+		}
+
+		@Path("/large-streaming-output")
+		@GET
+		public Response getLargeStreamingOutput() {
+			StreamingOutput entity = output -> output.write(LARGE_ENTITY);
+			return Response.ok(entity).header(HttpHeaders.CONTENT_LENGTH, LARGE_ENTITY.length).build();
+		}
+
 		@Path("/file")
 		@GET
 		public File getFile() throws IOException {
@@ -516,6 +737,36 @@ public class GatewayRequestObjectHandlerIntTest {
 		}
 	}
 
+	@Priority(Priorities.USER)
+	public static class AppendingWriterInterceptor implements WriterInterceptor {
+		@Override
+		public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+			context.proceed();
+			context.getOutputStream().write('!');
+		}
+	}
+
 	public static class GatewayRequestObjectHandlerImpl extends GatewayRequestObjectHandler {
+		private List<JRestlessContainerRequest> warmUpRequests;
+		private BlobSink blobSink;
+		private long spillThreshold = DEFAULT_RESPONSE_SPILL_THRESHOLD;
+
+		@Override
+		protected BlobSink getResponseBlobSink() {
+			return blobSink;
+		}
+
+		@Override
+		protected long getResponseSpillThreshold() {
+			return spillThreshold;
+		}
+
+		@Override
+		protected Collection<? extends JRestlessContainerRequest> createWarmUpRequests() {
+			if (warmUpRequests != null) {
+				return warmUpRequests;
+			}
+			return super.createWarmUpRequests();
+		}
 	}
 }
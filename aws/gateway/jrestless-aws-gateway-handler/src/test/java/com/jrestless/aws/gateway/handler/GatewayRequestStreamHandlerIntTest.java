@@ -0,0 +1,238 @@
+package com.jrestless.aws.gateway.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response.Status;
+
+import org.glassfish.hk2.utilities.Binder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.json.JSONException;
+import org.junit.Before;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.jrestless.aws.gateway.GatewayFeature;
+import com.jrestless.aws.gateway.io.DefaultGatewayRequest;
+import com.jrestless.aws.gateway.io.GatewayRequest;
+import com.jrestless.aws.gateway.io.GatewayResponse;
+import com.jrestless.core.container.dpi.InstanceBinder;
+import com.jrestless.core.container.io.Base64DecodingInputStream;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+
+public class GatewayRequestStreamHandlerIntTest {
+
+	private GatewayRequestStreamHandlerImpl handler;
+	private TestService testService;
+	private Context context = mock(Context.class);
+
+	@Before
+	public void setup() {
+		ResourceConfig config = new ResourceConfig();
+		config.register(GatewayFeature.class);
+		testService = mock(TestService.class);
+		Binder binder = new InstanceBinder.Builder().addInstance(testService, TestService.class).build();
+		config.register(binder);
+		config.register(TestResource.class);
+		handler = new GatewayRequestStreamHandlerImpl();
+		handler.init(config);
+		handler.start();
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException, JSONException {
+		String request = "{"
+				+ "\"httpMethod\": \"POST\","
+				+ "\"path\": \"/echo\","
+				+ "\"headers\": {\"Content-Type\": \"text/plain\", \"Accept\": \"text/plain\"},"
+				+ "\"body\": \"h\\u00e4llo \\\"w\\u00f6rld\\\"\""
+				+ "}";
+		String response = handle(request);
+		JSONAssert.assertEquals("{"
+				+ "\"statusCode\": 200,"
+				+ "\"headers\": {\"Content-Type\": \"text/plain\"},"
+				+ "\"body\": \"h\\u00e4llo \\\"w\\u00f6rld\\\"\","
+				+ "\"isBase64Encoded\": false"
+				+ "}", response, true);
+	}
+
+	@Test
+	public void testGatewayRequestInjection() throws IOException {
+		handle("{\"httpMethod\": \"GET\", \"path\": \"/inject-gateway-request\", \"resource\": \"/{proxy+}\"}");
+		verify(testService).injectedStringArg("/{proxy+}");
+	}
+
+	@Test
+	public void testBase64Decoding() throws IOException {
+		String body = Base64.getEncoder().encodeToString("test".getBytes());
+		handle("{\"httpMethod\": \"PUT\", \"path\": \"/binary-data\", \"isBase64Encoded\": true, \"body\": \"" + body
+				+ "\"}");
+		verify(testService).binaryData("test".getBytes());
+	}
+
+	@Test
+	public void testBase64DecodingReadInSmallChunks() throws IOException {
+		// the JDK 8 wrap decoder returns too many bytes for 7-byte reads of such bodies
+		for (int length : new int[] { 8, 29, 50 }) {
+			byte[] data = new byte[length];
+			for (int i = 0; i < length; i++) {
+				data[i] = (byte) (i * 31);
+			}
+			String body = Base64.getEncoder().encodeToString(data);
+			handle("{\"httpMethod\": \"PUT\", \"path\": \"/binary-data-chunked\", \"isBase64Encoded\": true, "
+					+ "\"body\": \"" + body + "\"}");
+			verify(testService).binaryData(data);
+		}
+	}
+
+	@Test
+	public void testBase64EncodedBodyGetsDecodedLazily() {
+		DefaultGatewayRequest request = new DefaultGatewayRequest();
+		request.setBody(Base64.getEncoder().encodeToString("test".getBytes()));
+		request.setIsBase64Encoded(true);
+		assertTrue(handler.createEntityStream(request) instanceof Base64DecodingInputStream);
+	}
+
+	@Test
+	public void testBase64Encoding() throws IOException, JSONException {
+		String response = handle("{\"httpMethod\": \"GET\", \"path\": \"/byte-array\"}");
+		JSONAssert.assertEquals("{"
+				+ "\"statusCode\": 200,"
+				+ "\"body\": \"" + Base64.getEncoder().encodeToString("test".getBytes()) + "\","
+				+ "\"isBase64Encoded\": true"
+				+ "}", response, false);
+	}
+
+	@Test
+	public void testLargeBodyRoundTrip() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100_000; i++) {
+			sb.append(i).append("\"ä\n\t");
+		}
+		String body = sb.toString();
+		ObjectMapper mapper = new ObjectMapper();
+		DefaultGatewayRequest request = new DefaultGatewayRequest();
+		request.setHttpMethod("POST");
+		request.setPath("/echo");
+		request.setHeaders(ImmutableMap.of("Content-Type", "text/plain"));
+		request.setBody(body);
+		for (int i = 0; i < 2; i++) {
+			JsonNode response = mapper.readTree(handle(mapper.writeValueAsString(request)));
+			assertEquals(body, response.get("body").asText());
+		}
+	}
+
+	@Test
+	public void testReplacedResponseOnSuccessGetsWritten() throws IOException, JSONException {
+		handler = new GatewayRequestStreamHandlerImpl() {
+			@Override
+			protected GatewayResponse onRequestSuccess(GatewayResponse response,
+					GatewayRequestAndLambdaContext request, JRestlessContainerRequest containerRequest) {
+				return new GatewayResponse("replaced", Collections.emptyMap(), Status.ACCEPTED, false);
+			}
+		};
+		handler.init(new ResourceConfig(TestResource.class).register(GatewayFeature.class));
+		handler.start();
+		String response = handle("{\"httpMethod\": \"GET\", \"path\": \"/byte-array\"}");
+		JSONAssert.assertEquals("{"
+				+ "\"statusCode\": 202,"
+				+ "\"headers\": {},"
+				+ "\"body\": \"replaced\","
+				+ "\"isBase64Encoded\": false"
+				+ "}", response, true);
+	}
+
+	@Test
+	public void testNullRequestCreates500() throws IOException, JSONException {
+		String response = handle("null");
+		JSONAssert.assertEquals("{"
+				+ "\"statusCode\": 500,"
+				+ "\"headers\": {},"
+				+ "\"body\": null,"
+				+ "\"isBase64Encoded\": false"
+				+ "}", response, true);
+	}
+
+	private String handle(String request) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		handler.handleRequest(new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8)), out, context);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	@Path("/")
+	public static class TestResource {
+
+		private TestService service;
+
+		@Inject
+		public TestResource(TestService service) {
+			this.service = service;
+		}
+
+		@Path("/echo")
+		@POST
+		@Produces(MediaType.TEXT_PLAIN)
+		public String echo(String entity) {
+			return entity;
+		}
+
+		@Path("/inject-gateway-request")
+		@GET
+		public void injectGatewayRequest(@javax.ws.rs.core.Context GatewayRequest request) {
+			service.injectedStringArg(request.getResource());
+		}
+
+		@Path("/binary-data")
+		@PUT
+		public void putBinary(byte[] in) {
+			service.binaryData(in);
+		}
+
+		@Path("/binary-data-chunked")
+		@PUT
+		public void putBinaryChunked(InputStream in) throws IOException {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] chunk = new byte[7];
+			int read;
+			while ((read = in.read(chunk)) != -1) {
+				out.write(chunk, 0, read);
+			}
+			service.binaryData(out.toByteArray());
+		}
+
+		@Path("/byte-array")
+		@GET
+		public byte[] getByteArray() {
+			return "test".getBytes();
+		}
+	}
+
+	public interface TestService {
+		void injectedStringArg(String arg);
+		void binaryData(byte[] data);
+	}
+
+	public static class GatewayRequestStreamHandlerImpl extends GatewayRequestStreamHandler {
+	}
+}
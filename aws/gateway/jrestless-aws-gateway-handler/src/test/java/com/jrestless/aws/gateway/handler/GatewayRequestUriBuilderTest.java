@@ -0,0 +1,97 @@
+package com.jrestless.aws.gateway.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class GatewayRequestUriBuilderTest {
+
+	@Test
+	public void build_NoQueryParamsGiven_ShouldReturnPath() {
+		GatewayRequestUriBuilder builder = new GatewayRequestUriBuilder(10);
+		assertEquals(URI.create("/a/b"), builder.build("/a/b", Collections.emptyMap()));
+		assertEquals(URI.create("/a/c"), builder.build("/a/c", null));
+	}
+
+	@Test
+	public void build_NoQueryParamsGiven_ShouldCacheUri() {
+		GatewayRequestUriBuilder builder = new GatewayRequestUriBuilder(10);
+		URI uri = builder.build("/a", Collections.emptyMap());
+		assertSame(uri, builder.build("/a", Collections.emptyMap()));
+		assertEquals(1, builder.getCacheSize());
+	}
+
+	@Test
+	public void build_QueryParamsGiven_ShouldNotCacheUri() {
+		GatewayRequestUriBuilder builder = new GatewayRequestUriBuilder(10);
+		URI uri = builder.build("/a", ImmutableMap.of("k", "v"));
+		assertNotSame(uri, builder.build("/a", ImmutableMap.of("k", "v")));
+		assertEquals(0, builder.getCacheSize());
+	}
+
+	@Test
+	public void build_MorePathsThanCacheSizeGiven_ShouldEvictLeastRecentlyUsed() {
+		GatewayRequestUriBuilder builder = new GatewayRequestUriBuilder(2);
+		URI a = builder.build("/a", null);
+		URI b = builder.build("/b", null);
+		builder.build("/a", null);
+		builder.build("/c", null);
+		assertEquals(2, builder.getCacheSize());
+		assertSame(a, builder.build("/a", null));
+		assertNotSame(b, builder.build("/b", null));
+	}
+
+	@Test
+	public void build_ZeroCacheSizeGiven_ShouldNotCache() {
+		GatewayRequestUriBuilder builder = new GatewayRequestUriBuilder(0);
+		URI uri = builder.build("/a", null);
+		assertNotSame(uri, builder.build("/a", null));
+		assertEquals(0, builder.getCacheSize());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void init_NegativeCacheSizeGiven_ShouldThrowIae() {
+		new GatewayRequestUriBuilder(-1);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void build_NullPathGiven_ShouldThrowNpe() {
+		new GatewayRequestUriBuilder(1).build(null, null);
+	}
+
+	@Test
+	public void build_QueryParamsGiven_ShouldAppendEncodedQueryParams() {
+		Map<String, String> queryParams = new LinkedHashMap<>();
+		queryParams.put("a", "0");
+		queryParams.put("b k", "ä&=?/+");
+		assertEquals(URI.create("/a?a=0&b+k=%C3%A4%26%3D%3F%2F%2B"),
+				new GatewayRequestUriBuilder(1).build("/a", queryParams));
+	}
+
+	@Test
+	public void encodeQueryParam_SafeCharsGiven_ShouldReturnSameInstance() {
+		String param = "azAZ09.-*_";
+		assertSame(param, GatewayRequestUriBuilder.encodeQueryParam(param));
+	}
+
+	@Test
+	public void encodeQueryParam_AnyCharGiven_ShouldEncodeLikeUrlEncoder() throws UnsupportedEncodingException {
+		for (char c = 0; c < 0x800; c++) {
+			if (!Character.isSurrogate(c)) {
+				String param = "a" + c;
+				assertEquals(URLEncoder.encode(param, "UTF-8"), GatewayRequestUriBuilder.encodeQueryParam(param));
+			}
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.jrestless.aws.gateway.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class Base64DecodingOutputStreamTest {
+
+	@Test
+	public void write_VariousLengths_ShouldDecode() throws IOException {
+		Random random = new Random(42);
+		for (int length = 0; length < 20_000; length += 1 + length / 3) {
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+			assertArrayEquals(data, decode(Base64.getEncoder().encode(data)));
+			assertArrayEquals(data, decode(Base64.getEncoder().withoutPadding().encode(data)));
+		}
+	}
+
+	@Test
+	public void write_SingleBytes_ShouldDecode() throws IOException {
+		byte[] encoded = Base64.getEncoder().encode("test!".getBytes(StandardCharsets.UTF_8));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream decodingOut = new Base64DecodingOutputStream(out)) {
+			for (byte b : encoded) {
+				decodingOut.write(b);
+			}
+		}
+		assertArrayEquals("test!".getBytes(StandardCharsets.UTF_8), out.toByteArray());
+	}
+
+	@Test(expected = IOException.class)
+	public void write_IllegalCharacter_ShouldThrowIoe() throws IOException {
+		decode("dGV\nzdA==".getBytes(StandardCharsets.US_ASCII));
+	}
+
+	@Test(expected = IOException.class)
+	public void write_DataAfterPadding_ShouldThrowIoe() throws IOException {
+		decode("dGU=dA==".getBytes(StandardCharsets.US_ASCII));
+	}
+
+	@Test(expected = IOException.class)
+	public void write_TooMuchPadding_ShouldThrowIoe() throws IOException {
+		decode("dGV===".getBytes(StandardCharsets.US_ASCII));
+	}
+
+	@Test(expected = IOException.class)
+	public void close_SingleTrailingCharacter_ShouldThrowIoe() throws IOException {
+		decode("dGVzd".getBytes(StandardCharsets.US_ASCII));
+	}
+
+	@Test
+	public void close_Twice_ShouldCloseUnderlyingStreamOnce() throws IOException {
+		OutputStream out = mock(OutputStream.class);
+		OutputStream decodingOut = new Base64DecodingOutputStream(out);
+		decodingOut.close();
+		decodingOut.close();
+		verify(out, times(1)).close();
+	}
+
+	private static byte[] decode(byte[] encoded) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream decodingOut = new Base64DecodingOutputStream(out)) {
+			decodingOut.write(encoded);
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,89 @@
+package com.jrestless.aws.gateway.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class Base64EncodingOutputStreamTest {
+
+	@Test
+	public void write_VariousLengths_ShouldEncode() throws IOException {
+		Random random = new Random(42);
+		for (int length = 0; length < 20_000; length += 1 + length / 3) {
+			byte[] data = new byte[length];
+			random.nextBytes(data);
+			assertArrayEquals(Base64.getEncoder().encode(data), encode(data, 0, length));
+		}
+	}
+
+	@Test
+	public void write_VariousChunkSizes_ShouldEncode() throws IOException {
+		byte[] data = new byte[10_000];
+		new Random(42).nextBytes(data);
+		for (int chunkSize = 1; chunkSize < data.length; chunkSize = chunkSize * 3 + 1) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (OutputStream encodingOut = new Base64EncodingOutputStream(out)) {
+				for (int off = 0; off < data.length; off += chunkSize) {
+					encodingOut.write(data, off, Math.min(chunkSize, data.length - off));
+				}
+			}
+			assertArrayEquals(Base64.getEncoder().encode(data), out.toByteArray());
+		}
+	}
+
+	@Test
+	public void write_SingleBytes_ShouldEncode() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream encodingOut = new Base64EncodingOutputStream(out)) {
+			for (byte b : "test!".getBytes(StandardCharsets.UTF_8)) {
+				encodingOut.write(b);
+			}
+		}
+		assertEquals(Base64.getEncoder().encodeToString("test!".getBytes(StandardCharsets.UTF_8)),
+				out.toString("US-ASCII"));
+	}
+
+	@Test
+	public void flush_IncompleteQuantum_ShouldNotPad() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		OutputStream encodingOut = new Base64EncodingOutputStream(out);
+		encodingOut.write("te".getBytes(StandardCharsets.UTF_8));
+		encodingOut.flush();
+		encodingOut.write("st".getBytes(StandardCharsets.UTF_8));
+		encodingOut.close();
+		assertEquals("dGVzdA==", out.toString("US-ASCII"));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void write_InvalidRange_ShouldThrowIoobe() throws IOException {
+		new Base64EncodingOutputStream(new ByteArrayOutputStream()).write(new byte[2], 1, 2);
+	}
+
+	@Test
+	public void close_Twice_ShouldCloseUnderlyingStreamOnce() throws IOException {
+		OutputStream out = mock(OutputStream.class);
+		OutputStream encodingOut = new Base64EncodingOutputStream(out);
+		encodingOut.close();
+		encodingOut.close();
+		verify(out, times(1)).close();
+	}
+
+	private static byte[] encode(byte[] data, int off, int len) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream encodingOut = new Base64EncodingOutputStream(out)) {
+			encodingOut.write(data, off, len);
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,211 @@
+package com.jrestless.aws.gateway.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class BlobSpillingOutputStreamTest {
+
+	private static final URI LOCATION = URI.create("https://blobs/123");
+
+	private BlobSink blobSink;
+	private BlobSink.Blob blob;
+	private ByteArrayOutputStream blobContent;
+
+	@Before
+	public void setup() throws IOException {
+		blobContent = new ByteArrayOutputStream();
+		blob = mock(BlobSink.Blob.class);
+		when(blob.getOutputStream()).thenReturn(blobContent);
+		when(blob.complete()).thenReturn(LOCATION);
+		blobSink = mock(BlobSink.class);
+		when(blobSink.open(any())).thenReturn(blob);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void init_NegativeThreshold_ShouldThrowIae() {
+		new BlobSpillingOutputStream(blobSink, -1);
+	}
+
+	@Test
+	public void write_BelowThreshold_ShouldBuffer() throws IOException {
+		BlobSpillingOutputStream out = new BlobSpillingOutputStream(blobSink, 4);
+		out.write("te".getBytes(StandardCharsets.UTF_8));
+		out.write('s');
+		out.write('t');
+		out.close();
+		assertFalse(out.isSpilled());
+		assertNull(out.getLocation());
+		assertEquals("test", out.toString(StandardCharsets.UTF_8));
+		verifyZeroInteractions(blobSink);
+	}
+
+	@Test
+	public void write_AboveThreshold_ShouldSpillBufferedAndRemainingBytes() throws IOException {
+		BlobSpillingOutputStream out = new BlobSpillingOutputStream(blobSink, 3);
+		out.write("te".getBytes(StandardCharsets.UTF_8));
+		out.write("st".getBytes(StandardCharsets.UTF_8));
+		out.write('!');
+		assertTrue(out.isSpilled());
+		verify(blob, never()).complete();
+		out.close();
+		assertEquals("test!", blobContent.toString("UTF-8"));
+		assertEquals(LOCATION, out.getLocation());
+	}
+
+	@Test
+	public void write_SingleByteAboveThreshold_ShouldSpill() throws IOException {
+		BlobSpillingOutputStream out = new BlobSpillingOutputStream(blobSink, 0);
+		out.write('t');
+		out.close();
+		assertEquals("t", blobContent.toString("UTF-8"));
+	}
+
+	@Test
+	public void prepare_ExpectedLengthAboveThreshold_ShouldSpillOnFirstWrite() throws IOException {
+		Map<String, String> headers = Collections.singletonMap("Content-Type", "text/plain");
+		BlobSpillingOutputStream out = new BlobSpillingOutputStream(blobSink, 10);
+		out.prepare(headers, false, 11);
+		verifyZeroInteractions(blobSink);
+		out.write('t');
+		assertTrue(out.isSpilled());
+		verify(blobSink).open(headers);
+	}
+
+	@Test
+	public void prepare_Base64EncodedEntity_ShouldSpillDecodedEntity() throws IOException {
+		byte[] data = { 0, 1, 2, (byte) 0xFF, 4 };
+		BlobSpillingOutputStream out = new BlobSpillingOutputStream(blobSink, 2);
+		out.prepare(Collections.emptyMap(), true, -1);
+		out.write(Base64.getEncoder().encode(data));
+		out.close();
+		assertArrayEquals(data, blobContent.toByteArray());
+	}
+
+	@Test
+	public void close_Twice_ShouldCompleteBlobOnce() throws IOException {
+		BlobSpillingOutputStream out = new BlobSpillingOutputStream(blobSink, 0);
+		out.write('t');
+		out.close();
+		out.close();
+		verify(blob).complete();
+	}
+
+	@Test
+	public void close_BlobCompletionFails_ShouldAbortBlob() throws IOException {
+		IOException completionFailure = new IOException();
+		when(blob.complete()).thenThrow(completionFailure);
+		BlobSpillingOutputStream out = new BlobSpillingOutputStream(blobSink, 0);
+		out.write('t');
+		try {
+			out.close();
+			fail("expected an IOException");
+		} catch (IOException e) {
+			assertSame(completionFailure, e);
+		}
+		verify(blob).abort();
+		assertNull(out.getLocation());
+		// a later abort must neither fail nor abort the blob twice
+		out.abort();
+		verify(blob).abort();
+	}
+
+	@Test
+	public void close_BlobStreamCloseFails_ShouldAbortBlobWithoutCompletingIt() throws IOException {
+		OutputStream failingStream = mock(OutputStream.class);
+		doThrow(new IOException()).when(failingStream).close();
+		when(blob.getOutputStream()).thenReturn(failingStream);
+		BlobSpillingOutputStream out = new BlobSpillingOutputStream(blobSink, 0);
+		out.write('t');
+		try {
+			out.close();
+			fail("expected an IOException");
+		} catch (IOException e) {
+			// expected
+		}
+		verify(blob).abort();
+		verify(blob, never()).complete();
+	}
+
+	@Test
+	public void abort_Spilled_ShouldDiscardBlob() throws IOException {
+		BlobSpillingOutputStream out = new BlobSpillingOutputStream(blobSink, 0);
+		out.write('t');
+		out.abort();
+		verify(blob).abort();
+		verify(blob, never()).complete();
+		assertNull(out.getLocation());
+	}
+
+	@Test
+	public void abort_NotSpilled_ShouldNotTouchBlobSink() throws IOException {
+		BlobSpillingOutputStream out = new BlobSpillingOutputStream(blobSink, 10);
+		out.write('t');
+		out.abort();
+		verifyZeroInteractions(blobSink);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void abort_Closed_ShouldThrowIse() throws IOException {
+		BlobSpillingOutputStream out = new BlobSpillingOutputStream(blobSink, 0);
+		out.write('t');
+		out.close();
+		out.abort();
+	}
+
+	@Test
+	public void disableSpilling_AboveThreshold_ShouldBuffer() throws IOException {
+		BlobSpillingOutputStream out = new BlobSpillingOutputStream(blobSink, 2);
+		out.disableSpilling();
+		out.prepare(Collections.emptyMap(), false, 4);
+		out.write("test".getBytes(StandardCharsets.UTF_8));
+		out.close();
+		assertFalse(out.isSpilled());
+		assertEquals("test", out.toString(StandardCharsets.UTF_8));
+		verifyZeroInteractions(blobSink);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void disableSpilling_Spilled_ShouldThrowIse() throws IOException {
+		BlobSpillingOutputStream out = new BlobSpillingOutputStream(blobSink, 0);
+		out.write('t');
+		out.disableSpilling();
+	}
+
+	@Test(expected = IOException.class)
+	public void write_Closed_ShouldThrowIoe() throws IOException {
+		BlobSpillingOutputStream out = new BlobSpillingOutputStream(blobSink, 10);
+		out.close();
+		out.write('t');
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void toString_Spilled_ShouldThrowIse() throws IOException {
+		BlobSpillingOutputStream out = new BlobSpillingOutputStream(blobSink, 0);
+		out.write('t');
+		out.toString(StandardCharsets.UTF_8);
+	}
+}
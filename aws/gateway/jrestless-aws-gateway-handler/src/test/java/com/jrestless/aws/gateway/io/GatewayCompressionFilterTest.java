@@ -0,0 +1,76 @@
+package com.jrestless.aws.gateway.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class GatewayCompressionFilterTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void init_NegativeMinimumSize_ShouldThrowIae() {
+		new GatewayCompressionFilter(-1, Collections.emptyList());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullMediaTypes_ShouldThrowNpe() {
+		new GatewayCompressionFilter(0, null);
+	}
+
+	@Test
+	public void selectEncoding_NullGiven_ShouldReturnNull() {
+		assertNull(GatewayCompressionFilter.selectEncoding(null));
+	}
+
+	@Test
+	public void selectEncoding_UnsupportedOnly_ShouldReturnNull() {
+		assertNull(GatewayCompressionFilter.selectEncoding("identity, br"));
+	}
+
+	@Test
+	public void selectEncoding_GzipAndDeflate_ShouldPreferGzip() {
+		assertEquals("gzip", GatewayCompressionFilter.selectEncoding("deflate, gzip"));
+	}
+
+	@Test
+	public void selectEncoding_DeflateWithHigherQuality_ShouldReturnDeflate() {
+		assertEquals("deflate", GatewayCompressionFilter.selectEncoding("gzip;q=0.5, deflate;q=0.8"));
+	}
+
+	@Test
+	public void selectEncoding_CaseInsensitiveWithWhitespace_ShouldReturnGzip() {
+		assertEquals("gzip", GatewayCompressionFilter.selectEncoding(" GZIP ; Q = 0.1 "));
+	}
+
+	@Test
+	public void selectEncoding_XGzip_ShouldReturnGzip() {
+		assertEquals("gzip", GatewayCompressionFilter.selectEncoding("x-gzip"));
+	}
+
+	@Test
+	public void selectEncoding_Wildcard_ShouldReturnGzip() {
+		assertEquals("gzip", GatewayCompressionFilter.selectEncoding("*"));
+	}
+
+	@Test
+	public void selectEncoding_WildcardWithExcludedGzip_ShouldReturnDeflate() {
+		assertEquals("deflate", GatewayCompressionFilter.selectEncoding("gzip;q=0, *"));
+	}
+
+	@Test
+	public void selectEncoding_AllExcluded_ShouldReturnNull() {
+		assertNull(GatewayCompressionFilter.selectEncoding("gzip;q=0, deflate;q=0"));
+	}
+
+	@Test
+	public void selectEncoding_WildcardExcluded_ShouldReturnNull() {
+		assertNull(GatewayCompressionFilter.selectEncoding("*;q=0"));
+	}
+
+	@Test
+	public void selectEncoding_InvalidQuality_ShouldExclude() {
+		assertNull(GatewayCompressionFilter.selectEncoding("gzip;q=abc"));
+	}
+}
@@ -0,0 +1,130 @@
+package com.jrestless.aws.gateway.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public class GatewayRequestJsonReaderTest {
+
+	private final GatewayRequestJsonReader reader = new GatewayRequestJsonReader();
+
+	@Test
+	public void read_FullRequestGiven_ShouldReadSameAsObjectMapper() throws IOException {
+		String json = "{"
+				+ "\"resource\": \"/{proxy+}\","
+				+ "\"path\": \"/a/b\","
+				+ "\"httpMethod\": \"POST\","
+				+ "\"headers\": {\"Accept\": \"*/*\", \"X-Null\": null},"
+				+ "\"queryStringParameters\": {\"q\": \"1\"},"
+				+ "\"pathParameters\": {\"proxy\": \"a/b\"},"
+				+ "\"stageVariables\": null,"
+				+ "\"requestContext\": {"
+				+ "  \"accountId\": \"acc\","
+				+ "  \"resourceId\": \"res\","
+				+ "  \"stage\": \"dev\","
+				+ "  \"requestId\": \"req\","
+				+ "  \"identity\": {"
+				+ "    \"cognitoIdentityPoolId\": \"cipi\","
+				+ "    \"accountId\": \"iacc\","
+				+ "    \"cognitoIdentityId\": \"cii\","
+				+ "    \"caller\": \"caller\","
+				+ "    \"apiKey\": \"key\","
+				+ "    \"sourceIp\": \"1.2.3.4\","
+				+ "    \"cognitoAuthenticationType\": \"cat\","
+				+ "    \"cognitoAuthenticationProvider\": \"cap\","
+				+ "    \"userArn\": \"arn\","
+				+ "    \"userAgent\": \"agent\","
+				+ "    \"user\": \"user\""
+				+ "  },"
+				+ "  \"resourcePath\": \"/{proxy+}\","
+				+ "  \"httpMethod\": \"POST\","
+				+ "  \"apiId\": \"api\","
+				+ "  \"authorizer\": {\"principalId\": \"p\", \"claims\": {\"sub\": \"s\", \"n\": 1, \"l\": [true, 1.5]}}"
+				+ "},"
+				+ "\"body\": \"{\\\"a\\\": 1}\","
+				+ "\"isBase64Encoded\": true"
+				+ "}";
+		DefaultGatewayRequest expected = new ObjectMapper().readValue(json, DefaultGatewayRequest.class);
+		DefaultGatewayRequest actual = read(json);
+		assertEquals(expected, actual);
+		assertEquals("{\"a\": 1}", actual.getBody());
+		assertTrue(actual.isBase64Encoded());
+		assertEquals(Collections.emptyMap(), actual.getStageVariables());
+		assertEquals("user", actual.getRequestContext().getIdentity().getUser());
+		@SuppressWarnings("unchecked")
+		Map<String, Object> claims = (Map<String, Object>) actual.getRequestContext().getAuthorizer().get("claims");
+		assertEquals(ImmutableMap.of("sub", "s", "n", 1, "l", ImmutableList.of(true, 1.5)), claims);
+	}
+
+	@Test
+	public void read_UnknownPropertiesGiven_ShouldSkipThem() throws IOException {
+		DefaultGatewayRequest request = read("{\"unknown\": {\"a\": [1, {\"b\": 2}]}, \"path\": \"/\","
+				+ "\"requestContext\": {\"unknown\": [], \"identity\": {\"unknown\": {}}}}");
+		assertEquals("/", request.getPath());
+		assertNull(request.getRequestContext().getIdentity().getUser());
+	}
+
+	@Test
+	public void read_MinimalRequestGiven_ShouldUseDefaults() throws IOException {
+		DefaultGatewayRequest request = read("{}");
+		assertEquals(new DefaultGatewayRequest(), request);
+		assertFalse(request.isBase64Encoded());
+	}
+
+	@Test
+	public void read_NullGiven_ShouldReturnNull() throws IOException {
+		assertNull(read("null"));
+	}
+
+	@Test
+	public void read_EmptyStreamGiven_ShouldReturnNull() throws IOException {
+		assertNull(read(""));
+	}
+
+	@Test(expected = JsonParseException.class)
+	public void read_NonObjectGiven_ShouldThrowJpe() throws IOException {
+		read("[]");
+	}
+
+	@Test(expected = JsonParseException.class)
+	public void read_NonScalarHeaderValueGiven_ShouldThrowJpe() throws IOException {
+		read("{\"headers\": {\"a\": []}}");
+	}
+
+	@Test
+	public void read_StreamGiven_ShouldNotCloseStream() throws IOException {
+		boolean[] closed = new boolean[1];
+		InputStream is = new ByteArrayInputStream("{}".getBytes()) {
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+		};
+		reader.read(is);
+		assertFalse(closed[0]);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullJsonFactoryGiven_ShouldThrowNpe() {
+		new GatewayRequestJsonReader(null);
+	}
+
+	private DefaultGatewayRequest read(String json) throws IOException {
+		return reader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+	}
+}
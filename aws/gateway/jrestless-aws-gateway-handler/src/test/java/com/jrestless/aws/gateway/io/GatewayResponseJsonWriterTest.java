@@ -0,0 +1,73 @@
+package com.jrestless.aws.gateway.io;
+
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import javax.ws.rs.core.Response.Status;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+
+public class GatewayResponseJsonWriterTest {
+
+	private final GatewayResponseJsonWriter writer = new GatewayResponseJsonWriter();
+
+	@Test
+	public void write_ResponseGiven_ShouldWriteSameAsObjectMapper() throws IOException, JSONException {
+		GatewayResponse response = new GatewayResponse("bödy \"quoted\"\n",
+				ImmutableMap.of("a", "0", "b", "1"), Status.CREATED, true);
+		JSONAssert.assertEquals(new ObjectMapper().writeValueAsString(response), write(response), true);
+	}
+
+	@Test
+	public void write_NullBodyGiven_ShouldWriteNull() throws IOException, JSONException {
+		GatewayResponse response = new GatewayResponse(null, Collections.emptyMap(), Status.OK, false);
+		JSONAssert.assertEquals(
+				"{\"statusCode\": 200, \"headers\": {}, \"body\": null, \"isBase64Encoded\": false}",
+				write(response), true);
+	}
+
+	@Test
+	public void write_JsonEscapedBodyGiven_ShouldWriteEscapedBodyInsteadOfBody() throws IOException, JSONException {
+		GatewayResponse response = new GatewayResponse("ignored", ImmutableMap.of("a", "0"), Status.OK, false);
+		ByteArrayOutputStream escapedBody = new ByteArrayOutputStream();
+		escapedBody.write("b\\\"ö\\n".getBytes(StandardCharsets.UTF_8));
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		writer.write(response, escapedBody, os);
+		JSONAssert.assertEquals(
+				"{\"statusCode\": 200, \"headers\": {\"a\": \"0\"}, \"body\": \"b\\\"ö\\n\", \"isBase64Encoded\": false}",
+				new String(os.toByteArray(), StandardCharsets.UTF_8), true);
+	}
+
+	@Test
+	public void write_StreamGiven_ShouldNotCloseStream() throws IOException {
+		boolean[] closed = new boolean[1];
+		ByteArrayOutputStream os = new ByteArrayOutputStream() {
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+		};
+		writer.write(new GatewayResponse(null, Collections.emptyMap(), Status.OK, false), os);
+		assertFalse(closed[0]);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullJsonFactoryGiven_ShouldThrowNpe() {
+		new GatewayResponseJsonWriter(null);
+	}
+
+	private String write(GatewayResponse response) throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		writer.write(response, os);
+		return new String(os.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,76 @@
+package com.jrestless.aws.gateway.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class JsonStringEscapingOutputStreamTest {
+
+	@Test
+	public void write_UnescapedCharsGiven_ShouldPassThrough() throws IOException {
+		assertEquals("abc/äö€😀", escape("abc/äö€😀"));
+	}
+
+	@Test
+	public void write_SpecialCharsGiven_ShouldEscape() throws IOException {
+		assertEquals("\\\"a\\\\b\\nc\\rd\\te\\bf\\fg\\u0000\\u001F", escape("\"a\\b\nc\rd\te\bf\fg\u0000\u001f"));
+	}
+
+	@Test
+	public void write_AllCharsGiven_ShouldEscapeLikeJackson() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (char c = 0; c < 0x3000; c++) {
+			if (!Character.isSurrogate(c)) {
+				sb.append(c);
+			}
+		}
+		String value = sb.toString();
+		String expected = new ObjectMapper().writeValueAsString(value);
+		assertEquals(expected.substring(1, expected.length() - 1), escape(value));
+	}
+
+	@Test
+	public void write_SingleBytesGiven_ShouldEscape() throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (OutputStream os = new JsonStringEscapingOutputStream(baos)) {
+			for (byte b : "a\"ä\n".getBytes(StandardCharsets.UTF_8)) {
+				os.write(b);
+			}
+		}
+		assertEquals("a\\\"ä\\n", new String(baos.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void write_OffsetGiven_ShouldEscapeRangeOnly() throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (OutputStream os = new JsonStringEscapingOutputStream(baos)) {
+			os.write("\"a\"b\"".getBytes(StandardCharsets.UTF_8), 1, 3);
+		}
+		assertEquals("a\\\"b", new String(baos.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void write_InvalidRangeGiven_ShouldThrowIoobe() throws IOException {
+		new JsonStringEscapingOutputStream(new ByteArrayOutputStream()).write(new byte[1], 1, 1);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullStreamGiven_ShouldThrowNpe() {
+		new JsonStringEscapingOutputStream(null);
+	}
+
+	private static String escape(String value) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (OutputStream os = new JsonStringEscapingOutputStream(baos)) {
+			os.write(value.getBytes(StandardCharsets.UTF_8));
+		}
+		return new String(baos.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
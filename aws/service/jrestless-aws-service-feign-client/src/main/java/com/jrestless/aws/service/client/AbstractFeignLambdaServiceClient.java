@@ -18,14 +18,18 @@ package com.jrestless.aws.service.client;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import com.jrestless.aws.service.io.DefaultServiceRequest;
+import com.jrestless.aws.service.io.DefaultServiceResponse;
 import com.jrestless.aws.service.io.ServiceRequest;
 import com.jrestless.aws.service.io.ServiceResponse;
+import com.jrestless.core.http.HeaderMap;
 
 import feign.Client;
 
@@ -38,24 +42,81 @@ import feign.Client;
  */
 public abstract class AbstractFeignLambdaServiceClient implements Client {
 
+	private static final int ACCEPTED_STATUS_CODE = 202;
+	/**
+	 * The synthetic response to event invocations that have been queued.
+	 */
+	static final ServiceResponse EVENT_ACCEPTED_RESPONSE = new DefaultServiceResponse(null,
+			Collections.emptyMap(), ACCEPTED_STATUS_CODE, "Accepted");
+
+	private final boolean base64EncodeBodies;
+
+	protected AbstractFeignLambdaServiceClient() {
+		this(false);
+	}
+
+	/**
+	 * @param base64EncodeBodies
+	 *            whether to send request bodies Base64 encoded (see
+	 *            {@link ServiceRequest#isBase64Encoded()}) instead of decoding
+	 *            them as UTF-8. This is binary-safe, requires no charset
+	 *            conversions and makes the service respond with Base64
+	 *            encoded bodies, too - but the service must support it.
+	 */
+	protected AbstractFeignLambdaServiceClient(boolean base64EncodeBodies) {
+		this.base64EncodeBodies = base64EncodeBodies;
+	}
+
+	boolean isBase64EncodeBodies() {
+		return base64EncodeBodies;
+	}
+
 	protected abstract ServiceResponse execute(ServiceRequest serviceRequest, feign.Request.Options feignOptions);
 
+	/**
+	 * Sends a request marked by {@link LambdaEventInvocationContract} as
+	 * asynchronous event invocation. The marker has been removed from the
+	 * request already.
+	 * <p>
+	 * Clients that cannot send event invocations must not override this method
+	 * - it fails fast instead of invoking the function synchronously.
+	 *
+	 * @param serviceRequest
+	 *            the request to send
+	 * @param feignOptions
+	 *            the feign request options
+	 * @return the response of the event invocation
+	 * @throws IllegalStateException
+	 *             if the client cannot send event invocations
+	 */
+	protected ServiceResponse executeEvent(ServiceRequest serviceRequest, feign.Request.Options feignOptions) {
+		throw new IllegalStateException(getClass().getName() + " cannot send event invocations; requests marked with "
+				+ LambdaEventInvocationContract.INVOCATION_TYPE_HEADER + " are not supported");
+	}
+
 	@Override
 	public final feign.Response execute(feign.Request feignRequest, feign.Request.Options feignOptions)
 			throws IOException {
-		ServiceRequest serviceRequest = toServiceRequest(feignRequest);
-		ServiceResponse serviceResponse = execute(serviceRequest, feignOptions);
+		ServiceRequest serviceRequest = toServiceRequest(feignRequest, base64EncodeBodies);
+		ServiceResponse serviceResponse;
+		if (feignRequest.headers() != null
+				&& LambdaEventInvocationContract.isEventInvocation(feignRequest.headers())) {
+			serviceResponse = executeEvent(serviceRequest, feignOptions);
+		} else {
+			serviceResponse = execute(serviceRequest, feignOptions);
+		}
 		return toFeignResponse(serviceResponse);
 	}
 
-	private static ServiceRequest toServiceRequest(feign.Request feignRequest) {
-		return new DefaultServiceRequest(toServiceBody(feignRequest.body()), toServiceHeaders(feignRequest.headers()),
-				URI.create(feignRequest.url()), feignRequest.method());
+	private static ServiceRequest toServiceRequest(feign.Request feignRequest, boolean base64EncodeBody) {
+		return new DefaultServiceRequest(toServiceBody(feignRequest.body(), base64EncodeBody),
+				toServiceHeaders(feignRequest.headers()), URI.create(feignRequest.url()), feignRequest.method(),
+				base64EncodeBody);
 	}
 
 	private static feign.Response toFeignResponse(ServiceResponse serviceResponse) {
 		return feign.Response.builder()
-				.body(toFeignBody(serviceResponse.getBody()))
+				.body(toFeignBody(serviceResponse.getBody(), serviceResponse.isBase64Encoded()))
 				.headers(toFeignHeaders(serviceResponse.getHeaders()))
 				.status(serviceResponse.getStatusCode())
 				.reason(serviceResponse.getReasonPhrase())
@@ -71,21 +132,51 @@ public abstract class AbstractFeignLambdaServiceClient implements Client {
 		return (Map) map;
 	}
 
-	@SuppressWarnings({ "unchecked", "rawtypes" })
 	private static Map<String, List<String>> toServiceHeaders(Map<String, Collection<String>> map) {
 		if (map == null) {
 			return Collections.emptyMap();
 		}
-		// no need to copy the map, here
-		return (Map) map;
+		/*
+		 * feign's header values are (linked hash) sets, usually; so we copy
+		 * them into lists once and build the unmodifiable header map the
+		 * service request takes by reference. The invocation type marker is
+		 * meant for the client, only - never for the service.
+		 */
+		HeaderMap headers = new HeaderMap(map.size());
+		for (Map.Entry<String, Collection<String>> header : map.entrySet()) {
+			String headerName = header.getKey();
+			Collection<String> headerValues = header.getValue();
+			if (headerName != null && headerValues != null
+					&& !LambdaEventInvocationContract.INVOCATION_TYPE_HEADER.equalsIgnoreCase(headerName)) {
+				List<String> values = headers.get(headerName);
+				if (values == null) {
+					headers.put(headerName, new ArrayList<>(headerValues));
+				} else {
+					values.addAll(headerValues);
+				}
+			}
+		}
+		return headers.makeUnmodifiable();
 	}
 
-	private static String toServiceBody(byte[] body) {
-		return (body == null) ? null : new String(body, StandardCharsets.UTF_8);
+	private static String toServiceBody(byte[] body, boolean base64Encode) {
+		if (body == null) {
+			return null;
+		} else if (base64Encode) {
+			return Base64.getEncoder().encodeToString(body);
+		} else {
+			return new String(body, StandardCharsets.UTF_8);
+		}
 	}
 
-	private static byte[] toFeignBody(String body) {
-		return (body == null) ? null : body.getBytes(StandardCharsets.UTF_8);
+	private static byte[] toFeignBody(String body, boolean base64Encoded) {
+		if (body == null) {
+			return null;
+		} else if (base64Encoded) {
+			return Base64.getDecoder().decode(body);
+		} else {
+			return body.getBytes(StandardCharsets.UTF_8);
+		}
 	}
 
 }
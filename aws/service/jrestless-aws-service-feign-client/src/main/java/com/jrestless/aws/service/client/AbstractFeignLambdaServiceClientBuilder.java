@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.service.client;
+
+import com.amazonaws.regions.Regions;
+import com.amazonaws.services.lambda.AWSLambdaClient;
+
+/**
+ * Base builder for the clients invoking a lambda function.
+ *
+ * @author Bjoern Bilger
+ *
+ * @param <C>
+ *            the type of the lambda client
+ * @param <B>
+ *            the type of the builder
+ */
+abstract class AbstractFeignLambdaServiceClientBuilder<C, B extends AbstractFeignLambdaServiceClientBuilder<C, B>> {
+	private String functionName;
+	private String functionAlias;
+	private String functionVersion;
+	private C awsLambdaClient;
+	private Regions region;
+	private boolean base64EncodeBodies;
+
+	public B setFunctionName(String functionName) {
+		this.functionName = functionName;
+		return self();
+	}
+
+	public B setFunctionAlias(String functionAlias) {
+		this.functionAlias = functionAlias;
+		return self();
+	}
+
+	public B setFunctionVersion(String functionVersion) {
+		this.functionVersion = functionVersion;
+		return self();
+	}
+
+	public B setAwsLambdaClient(C awsLambdaClient) {
+		this.awsLambdaClient = awsLambdaClient;
+		return self();
+	}
+
+	public B setRegion(Regions region) {
+		this.region = region;
+		return self();
+	}
+
+	/**
+	 * Sends request bodies Base64 encoded; see
+	 * {@link AbstractFeignLambdaServiceClient#AbstractFeignLambdaServiceClient(boolean)}.
+	 */
+	public B setBase64EncodeBodies(boolean base64EncodeBodies) {
+		this.base64EncodeBodies = base64EncodeBodies;
+		return self();
+	}
+
+	/**
+	 * Creates a lambda client for the given region if no lambda client has
+	 * been set.
+	 */
+	protected abstract C createAwsLambdaClient(Regions region);
+
+	protected C resolveAwsLambdaClient() {
+		C resolvedClient = awsLambdaClient;
+		if (resolvedClient == null && region != null) {
+			resolvedClient = createAwsLambdaClient(region);
+		}
+		return requireToBuild(resolvedClient, "an awsLambdaClient or a region is required");
+	}
+
+	String resolveFunctionName() {
+		return requireToBuild(functionName, "a functionName is required");
+	}
+
+	String resolveQualifier() {
+		if (functionAlias != null && functionVersion != null) {
+			throw new IllegalStateException("either a functionAlias or a functionVersion may be set");
+		}
+		return functionAlias != null ? functionAlias : functionVersion;
+	}
+
+	String getFunctionAlias() {
+		return functionAlias;
+	}
+
+	String getFunctionVersion() {
+		return functionVersion;
+	}
+
+	boolean isBase64EncodeBodies() {
+		return base64EncodeBodies;
+	}
+
+	static <T extends AWSLambdaClient> T configureRegion(T awsLambdaClient, Regions region) {
+		awsLambdaClient.configureRegion(region);
+		return awsLambdaClient;
+	}
+
+	static <T> T requireToBuild(T o, String msg) {
+		if (o == null) {
+			throw new IllegalStateException(msg);
+		}
+		return o;
+	}
+
+	@SuppressWarnings("unchecked")
+	private B self() {
+		return (B) this;
+	}
+}
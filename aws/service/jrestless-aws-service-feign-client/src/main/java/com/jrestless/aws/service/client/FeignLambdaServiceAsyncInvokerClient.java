@@ -0,0 +1,215 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.service.client;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.regions.Regions;
+import com.amazonaws.services.lambda.AWSLambdaAsync;
+import com.amazonaws.services.lambda.AWSLambdaAsyncClient;
+import com.amazonaws.services.lambda.model.InvocationType;
+import com.amazonaws.services.lambda.model.InvokeRequest;
+import com.amazonaws.services.lambda.model.InvokeResult;
+import com.jrestless.aws.service.io.ServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+
+/**
+ * Feign client that redirects "http" requests to lambda functions implementing
+ * {@code com.amazonaws.services.lambda.runtime.RequestHandler<ServiceRequest, ServiceResponse>}
+ * using {@link AWSLambdaAsync}.
+ * <p>
+ * Feign itself calls the client synchronously. In addition,
+ * {@link #executeAsync(ServiceRequest)} invokes the function without blocking
+ * the calling thread so that several services can be called concurrently -
+ * see {@link #gather(List)}:
+ *
+ * <pre>
+ * {@code
+ * CompletableFuture<List<ServiceResponse>> responses = FeignLambdaServiceAsyncInvokerClient.gather(Arrays.asList(
+ *     userServiceClient.executeAsync(userRequest),
+ *     orderServiceClient.executeAsync(orderRequest)));
+ * }
+ * </pre>
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class FeignLambdaServiceAsyncInvokerClient extends AbstractFeignLambdaServiceClient {
+
+	private static final feign.Request.Options DEFAULT_OPTIONS = new feign.Request.Options();
+
+	private final AWSLambdaAsync awsLambdaClient;
+	private final String functionName;
+	private final String qualifier;
+
+	/**
+	 * @param awsLambdaClient
+	 *            the async lambda client
+	 * @param functionName
+	 *            the name of the function to invoke
+	 * @param qualifier
+	 *            the alias or version of the function to invoke
+	 * @param base64EncodeBodies
+	 *            see
+	 *            {@link AbstractFeignLambdaServiceClient#AbstractFeignLambdaServiceClient(boolean)}
+	 */
+	public FeignLambdaServiceAsyncInvokerClient(@Nonnull AWSLambdaAsync awsLambdaClient, @Nonnull String functionName,
+			@Nullable String qualifier, boolean base64EncodeBodies) {
+		super(base64EncodeBodies);
+		this.awsLambdaClient = requireNonNull(awsLambdaClient);
+		this.functionName = requireNonNull(functionName);
+		this.qualifier = qualifier;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Invokes the function synchronously by waiting for
+	 * {@link #executeAsync(ServiceRequest)} to complete - at most for the
+	 * read timeout of the given options, though.
+	 */
+	@Override
+	protected ServiceResponse execute(ServiceRequest serviceRequest, feign.Request.Options feignOptions) {
+		return LambdaServiceFutures.get(executeAsync(serviceRequest), getReadTimeoutMillis(feignOptions));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Invokes the function with {@link InvocationType#Event} and returns a
+	 * synthetic {@code 202 Accepted} response as soon as the event has been
+	 * queued - waiting at most for the read timeout of the given options.
+	 */
+	@Override
+	protected ServiceResponse executeEvent(ServiceRequest serviceRequest, feign.Request.Options feignOptions) {
+		requireNonNull(serviceRequest);
+		return LambdaServiceFutures.get(invokeAsync(serviceRequest, InvocationType.Event,
+				result -> EVENT_ACCEPTED_RESPONSE), getReadTimeoutMillis(feignOptions));
+	}
+
+	/**
+	 * Invokes the function without blocking the calling thread.
+	 * <p>
+	 * The returned future completes exceptionally with a
+	 * {@link com.amazonaws.services.lambda.invoke.LambdaFunctionException} if the function failed and with the
+	 * client's exception if the invocation failed.
+	 *
+	 * @param serviceRequest
+	 *            the request to pass to the function
+	 * @return the future response of the function
+	 */
+	@Nonnull
+	public CompletableFuture<ServiceResponse> executeAsync(@Nonnull ServiceRequest serviceRequest) {
+		requireNonNull(serviceRequest);
+		return invokeAsync(serviceRequest, InvocationType.RequestResponse,
+				result -> LambdaServicePayloads.toServiceResponse(result.getFunctionError(), result.getPayload()));
+	}
+
+	private CompletableFuture<ServiceResponse> invokeAsync(ServiceRequest serviceRequest,
+			InvocationType invocationType, InvokeResultMapper resultMapper) {
+		CompletableFuture<ServiceResponse> response = new CompletableFuture<>();
+		InvokeRequest invokeRequest;
+		try {
+			invokeRequest = new InvokeRequest()
+					.withFunctionName(functionName)
+					.withQualifier(qualifier)
+					.withInvocationType(invocationType)
+					.withPayload(LambdaServicePayloads.toPayload(serviceRequest));
+		} catch (IOException e) {
+			response.completeExceptionally(e);
+			return response;
+		}
+		awsLambdaClient.invokeAsync(invokeRequest, new AsyncHandler<InvokeRequest, InvokeResult>() {
+			@Override
+			public void onError(Exception exception) {
+				response.completeExceptionally(exception);
+			}
+
+			@Override
+			public void onSuccess(InvokeRequest request, InvokeResult result) {
+				try {
+					response.complete(resultMapper.apply(result));
+				} catch (IOException | RuntimeException e) {
+					response.completeExceptionally(e);
+				}
+			}
+		});
+		return response;
+	}
+
+	private static long getReadTimeoutMillis(feign.Request.Options feignOptions) {
+		return (feignOptions != null ? feignOptions : DEFAULT_OPTIONS).readTimeoutMillis();
+	}
+
+	/**
+	 * Waits for all the given responses without blocking the calling thread.
+	 * <p>
+	 * The returned future completes when all the given ones have completed -
+	 * exceptionally, if any of them did.
+	 *
+	 * @param responses
+	 *            the (future) responses of concurrently invoked services
+	 * @return the future responses in the order given
+	 */
+	@Nonnull
+	public static <T> CompletableFuture<List<T>> gather(
+			@Nonnull List<? extends CompletionStage<? extends T>> responses) {
+		requireNonNull(responses);
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[responses.size()];
+		for (int i = 0; i < futures.length; i++) {
+			futures[i] = responses.get(i).toCompletableFuture();
+		}
+		return CompletableFuture.allOf(futures).thenApply(ignored -> {
+			List<T> results = new ArrayList<>(futures.length);
+			for (CompletableFuture<?> future : futures) {
+				@SuppressWarnings("unchecked")
+				T result = (T) future.join();
+				results.add(result);
+			}
+			return results;
+		});
+	}
+
+	@FunctionalInterface
+	private interface InvokeResultMapper {
+		ServiceResponse apply(InvokeResult result) throws IOException;
+	}
+
+	public static class Builder extends AbstractFeignLambdaServiceClientBuilder<AWSLambdaAsync, Builder> {
+
+		@Override
+		protected AWSLambdaAsync createAwsLambdaClient(Regions region) {
+			return configureRegion(new AWSLambdaAsyncClient(), region);
+		}
+
+		public FeignLambdaServiceAsyncInvokerClient build() {
+			return new FeignLambdaServiceAsyncInvokerClient(resolveAwsLambdaClient(), resolveFunctionName(),
+					resolveQualifier(), isBase64EncodeBodies());
+		}
+	}
+}
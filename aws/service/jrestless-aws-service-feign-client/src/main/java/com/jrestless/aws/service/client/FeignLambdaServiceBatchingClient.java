@@ -0,0 +1,234 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.service.client;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.amazonaws.regions.Regions;
+import com.amazonaws.services.lambda.AWSLambda;
+import com.amazonaws.services.lambda.AWSLambdaClient;
+import com.amazonaws.services.lambda.model.InvocationType;
+import com.amazonaws.services.lambda.model.InvokeRequest;
+import com.amazonaws.services.lambda.model.InvokeResult;
+import com.jrestless.aws.service.io.ServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+
+/**
+ * Feign client that coalesces "http" requests issued concurrently into
+ * batches and sends each batch to a lambda function implementing
+ * {@code com.amazonaws.services.lambda.runtime.RequestHandler<ServiceBatchRequest, ServiceBatchResponse>}
+ * - e.g. via {@code ServiceBatchRequestObjectHandler} - with a single
+ * invocation.
+ * <p>
+ * The first request of a batch waits for at most {@code maxDelayMillis} for
+ * other requests to join the batch and then sends the batch on its own
+ * thread; the batch is sent immediately when it reaches
+ * {@code maxBatchSize}. No background threads are used since they would get
+ * frozen between two invocations of the calling function.
+ * <p>
+ * Each request still gets its own response. A failing invocation, however,
+ * fails all requests of the batch.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class FeignLambdaServiceBatchingClient extends AbstractFeignLambdaServiceClient {
+
+	public static final int DEFAULT_MAX_BATCH_SIZE = 10;
+	public static final long DEFAULT_MAX_DELAY_MILLIS = 5;
+
+	private final Function<List<ServiceRequest>, List<? extends ServiceResponse>> batchInvoker;
+	private final int maxBatchSize;
+	private final long maxDelayNanos;
+
+	private final Object lock = new Object();
+	// guarded by lock
+	private Batch openBatch;
+
+	/**
+	 * @param awsLambdaClient
+	 *            the lambda client
+	 * @param functionName
+	 *            the name of the function to send the batches to
+	 * @param qualifier
+	 *            the alias or version of the function
+	 * @param base64EncodeBodies
+	 *            see
+	 *            {@link AbstractFeignLambdaServiceClient#AbstractFeignLambdaServiceClient(boolean)}
+	 * @param maxBatchSize
+	 *            the maximum number of requests per batch
+	 * @param maxDelayMillis
+	 *            the maximum time a request waits for others to join its
+	 *            batch
+	 */
+	public FeignLambdaServiceBatchingClient(@Nonnull AWSLambda awsLambdaClient, @Nonnull String functionName,
+			@Nullable String qualifier, boolean base64EncodeBodies, int maxBatchSize, long maxDelayMillis) {
+		this(createLambdaBatchInvoker(awsLambdaClient, functionName, qualifier), base64EncodeBodies, maxBatchSize,
+				maxDelayMillis);
+	}
+
+	FeignLambdaServiceBatchingClient(Function<List<ServiceRequest>, List<? extends ServiceResponse>> batchInvoker,
+			boolean base64EncodeBodies, int maxBatchSize, long maxDelayMillis) {
+		super(base64EncodeBodies);
+		if (maxBatchSize <= 0) {
+			throw new IllegalArgumentException("maxBatchSize must be positive");
+		}
+		if (maxDelayMillis < 0) {
+			throw new IllegalArgumentException("maxDelayMillis must not be negative");
+		}
+		this.batchInvoker = requireNonNull(batchInvoker);
+		this.maxBatchSize = maxBatchSize;
+		this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	protected ServiceResponse execute(ServiceRequest serviceRequest, feign.Request.Options feignOptions) {
+		requireNonNull(serviceRequest);
+		Batch batch;
+		int index;
+		boolean first;
+		synchronized (lock) {
+			batch = openBatch;
+			first = batch == null;
+			if (first) {
+				batch = new Batch(maxBatchSize);
+				openBatch = batch;
+			}
+			index = batch.requests.size();
+			batch.requests.add(serviceRequest);
+			if (batch.requests.size() >= maxBatchSize) {
+				openBatch = null;
+				lock.notifyAll();
+			}
+		}
+		if (first) {
+			awaitBatch(batch);
+			send(batch);
+		}
+		return LambdaServiceFutures.join(batch.responses).get(index);
+	}
+
+	private void awaitBatch(Batch batch) {
+		long deadline = System.nanoTime() + maxDelayNanos;
+		synchronized (lock) {
+			long remainingNanos = deadline - System.nanoTime();
+			while (openBatch == batch && remainingNanos > 0) {
+				try {
+					TimeUnit.NANOSECONDS.timedWait(lock, remainingNanos);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+				remainingNanos = deadline - System.nanoTime();
+			}
+			if (openBatch == batch) {
+				openBatch = null;
+			}
+		}
+	}
+
+	private void send(Batch batch) {
+		try {
+			List<? extends ServiceResponse> responses = batchInvoker.apply(batch.requests);
+			if (responses == null || responses.size() != batch.requests.size()) {
+				throw new IllegalStateException("the function must respond to each request of the batch");
+			}
+			batch.responses.complete(responses);
+		} catch (Throwable e) {
+			// the other requests of the batch are waiting for the responses, too
+			batch.responses.completeExceptionally(e);
+		}
+	}
+
+	private static Function<List<ServiceRequest>, List<? extends ServiceResponse>> createLambdaBatchInvoker(
+			AWSLambda awsLambdaClient, String functionName, String qualifier) {
+		requireNonNull(awsLambdaClient);
+		requireNonNull(functionName);
+		return requests -> {
+			InvokeRequest invokeRequest;
+			try {
+				invokeRequest = new InvokeRequest()
+						.withFunctionName(functionName)
+						.withQualifier(qualifier)
+						.withInvocationType(InvocationType.RequestResponse)
+						.withPayload(LambdaServicePayloads.toBatchPayload(requests));
+				InvokeResult result = awsLambdaClient.invoke(invokeRequest);
+				return LambdaServicePayloads.toServiceResponses(result.getFunctionError(), result.getPayload());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		};
+	}
+
+	private static final class Batch {
+		// written under lock until the batch is closed; read by the sender afterwards
+		private final List<ServiceRequest> requests;
+		private final CompletableFuture<List<? extends ServiceResponse>> responses = new CompletableFuture<>();
+
+		Batch(int maxBatchSize) {
+			requests = new ArrayList<>(maxBatchSize);
+		}
+	}
+
+	public static class Builder extends AbstractFeignLambdaServiceClientBuilder<AWSLambda, Builder> {
+		private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+		private long maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+
+		/**
+		 * Sets the maximum number of requests per batch; defaults to
+		 * {@link FeignLambdaServiceBatchingClient#DEFAULT_MAX_BATCH_SIZE}.
+		 */
+		public Builder setMaxBatchSize(int maxBatchSize) {
+			this.maxBatchSize = maxBatchSize;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum time a request waits for others to join its batch;
+		 * defaults to
+		 * {@link FeignLambdaServiceBatchingClient#DEFAULT_MAX_DELAY_MILLIS}.
+		 */
+		public Builder setMaxDelayMillis(long maxDelayMillis) {
+			this.maxDelayMillis = maxDelayMillis;
+			return this;
+		}
+
+		@Override
+		protected AWSLambda createAwsLambdaClient(Regions region) {
+			return configureRegion(new AWSLambdaClient(), region);
+		}
+
+		public FeignLambdaServiceBatchingClient build() {
+			return new FeignLambdaServiceBatchingClient(resolveAwsLambdaClient(), resolveFunctionName(),
+					resolveQualifier(), isBase64EncodeBodies(), maxBatchSize, maxDelayMillis);
+		}
+	}
+}
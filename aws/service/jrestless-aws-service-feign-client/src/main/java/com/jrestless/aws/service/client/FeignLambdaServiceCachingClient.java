@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.service.client;
+
+import static java.util.Objects.requireNonNull;
+
+import javax.annotation.Nonnull;
+
+import com.jrestless.aws.service.io.ServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+
+/**
+ * Feign client that answers requests from a {@link ServiceResponseCache} if
+ * possible and passes them to another lambda service client, otherwise.
+ * <p>
+ * This saves invocations of lambda functions serving rarely changing data -
+ * e.g. configurations or catalogs:
+ *
+ * <pre>
+ * {@code
+ * Client client = new FeignLambdaServiceCachingClient(
+ *     FeignLambdaServiceInvokerClient.builder()
+ *         .setFunctionName("catalog-service")
+ *         .setRegion(Regions.EU_CENTRAL_1)
+ *         .build(),
+ *     ServiceResponseCache.builder().build());
+ * }
+ * </pre>
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class FeignLambdaServiceCachingClient extends AbstractFeignLambdaServiceClient {
+
+	private final AbstractFeignLambdaServiceClient delegate;
+	private final ServiceResponseCache cache;
+
+	/**
+	 * @param delegate
+	 *            the client to pass requests to that cannot be answered from
+	 *            the cache; its Base64 setting is adopted
+	 * @param cache
+	 *            the cache - may be shared by several clients of the same
+	 *            service
+	 */
+	public FeignLambdaServiceCachingClient(@Nonnull AbstractFeignLambdaServiceClient delegate,
+			@Nonnull ServiceResponseCache cache) {
+		super(requireNonNull(delegate).isBase64EncodeBodies());
+		this.delegate = delegate;
+		this.cache = requireNonNull(cache);
+	}
+
+	/**
+	 * @return the cache - e.g. to read its statistics
+	 */
+	@Nonnull
+	public ServiceResponseCache getCache() {
+		return cache;
+	}
+
+	@Override
+	protected ServiceResponse execute(ServiceRequest serviceRequest, feign.Request.Options feignOptions) {
+		return cache.execute(serviceRequest, request -> delegate.execute(request, feignOptions));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Event invocations are passed to the other client; they are never cached.
+	 */
+	@Override
+	protected ServiceResponse executeEvent(ServiceRequest serviceRequest, feign.Request.Options feignOptions) {
+		return delegate.executeEvent(serviceRequest, feignOptions);
+	}
+}
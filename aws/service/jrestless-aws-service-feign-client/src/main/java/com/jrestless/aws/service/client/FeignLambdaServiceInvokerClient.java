@@ -17,12 +17,19 @@ package com.jrestless.aws.service.client;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.lambda.AWSLambdaClient;
 import com.amazonaws.services.lambda.invoke.LambdaInvokerFactory;
+import com.amazonaws.services.lambda.model.InvocationType;
+import com.amazonaws.services.lambda.model.InvokeRequest;
 import com.jrestless.aws.service.io.ServiceRequest;
 import com.jrestless.aws.service.io.ServiceResponse;
 
@@ -30,6 +37,10 @@ import com.jrestless.aws.service.io.ServiceResponse;
  * Feign client that redirects "http" requests to lambda functions implementing
  * {@code com.amazonaws.services.lambda.runtime.RequestHandler<ServiceRequest, ServiceResponse>}
  * using {@link LambdaInvokerFactory}.
+ * <p>
+ * Clients built with a {@link LambdaServiceLocalRegistry} dispatch the
+ * requests to a service running in the same JVM, instead, if one has been
+ * registered under the function name.
  *
  * @author Bjoern Bilger
  *
@@ -37,97 +48,188 @@ import com.jrestless.aws.service.io.ServiceResponse;
 public class FeignLambdaServiceInvokerClient extends AbstractFeignLambdaServiceClient {
 
 	private final LambdaInvokerService service;
+	private final Function<? super ServiceRequest, ? extends ServiceResponse> invocation;
+	private final AWSLambdaClient awsLambdaClient;
+	private final String functionName;
+	private final String qualifier;
+	private final boolean eventInvocationsEnabled;
 
 	public FeignLambdaServiceInvokerClient(@Nonnull AWSLambdaClient awsLambdaClient, @Nonnull String functionName,
 			@Nullable String functionAlias, @Nullable String functionVersion) {
-		this(LambdaInvokerFactory.builder(), awsLambdaClient, functionName, functionAlias, functionVersion);
+		this(awsLambdaClient, functionName, functionAlias, functionVersion, false);
+	}
+
+	/**
+	 * @param base64EncodeBodies
+	 *            see
+	 *            {@link AbstractFeignLambdaServiceClient#AbstractFeignLambdaServiceClient(boolean)}
+	 */
+	public FeignLambdaServiceInvokerClient(@Nonnull AWSLambdaClient awsLambdaClient, @Nonnull String functionName,
+			@Nullable String functionAlias, @Nullable String functionVersion, boolean base64EncodeBodies) {
+		this(awsLambdaClient, functionName, functionAlias, functionVersion, base64EncodeBodies, false);
+	}
+
+	/**
+	 * @param base64EncodeBodies
+	 *            see
+	 *            {@link AbstractFeignLambdaServiceClient#AbstractFeignLambdaServiceClient(boolean)}
+	 * @param eventInvocationsEnabled
+	 *            whether to send requests marked by
+	 *            {@link LambdaEventInvocationContract} as asynchronous event
+	 *            invocations
+	 */
+	public FeignLambdaServiceInvokerClient(@Nonnull AWSLambdaClient awsLambdaClient, @Nonnull String functionName,
+			@Nullable String functionAlias, @Nullable String functionVersion, boolean base64EncodeBodies,
+			boolean eventInvocationsEnabled) {
+		this(LambdaInvokerFactory.builder(), awsLambdaClient, functionName, functionAlias, functionVersion,
+				base64EncodeBodies, eventInvocationsEnabled);
 	}
 
 	FeignLambdaServiceInvokerClient(LambdaInvokerFactory.Builder builder, AWSLambdaClient awsLambdaClient,
 			String functionName, String functionAlias, String functionVersion) {
+		this(builder, awsLambdaClient, functionName, functionAlias, functionVersion, false, false);
+	}
+
+	FeignLambdaServiceInvokerClient(LambdaInvokerFactory.Builder builder, AWSLambdaClient awsLambdaClient,
+			String functionName, String functionAlias, String functionVersion, boolean base64EncodeBodies,
+			boolean eventInvocationsEnabled) {
+		super(base64EncodeBodies);
 		requireNonNull(awsLambdaClient);
 		requireNonNull(functionName);
+		this.awsLambdaClient = awsLambdaClient;
+		this.functionName = functionName;
+		this.qualifier = (functionAlias != null) ? functionAlias : functionVersion;
+		this.eventInvocationsEnabled = eventInvocationsEnabled;
 		service = builder
 				.lambdaFunctionNameResolver((method, annotation, config) -> functionName)
 				.functionAlias(functionAlias)
 				.functionVersion(functionVersion)
 				.lambdaClient(awsLambdaClient)
 				.build(LambdaInvokerService.class);
+		invocation = request -> service.execute(request);
+	}
+
+	/**
+	 * Creates a client dispatching the requests to a service running in the
+	 * same JVM; see {@link LambdaServiceLocalRegistry}.
+	 */
+	FeignLambdaServiceInvokerClient(Function<? super ServiceRequest, ? extends ServiceResponse> localService,
+			String functionName, boolean base64EncodeBodies, boolean eventInvocationsEnabled) {
+		super(base64EncodeBodies);
+		requireNonNull(localService);
+		requireNonNull(functionName);
+		this.service = null;
+		this.invocation = localService;
+		this.awsLambdaClient = null;
+		this.functionName = functionName;
+		this.qualifier = null;
+		this.eventInvocationsEnabled = eventInvocationsEnabled;
 	}
 
 	LambdaInvokerService getInvokerService() {
 		return service;
 	}
 
+	boolean isLocal() {
+		return awsLambdaClient == null;
+	}
+
 	public static Builder builder() {
 		return new Builder();
 	}
 
 	@Override
 	protected ServiceResponse execute(ServiceRequest serviceRequest, feign.Request.Options feignOptions) {
-		return service.execute(serviceRequest);
+		return invocation.apply(serviceRequest);
 	}
 
-	public static class Builder {
-		private String functionName;
-		private String functionAlias;
-		private String functionVersion;
-		private AWSLambdaClient awsLambdaClient;
-		private Regions region;
-
-		public Builder setFunctionName(String functionName) {
-			this.functionName = functionName;
-			return this;
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * A synthetic {@code 202 Accepted} response is returned as soon as the
+	 * event has been queued. Events to a local service are queued to the
+	 * common {@link java.util.concurrent.ForkJoinPool ForkJoinPool}; as for
+	 * remote events, neither their response nor their failure is reported to
+	 * the caller.
+	 *
+	 * @throws IllegalStateException
+	 *             if event invocations have not been enabled
+	 */
+	@Override
+	protected ServiceResponse executeEvent(ServiceRequest serviceRequest, feign.Request.Options feignOptions) {
+		if (!eventInvocationsEnabled) {
+			throw new IllegalStateException("event invocations are not enabled for function " + functionName);
 		}
-
-		public Builder setFunctionAlias(String functionAlias) {
-			this.functionAlias = functionAlias;
-			return this;
+		if (isLocal()) {
+			CompletableFuture.runAsync(() -> invocation.apply(serviceRequest));
+		} else {
+			invokeAsEvent(serviceRequest);
 		}
+		return EVENT_ACCEPTED_RESPONSE;
+	}
 
-		public Builder setFunctionVersion(String functionVersion) {
-			this.functionVersion = functionVersion;
-			return this;
+	private void invokeAsEvent(ServiceRequest serviceRequest) {
+		InvokeRequest invokeRequest;
+		try {
+			invokeRequest = new InvokeRequest()
+					.withFunctionName(functionName)
+					.withQualifier(qualifier)
+					.withInvocationType(InvocationType.Event)
+					.withPayload(LambdaServicePayloads.toPayload(serviceRequest));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
 		}
+		awsLambdaClient.invoke(invokeRequest);
+	}
 
-		public Builder setAwsLambdaClient(AWSLambdaClient awsLambdaClient) {
-			this.awsLambdaClient = awsLambdaClient;
-			return this;
-		}
+	public static class Builder extends AbstractFeignLambdaServiceClientBuilder<AWSLambdaClient, Builder> {
+		private boolean eventInvocationsEnabled;
+		private LambdaServiceLocalRegistry localRegistry;
 
-		public Builder setRegion(Regions region) {
-			this.region = region;
+		/**
+		 * Sends the requests marked by {@link LambdaEventInvocationContract}
+		 * as asynchronous event invocations.
+		 */
+		public Builder setEventInvocationsEnabled(boolean eventInvocationsEnabled) {
+			this.eventInvocationsEnabled = eventInvocationsEnabled;
 			return this;
 		}
 
-		protected AWSLambdaClient resolveAwsLambdaClient() {
-			AWSLambdaClient resolvedClient = awsLambdaClient;
-			if (resolvedClient == null && region != null) {
-				resolvedClient = new AWSLambdaClient();
-				resolvedClient.configureRegion(region);
-			}
-			return requireToBuild(resolvedClient, "an awsLambdaClient or a region is required");
-		}
-
-		private String resolveFunctionName() {
-			return requireToBuild(functionName, "a functionName is required");
+		/**
+		 * Dispatches the requests to the service registered under the
+		 * function name in the given registry - if any - instead of
+		 * invoking the function. The function's alias and version are
+		 * ignored for a local service, and no awsLambdaClient or region is
+		 * required for it.
+		 */
+		public Builder setLocalRegistry(LambdaServiceLocalRegistry localRegistry) {
+			this.localRegistry = localRegistry;
+			return this;
 		}
 
-		private static <T> T requireToBuild(T o, String msg) {
-			if (o == null) {
-				throw new IllegalStateException(msg);
-			}
-			return o;
+		@Override
+		protected AWSLambdaClient createAwsLambdaClient(Regions region) {
+			return configureRegion(new AWSLambdaClient(), region);
 		}
 
 		// for JUnit
 		FeignLambdaServiceInvokerClient create(AWSLambdaClient awsLambdaClient, String functionName,
-				String functionAlias, String functionVersion) {
-			return new FeignLambdaServiceInvokerClient(awsLambdaClient, functionName, functionAlias, functionVersion);
+				String functionAlias, String functionVersion, boolean base64EncodeBodies,
+				boolean eventInvocationsEnabled) {
+			return new FeignLambdaServiceInvokerClient(awsLambdaClient, functionName, functionAlias, functionVersion,
+					base64EncodeBodies, eventInvocationsEnabled);
 		}
 
 		public FeignLambdaServiceInvokerClient build() {
-			return create(resolveAwsLambdaClient(), resolveFunctionName(), functionAlias, functionVersion);
+			String resolvedFunctionName = resolveFunctionName();
+			Function<? super ServiceRequest, ? extends ServiceResponse> localService = (localRegistry != null)
+					? localRegistry.lookup(resolvedFunctionName) : null;
+			if (localService != null) {
+				return new FeignLambdaServiceInvokerClient(localService, resolvedFunctionName, isBase64EncodeBodies(),
+						eventInvocationsEnabled);
+			}
+			return create(resolveAwsLambdaClient(), resolvedFunctionName, getFunctionAlias(), getFunctionVersion(),
+					isBase64EncodeBodies(), eventInvocationsEnabled);
 		}
 	}
 
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.service.client;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+
+import com.jrestless.aws.service.io.ServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+
+/**
+ * Feign client that dispatches "http" requests to a service running in the
+ * same JVM - typically a
+ * {@code com.jrestless.aws.service.handler.ServiceRequestHandler} packaged in
+ * the same deployment artifact - instead of invoking a lambda function.
+ * <p>
+ * The {@link ServiceRequest} and the {@link ServiceResponse} are passed on
+ * as they are, i.e. without any serialization:
+ *
+ * <pre>
+ * {@code
+ * new FeignLambdaServiceLocalClient(myServiceRequestHandler::handleLocalRequest);
+ * }
+ * </pre>
+ *
+ * See {@link LambdaServiceLocalRegistry} in order to select the local service
+ * by the name of the function it is deployed as.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class FeignLambdaServiceLocalClient extends AbstractFeignLambdaServiceClient {
+
+	private final Function<? super ServiceRequest, ? extends ServiceResponse> service;
+
+	/**
+	 * @param service
+	 *            the local service to dispatch the requests to
+	 */
+	public FeignLambdaServiceLocalClient(@Nonnull Function<? super ServiceRequest, ? extends ServiceResponse> service) {
+		this(service, false);
+	}
+
+	/**
+	 * @param service
+	 *            the local service to dispatch the requests to
+	 * @param base64EncodeBodies
+	 *            see
+	 *            {@link AbstractFeignLambdaServiceClient#AbstractFeignLambdaServiceClient(boolean)}
+	 */
+	public FeignLambdaServiceLocalClient(@Nonnull Function<? super ServiceRequest, ? extends ServiceResponse> service,
+			boolean base64EncodeBodies) {
+		super(base64EncodeBodies);
+		this.service = requireNonNull(service);
+	}
+
+	@Override
+	protected ServiceResponse execute(ServiceRequest serviceRequest, feign.Request.Options feignOptions) {
+		return service.apply(serviceRequest);
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.service.client;
+
+import static java.util.Objects.requireNonNull;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+
+import com.jrestless.aws.service.io.ServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+
+/**
+ * Feign client that lets concurrent, identical requests share a single
+ * in-flight invocation of another lambda service client (single-flight) in
+ * order to prevent a thundering herd on hot services.
+ * <p>
+ * Requests are identical if their method, URI, headers and body are equal.
+ * Only idempotent {@code GET}, {@code HEAD} and {@code OPTIONS} requests are
+ * coalesced; others are passed to the other client as they are. The first
+ * request of a flight invokes the other client on its own thread; the
+ * others wait for its response - or its exception - regardless of their own
+ * {@link feign.Request.Options}. Completed flights are not remembered; see
+ * {@link FeignLambdaServiceCachingClient} for caching.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class FeignLambdaServiceSingleFlightClient extends AbstractFeignLambdaServiceClient {
+
+	private static final List<String> COALESCED_METHODS = Collections.unmodifiableList(
+			Arrays.asList("GET", "HEAD", "OPTIONS"));
+
+	private final AbstractFeignLambdaServiceClient delegate;
+	private final ConcurrentMap<Key, CompletableFuture<ServiceResponse>> flights = new ConcurrentHashMap<>();
+	private final AtomicLong coalescedCount = new AtomicLong();
+
+	/**
+	 * @param delegate
+	 *            the client to pass the first request of each flight to; its
+	 *            Base64 setting is adopted
+	 */
+	public FeignLambdaServiceSingleFlightClient(@Nonnull AbstractFeignLambdaServiceClient delegate) {
+		super(requireNonNull(delegate).isBase64EncodeBodies());
+		this.delegate = delegate;
+	}
+
+	/**
+	 * @return the number of requests that shared the invocation of an
+	 *         identical request
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount.get();
+	}
+
+	@Override
+	protected ServiceResponse execute(ServiceRequest serviceRequest, feign.Request.Options feignOptions) {
+		if (!COALESCED_METHODS.contains(serviceRequest.getHttpMethod())) {
+			return delegate.execute(serviceRequest, feignOptions);
+		}
+		Key key = new Key(serviceRequest);
+		CompletableFuture<ServiceResponse> flight = new CompletableFuture<>();
+		CompletableFuture<ServiceResponse> existingFlight = flights.putIfAbsent(key, flight);
+		if (existingFlight != null) {
+			coalescedCount.incrementAndGet();
+			return LambdaServiceFutures.join(existingFlight);
+		}
+		try {
+			ServiceResponse serviceResponse = delegate.execute(serviceRequest, feignOptions);
+			flight.complete(serviceResponse);
+			return serviceResponse;
+		} catch (Throwable e) {
+			flight.completeExceptionally(e);
+			throw e;
+		} finally {
+			flights.remove(key, flight);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Event invocations are passed to the other client; they are never
+	 * coalesced.
+	 */
+	@Override
+	protected ServiceResponse executeEvent(ServiceRequest serviceRequest, feign.Request.Options feignOptions) {
+		return delegate.executeEvent(serviceRequest, feignOptions);
+	}
+
+	private static final class Key {
+		private final String httpMethod;
+		private final URI requestUri;
+		private final Map<String, List<String>> headers;
+		private final String body;
+		private final boolean base64Encoded;
+		// the body might be large so we compute the hash once, only
+		private final int hash;
+
+		Key(ServiceRequest request) {
+			httpMethod = request.getHttpMethod();
+			requestUri = request.getRequestUri();
+			headers = request.getHeaders();
+			body = request.getBody();
+			base64Encoded = request.isBase64Encoded();
+			hash = Objects.hash(httpMethod, requestUri, headers, body, base64Encoded);
+		}
+
+		@Override
+		public boolean equals(final Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (other == null) {
+				return false;
+			}
+			if (!getClass().equals(other.getClass())) {
+				return false;
+			}
+			Key castOther = (Key) other;
+			return hash == castOther.hash && base64Encoded == castOther.base64Encoded
+					&& Objects.equals(httpMethod, castOther.httpMethod)
+					&& Objects.equals(requestUri, castOther.requestUri)
+					&& Objects.equals(headers, castOther.headers) && Objects.equals(body, castOther.body);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.service.client;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a feign method whose requests are sent as asynchronous event
+ * invocations, i.e. without waiting for the function's response.
+ * <p>
+ * Requires {@link LambdaEventInvocationContract} to be registered with feign
+ * and event invocations to be enabled on the client - see
+ * {@link FeignLambdaServiceInvokerClient.Builder#setEventInvocationsEnabled(boolean)}.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LambdaEventInvocation {
+}
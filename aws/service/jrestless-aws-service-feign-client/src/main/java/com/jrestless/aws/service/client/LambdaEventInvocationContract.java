@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.service.client;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import com.amazonaws.services.lambda.model.InvocationType;
+
+import feign.Contract;
+import feign.Feign;
+import feign.MethodMetadata;
+
+/**
+ * Feign contract that marks the requests of methods to be sent as
+ * asynchronous event invocations - methods annotated with
+ * {@link LambdaEventInvocation} and, optionally, all methods returning
+ * {@code void}.
+ * <p>
+ * The requests are marked with the {@value #INVOCATION_TYPE_HEADER} header.
+ * All lambda service clients remove the header before invoking the function;
+ * clients that cannot send event invocations reject marked requests with an
+ * {@link IllegalStateException} instead of invoking the function
+ * synchronously.
+ *
+ * <pre>
+ * {@code
+ * Feign.builder()
+ *     .contract(new LambdaEventInvocationContract(new Contract.Default(), true))
+ *     .client(FeignLambdaServiceInvokerClient.builder()
+ *         .setFunctionName("audit-service")
+ *         .setEventInvocationsEnabled(true)
+ *         ...
+ *         .build())
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class LambdaEventInvocationContract implements Contract {
+
+	public static final String INVOCATION_TYPE_HEADER = "X-Amz-Invocation-Type";
+
+	private final Contract delegate;
+	private final boolean voidMethodsAsEvents;
+
+	/**
+	 * @param delegate
+	 *            the contract to parse the methods' metadata with
+	 * @param voidMethodsAsEvents
+	 *            whether to send the requests of all methods returning
+	 *            {@code void} as event invocations
+	 */
+	public LambdaEventInvocationContract(@Nonnull Contract delegate, boolean voidMethodsAsEvents) {
+		this.delegate = requireNonNull(delegate);
+		this.voidMethodsAsEvents = voidMethodsAsEvents;
+	}
+
+	@Override
+	public List<MethodMetadata> parseAndValidatateMetadata(Class<?> targetType) {
+		List<MethodMetadata> metadata = delegate.parseAndValidatateMetadata(targetType);
+		Map<String, Method> methods = new HashMap<>();
+		for (Method method : targetType.getMethods()) {
+			methods.put(Feign.configKey(targetType, method), method);
+		}
+		for (MethodMetadata methodMetadata : metadata) {
+			Method method = methods.get(methodMetadata.configKey());
+			if (method != null && isEventInvocation(method)) {
+				methodMetadata.template().header(INVOCATION_TYPE_HEADER, InvocationType.Event.toString());
+			}
+		}
+		return metadata;
+	}
+
+	private boolean isEventInvocation(Method method) {
+		return method.isAnnotationPresent(LambdaEventInvocation.class)
+				|| voidMethodsAsEvents && method.getReturnType() == void.class;
+	}
+
+	/**
+	 * @param headers
+	 *            the request headers
+	 * @return true if the request has been marked as event invocation
+	 */
+	static boolean isEventInvocation(Map<String, ? extends Collection<String>> headers) {
+		for (Map.Entry<String, ? extends Collection<String>> header : headers.entrySet()) {
+			if (INVOCATION_TYPE_HEADER.equalsIgnoreCase(header.getKey()) && header.getValue() != null
+					&& header.getValue().contains(InvocationType.Event.toString())) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
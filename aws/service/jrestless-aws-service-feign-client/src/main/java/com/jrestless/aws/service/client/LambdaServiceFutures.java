@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.service.client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Utility to wait for the (future) responses of the clients.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+final class LambdaServiceFutures {
+
+	private LambdaServiceFutures() {
+	}
+
+	/**
+	 * Waits for the future to complete and rethrows the unchecked exception
+	 * it completed with as is; see {@link #unwrap(Throwable)} for checked
+	 * exceptions.
+	 */
+	static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			throw unwrap(e.getCause());
+		}
+	}
+
+	/**
+	 * Waits at most {@code timeoutMillis} for the future to complete and
+	 * rethrows the exception it completed with like
+	 * {@link #join(CompletableFuture)}.
+	 * <p>
+	 * A timeout is reported as {@link UncheckedIOException} wrapping a
+	 * {@link SocketTimeoutException}, the exception feign's own clients fail
+	 * with when the read timeout elapses.
+	 */
+	static <T> T get(CompletableFuture<T> future, long timeoutMillis) {
+		try {
+			return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			throw unwrap(e.getCause());
+		} catch (TimeoutException e) {
+			SocketTimeoutException timeoutException = new SocketTimeoutException(
+					"no response within " + timeoutMillis + "ms");
+			timeoutException.initCause(e);
+			throw new UncheckedIOException(timeoutException);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while waiting for the response", e);
+		}
+	}
+
+	/*
+	 * IOExceptions are wrapped into an UncheckedIOException - as done by the
+	 * clients themselves - and other checked exceptions into a
+	 * CompletionException
+	 */
+	private static RuntimeException unwrap(Throwable cause) {
+		if (cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		} else if (cause instanceof Error) {
+			throw (Error) cause;
+		} else if (cause instanceof IOException) {
+			return new UncheckedIOException((IOException) cause);
+		}
+		return new CompletionException(cause);
+	}
+}
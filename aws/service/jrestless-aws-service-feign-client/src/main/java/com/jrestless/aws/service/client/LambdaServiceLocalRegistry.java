@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.service.client;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.jrestless.aws.service.io.ServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+
+/**
+ * Registry of the services running in the same JVM - typically
+ * {@code com.jrestless.aws.service.handler.ServiceRequestHandler}s packaged
+ * in the same deployment artifact - keyed by the name of the function they
+ * are deployed as.
+ * <p>
+ * {@link FeignLambdaServiceInvokerClient.Builder} consults the registry and
+ * dispatches the requests to a registered service directly instead of
+ * invoking the lambda function:
+ *
+ * <pre>
+ * {@code
+ * LambdaServiceLocalRegistry registry = new LambdaServiceLocalRegistry()
+ *     .register("my-service", myServiceRequestHandler::handleLocalRequest);
+ * ...
+ * FeignLambdaServiceInvokerClient.builder()
+ *     .setLocalRegistry(registry)
+ *     .setFunctionName("my-service")
+ *     .setRegion(Regions.EU_CENTRAL_1)
+ *     .build();
+ * }
+ * </pre>
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class LambdaServiceLocalRegistry {
+
+	private final Map<String, Function<? super ServiceRequest, ? extends ServiceResponse>> services =
+			new ConcurrentHashMap<>();
+
+	/**
+	 * Registers a local service under the name of the function it is deployed
+	 * as. A service registered under the same name before is replaced.
+	 *
+	 * @param functionName
+	 *            the name of the function the service is deployed as
+	 * @param service
+	 *            the local service
+	 * @return this registry
+	 */
+	public LambdaServiceLocalRegistry register(@Nonnull String functionName,
+			@Nonnull Function<? super ServiceRequest, ? extends ServiceResponse> service) {
+		services.put(requireNonNull(functionName), requireNonNull(service));
+		return this;
+	}
+
+	/**
+	 * @param functionName
+	 *            the name of the function
+	 * @return the local service registered under the function name or
+	 *         {@code null} if there is none
+	 */
+	@Nullable
+	public Function<? super ServiceRequest, ? extends ServiceResponse> lookup(@Nonnull String functionName) {
+		return services.get(requireNonNull(functionName));
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.service.client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.amazonaws.services.lambda.invoke.LambdaFunctionException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jrestless.aws.service.io.DefaultServiceRequest;
+import com.jrestless.aws.service.io.DefaultServiceResponse;
+import com.jrestless.aws.service.io.ServiceBatchRequest;
+import com.jrestless.aws.service.io.ServiceBatchResponse;
+import com.jrestless.aws.service.io.ServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+
+/**
+ * (De)serializes the payloads of lambda service invocations the way
+ * {@link com.amazonaws.services.lambda.invoke.LambdaInvokerFactory} does.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+final class LambdaServicePayloads {
+
+	private static final String HANDLED_FUNCTION_ERROR = "Handled";
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+	private LambdaServicePayloads() {
+		// no instance
+	}
+
+	static ByteBuffer toPayload(ServiceRequest serviceRequest) throws IOException {
+		return ByteBuffer.wrap(OBJECT_MAPPER.writeValueAsBytes(serviceRequest));
+	}
+
+	static ByteBuffer toBatchPayload(List<? extends ServiceRequest> serviceRequests) throws IOException {
+		List<DefaultServiceRequest> requests = new ArrayList<>(serviceRequests.size());
+		for (ServiceRequest serviceRequest : serviceRequests) {
+			requests.add(toDefaultServiceRequest(serviceRequest));
+		}
+		return ByteBuffer.wrap(OBJECT_MAPPER.writeValueAsBytes(new ServiceBatchRequest(requests)));
+	}
+
+	static ServiceResponse toServiceResponse(String functionError, ByteBuffer payload) throws IOException {
+		return readResult(functionError, payload, DefaultServiceResponse.class);
+	}
+
+	static List<DefaultServiceResponse> toServiceResponses(String functionError, ByteBuffer payload)
+			throws IOException {
+		return readResult(functionError, payload, ServiceBatchResponse.class).getResponses();
+	}
+
+	private static DefaultServiceRequest toDefaultServiceRequest(ServiceRequest serviceRequest) {
+		if (serviceRequest instanceof DefaultServiceRequest) {
+			return (DefaultServiceRequest) serviceRequest;
+		}
+		return new DefaultServiceRequest(serviceRequest.getBody(), serviceRequest.getHeaders(),
+				serviceRequest.getRequestUri(), serviceRequest.getHttpMethod(), serviceRequest.isBase64Encoded());
+	}
+
+	private static <T> T readResult(String functionError, ByteBuffer payload, Class<T> type) throws IOException {
+		if (functionError != null) {
+			throw toLambdaFunctionException(functionError, payload);
+		}
+		if (payload == null) {
+			throw new IOException("the function returned no payload");
+		}
+		return readPayload(payload, type);
+	}
+
+	private static LambdaFunctionException toLambdaFunctionException(String functionError, ByteBuffer payload)
+			throws IOException {
+		String message = null;
+		String type = null;
+		if (payload != null && payload.hasRemaining()) {
+			Map<?, ?> error = readPayload(payload, Map.class);
+			message = (String) error.get("errorMessage");
+			type = (String) error.get("errorType");
+		}
+		return new LambdaFunctionException(message, HANDLED_FUNCTION_ERROR.equals(functionError), type);
+	}
+
+	private static <T> T readPayload(ByteBuffer payload, Class<T> type) throws IOException {
+		if (payload.hasArray()) {
+			return OBJECT_MAPPER.readValue(payload.array(), payload.arrayOffset() + payload.position(),
+					payload.remaining(), type);
+		}
+		byte[] bytes = new byte[payload.remaining()];
+		payload.duplicate().get(bytes);
+		return OBJECT_MAPPER.readValue(bytes, type);
+	}
+}
@@ -0,0 +1,430 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.service.client;
+
+import static com.jrestless.core.http.HttpCaching.DIRECTIVE_MAX_AGE;
+import static com.jrestless.core.http.HttpCaching.DIRECTIVE_NO_CACHE;
+import static com.jrestless.core.http.HttpCaching.DIRECTIVE_NO_STORE;
+import static com.jrestless.core.http.HttpCaching.evictLeastRecentlyUsed;
+import static com.jrestless.core.http.HttpCaching.getHeader;
+import static com.jrestless.core.http.HttpCaching.newLeastRecentlyUsedMap;
+import static com.jrestless.core.http.HttpCaching.parseCacheControl;
+import static com.jrestless.core.http.HttpCaching.parseHttpDate;
+import static com.jrestless.core.http.HttpCaching.parseSeconds;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response.Status;
+
+import com.jrestless.aws.service.io.DefaultServiceRequest;
+import com.jrestless.aws.service.io.DefaultServiceResponse;
+import com.jrestless.aws.service.io.ServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+import com.jrestless.core.http.HeaderMap;
+
+/**
+ * Client-side, in-memory cache for the responses of lambda services to
+ * {@code GET} requests; see {@link FeignLambdaServiceCachingClient}.
+ * <p>
+ * Responses are keyed on the request URI and the values of the
+ * {@link Builder#setKeyHeaderNames(Collection) key headers}. A response is
+ * stored only if
+ * <ol>
+ * <li>its status is 200
+ * <li>it has no {@code Cache-Control: no-store} directive
+ * <li>it doesn't vary on {@code *} or on headers other than the key headers
+ * <li>it is fresh for some time or can be revalidated by its {@code ETag}
+ * </ol>
+ * Entries are fresh for the {@code max-age} given by {@code Cache-Control} or
+ * - if there is none - until {@code Expires} (relative to {@code Date}).
+ * Responses with {@code Cache-Control: no-cache} are never fresh. Stale
+ * entries that have an {@code ETag} are revalidated by a conditional request
+ * with {@code If-None-Match}; the cached response is returned (and
+ * refreshed) if the service responds with 304 (Not Modified). Other stale
+ * entries are dropped.
+ * <p>
+ * Requests with {@code Cache-Control: no-store} and conditional requests
+ * bypass the cache; requests with {@code Cache-Control: no-cache} or
+ * {@code max-age=0} are sent to the service but the fresh response gets
+ * stored. {@code POST}, {@code PUT}, {@code DELETE} and {@code PATCH}
+ * requests invalidate the cached responses of the same URI.
+ * <p>
+ * The cache is bounded by the number of entries. Once the bound is exceeded,
+ * the least recently used resources (with all their variants) get evicted.
+ * <p>
+ * The cache is thread-safe.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class ServiceResponseCache {
+
+	public static final int DEFAULT_MAXIMUM_ENTRIES = 256;
+	public static final List<String> DEFAULT_KEY_HEADER_NAMES = Collections.unmodifiableList(
+			Arrays.asList("Accept", "Authorization"));
+
+	private static final String METHOD_GET = "GET";
+	private static final List<String> INVALIDATING_METHODS = Collections.unmodifiableList(
+			Arrays.asList("POST", "PUT", "DELETE", "PATCH"));
+	private static final long MILLIS_PER_SECOND = 1000;
+
+	private final int maximumEntries;
+	private final List<String> keyHeaderNames;
+	private final Clock clock;
+
+	// access-ordered => LRU
+	private final LinkedHashMap<String, Map<List<String>, Entry>> resources = newLeastRecentlyUsedMap();
+	private int entryCount;
+	private long hitCount;
+	private long revalidationCount;
+	private long missCount;
+	private long evictionCount;
+
+	private ServiceResponseCache(int maximumEntries, List<String> keyHeaderNames, Clock clock) {
+		this.maximumEntries = maximumEntries;
+		this.keyHeaderNames = keyHeaderNames;
+		this.clock = clock;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Answers the request from the cache if possible; otherwise the request
+	 * is passed to the given service and its response gets stored if it is
+	 * cacheable.
+	 *
+	 * @param request
+	 *            the request
+	 * @param service
+	 *            the service to pass the request to
+	 * @return the cached or the service's response
+	 */
+	ServiceResponse execute(@Nonnull ServiceRequest request,
+			@Nonnull Function<? super ServiceRequest, ? extends ServiceResponse> service) {
+		requireNonNull(service);
+		String httpMethod = request.getHttpMethod();
+		if (!METHOD_GET.equals(httpMethod)) {
+			if (INVALIDATING_METHODS.contains(httpMethod)) {
+				invalidate(request.getRequestUri().toString());
+			}
+			return service.apply(request);
+		}
+		Map<String, List<String>> requestHeaders = request.getHeaders();
+		Map<String, String> cacheControl = parseCacheControl(getHeader(requestHeaders, HttpHeaders.CACHE_CONTROL));
+		if (cacheControl.containsKey(DIRECTIVE_NO_STORE) || getHeader(requestHeaders, HttpHeaders.IF_NONE_MATCH) != null
+				|| getHeader(requestHeaders, HttpHeaders.IF_MODIFIED_SINCE) != null) {
+			return service.apply(request);
+		}
+		String uri = request.getRequestUri().toString();
+		List<String> keyHeaderValues = getHeaderValues(requestHeaders, keyHeaderNames);
+		Entry entry = null;
+		if (!cacheControl.containsKey(DIRECTIVE_NO_CACHE) && !"0".equals(cacheControl.get(DIRECTIVE_MAX_AGE))) {
+			entry = getEntry(uri, keyHeaderValues);
+		}
+		if (entry != null && clock.millis() < entry.expiresAtMillis) {
+			synchronized (this) {
+				hitCount++;
+			}
+			return entry.response;
+		}
+		if (entry != null) {
+			ServiceResponse response = service.apply(toConditionalRequest(request, entry.etag));
+			if (response.getStatusCode() == Status.NOT_MODIFIED.getStatusCode()) {
+				synchronized (this) {
+					revalidationCount++;
+				}
+				ServiceResponse refreshedResponse = refresh(entry.response, response.getHeaders());
+				store(uri, keyHeaderValues, refreshedResponse);
+				return refreshedResponse;
+			}
+			synchronized (this) {
+				missCount++;
+			}
+			store(uri, keyHeaderValues, response);
+			return response;
+		}
+		synchronized (this) {
+			missCount++;
+		}
+		ServiceResponse response = service.apply(request);
+		store(uri, keyHeaderValues, response);
+		return response;
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public synchronized void invalidateAll() {
+		resources.clear();
+		entryCount = 0;
+	}
+
+	/**
+	 * @return the number of requests answered from the cache without
+	 *         contacting the service
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return the number of requests answered from the cache after the
+	 *         service confirmed the stale entry with 304 (Not Modified)
+	 */
+	public synchronized long getRevalidationCount() {
+		return revalidationCount;
+	}
+
+	/**
+	 * @return the number of {@code GET} requests that could not be answered
+	 *         from the cache
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * @return the number of entries evicted due to the cache's bound
+	 */
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * @return the number of stored entries
+	 */
+	public synchronized int getEntryCount() {
+		return entryCount;
+	}
+
+	/*
+	 * Returns the entry if it is fresh or can be revalidated; other entries
+	 * are dropped.
+	 */
+	private synchronized Entry getEntry(String uri, List<String> keyHeaderValues) {
+		Map<List<String>, Entry> variants = resources.get(uri);
+		if (variants == null) {
+			return null;
+		}
+		Entry entry = variants.get(keyHeaderValues);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.etag == null && clock.millis() >= entry.expiresAtMillis) {
+			variants.remove(keyHeaderValues);
+			entryCount--;
+			if (variants.isEmpty()) {
+				resources.remove(uri);
+			}
+			return null;
+		}
+		return entry;
+	}
+
+	/**
+	 * Stores the response if it is cacheable.
+	 */
+	private void store(String uri, List<String> keyHeaderValues, ServiceResponse response) {
+		Map<String, List<String>> headers = response.getHeaders();
+		if (response.getStatusCode() != Status.OK.getStatusCode() || headers == null) {
+			return;
+		}
+		Map<String, String> cacheControl = parseCacheControl(getHeader(headers, HttpHeaders.CACHE_CONTROL));
+		if (cacheControl.containsKey(DIRECTIVE_NO_STORE) || !isVaryCovered(getHeader(headers, HttpHeaders.VARY))) {
+			return;
+		}
+		long now = clock.millis();
+		long freshnessMillis = getFreshnessMillis(headers, cacheControl, now);
+		String etag = getHeader(headers, HttpHeaders.ETAG);
+		if (freshnessMillis <= 0 && etag == null) {
+			return;
+		}
+		Entry entry = new Entry(response, etag, now + Math.min(freshnessMillis, Long.MAX_VALUE - now));
+		synchronized (this) {
+			Map<List<String>, Entry> variants = resources.get(uri);
+			if (variants == null) {
+				variants = new HashMap<>();
+				resources.put(uri, variants);
+			}
+			if (variants.put(keyHeaderValues, entry) == null) {
+				entryCount++;
+			}
+			evict();
+		}
+	}
+
+	private synchronized void invalidate(String uri) {
+		Map<List<String>, Entry> variants = resources.remove(uri);
+		if (variants != null) {
+			entryCount -= variants.size();
+		}
+	}
+
+	private void evict() {
+		evictLeastRecentlyUsed(resources, () -> entryCount > maximumEntries, variants -> {
+			entryCount -= variants.size();
+			evictionCount += variants.size();
+		});
+	}
+
+	private boolean isVaryCovered(@Nullable String vary) {
+		if (vary == null) {
+			return true;
+		}
+		for (String headerName : vary.split(",")) {
+			String trimmedHeaderName = headerName.trim().toLowerCase(Locale.ROOT);
+			if (!trimmedHeaderName.isEmpty() && !keyHeaderNames.contains(trimmedHeaderName)) {
+				// includes "*"
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long getFreshnessMillis(Map<String, List<String>> headers, Map<String, String> cacheControl,
+			long now) {
+		if (cacheControl.containsKey(DIRECTIVE_NO_CACHE)) {
+			return 0;
+		}
+		long maxAgeSeconds = parseSeconds(cacheControl.get(DIRECTIVE_MAX_AGE));
+		if (maxAgeSeconds >= 0) {
+			return Math.min(maxAgeSeconds, Long.MAX_VALUE / MILLIS_PER_SECOND) * MILLIS_PER_SECOND;
+		}
+		Long expires = parseHttpDate(getHeader(headers, HttpHeaders.EXPIRES));
+		if (expires == null) {
+			// an invalid Expires header means "already expired", too
+			return 0;
+		}
+		Long date = parseHttpDate(getHeader(headers, HttpHeaders.DATE));
+		return expires - (date != null ? date : now);
+	}
+
+	private static ServiceRequest toConditionalRequest(ServiceRequest request, String etag) {
+		Map<String, List<String>> requestHeaders = request.getHeaders();
+		HeaderMap headers = new HeaderMap(requestHeaders.size() + 1);
+		headers.putAll(requestHeaders);
+		headers.putSingle(HttpHeaders.IF_NONE_MATCH, etag);
+		return new DefaultServiceRequest(request.getBody(), headers, request.getRequestUri(),
+				request.getHttpMethod(), request.isBase64Encoded());
+	}
+
+	/*
+	 * Updates the stored response's headers with the ones of the 304
+	 * response.
+	 */
+	private static ServiceResponse refresh(ServiceResponse response, @Nullable Map<String, List<String>> headers) {
+		if (headers == null || headers.isEmpty()) {
+			return response;
+		}
+		Map<String, List<String>> storedHeaders = response.getHeaders();
+		HeaderMap refreshedHeaders = new HeaderMap(storedHeaders.size() + headers.size());
+		refreshedHeaders.putAll(storedHeaders);
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+				refreshedHeaders.put(header.getKey(), header.getValue());
+			}
+		}
+		return new DefaultServiceResponse(response.getBody(), refreshedHeaders, response.getStatusCode(),
+				response.getReasonPhrase(), response.isBase64Encoded());
+	}
+
+	private static List<String> getHeaderValues(Map<String, List<String>> headers, List<String> headerNames) {
+		List<String> values = new ArrayList<>(headerNames.size());
+		for (String headerName : headerNames) {
+			values.add(getHeader(headers, headerName));
+		}
+		return values;
+	}
+
+	private static final class Entry {
+		private final ServiceResponse response;
+		private final String etag;
+		private final long expiresAtMillis;
+
+		Entry(ServiceResponse response, String etag, long expiresAtMillis) {
+			this.response = response;
+			this.etag = etag;
+			this.expiresAtMillis = expiresAtMillis;
+		}
+	}
+
+	public static final class Builder {
+
+		private int maximumEntries = DEFAULT_MAXIMUM_ENTRIES;
+		private Collection<String> keyHeaderNames = DEFAULT_KEY_HEADER_NAMES;
+		private Clock clock = Clock.systemUTC();
+
+		private Builder() {
+			// use ServiceResponseCache#builder()
+		}
+
+		/**
+		 * Sets the maximum number of stored responses.
+		 */
+		public Builder setMaximumEntries(int maximumEntries) {
+			if (maximumEntries <= 0) {
+				throw new IllegalArgumentException("maximumEntries must be positive");
+			}
+			this.maximumEntries = maximumEntries;
+			return this;
+		}
+
+		/**
+		 * Sets the names of the request headers whose values are part of the
+		 * cache key; defaults to {@link ServiceResponseCache#DEFAULT_KEY_HEADER_NAMES}.
+		 * <p>
+		 * Responses varying on other headers are not stored.
+		 */
+		public Builder setKeyHeaderNames(@Nonnull Collection<String> keyHeaderNames) {
+			this.keyHeaderNames = requireNonNull(keyHeaderNames);
+			return this;
+		}
+
+		// JUnit
+		Builder setClock(Clock clock) {
+			this.clock = requireNonNull(clock);
+			return this;
+		}
+
+		public ServiceResponseCache build() {
+			List<String> lowerCasedKeyHeaderNames = new ArrayList<>(keyHeaderNames.size());
+			for (String keyHeaderName : keyHeaderNames) {
+				String lowerCasedKeyHeaderName = keyHeaderName.toLowerCase(Locale.ROOT);
+				if (!lowerCasedKeyHeaderNames.contains(lowerCasedKeyHeaderName)) {
+					lowerCasedKeyHeaderNames.add(lowerCasedKeyHeaderName);
+				}
+			}
+			return new ServiceResponseCache(maximumEntries, Collections.unmodifiableList(lowerCasedKeyHeaderNames),
+					clock);
+		}
+	}
+}
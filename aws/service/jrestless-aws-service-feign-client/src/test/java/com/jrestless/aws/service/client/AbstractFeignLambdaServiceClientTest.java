@@ -2,6 +2,9 @@ package com.jrestless.aws.service.client;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -10,7 +13,15 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -18,6 +29,7 @@ import org.junit.Test;
 import com.jrestless.aws.service.client.AbstractFeignLambdaServiceClient;
 import com.jrestless.aws.service.io.ServiceRequest;
 import com.jrestless.aws.service.io.ServiceResponse;
+import com.jrestless.core.http.HeaderMap;
 
 public class AbstractFeignLambdaServiceClientTest {
 
@@ -63,6 +75,21 @@ public class AbstractFeignLambdaServiceClientTest {
 		assertEquals(Collections.singletonMap("k", Collections.singletonList("v")), client.getServiceRequest().getHeaders());
 	}
 
+	@Test
+	public void execute_SetValuedRequestHeadersGiven_ShouldRequestWithListValuedHeaders() throws IOException {
+		FeignLambdaClientImpl client = new FeignLambdaClientImpl(serviceResponse);
+		Map<String, Collection<String>> feignHeaders = new LinkedHashMap<>();
+		feignHeaders.put("Accept", new LinkedHashSet<>(Arrays.asList("a", "b")));
+		feignHeaders.put("X-Other", Collections.singleton("c"));
+		when(feignRequest.headers()).thenReturn(feignHeaders);
+		client.execute(feignRequest, null);
+		Map<String, List<String>> headers = client.getServiceRequest().getHeaders();
+		assertEquals(Arrays.asList("a", "b"), headers.get("accept"));
+		assertEquals("c", headers.get("X-Other").get(0));
+		assertTrue(headers instanceof HeaderMap);
+		assertTrue(((HeaderMap) headers).isUnmodifiable());
+	}
+
 	@Test(expected = NullPointerException.class)
 	public void execute_NoRequestUrlGiven_ShouldFail() throws IOException {
 		FeignLambdaClientImpl client = new FeignLambdaClientImpl(serviceResponse);
@@ -170,6 +197,83 @@ public class AbstractFeignLambdaServiceClientTest {
 		assertEquals(null, client.getFeignRequestOptions());
 	}
 
+	@Test
+	public void execute_NoBase64EncodingEnabled_ShouldRequestWithUtf8Body() throws IOException {
+		FeignLambdaClientImpl client = new FeignLambdaClientImpl(serviceResponse);
+		when(feignRequest.body()).thenReturn("\u00e4".getBytes(StandardCharsets.UTF_8));
+		client.execute(feignRequest, null);
+		assertEquals("\u00e4", client.getServiceRequest().getBody());
+		assertFalse(client.getServiceRequest().isBase64Encoded());
+	}
+
+	@Test
+	public void execute_Base64EncodingEnabled_ShouldRequestWithBase64Body() throws IOException {
+		FeignLambdaClientImpl client = new FeignLambdaClientImpl(serviceResponse, true);
+		byte[] body = { 0, (byte) 0xFF, (byte) 0xC3 };
+		when(feignRequest.body()).thenReturn(body);
+		client.execute(feignRequest, null);
+		assertEquals(Base64.getEncoder().encodeToString(body), client.getServiceRequest().getBody());
+		assertTrue(client.getServiceRequest().isBase64Encoded());
+	}
+
+	@Test
+	public void execute_Base64EncodingEnabledAndNullBodyGiven_ShouldRequestWithNullBody() throws IOException {
+		FeignLambdaClientImpl client = new FeignLambdaClientImpl(serviceResponse, true);
+		client.execute(feignRequest, null);
+		assertEquals(null, client.getServiceRequest().getBody());
+	}
+
+	@Test
+	public void execute_Base64EncodedResponseBodyGiven_ShouldRespondWithDecodedBody() throws IOException {
+		FeignLambdaClientImpl client = new FeignLambdaClientImpl(serviceResponse);
+		byte[] body = { 0, (byte) 0xFF, (byte) 0xC3 };
+		when(serviceResponse.getBody()).thenReturn(Base64.getEncoder().encodeToString(body));
+		when(serviceResponse.isBase64Encoded()).thenReturn(true);
+		feign.Response response = client.execute(feignRequest, null);
+		assertArrayEquals(body, toBytes(response.body().asInputStream()));
+	}
+
+	@Test
+	public void execute_EventMarkerGiven_ShouldExecuteEventWithoutMarker() throws IOException {
+		EventFeignLambdaClientImpl client = new EventFeignLambdaClientImpl(serviceResponse);
+		Map<String, Collection<String>> feignHeaders = new LinkedHashMap<>();
+		feignHeaders.put("x-amz-invocation-type", Collections.singleton("Event"));
+		feignHeaders.put("k", Collections.singleton("v"));
+		when(feignRequest.headers()).thenReturn(feignHeaders);
+		client.execute(feignRequest, null);
+		assertEquals(null, client.getServiceRequest());
+		assertEquals(Collections.singletonMap("k", Collections.singletonList("v")),
+				client.getEventServiceRequest().getHeaders());
+	}
+
+	@Test
+	public void execute_OtherInvocationTypeGiven_ShouldExecuteWithoutMarker() throws IOException {
+		EventFeignLambdaClientImpl client = new EventFeignLambdaClientImpl(serviceResponse);
+		Map<String, Collection<String>> feignHeaders = new LinkedHashMap<>();
+		feignHeaders.put(LambdaEventInvocationContract.INVOCATION_TYPE_HEADER,
+				Collections.singleton("RequestResponse"));
+		feignHeaders.put("k", Collections.singleton("v"));
+		when(feignRequest.headers()).thenReturn(feignHeaders);
+		client.execute(feignRequest, null);
+		assertEquals(null, client.getEventServiceRequest());
+		assertEquals(Collections.singletonMap("k", Collections.singletonList("v")),
+				client.getServiceRequest().getHeaders());
+	}
+
+	@Test
+	public void execute_EventMarkerGivenToClientWithoutEventSupport_ShouldFail() throws IOException {
+		FeignLambdaClientImpl client = new FeignLambdaClientImpl(serviceResponse);
+		when(feignRequest.headers()).thenReturn(Collections.singletonMap(
+				LambdaEventInvocationContract.INVOCATION_TYPE_HEADER, Collections.singleton("Event")));
+		try {
+			client.execute(feignRequest, null);
+			fail("expected IllegalStateException");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		assertEquals(null, client.getServiceRequest());
+	}
+
 	private byte[] toBytes(InputStream is) throws IOException {
 	    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
 	    int nRead;
@@ -187,6 +291,11 @@ public class AbstractFeignLambdaServiceClientTest {
 		private feign.Request.Options feignRequestOptions;
 
 		private FeignLambdaClientImpl(ServiceResponse response) {
+			this(response, false);
+		}
+
+		private FeignLambdaClientImpl(ServiceResponse response, boolean base64EncodeBodies) {
+			super(base64EncodeBodies);
 			this.response = response;
 		}
 
@@ -201,9 +310,31 @@ public class AbstractFeignLambdaServiceClientTest {
 			return serviceRequest;
 		}
 
+		ServiceResponse getResponse() {
+			return response;
+		}
+
 		feign.Request.Options getFeignRequestOptions() {
 			return feignRequestOptions;
 		}
 
 	}
+
+	private static class EventFeignLambdaClientImpl extends FeignLambdaClientImpl {
+		private ServiceRequest eventServiceRequest;
+
+		private EventFeignLambdaClientImpl(ServiceResponse response) {
+			super(response);
+		}
+
+		@Override
+		protected ServiceResponse executeEvent(ServiceRequest serviceRequest, feign.Request.Options feignOptions) {
+			this.eventServiceRequest = serviceRequest;
+			return getResponse();
+		}
+
+		ServiceRequest getEventServiceRequest() {
+			return eventServiceRequest;
+		}
+	}
 }
@@ -1,13 +1,11 @@
 package com.jrestless.aws.service.client;
 
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.ArgumentMatchers.isNotNull;
-import static org.mockito.ArgumentMatchers.isNull;
-import static org.mockito.Mockito.doReturn;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.spy;
-import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -19,13 +17,12 @@ public class FeignLambdaInvokerServiceClientBuilderTest {
 
 	private static final String FUNCTION_NAME = "someFunctionName";
 
-	private FeignLambdaServiceInvokerClient.Builder builder;
+	private CreationRecordingBuilder builder;
 	private AWSLambdaClient lambdaClient = mock(AWSLambdaClient.class);
 
 	@Before
 	public void setup() {
-		builder = spy(new FeignLambdaServiceInvokerClient.Builder());
-		doReturn(null).when(builder).create(any(), any(), any(), any());
+		builder = new CreationRecordingBuilder();
 	}
 
 	@Test
@@ -33,7 +30,16 @@ public class FeignLambdaInvokerServiceClientBuilderTest {
 		builder.setFunctionName("myFunctionName");
 		builder.setAwsLambdaClient(lambdaClient);
 		builder.build();
-		verify(builder).create(lambdaClient, "myFunctionName", null, null);
+		assertCreated(lambdaClient, "myFunctionName", null, null, false, false);
+	}
+
+	@Test
+	public void setBase64EncodeBodies_TrueGiven_ShouldBase64EncodeBodies() {
+		builder.setFunctionName(FUNCTION_NAME);
+		builder.setAwsLambdaClient(lambdaClient);
+		builder.setBase64EncodeBodies(true);
+		builder.build();
+		assertCreated(lambdaClient, FUNCTION_NAME, null, null, true, false);
 	}
 
 	@Test(expected = IllegalStateException.class)
@@ -55,7 +61,7 @@ public class FeignLambdaInvokerServiceClientBuilderTest {
 		builder.setAwsLambdaClient(lambdaClient);
 		builder.setFunctionAlias("myAlias");
 		builder.build();
-		verify(builder).create(lambdaClient, FUNCTION_NAME, "myAlias", null);
+		assertCreated(lambdaClient, FUNCTION_NAME, "myAlias", null, false, false);
 	}
 
 	@Test
@@ -64,7 +70,7 @@ public class FeignLambdaInvokerServiceClientBuilderTest {
 		builder.setAwsLambdaClient(lambdaClient);
 		builder.setFunctionAlias(null);
 		builder.build();
-		verify(builder).create(lambdaClient, FUNCTION_NAME, null, null);
+		assertCreated(lambdaClient, FUNCTION_NAME, null, null, false, false);
 	}
 
 	@Test
@@ -73,7 +79,7 @@ public class FeignLambdaInvokerServiceClientBuilderTest {
 		builder.setAwsLambdaClient(lambdaClient);
 		builder.setFunctionVersion("myFunctionVersion");
 		builder.build();
-		verify(builder).create(lambdaClient, FUNCTION_NAME, null, "myFunctionVersion");
+		assertCreated(lambdaClient, FUNCTION_NAME, null, "myFunctionVersion", false, false);
 	}
 
 	@Test
@@ -82,7 +88,7 @@ public class FeignLambdaInvokerServiceClientBuilderTest {
 		builder.setAwsLambdaClient(lambdaClient);
 		builder.setFunctionVersion(null);
 		builder.build();
-		verify(builder).create(lambdaClient, FUNCTION_NAME, null, null);
+		assertCreated(lambdaClient, FUNCTION_NAME, null, null, false, false);
 	}
 
 	@Test
@@ -91,7 +97,7 @@ public class FeignLambdaInvokerServiceClientBuilderTest {
 		builder.setFunctionName(FUNCTION_NAME);
 		builder.setAwsLambdaClient(myLambdaClient);
 		builder.build();
-		verify(builder).create(myLambdaClient, FUNCTION_NAME, null, null);
+		assertCreated(myLambdaClient, FUNCTION_NAME, null, null, false, false);
 	}
 
 	@Test
@@ -99,7 +105,8 @@ public class FeignLambdaInvokerServiceClientBuilderTest {
 		builder.setFunctionName(FUNCTION_NAME);
 		builder.setRegion(Regions.AP_NORTHEAST_1);
 		builder.build();
-		verify(builder).create(isNotNull(), eq(FUNCTION_NAME), isNull(), isNull());
+		assertNotNull(builder.creationArgs.get(0));
+		assertEquals(Arrays.asList(FUNCTION_NAME, null, null, false, false), builder.creationArgs.subList(1, 6));
 	}
 
 	@Test(expected = IllegalStateException.class)
@@ -116,6 +123,24 @@ public class FeignLambdaInvokerServiceClientBuilderTest {
 		builder.setRegion(Regions.AP_NORTHEAST_1);
 		builder.setAwsLambdaClient(myLambdaClient);
 		builder.build();
-		verify(builder).create(myLambdaClient, FUNCTION_NAME, null, null);
+		assertCreated(myLambdaClient, FUNCTION_NAME, null, null, false, false);
+	}
+
+	private void assertCreated(Object... expectedCreationArgs) {
+		assertEquals(Arrays.asList(expectedCreationArgs), builder.creationArgs);
+	}
+
+	// the inline mock maker cannot spy on builders inheriting from a package-private class
+	private static class CreationRecordingBuilder extends FeignLambdaServiceInvokerClient.Builder {
+		private List<Object> creationArgs;
+
+		@Override
+		FeignLambdaServiceInvokerClient create(AWSLambdaClient awsLambdaClient, String functionName,
+				String functionAlias, String functionVersion, boolean base64EncodeBodies,
+				boolean eventInvocationsEnabled) {
+			creationArgs = Arrays.asList(awsLambdaClient, functionName, functionAlias, functionVersion,
+					base64EncodeBodies, eventInvocationsEnabled);
+			return null;
+		}
 	}
 }
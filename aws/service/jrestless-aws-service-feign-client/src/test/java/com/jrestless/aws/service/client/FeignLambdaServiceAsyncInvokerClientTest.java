@@ -0,0 +1,299 @@
+package com.jrestless.aws.service.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.lambda.AWSLambdaAsync;
+import com.amazonaws.services.lambda.invoke.LambdaFunctionException;
+import com.amazonaws.services.lambda.model.InvokeRequest;
+import com.amazonaws.services.lambda.model.InvokeResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jrestless.aws.service.io.DefaultServiceRequest;
+import com.jrestless.aws.service.io.DefaultServiceResponse;
+import com.jrestless.aws.service.io.ServiceResponse;
+
+public class FeignLambdaServiceAsyncInvokerClientTest {
+
+	private static final String FUNCTION_NAME = "someFunctionName";
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private AWSLambdaAsync lambdaClient;
+	private InvokeRequest invokeRequest;
+	private AsyncHandler<InvokeRequest, InvokeResult> asyncHandler;
+	private FeignLambdaServiceAsyncInvokerClient client;
+
+	@SuppressWarnings("unchecked")
+	@Before
+	public void setup() {
+		lambdaClient = mock(AWSLambdaAsync.class);
+		doAnswer(invocation -> {
+			invokeRequest = invocation.getArgument(0);
+			asyncHandler = invocation.getArgument(1);
+			return null;
+		}).when(lambdaClient).invokeAsync(any(), any());
+		client = new FeignLambdaServiceAsyncInvokerClient(lambdaClient, FUNCTION_NAME, "someAlias", false);
+	}
+
+	@Test
+	public void executeAsync_ShouldInvokeFunctionWithSerializedRequest() throws IOException {
+		DefaultServiceRequest request = createRequest();
+		client.executeAsync(request);
+		assertEquals(FUNCTION_NAME, invokeRequest.getFunctionName());
+		assertEquals("someAlias", invokeRequest.getQualifier());
+		assertEquals("RequestResponse", invokeRequest.getInvocationType());
+		assertEquals(request, mapper.readValue(toBytes(invokeRequest.getPayload()), DefaultServiceRequest.class));
+	}
+
+	@Test
+	public void executeAsync_ShouldNotWaitForResponse() {
+		CompletableFuture<ServiceResponse> response = client.executeAsync(createRequest());
+		assertFalse(response.isDone());
+	}
+
+	@Test
+	public void executeAsync_FunctionSucceeds_ShouldCompleteWithResponse() throws IOException {
+		CompletableFuture<ServiceResponse> response = client.executeAsync(createRequest());
+		DefaultServiceResponse expectedResponse = createResponse("body");
+		succeed(expectedResponse);
+		assertEquals(expectedResponse, response.join());
+	}
+
+	@Test
+	public void executeAsync_FunctionFails_ShouldCompleteWithLambdaFunctionException() {
+		CompletableFuture<ServiceResponse> response = client.executeAsync(createRequest());
+		String error = "{\"errorMessage\":\"boom\",\"errorType\":\"java.lang.RuntimeException\"}";
+		asyncHandler.onSuccess(invokeRequest, new InvokeResult()
+				.withFunctionError("Unhandled")
+				.withPayload(ByteBuffer.wrap(error.getBytes(StandardCharsets.UTF_8))));
+		LambdaFunctionException e = (LambdaFunctionException) getFailure(response);
+		assertEquals("boom", e.getMessage());
+		assertEquals("java.lang.RuntimeException", e.getType());
+		assertFalse(e.isHandled());
+	}
+
+	@Test
+	public void executeAsync_InvocationFails_ShouldCompleteWithClientException() {
+		CompletableFuture<ServiceResponse> response = client.executeAsync(createRequest());
+		RuntimeException exception = new RuntimeException();
+		asyncHandler.onError(exception);
+		assertSame(exception, getFailure(response));
+	}
+
+	@Test
+	public void execute_FunctionSucceeds_ShouldReturnResponse() throws IOException {
+		doAnswer(invocation -> {
+			InvokeRequest request = invocation.getArgument(0);
+			AsyncHandler<InvokeRequest, InvokeResult> handler = invocation.getArgument(1);
+			handler.onSuccess(request, toInvokeResult(createResponse("body")));
+			return null;
+		}).when(lambdaClient).invokeAsync(any(), any());
+		feign.Request feignRequest = mock(feign.Request.class);
+		when(feignRequest.url()).thenReturn("/");
+		when(feignRequest.method()).thenReturn("GET");
+		feign.Response response = client.execute(feignRequest, null);
+		assertEquals(200, response.status());
+	}
+
+	@Test
+	public void execute_InvocationFails_ShouldThrowClientException() throws IOException {
+		RuntimeException exception = new RuntimeException();
+		doAnswer(invocation -> {
+			AsyncHandler<InvokeRequest, InvokeResult> handler = invocation.getArgument(1);
+			handler.onError(exception);
+			return null;
+		}).when(lambdaClient).invokeAsync(any(), any());
+		try {
+			client.execute(createRequest(), null);
+			fail("expected an exception");
+		} catch (RuntimeException e) {
+			assertSame(exception, e);
+		}
+	}
+
+	@Test
+	public void execute_NoResponseWithinReadTimeout_ShouldThrowSocketTimeoutException() {
+		try {
+			client.execute(createRequest(), new feign.Request.Options(1, 1));
+			fail("expected UncheckedIOException");
+		} catch (UncheckedIOException e) {
+			assertTrue(e.getCause() instanceof SocketTimeoutException);
+		}
+	}
+
+	@Test
+	public void execute_InvalidPayloadReturned_ShouldThrowUncheckedIOException() {
+		doAnswer(invocation -> {
+			InvokeRequest request = invocation.getArgument(0);
+			AsyncHandler<InvokeRequest, InvokeResult> handler = invocation.getArgument(1);
+			handler.onSuccess(request, new InvokeResult()
+					.withPayload(ByteBuffer.wrap("no json".getBytes(StandardCharsets.UTF_8))));
+			return null;
+		}).when(lambdaClient).invokeAsync(any(), any());
+		try {
+			client.execute(createRequest(), null);
+			fail("expected UncheckedIOException");
+		} catch (UncheckedIOException e) {
+			assertTrue(e.getCause() instanceof IOException);
+		}
+	}
+
+	@Test
+	public void executeEvent_ShouldInvokeFunctionAsEvent() throws IOException {
+		doAnswer(invocation -> {
+			invokeRequest = invocation.getArgument(0);
+			AsyncHandler<InvokeRequest, InvokeResult> handler = invocation.getArgument(1);
+			handler.onSuccess(invokeRequest, new InvokeResult());
+			return null;
+		}).when(lambdaClient).invokeAsync(any(), any());
+		DefaultServiceRequest request = createRequest();
+		assertEquals(202, client.executeEvent(request, null).getStatusCode());
+		assertEquals(FUNCTION_NAME, invokeRequest.getFunctionName());
+		assertEquals("someAlias", invokeRequest.getQualifier());
+		assertEquals("Event", invokeRequest.getInvocationType());
+		assertEquals(request, mapper.readValue(toBytes(invokeRequest.getPayload()), DefaultServiceRequest.class));
+	}
+
+	@Test
+	public void executeEvent_InvocationFails_ShouldThrowClientException() {
+		RuntimeException exception = new RuntimeException();
+		doAnswer(invocation -> {
+			AsyncHandler<InvokeRequest, InvokeResult> handler = invocation.getArgument(1);
+			handler.onError(exception);
+			return null;
+		}).when(lambdaClient).invokeAsync(any(), any());
+		try {
+			client.executeEvent(createRequest(), null);
+			fail("expected an exception");
+		} catch (RuntimeException e) {
+			assertSame(exception, e);
+		}
+	}
+
+	@Test
+	public void gather_ShouldCompleteWithResponsesInGivenOrder() {
+		CompletableFuture<String> first = new CompletableFuture<>();
+		CompletableFuture<String> second = new CompletableFuture<>();
+		CompletableFuture<List<String>> all = FeignLambdaServiceAsyncInvokerClient.gather(Arrays.asList(first, second));
+		second.complete("2");
+		assertFalse(all.isDone());
+		first.complete("1");
+		assertEquals(Arrays.asList("1", "2"), all.join());
+	}
+
+	@Test
+	public void gather_OneFails_ShouldCompleteExceptionally() {
+		CompletableFuture<String> first = CompletableFuture.completedFuture("1");
+		CompletableFuture<String> second = new CompletableFuture<>();
+		CompletableFuture<List<String>> all = FeignLambdaServiceAsyncInvokerClient.gather(Arrays.asList(first, second));
+		RuntimeException exception = new RuntimeException();
+		second.completeExceptionally(exception);
+		assertSame(exception, getFailure(all));
+	}
+
+	@Test
+	public void gather_NothingGiven_ShouldCompleteWithEmptyList() {
+		assertEquals(Collections.emptyList(), FeignLambdaServiceAsyncInvokerClient.gather(Collections.emptyList()).join());
+	}
+
+	@Test
+	public void build_AliasGiven_ShouldUseAliasAsQualifier() {
+		FeignLambdaServiceAsyncInvokerClient.builder()
+				.setAwsLambdaClient(lambdaClient)
+				.setFunctionName(FUNCTION_NAME)
+				.setFunctionAlias("alias")
+				.build()
+				.executeAsync(createRequest());
+		assertEquals("alias", invokeRequest.getQualifier());
+	}
+
+	@Test
+	public void build_VersionGiven_ShouldUseVersionAsQualifier() {
+		FeignLambdaServiceAsyncInvokerClient.builder()
+				.setAwsLambdaClient(lambdaClient)
+				.setFunctionName(FUNCTION_NAME)
+				.setFunctionVersion("1")
+				.build()
+				.executeAsync(createRequest());
+		assertEquals("1", invokeRequest.getQualifier());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void build_AliasAndVersionGiven_ShouldNotBuild() {
+		FeignLambdaServiceAsyncInvokerClient.builder()
+				.setAwsLambdaClient(lambdaClient)
+				.setFunctionName(FUNCTION_NAME)
+				.setFunctionAlias("alias")
+				.setFunctionVersion("1")
+				.build();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void build_NoFunctionNameGiven_ShouldNotBuild() {
+		FeignLambdaServiceAsyncInvokerClient.builder()
+				.setAwsLambdaClient(lambdaClient)
+				.build();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void build_NoClientAndNoRegionGiven_ShouldNotBuild() {
+		FeignLambdaServiceAsyncInvokerClient.builder()
+				.setFunctionName(FUNCTION_NAME)
+				.build();
+	}
+
+	private void succeed(ServiceResponse response) throws IOException {
+		asyncHandler.onSuccess(invokeRequest, toInvokeResult(response));
+	}
+
+	private InvokeResult toInvokeResult(ServiceResponse response) throws IOException {
+		return new InvokeResult().withPayload(ByteBuffer.wrap(mapper.writeValueAsBytes(response)));
+	}
+
+	private static Throwable getFailure(CompletableFuture<?> future) {
+		try {
+			future.join();
+		} catch (CompletionException e) {
+			return e.getCause();
+		}
+		throw new AssertionError("expected the future to complete exceptionally");
+	}
+
+	private static byte[] toBytes(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+		return bytes;
+	}
+
+	private static DefaultServiceRequest createRequest() {
+		return new DefaultServiceRequest("body", Collections.singletonMap("a", Collections.singletonList("b")),
+				URI.create("/path"), "POST");
+	}
+
+	private static DefaultServiceResponse createResponse(String body) {
+		return new DefaultServiceResponse(body, Collections.singletonMap("c", Collections.singletonList("d")), 200,
+				"OK");
+	}
+}
@@ -0,0 +1,217 @@
+package com.jrestless.aws.service.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.amazonaws.services.lambda.AWSLambda;
+import com.amazonaws.services.lambda.model.InvokeRequest;
+import com.amazonaws.services.lambda.model.InvokeResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jrestless.aws.service.io.DefaultServiceRequest;
+import com.jrestless.aws.service.io.DefaultServiceResponse;
+import com.jrestless.aws.service.io.ServiceBatchRequest;
+import com.jrestless.aws.service.io.ServiceBatchResponse;
+import com.jrestless.aws.service.io.ServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+
+public class FeignLambdaServiceBatchingClientTest {
+
+	private static final String FUNCTION_NAME = "someFunctionName";
+	private static final long LONG_DELAY_MILLIS = 60_000;
+
+	private final List<List<ServiceRequest>> batches = new CopyOnWriteArrayList<>();
+
+	@Test
+	public void execute_MaxBatchSizeOfOne_ShouldSendEachRequestRightAway() {
+		FeignLambdaServiceBatchingClient client = createClient(this::echo, 1, LONG_DELAY_MILLIS);
+		ServiceResponse response = client.execute(createRequest("/0"), null);
+		assertEquals("/0", response.getBody());
+		assertEquals(Collections.singletonList(Collections.singletonList(createRequest("/0"))), batches);
+	}
+
+	@Test
+	public void execute_MaxDelayElapses_ShouldSendIncompleteBatch() {
+		FeignLambdaServiceBatchingClient client = createClient(this::echo, 10, 1);
+		ServiceResponse response = client.execute(createRequest("/0"), null);
+		assertEquals("/0", response.getBody());
+		assertEquals(1, batches.size());
+	}
+
+	@Test
+	public void execute_ConcurrentRequestsGiven_ShouldSendThemInOneBatch() throws Exception {
+		FeignLambdaServiceBatchingClient client = createClient(this::echo, 3, LONG_DELAY_MILLIS);
+		List<ServiceResponse> responses = executeConcurrently(client, "/0", "/1", "/2");
+		for (int i = 0; i < 3; i++) {
+			assertEquals("/" + i, responses.get(i).getBody());
+		}
+		assertEquals(1, batches.size());
+		assertEquals(3, batches.get(0).size());
+	}
+
+	@Test
+	public void execute_MoreRequestsThanMaxBatchSize_ShouldSendSeveralBatches() throws Exception {
+		FeignLambdaServiceBatchingClient client = createClient(this::echo, 2, LONG_DELAY_MILLIS);
+		List<ServiceResponse> responses = executeConcurrently(client, "/0", "/1", "/2", "/3");
+		for (int i = 0; i < 4; i++) {
+			assertEquals("/" + i, responses.get(i).getBody());
+		}
+		assertEquals(2, batches.size());
+	}
+
+	@Test
+	public void execute_InvocationFails_ShouldFailAllRequestsOfBatch() throws Exception {
+		RuntimeException exception = new RuntimeException();
+		FeignLambdaServiceBatchingClient client = createClient(requests -> {
+			throw exception;
+		}, 2, LONG_DELAY_MILLIS);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<ServiceResponse>> futures = new ArrayList<>();
+			for (int i = 0; i < 2; i++) {
+				futures.add(executor.submit(() -> client.execute(createRequest("/"), null)));
+			}
+			for (Future<ServiceResponse> future : futures) {
+				try {
+					future.get();
+					fail("expected an exception");
+				} catch (ExecutionException e) {
+					assertSame(exception, e.getCause());
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void execute_ResponseMissing_ShouldFail() {
+		FeignLambdaServiceBatchingClient client = createClient(requests -> Collections.emptyList(), 1,
+				LONG_DELAY_MILLIS);
+		client.execute(createRequest("/"), null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void init_NonPositiveMaxBatchSizeGiven_ShouldThrowIae() {
+		createClient(this::echo, 0, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void init_NegativeMaxDelayGiven_ShouldThrowIae() {
+		createClient(this::echo, 1, -1);
+	}
+
+	@Test
+	public void execute_LambdaClientGiven_ShouldInvokeFunctionWithBatch() throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		AWSLambda lambdaClient = mock(AWSLambda.class);
+		DefaultServiceResponse expectedResponse = new DefaultServiceResponse("body", Collections.emptyMap(), 200,
+				"OK");
+		when(lambdaClient.invoke(any())).thenReturn(new InvokeResult().withPayload(ByteBuffer.wrap(
+				mapper.writeValueAsBytes(new ServiceBatchResponse(Collections.singletonList(expectedResponse))))));
+		FeignLambdaServiceBatchingClient client = FeignLambdaServiceBatchingClient.builder()
+				.setAwsLambdaClient(lambdaClient)
+				.setFunctionName(FUNCTION_NAME)
+				.setFunctionAlias("someAlias")
+				.setMaxBatchSize(1)
+				.build();
+		DefaultServiceRequest request = createRequest("/0");
+		assertEquals(expectedResponse, client.execute(request, null));
+
+		ArgumentCaptor<InvokeRequest> invokeRequestCaptor = ArgumentCaptor.forClass(InvokeRequest.class);
+		verify(lambdaClient).invoke(invokeRequestCaptor.capture());
+		InvokeRequest invokeRequest = invokeRequestCaptor.getValue();
+		assertEquals(FUNCTION_NAME, invokeRequest.getFunctionName());
+		assertEquals("someAlias", invokeRequest.getQualifier());
+		assertEquals("RequestResponse", invokeRequest.getInvocationType());
+		ByteBuffer payload = invokeRequest.getPayload();
+		byte[] bytes = new byte[payload.remaining()];
+		payload.duplicate().get(bytes);
+		assertEquals(new ServiceBatchRequest(Collections.singletonList(request)),
+				mapper.readValue(bytes, ServiceBatchRequest.class));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void build_AliasAndVersionGiven_ShouldNotBuild() {
+		FeignLambdaServiceBatchingClient.builder()
+				.setAwsLambdaClient(mock(AWSLambda.class))
+				.setFunctionName(FUNCTION_NAME)
+				.setFunctionAlias("alias")
+				.setFunctionVersion("1")
+				.build();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void build_NoFunctionNameGiven_ShouldNotBuild() {
+		FeignLambdaServiceBatchingClient.builder()
+				.setAwsLambdaClient(mock(AWSLambda.class))
+				.build();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void build_NoClientAndNoRegionGiven_ShouldNotBuild() {
+		FeignLambdaServiceBatchingClient.builder()
+				.setFunctionName(FUNCTION_NAME)
+				.build();
+	}
+
+	private List<ServiceResponse> echo(List<ServiceRequest> requests) {
+		batches.add(new ArrayList<>(requests));
+		List<ServiceResponse> responses = new ArrayList<>();
+		for (ServiceRequest request : requests) {
+			responses.add(new DefaultServiceResponse(request.getRequestUri().toString(), Collections.emptyMap(), 200,
+					"OK"));
+		}
+		return responses;
+	}
+
+	private static FeignLambdaServiceBatchingClient createClient(
+			Function<List<ServiceRequest>, List<? extends ServiceResponse>> batchInvoker, int maxBatchSize,
+			long maxDelayMillis) {
+		return new FeignLambdaServiceBatchingClient(batchInvoker, false, maxBatchSize, maxDelayMillis);
+	}
+
+	private static List<ServiceResponse> executeConcurrently(FeignLambdaServiceBatchingClient client,
+			String... paths) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(paths.length);
+		try {
+			List<Future<ServiceResponse>> futures = new ArrayList<>();
+			for (String path : Arrays.asList(paths)) {
+				futures.add(executor.submit(() -> client.execute(createRequest(path), null)));
+			}
+			List<ServiceResponse> responses = new ArrayList<>();
+			for (Future<ServiceResponse> future : futures) {
+				responses.add(future.get());
+			}
+			return responses;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static DefaultServiceRequest createRequest(String path) {
+		return new DefaultServiceRequest("body", Collections.singletonMap("a", Collections.singletonList("b")),
+				URI.create(path), "POST");
+	}
+}
@@ -0,0 +1,89 @@
+package com.jrestless.aws.service.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.jrestless.aws.service.io.DefaultServiceRequest;
+import com.jrestless.aws.service.io.DefaultServiceResponse;
+import com.jrestless.aws.service.io.ServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+
+import feign.Feign;
+import feign.RequestLine;
+
+public class FeignLambdaServiceCachingClientTest {
+
+	@Test
+	public void execute_CacheableResponse_ShouldInvokeServiceOnce() {
+		AtomicInteger invocations = new AtomicInteger();
+		FeignLambdaServiceLocalClient localClient = new FeignLambdaServiceLocalClient(request -> {
+			invocations.incrementAndGet();
+			return new DefaultServiceResponse("catalog",
+					Collections.singletonMap("Cache-Control", Collections.singletonList("max-age=60")), 200, "OK");
+		});
+		FeignLambdaServiceCachingClient client = new FeignLambdaServiceCachingClient(localClient,
+				ServiceResponseCache.builder().build());
+		CatalogApi api = Feign.builder()
+				.client(client)
+				.target(new LambdaServiceFunctionTarget<>(CatalogApi.class));
+		assertEquals("catalog", api.getCatalog());
+		assertEquals("catalog", api.getCatalog());
+		assertEquals(1, invocations.get());
+		assertEquals(1, client.getCache().getHitCount());
+		assertEquals(1, client.getCache().getMissCount());
+	}
+
+	@Test
+	public void executeEvent_ShouldPassEventToDelegate() {
+		AbstractFeignLambdaServiceClient delegate = mock(AbstractFeignLambdaServiceClient.class);
+		ServiceRequest request = new DefaultServiceRequest(null, Collections.emptyMap(), URI.create("/"), "GET");
+		ServiceResponse response = new DefaultServiceResponse(null, Collections.emptyMap(), 202, "Accepted");
+		when(delegate.executeEvent(request, null)).thenReturn(response);
+		FeignLambdaServiceCachingClient client = new FeignLambdaServiceCachingClient(delegate,
+				ServiceResponseCache.builder().build());
+		assertSame(response, client.executeEvent(request, null));
+		assertSame(response, client.executeEvent(request, null));
+		verify(delegate, times(2)).executeEvent(request, null);
+		verify(delegate, never()).execute(any(ServiceRequest.class), any());
+	}
+
+	@Test
+	public void init_ShouldAdoptBase64SettingOfDelegate() {
+		ServiceResponseCache cache = ServiceResponseCache.builder().build();
+		assertTrue(new FeignLambdaServiceCachingClient(new FeignLambdaServiceLocalClient(request -> null, true), cache)
+				.isBase64EncodeBodies());
+		FeignLambdaServiceCachingClient client = new FeignLambdaServiceCachingClient(
+				new FeignLambdaServiceLocalClient(request -> null), cache);
+		assertFalse(client.isBase64EncodeBodies());
+		assertSame(cache, client.getCache());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullDelegateGiven_ShouldThrowNpe() {
+		new FeignLambdaServiceCachingClient(null, ServiceResponseCache.builder().build());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullCacheGiven_ShouldThrowNpe() {
+		new FeignLambdaServiceCachingClient(new FeignLambdaServiceLocalClient(request -> null), null);
+	}
+
+	interface CatalogApi {
+		@RequestLine("GET /catalog")
+		String getCatalog();
+	}
+}
@@ -1,7 +1,11 @@
 package com.jrestless.aws.service.client;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.isNull;
@@ -10,17 +14,33 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
 
 import com.amazonaws.services.lambda.AWSLambdaClient;
 import com.amazonaws.services.lambda.invoke.LambdaFunctionNameResolver;
 import com.amazonaws.services.lambda.invoke.LambdaInvokerFactory;
+import com.amazonaws.services.lambda.model.InvokeRequest;
+import com.jrestless.aws.service.io.DefaultServiceRequest;
 import com.jrestless.aws.service.io.DefaultServiceResponse;
 import com.jrestless.aws.service.io.ServiceRequest;
 import com.jrestless.aws.service.io.ServiceResponse;
 
+import feign.Contract;
+import feign.Feign;
+import feign.RequestLine;
+
 public class FeignLambdaServiceInvokerClientTest {
 
 	private static final String FUNCTION_NAME = "someFunctionName";
@@ -109,6 +129,66 @@ public class FeignLambdaServiceInvokerClientTest {
 		assertEquals(expectedResponse, actualResponse);
 	}
 
+	@Test
+	public void executeEvent_EventInvocationsEnabled_ShouldInvokeAsEvent() {
+		FeignLambdaServiceInvokerClient invokerClient = new FeignLambdaServiceInvokerClient(lambdaInvokerFactoryBuilder,
+				lambdaClient, FUNCTION_NAME, "myAlias", null, false, true);
+		ServiceResponse response = invokerClient.executeEvent(
+				new DefaultServiceRequest("body", Collections.emptyMap(), URI.create("/"), "POST"), null);
+		assertEquals(202, response.getStatusCode());
+		ArgumentCaptor<InvokeRequest> invokeRequestCaptor = ArgumentCaptor.forClass(InvokeRequest.class);
+		verify(lambdaClient).invoke(invokeRequestCaptor.capture());
+		InvokeRequest invokeRequest = invokeRequestCaptor.getValue();
+		assertEquals(FUNCTION_NAME, invokeRequest.getFunctionName());
+		assertEquals("myAlias", invokeRequest.getQualifier());
+		assertEquals("Event", invokeRequest.getInvocationType());
+		verifyZeroInteractions(service);
+	}
+
+	@Test
+	public void executeEvent_EventInvocationsDisabled_ShouldFailWithoutInvokingFunction() {
+		FeignLambdaServiceInvokerClient invokerClient = init(lambdaClient, FUNCTION_NAME, null, null);
+		try {
+			invokerClient.executeEvent(
+					new DefaultServiceRequest("body", Collections.emptyMap(), URI.create("/"), "POST"), null);
+			fail("expected IllegalStateException");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		verifyZeroInteractions(service);
+		verifyZeroInteractions(lambdaClient);
+	}
+
+	@Test
+	public void feign_VoidMethodGiven_ShouldInvokeAsEvent() {
+		FeignLambdaServiceInvokerClient invokerClient = new FeignLambdaServiceInvokerClient(lambdaInvokerFactoryBuilder,
+				lambdaClient, FUNCTION_NAME, null, null, false, true);
+		AuditApi api = Feign.builder()
+				.contract(new LambdaEventInvocationContract(new Contract.Default(), true))
+				.client(invokerClient)
+				.target(new LambdaServiceFunctionTarget<>(AuditApi.class));
+		api.audit("entry");
+		ArgumentCaptor<InvokeRequest> invokeRequestCaptor = ArgumentCaptor.forClass(InvokeRequest.class);
+		verify(lambdaClient).invoke(invokeRequestCaptor.capture());
+		String payload = StandardCharsets.UTF_8.decode(invokeRequestCaptor.getValue().getPayload()).toString();
+		assertFalse(payload.toLowerCase(Locale.ENGLISH).contains("x-amz-invocation-type"));
+		verifyZeroInteractions(service);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void feign_VoidMethodGivenAndEventInvocationsDisabled_ShouldFail() {
+		AuditApi api = Feign.builder()
+				.contract(new LambdaEventInvocationContract(new Contract.Default(), true))
+				.client(init(lambdaClient, FUNCTION_NAME, null, null))
+				.target(new LambdaServiceFunctionTarget<>(AuditApi.class));
+		api.audit("entry");
+	}
+
+	interface AuditApi {
+		@RequestLine("POST /audit")
+		void audit(String entry);
+	}
+
 	@Test
 	public void testInitCreatesService() {
 		assertNotNull(new FeignLambdaServiceInvokerClient(lambdaClient, FUNCTION_NAME, null, null).getInvokerService());
@@ -123,6 +203,68 @@ public class FeignLambdaServiceInvokerClientTest {
 			.getInvokerService());
 	}
 
+	@Test
+	public void build_FunctionRegisteredLocally_ShouldDispatchToLocalService() {
+		ServiceRequest request = new DefaultServiceRequest("body", Collections.emptyMap(), URI.create("/"), "POST");
+		ServiceResponse expectedResponse = new DefaultServiceResponse(null, Collections.emptyMap(), 200, "OK");
+		FeignLambdaServiceInvokerClient invokerClient = FeignLambdaServiceInvokerClient.builder()
+				.setLocalRegistry(new LambdaServiceLocalRegistry()
+						.register("other", r -> null)
+						.register(FUNCTION_NAME, r -> expectedResponse))
+				.setFunctionName(FUNCTION_NAME)
+				.build();
+		assertTrue(invokerClient.isLocal());
+		assertSame(expectedResponse, invokerClient.execute(request, null));
+	}
+
+	@Test
+	public void build_FunctionRegisteredLocallyAndEventInvocationsEnabled_ShouldDispatchEventAsynchronously()
+			throws InterruptedException {
+		ServiceRequest request = new DefaultServiceRequest("body", Collections.emptyMap(), URI.create("/"), "POST");
+		CountDownLatch release = new CountDownLatch(1);
+		BlockingQueue<ServiceRequest> events = new LinkedBlockingQueue<>();
+		FeignLambdaServiceInvokerClient invokerClient = FeignLambdaServiceInvokerClient.builder()
+				.setLocalRegistry(new LambdaServiceLocalRegistry().register(FUNCTION_NAME, r -> {
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					events.add(r);
+					throw new IllegalStateException("must not reach the caller");
+				}))
+				.setFunctionName(FUNCTION_NAME)
+				.setEventInvocationsEnabled(true)
+				.build();
+		// would block if the event was dispatched on the calling thread
+		assertEquals(202, invokerClient.executeEvent(request, null).getStatusCode());
+		assertTrue(events.isEmpty());
+		release.countDown();
+		assertSame(request, events.poll(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void build_FunctionNotRegisteredLocally_ShouldInvokeFunction() {
+		FeignLambdaServiceInvokerClient remoteClient = init(lambdaClient, FUNCTION_NAME, null, null);
+		FeignLambdaServiceInvokerClient.Builder builder = new FeignLambdaServiceInvokerClient.Builder() {
+			@Override
+			FeignLambdaServiceInvokerClient create(AWSLambdaClient awsLambdaClient, String functionName,
+					String functionAlias, String functionVersion, boolean base64EncodeBodies,
+					boolean eventInvocationsEnabled) {
+				assertSame(lambdaClient, awsLambdaClient);
+				assertEquals(FUNCTION_NAME, functionName);
+				return remoteClient;
+			}
+		};
+		FeignLambdaServiceInvokerClient invokerClient = builder
+				.setLocalRegistry(new LambdaServiceLocalRegistry().register("other", r -> null))
+				.setAwsLambdaClient(lambdaClient)
+				.setFunctionName(FUNCTION_NAME)
+				.build();
+		assertSame(remoteClient, invokerClient);
+		assertFalse(invokerClient.isLocal());
+	}
+
 	FeignLambdaServiceInvokerClient init(AWSLambdaClient awsLambdaClient, String functionName, String functionAlias,
 			String functionVersion) {
 		FeignLambdaServiceInvokerClient lambdaClient = new FeignLambdaServiceInvokerClient(lambdaInvokerFactoryBuilder,
@@ -0,0 +1,70 @@
+package com.jrestless.aws.service.client;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.jrestless.aws.service.io.DefaultServiceResponse;
+import com.jrestless.aws.service.io.ServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+
+public class FeignLambdaServiceLocalClientTest {
+
+	private Function<ServiceRequest, ServiceResponse> service;
+	private feign.Request feignRequest = mock(feign.Request.class);
+
+	@SuppressWarnings("unchecked")
+	@Before
+	public void setup() {
+		service = mock(Function.class);
+		when(feignRequest.url()).thenReturn("/some/path");
+		when(feignRequest.method()).thenReturn("POST");
+		when(feignRequest.body()).thenReturn("request".getBytes(StandardCharsets.UTF_8));
+		when(service.apply(any())).thenReturn(new DefaultServiceResponse("response", Collections.emptyMap(), 201,
+				"Created"));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullServiceGiven_ShouldThrowNpe() {
+		new FeignLambdaServiceLocalClient(null);
+	}
+
+	@Test
+	public void execute_ShouldDispatchServiceRequestToService() throws IOException {
+		new FeignLambdaServiceLocalClient(service).execute(feignRequest, null);
+		ArgumentCaptor<ServiceRequest> requestCaptor = ArgumentCaptor.forClass(ServiceRequest.class);
+		verify(service).apply(requestCaptor.capture());
+		ServiceRequest request = requestCaptor.getValue();
+		assertEquals("request", request.getBody());
+		assertEquals(URI.create("/some/path"), request.getRequestUri());
+		assertEquals("POST", request.getHttpMethod());
+	}
+
+	@Test
+	public void execute_ShouldReturnServiceResponse() throws IOException {
+		feign.Response response = new FeignLambdaServiceLocalClient(service).execute(feignRequest, null);
+		assertEquals(201, response.status());
+		assertEquals("Created", response.reason());
+		try (InputStream body = response.body().asInputStream()) {
+			byte[] bytes = new byte[8];
+			int read = body.read(bytes);
+			byte[] actual = new byte[read];
+			System.arraycopy(bytes, 0, actual, 0, read);
+			assertArrayEquals("response".getBytes(StandardCharsets.UTF_8), actual);
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package com.jrestless.aws.service.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jrestless.aws.service.io.DefaultServiceRequest;
+import com.jrestless.aws.service.io.DefaultServiceResponse;
+import com.jrestless.aws.service.io.ServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+
+public class FeignLambdaServiceSingleFlightClientTest {
+
+	private static final int THREADS = 4;
+
+	private final AtomicInteger invocations = new AtomicInteger();
+	private final CountDownLatch release = new CountDownLatch(1);
+	private ExecutorService executor;
+
+	@Before
+	public void setup() {
+		executor = Executors.newFixedThreadPool(THREADS);
+	}
+
+	@After
+	public void tearDown() {
+		release.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void execute_ConcurrentIdenticalRequests_ShouldShareOneInvocation() throws Exception {
+		FeignLambdaServiceSingleFlightClient client = createClient(request -> new DefaultServiceResponse("body",
+				Collections.emptyMap(), 200, "OK"));
+		List<Future<ServiceResponse>> futures = executeConcurrently(client, "GET", "body");
+		awaitCoalescedCount(client, THREADS - 1);
+		release.countDown();
+		ServiceResponse response = futures.get(0).get();
+		for (Future<ServiceResponse> future : futures) {
+			assertSame(response, future.get());
+		}
+		assertEquals(1, invocations.get());
+	}
+
+	@Test
+	public void executeEvent_ShouldPassEventToDelegate() {
+		AbstractFeignLambdaServiceClient delegate = mock(AbstractFeignLambdaServiceClient.class);
+		ServiceRequest request = new DefaultServiceRequest(null, Collections.emptyMap(), URI.create("/"), "GET");
+		ServiceResponse response = new DefaultServiceResponse(null, Collections.emptyMap(), 202, "Accepted");
+		when(delegate.executeEvent(request, null)).thenReturn(response);
+		FeignLambdaServiceSingleFlightClient client = new FeignLambdaServiceSingleFlightClient(delegate);
+		assertSame(response, client.executeEvent(request, null));
+		assertSame(response, client.executeEvent(request, null));
+		verify(delegate, times(2)).executeEvent(request, null);
+		verify(delegate, never()).execute(any(ServiceRequest.class), any());
+	}
+
+	@Test
+	public void execute_InvocationFails_ShouldFailAllRequestsOfFlight() throws Exception {
+		RuntimeException exception = new RuntimeException();
+		FeignLambdaServiceSingleFlightClient client = createClient(request -> {
+			throw exception;
+		});
+		List<Future<ServiceResponse>> futures = executeConcurrently(client, "GET", null);
+		awaitCoalescedCount(client, THREADS - 1);
+		release.countDown();
+		for (Future<ServiceResponse> future : futures) {
+			try {
+				future.get();
+				fail("expected an exception");
+			} catch (ExecutionException e) {
+				assertSame(exception, e.getCause());
+			}
+		}
+		assertEquals(1, invocations.get());
+	}
+
+	@Test
+	public void execute_SequentialRequests_ShouldNotBeCoalesced() {
+		release.countDown();
+		FeignLambdaServiceSingleFlightClient client = createClient(request -> new DefaultServiceResponse(null,
+				Collections.emptyMap(), 200, "OK"));
+		client.execute(createRequest("GET", null), null);
+		client.execute(createRequest("GET", null), null);
+		assertEquals(2, invocations.get());
+		assertEquals(0, client.getCoalescedCount());
+	}
+
+	@Test
+	public void execute_ConcurrentDifferentRequests_ShouldNotBeCoalesced() throws Exception {
+		FeignLambdaServiceSingleFlightClient client = createClient(request -> new DefaultServiceResponse(
+				request.getBody(), Collections.emptyMap(), 200, "OK"));
+		List<Future<ServiceResponse>> futures = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			String body = Integer.toString(i);
+			futures.add(executor.submit(() -> client.execute(createRequest("GET", body), null)));
+		}
+		awaitInvocations(THREADS);
+		release.countDown();
+		for (int i = 0; i < THREADS; i++) {
+			assertEquals(Integer.toString(i), futures.get(i).get().getBody());
+		}
+		assertEquals(0, client.getCoalescedCount());
+	}
+
+	@Test
+	public void execute_ConcurrentNonIdempotentRequests_ShouldNotBeCoalesced() throws Exception {
+		FeignLambdaServiceSingleFlightClient client = createClient(request -> new DefaultServiceResponse(null,
+				Collections.emptyMap(), 200, "OK"));
+		List<Future<ServiceResponse>> futures = executeConcurrently(client, "POST", "body");
+		awaitInvocations(THREADS);
+		release.countDown();
+		for (Future<ServiceResponse> future : futures) {
+			future.get();
+		}
+		assertEquals(0, client.getCoalescedCount());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullDelegateGiven_ShouldThrowNpe() {
+		new FeignLambdaServiceSingleFlightClient(null);
+	}
+
+	@Test
+	public void init_ShouldAdoptBase64SettingOfDelegate() {
+		assertTrue(new FeignLambdaServiceSingleFlightClient(new FeignLambdaServiceLocalClient(request -> null, true))
+				.isBase64EncodeBodies());
+	}
+
+	private FeignLambdaServiceSingleFlightClient createClient(Function<ServiceRequest, ServiceResponse> service) {
+		return new FeignLambdaServiceSingleFlightClient(new FeignLambdaServiceLocalClient(request -> {
+			invocations.incrementAndGet();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return service.apply(request);
+		}));
+	}
+
+	private List<Future<ServiceResponse>> executeConcurrently(FeignLambdaServiceSingleFlightClient client,
+			String httpMethod, String body) {
+		List<Future<ServiceResponse>> futures = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			futures.add(executor.submit(() -> client.execute(createRequest(httpMethod, body), null)));
+		}
+		return futures;
+	}
+
+	private static void awaitCoalescedCount(FeignLambdaServiceSingleFlightClient client, long coalescedCount)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (client.getCoalescedCount() < coalescedCount && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		assertEquals(coalescedCount, client.getCoalescedCount());
+	}
+
+	private void awaitInvocations(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (invocations.get() < count && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		assertEquals(count, invocations.get());
+	}
+
+	private static DefaultServiceRequest createRequest(String httpMethod, String body) {
+		return new DefaultServiceRequest(body, Collections.singletonMap("a", Collections.singletonList("b")),
+				URI.create("/path"), httpMethod);
+	}
+}
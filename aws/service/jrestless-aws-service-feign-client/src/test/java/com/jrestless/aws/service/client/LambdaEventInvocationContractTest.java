@@ -0,0 +1,84 @@
+package com.jrestless.aws.service.client;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import feign.Contract;
+import feign.MethodMetadata;
+import feign.RequestLine;
+
+public class LambdaEventInvocationContractTest {
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullDelegateGiven_ShouldThrowNpe() {
+		new LambdaEventInvocationContract(null, false);
+	}
+
+	@Test
+	public void parse_AnnotatedMethodGiven_ShouldMarkAsEvent() {
+		Map<String, MethodMetadata> metadata = parse(false);
+		assertTrue(isMarked(metadata.get("Api#notifyUser(String)")));
+	}
+
+	@Test
+	public void parse_VoidMethodsAsEventsDisabled_ShouldNotMarkVoidMethod() {
+		Map<String, MethodMetadata> metadata = parse(false);
+		assertFalse(isMarked(metadata.get("Api#audit(String)")));
+		assertFalse(isMarked(metadata.get("Api#get()")));
+	}
+
+	@Test
+	public void parse_VoidMethodsAsEventsEnabled_ShouldMarkVoidMethod() {
+		Map<String, MethodMetadata> metadata = parse(true);
+		assertTrue(isMarked(metadata.get("Api#audit(String)")));
+		assertTrue(isMarked(metadata.get("Api#notifyUser(String)")));
+		assertFalse(isMarked(metadata.get("Api#get()")));
+	}
+
+	@Test
+	public void isEventInvocation_MarkerGiven_ShouldReturnTrue() {
+		assertTrue(LambdaEventInvocationContract.isEventInvocation(
+				Collections.singletonMap("x-amz-invocation-type", Collections.singletonList("Event"))));
+	}
+
+	@Test
+	public void isEventInvocation_NoMarkerGiven_ShouldReturnFalse() {
+		assertFalse(LambdaEventInvocationContract.isEventInvocation(Collections.emptyMap()));
+		assertFalse(LambdaEventInvocationContract.isEventInvocation(Collections.singletonMap(
+				LambdaEventInvocationContract.INVOCATION_TYPE_HEADER, Collections.singletonList("RequestResponse"))));
+	}
+
+	private static Map<String, MethodMetadata> parse(boolean voidMethodsAsEvents) {
+		Map<String, MethodMetadata> metadata = new HashMap<>();
+		for (MethodMetadata methodMetadata : new LambdaEventInvocationContract(new Contract.Default(),
+				voidMethodsAsEvents).parseAndValidatateMetadata(Api.class)) {
+			metadata.put(methodMetadata.configKey(), methodMetadata);
+		}
+		return metadata;
+	}
+
+	private static boolean isMarked(MethodMetadata metadata) {
+		Collection<String> values = metadata.template().headers()
+				.get(LambdaEventInvocationContract.INVOCATION_TYPE_HEADER);
+		return values != null && values.contains("Event");
+	}
+
+	interface Api {
+		@RequestLine("POST /audit")
+		void audit(String entry);
+
+		@LambdaEventInvocation
+		@RequestLine("POST /notify")
+		String notifyUser(String message);
+
+		@RequestLine("GET /")
+		String get();
+	}
+}
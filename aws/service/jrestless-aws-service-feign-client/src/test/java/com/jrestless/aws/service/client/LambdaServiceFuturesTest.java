@@ -0,0 +1,110 @@
+package com.jrestless.aws.service.client;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Test;
+
+public class LambdaServiceFuturesTest {
+
+	@Test
+	public void join_CompletedFutureGiven_ShouldReturnValue() {
+		Object value = new Object();
+		assertSame(value, LambdaServiceFutures.join(CompletableFuture.completedFuture(value)));
+	}
+
+	@Test
+	public void join_RuntimeExceptionGiven_ShouldRethrowIt() {
+		RuntimeException exception = new IllegalStateException();
+		try {
+			LambdaServiceFutures.join(failedFuture(exception));
+			fail("expected IllegalStateException");
+		} catch (IllegalStateException e) {
+			assertSame(exception, e);
+		}
+	}
+
+	@Test
+	public void join_ErrorGiven_ShouldRethrowIt() {
+		Error error = new AssertionError();
+		try {
+			LambdaServiceFutures.join(failedFuture(error));
+			fail("expected AssertionError");
+		} catch (AssertionError e) {
+			assertSame(error, e);
+		}
+	}
+
+	@Test
+	public void join_IOExceptionGiven_ShouldWrapItIntoUncheckedIOException() {
+		IOException exception = new IOException();
+		try {
+			LambdaServiceFutures.join(failedFuture(exception));
+			fail("expected UncheckedIOException");
+		} catch (UncheckedIOException e) {
+			assertSame(exception, e.getCause());
+		}
+	}
+
+	@Test
+	public void join_OtherCheckedExceptionGiven_ShouldWrapItIntoCompletionException() {
+		Exception exception = new Exception();
+		try {
+			LambdaServiceFutures.join(failedFuture(exception));
+			fail("expected CompletionException");
+		} catch (CompletionException e) {
+			assertSame(exception, e.getCause());
+		}
+	}
+
+	@Test
+	public void get_CompletedFutureGiven_ShouldReturnValue() {
+		Object value = new Object();
+		assertSame(value, LambdaServiceFutures.get(CompletableFuture.completedFuture(value), 0));
+	}
+
+	@Test
+	public void get_RuntimeExceptionGiven_ShouldRethrowIt() {
+		RuntimeException exception = new IllegalStateException();
+		try {
+			LambdaServiceFutures.get(failedFuture(exception), 0);
+			fail("expected IllegalStateException");
+		} catch (IllegalStateException e) {
+			assertSame(exception, e);
+		}
+	}
+
+	@Test
+	public void get_IOExceptionGiven_ShouldWrapItIntoUncheckedIOException() {
+		IOException exception = new IOException();
+		try {
+			LambdaServiceFutures.get(failedFuture(exception), 0);
+			fail("expected UncheckedIOException");
+		} catch (UncheckedIOException e) {
+			assertSame(exception, e.getCause());
+		}
+	}
+
+	@Test
+	public void get_IncompleteFutureGiven_ShouldTimeOut() {
+		try {
+			LambdaServiceFutures.get(new CompletableFuture<>(), 1);
+			fail("expected UncheckedIOException");
+		} catch (UncheckedIOException e) {
+			assertTrue(e.getCause() instanceof SocketTimeoutException);
+		}
+	}
+
+	private static CompletableFuture<Object> failedFuture(Throwable e) {
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		future.completeExceptionally(e);
+		return future;
+	}
+}
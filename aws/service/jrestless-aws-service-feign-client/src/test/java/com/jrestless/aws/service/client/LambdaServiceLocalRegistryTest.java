@@ -0,0 +1,49 @@
+package com.jrestless.aws.service.client;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import com.jrestless.aws.service.io.ServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+
+public class LambdaServiceLocalRegistryTest {
+
+	private final Function<ServiceRequest, ServiceResponse> service = request -> null;
+	private final Function<ServiceRequest, ServiceResponse> otherService = request -> null;
+
+	@Test
+	public void lookup_RegisteredFunctionNameGiven_ShouldReturnService() {
+		LambdaServiceLocalRegistry registry = new LambdaServiceLocalRegistry()
+				.register("other", otherService)
+				.register("fn", service);
+		assertSame(service, registry.lookup("fn"));
+		assertSame(otherService, registry.lookup("other"));
+	}
+
+	@Test
+	public void lookup_UnknownFunctionNameGiven_ShouldReturnNull() {
+		assertNull(new LambdaServiceLocalRegistry().register("fn", service).lookup("other"));
+	}
+
+	@Test
+	public void register_FunctionNameRegisteredTwice_ShouldReplaceService() {
+		LambdaServiceLocalRegistry registry = new LambdaServiceLocalRegistry()
+				.register("fn", service)
+				.register("fn", otherService);
+		assertSame(otherService, registry.lookup("fn"));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void register_NullFunctionNameGiven_ShouldThrowNpe() {
+		new LambdaServiceLocalRegistry().register(null, service);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void register_NullServiceGiven_ShouldThrowNpe() {
+		new LambdaServiceLocalRegistry().register("fn", null);
+	}
+}
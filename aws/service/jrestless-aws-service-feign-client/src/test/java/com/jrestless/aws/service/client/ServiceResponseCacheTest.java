@@ -0,0 +1,243 @@
+package com.jrestless.aws.service.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jrestless.aws.service.io.DefaultServiceRequest;
+import com.jrestless.aws.service.io.DefaultServiceResponse;
+import com.jrestless.aws.service.io.ServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+import com.jrestless.test.MutableClock;
+
+public class ServiceResponseCacheTest {
+
+	private static final String DATE = "Tue, 15 Nov 1994 12:45:26 GMT";
+	private static final String DATE_PLUS_10_SECONDS = "Tue, 15 Nov 1994 12:45:36 GMT";
+
+	private MutableClock clock;
+	private ServiceResponseCache cache;
+	private List<ServiceRequest> serviceRequests;
+
+	@Before
+	public void setup() {
+		clock = new MutableClock();
+		cache = ServiceResponseCache.builder().setClock(clock).build();
+		serviceRequests = new ArrayList<>();
+	}
+
+	@Test
+	public void get_MaxAgeGiven_ShouldBeServedFromCacheWhileFresh() {
+		Function<ServiceRequest, ServiceResponse> service = respond(ok("max-age=10", null));
+		ServiceResponse first = cache.execute(get("/a"), service);
+		assertSame(first, cache.execute(get("/a"), service));
+		assertEquals(1, serviceRequests.size());
+		clock.advanceSeconds(10);
+		cache.execute(get("/a"), service);
+		assertEquals(2, serviceRequests.size());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	public void get_ExpiresGiven_ShouldBeFreshRelativeToDate() {
+		Map<String, List<String>> headers = new HashMap<>();
+		headers.put("Date", Collections.singletonList(DATE));
+		headers.put("Expires", Collections.singletonList(DATE_PLUS_10_SECONDS));
+		Function<ServiceRequest, ServiceResponse> service = respond(response(200, headers));
+		cache.execute(get("/a"), service);
+		clock.advanceSeconds(9);
+		cache.execute(get("/a"), service);
+		assertEquals(1, serviceRequests.size());
+		clock.advanceSeconds(1);
+		cache.execute(get("/a"), service);
+		assertEquals(2, serviceRequests.size());
+	}
+
+	@Test
+	public void get_NoFreshnessAndNoETag_ShouldNotBeStored() {
+		Function<ServiceRequest, ServiceResponse> service = respond(ok(null, null));
+		cache.execute(get("/a"), service);
+		cache.execute(get("/a"), service);
+		assertEquals(2, serviceRequests.size());
+		assertEquals(0, cache.getEntryCount());
+	}
+
+	@Test
+	public void get_NoStoreGiven_ShouldNotBeStored() {
+		Function<ServiceRequest, ServiceResponse> service = respond(ok("max-age=10, no-store", null));
+		cache.execute(get("/a"), service);
+		cache.execute(get("/a"), service);
+		assertEquals(2, serviceRequests.size());
+	}
+
+	@Test
+	public void get_NonOkStatus_ShouldNotBeStored() {
+		Function<ServiceRequest, ServiceResponse> service = respond(response(404,
+				Collections.singletonMap("Cache-Control", Collections.singletonList("max-age=10"))));
+		cache.execute(get("/a"), service);
+		cache.execute(get("/a"), service);
+		assertEquals(2, serviceRequests.size());
+	}
+
+	@Test
+	public void get_StaleEntryWithETag_ShouldBeRevalidated() {
+		DefaultServiceResponse stored = ok("max-age=10", "\"1\"");
+		Function<ServiceRequest, ServiceResponse> service = respond(stored, response(304,
+				Collections.singletonMap("Cache-Control", Collections.singletonList("max-age=20"))));
+		cache.execute(get("/a"), service);
+		clock.advanceSeconds(10);
+		ServiceResponse revalidated = cache.execute(get("/a"), service);
+		assertEquals(200, revalidated.getStatusCode());
+		assertEquals(stored.getBody(), revalidated.getBody());
+		assertEquals(Collections.singletonList("max-age=20"), revalidated.getHeaders().get("Cache-Control"));
+		assertEquals(Collections.singletonList("\"1\""), serviceRequests.get(1).getHeaders().get("If-None-Match"));
+		assertEquals(1, cache.getRevalidationCount());
+		// refreshed
+		clock.advanceSeconds(19);
+		cache.execute(get("/a"), service);
+		assertEquals(2, serviceRequests.size());
+	}
+
+	@Test
+	public void get_NoCacheResponseWithETag_ShouldAlwaysBeRevalidated() {
+		DefaultServiceResponse stored = ok("no-cache", "\"1\"");
+		Function<ServiceRequest, ServiceResponse> service = respond(stored, response(304, Collections.emptyMap()));
+		cache.execute(get("/a"), service);
+		assertEquals(stored, cache.execute(get("/a"), service));
+		assertEquals(2, serviceRequests.size());
+		assertEquals(Collections.singletonList("\"1\""), serviceRequests.get(1).getHeaders().get("If-None-Match"));
+	}
+
+	@Test
+	public void get_RevalidationReturnsNewResponse_ShouldReplaceEntry() {
+		DefaultServiceResponse changed = new DefaultServiceResponse("changed",
+				Collections.singletonMap("Cache-Control", Collections.singletonList("max-age=10")), 200, "OK");
+		Function<ServiceRequest, ServiceResponse> service = respond(ok("no-cache", "\"1\""), changed);
+		cache.execute(get("/a"), service);
+		assertSame(changed, cache.execute(get("/a"), service));
+		assertSame(changed, cache.execute(get("/a"), service));
+		assertEquals(2, serviceRequests.size());
+	}
+
+	@Test
+	public void get_DifferentKeyHeaders_ShouldBeCachedSeparately() {
+		Function<ServiceRequest, ServiceResponse> service = respond(ok("max-age=10", null));
+		cache.execute(get("/a", "Authorization", "1"), service);
+		cache.execute(get("/a", "authorization", "2"), service);
+		cache.execute(get("/a", "AUTHORIZATION", "1"), service);
+		assertEquals(2, serviceRequests.size());
+		assertEquals(2, cache.getEntryCount());
+	}
+
+	@Test
+	public void get_VaryOnOtherHeader_ShouldNotBeStored() {
+		Map<String, List<String>> headers = new HashMap<>();
+		headers.put("Cache-Control", Collections.singletonList("max-age=10"));
+		headers.put("Vary", Collections.singletonList("Accept, X-Other"));
+		Function<ServiceRequest, ServiceResponse> service = respond(response(200, headers));
+		cache.execute(get("/a"), service);
+		cache.execute(get("/a"), service);
+		assertEquals(2, serviceRequests.size());
+	}
+
+	@Test
+	public void get_NoCacheRequest_ShouldBypassLookupButStore() {
+		Function<ServiceRequest, ServiceResponse> service = respond(ok("max-age=10", null));
+		cache.execute(get("/a"), service);
+		cache.execute(get("/a", "Cache-Control", "no-cache"), service);
+		cache.execute(get("/a"), service);
+		assertEquals(2, serviceRequests.size());
+	}
+
+	@Test
+	public void get_ConditionalRequest_ShouldBypassCache() {
+		Function<ServiceRequest, ServiceResponse> service = respond(ok("max-age=10", "\"1\""));
+		cache.execute(get("/a", "If-None-Match", "\"1\""), service);
+		assertEquals(0, cache.getEntryCount());
+		assertEquals(0, cache.getMissCount());
+	}
+
+	@Test
+	public void post_ShouldInvalidateUri() {
+		Function<ServiceRequest, ServiceResponse> service = respond(ok("max-age=10", null));
+		cache.execute(get("/a"), service);
+		cache.execute(get("/b"), service);
+		cache.execute(new DefaultServiceRequest(null, Collections.emptyMap(), URI.create("/a"), "POST"), service);
+		assertEquals(1, cache.getEntryCount());
+		cache.execute(get("/a"), service);
+		assertEquals(4, serviceRequests.size());
+	}
+
+	@Test
+	public void store_MaximumEntriesExceeded_ShouldEvictLeastRecentlyUsed() {
+		cache = ServiceResponseCache.builder().setClock(clock).setMaximumEntries(2).build();
+		Function<ServiceRequest, ServiceResponse> service = respond(ok("max-age=10", null));
+		cache.execute(get("/a"), service);
+		cache.execute(get("/b"), service);
+		cache.execute(get("/a"), service);
+		cache.execute(get("/c"), service);
+		assertEquals(2, cache.getEntryCount());
+		assertEquals(1, cache.getEvictionCount());
+		cache.execute(get("/a"), service);
+		assertEquals(3, serviceRequests.size());
+		cache.execute(get("/b"), service);
+		assertEquals(4, serviceRequests.size());
+	}
+
+	@Test
+	public void invalidateAll_ShouldRemoveAllEntries() {
+		Function<ServiceRequest, ServiceResponse> service = respond(ok("max-age=10", null));
+		cache.execute(get("/a"), service);
+		cache.invalidateAll();
+		assertEquals(0, cache.getEntryCount());
+		cache.execute(get("/a"), service);
+		assertEquals(2, serviceRequests.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void build_NonPositiveMaximumEntries_ShouldThrowIae() {
+		ServiceResponseCache.builder().setMaximumEntries(0);
+	}
+
+	private Function<ServiceRequest, ServiceResponse> respond(ServiceResponse... responses) {
+		return request -> {
+			serviceRequests.add(request);
+			return responses[Math.min(serviceRequests.size(), responses.length) - 1];
+		};
+	}
+
+	private static DefaultServiceRequest get(String path, String... headers) {
+		Map<String, List<String>> requestHeaders = new HashMap<>();
+		for (int i = 0; i < headers.length; i += 2) {
+			requestHeaders.put(headers[i], Arrays.asList(headers[i + 1]));
+		}
+		return new DefaultServiceRequest(null, requestHeaders, URI.create(path), "GET");
+	}
+
+	private static DefaultServiceResponse ok(String cacheControl, String etag) {
+		Map<String, List<String>> headers = new HashMap<>();
+		if (cacheControl != null) {
+			headers.put("Cache-Control", Collections.singletonList(cacheControl));
+		}
+		if (etag != null) {
+			headers.put("ETag", Collections.singletonList(etag));
+		}
+		return response(200, headers);
+	}
+
+	private static DefaultServiceResponse response(int statusCode, Map<String, List<String>> headers) {
+		return new DefaultServiceResponse(statusCode == 200 ? "body" : null, headers, statusCode, null);
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.service.handler;
+
+import java.net.URI;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.jrestless.aws.service.io.ServiceBatchRequest;
+import com.jrestless.aws.service.io.ServiceBatchResponse;
+
+/**
+ * AWS lambda request (object) handler that uses
+ * {@link com.jrestless.core.container.JRestlessHandlerContainer} and so Jersey
+ * to process batches of requests from other Lambda functions; see
+ * {@link #handleBatchRequest(ServiceBatchRequest, Context)}.
+ * <p>
+ * Implementations must provide a no-args constructor.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public abstract class ServiceBatchRequestObjectHandler extends ServiceRequestHandler
+		implements RequestHandler<ServiceBatchRequest, ServiceBatchResponse> {
+
+	protected ServiceBatchRequestObjectHandler() {
+		super();
+	}
+
+	protected ServiceBatchRequestObjectHandler(URI baseUri) {
+		super(baseUri);
+	}
+
+	@Override
+	public ServiceBatchResponse handleRequest(ServiceBatchRequest request, Context lambdaContext) {
+		return handleBatchRequest(request, lambdaContext);
+	}
+}
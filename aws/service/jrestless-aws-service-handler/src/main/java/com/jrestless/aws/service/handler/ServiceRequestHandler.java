@@ -18,16 +18,18 @@ package com.jrestless.aws.service.handler;
 import static java.util.Objects.requireNonNull;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.Response.StatusType;
 
@@ -38,13 +40,19 @@ import org.slf4j.LoggerFactory;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.jrestless.aws.AwsFeature;
+import com.jrestless.aws.LambdaTimeouts;
 import com.jrestless.aws.service.ServiceFeature;
+import com.jrestless.aws.service.io.DefaultServiceRequest;
 import com.jrestless.aws.service.io.DefaultServiceResponse;
+import com.jrestless.aws.service.io.ServiceBatchRequest;
+import com.jrestless.aws.service.io.ServiceBatchResponse;
 import com.jrestless.aws.service.io.ServiceRequest;
 import com.jrestless.aws.service.io.ServiceResponse;
+import com.jrestless.core.container.handler.PooledBufferResponseWriter;
 import com.jrestless.core.container.handler.SimpleRequestHandler;
-import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
+import com.jrestless.core.container.io.Base64DecodingInputStream;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.PresizableByteArrayOutputStream;
 
 /**
  * Base request handler.
@@ -73,6 +81,80 @@ public abstract class ServiceRequestHandler
 		this.baseUri = baseUri;
 	}
 
+	/**
+	 * Handles a request issued from within the same JVM, i.e. without a
+	 * lambda context.
+	 * <p>
+	 * This allows to call a co-located service without any serialization -
+	 * e.g. via {@code FeignLambdaServiceLocalClient} or a
+	 * {@code LambdaServiceLocalRegistry}.
+	 *
+	 * @param request
+	 *            the service request
+	 * @return the service response
+	 */
+	public ServiceResponse handleLocalRequest(@Nonnull ServiceRequest request) {
+		return delegateRequest(new ServiceRequestAndLambdaContext(requireNonNull(request), null));
+	}
+
+	/**
+	 * Handles all requests of the batch within a single lambda invocation by
+	 * passing each of them to {@link #delegateRequest(Object)}.
+	 * <p>
+	 * The requests are handled one after another on the calling thread unless
+	 * {@link #getBatchRequestExecutor()} provides an executor to handle them in
+	 * parallel.
+	 *
+	 * @param batchRequest
+	 *            the batch of service requests
+	 * @param lambdaContext
+	 *            the lambda context - may be null for local requests
+	 * @return the responses in the order of the requests
+	 */
+	public ServiceBatchResponse handleBatchRequest(@Nonnull ServiceBatchRequest batchRequest,
+			@Nullable Context lambdaContext) {
+		List<DefaultServiceRequest> requests = requireNonNull(batchRequest).getRequests();
+		List<DefaultServiceResponse> responses = new ArrayList<>(requests.size());
+		Executor executor = getBatchRequestExecutor();
+		if (executor == null || requests.size() < 2) {
+			for (ServiceRequest request : requests) {
+				responses.add(toDefaultServiceResponse(
+						delegateRequest(new ServiceRequestAndLambdaContext(request, lambdaContext))));
+			}
+		} else {
+			List<CompletableFuture<ServiceResponse>> futures = new ArrayList<>(requests.size());
+			for (ServiceRequest request : requests) {
+				futures.add(CompletableFuture.supplyAsync(
+						() -> delegateRequest(new ServiceRequestAndLambdaContext(request, lambdaContext)), executor));
+			}
+			for (CompletableFuture<ServiceResponse> future : futures) {
+				responses.add(toDefaultServiceResponse(future.join()));
+			}
+		}
+		return new ServiceBatchResponse(responses);
+	}
+
+	/**
+	 * Returns the executor to handle the requests of a batch in parallel with.
+	 * <p>
+	 * The default implementation returns null so that the requests of a
+	 * batch get handled sequentially.
+	 *
+	 * @return the executor or null
+	 */
+	@Nullable
+	protected Executor getBatchRequestExecutor() {
+		return null;
+	}
+
+	private static DefaultServiceResponse toDefaultServiceResponse(ServiceResponse response) {
+		if (response instanceof DefaultServiceResponse) {
+			return (DefaultServiceResponse) response;
+		}
+		return new DefaultServiceResponse(response.getBody(), response.getHeaders(), response.getStatusCode(),
+				response.getReasonPhrase(), response.isBase64Encoded());
+	}
+
 	@Override
 	protected JRestlessContainerRequest createContainerRequest(ServiceRequestAndLambdaContext requestAndLambdaContext) {
 		requireNonNull(requestAndLambdaContext);
@@ -80,12 +162,15 @@ public abstract class ServiceRequestHandler
 		URI requestUri = requireNonNull(request.getRequestUri());
 		String body = request.getBody();
 		InputStream entityStream;
-		if (body != null) {
-			entityStream = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
-		} else {
+		if (body == null) {
 			entityStream = new ByteArrayInputStream(new byte[0]);
+		} else if (request.isBase64Encoded()) {
+			// decode lazily while the entity is being read
+			entityStream = new Base64DecodingInputStream(body);
+		} else {
+			entityStream = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
 		}
-		return new DefaultJRestlessContainerRequest(baseUri, requestUri, request.getHttpMethod(), entityStream,
+		return createDefaultContainerRequest(baseUri, requestUri, request.getHttpMethod(), entityStream,
 				request.getHeaders());
 	}
 
@@ -94,6 +179,16 @@ public abstract class ServiceRequestHandler
 			JRestlessContainerRequest containerRequest, ServiceRequestAndLambdaContext requestAndLambdaContext) {
 		ServiceRequest request = requestAndLambdaContext.getServiceRequest();
 		Context lambdaContext = requestAndLambdaContext.getLambdaContext();
+		initializeRequestScope(actualContainerRequest, request, lambdaContext);
+	}
+
+	@Override
+	protected void extendWarmUpJerseyContainerRequest(ContainerRequest actualContainerRequest) {
+		initializeRequestScope(actualContainerRequest, new DefaultServiceRequest(), null);
+	}
+
+	private void initializeRequestScope(ContainerRequest actualContainerRequest, ServiceRequest request,
+			@Nullable Context lambdaContext) {
 		actualContainerRequest.setRequestScopedInitializer(locator -> {
 			Ref<ServiceRequest> serviceRequestRef = locator
 					.<Ref<ServiceRequest>>getService(ServiceFeature.SERVICE_REQUEST_TYPE);
@@ -111,10 +206,27 @@ public abstract class ServiceRequestHandler
 		});
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The default implementation uses the remaining execution time of the
+	 * function; see {@link LambdaTimeouts#getAsyncResponseTimeoutMillis(Context)}.
+	 */
+	@Override
+	protected long getAsyncResponseTimeoutMillis(ServiceRequestAndLambdaContext requestAndContext) {
+		return LambdaTimeouts.getAsyncResponseTimeoutMillis(requestAndContext.getLambdaContext());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Responses to Base64 encoded requests are Base64 encoded, as well, since
+	 * the client is known to handle them.
+	 */
 	@Override
 	protected SimpleResponseWriter<ServiceResponse> createResponseWriter(
 			ServiceRequestAndLambdaContext requestAndContext) {
-		return new ResponseWriter();
+		return new ResponseWriter(requestAndContext.getServiceRequest().isBase64Encoded());
 	}
 
 	@Override
@@ -125,24 +237,35 @@ public abstract class ServiceRequestHandler
 				Status.INTERNAL_SERVER_ERROR.getReasonPhrase());
 	}
 
-	protected static class ResponseWriter implements SimpleResponseWriter<ServiceResponse> {
+	protected static class ResponseWriter extends PooledBufferResponseWriter<ServiceResponse> {
+		private final boolean base64Encode;
 		private ServiceResponse response;
 
 		public ResponseWriter() {
 			// allow usage by ServiceRequestHandler subclasses
+			this(false);
 		}
 
-		@Override
-		public OutputStream getEntityOutputStream() {
-			return new ByteArrayOutputStream();
+		/**
+		 * @param base64Encode
+		 *            whether to Base64 encode the response body instead of
+		 *            decoding it as UTF-8
+		 */
+		public ResponseWriter(boolean base64Encode) {
+			this.base64Encode = base64Encode;
 		}
 
 		@Override
-		public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
-				OutputStream entityOutputStream) throws IOException {
-			String body = ((ByteArrayOutputStream) entityOutputStream).toString(StandardCharsets.UTF_8.name());
+		protected void writeBufferedResponse(StatusType statusType, Map<String, List<String>> headers,
+				PresizableByteArrayOutputStream entityBuffer) {
+			String body;
+			if (base64Encode) {
+				body = entityBuffer.toBase64String();
+			} else {
+				body = entityBuffer.toString(StandardCharsets.UTF_8);
+			}
 			response = new DefaultServiceResponse(body, headers, statusType.getStatusCode(),
-					statusType.getReasonPhrase());
+					statusType.getReasonPhrase(), base64Encode);
 		}
 
 		@Override
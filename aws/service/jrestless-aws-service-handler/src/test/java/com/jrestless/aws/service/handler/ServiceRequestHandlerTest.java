@@ -4,6 +4,8 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -13,12 +15,18 @@ import static org.mockito.Mockito.when;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 
+import javax.ws.rs.core.Response.Status;
+
 import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.server.ContainerRequest;
@@ -34,7 +42,9 @@ import com.jrestless.aws.AwsFeature;
 import com.jrestless.aws.service.ServiceFeature;
 import com.jrestless.aws.service.io.DefaultServiceRequest;
 import com.jrestless.aws.service.io.ServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
 import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.handler.SimpleRequestHandler.SimpleResponseWriter;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
 
 public class ServiceRequestHandlerTest {
@@ -119,6 +129,73 @@ public class ServiceRequestHandlerTest {
 		assertArrayEquals("abc".getBytes(), toBytes((ByteArrayInputStream) is));
 	}
 
+	@Test
+	public void createContainerRequest_Base64EncodedBodyGiven_ShouldDecodeBody() throws IOException {
+		byte[] body = { 0, (byte) 0xFF, (byte) 0xC3, 1 };
+		ServiceRequestAndLambdaContext request = createMinimalRequest();
+		((DefaultServiceRequest) request.getServiceRequest()).setBody(Base64.getEncoder().encodeToString(body));
+		((DefaultServiceRequest) request.getServiceRequest()).setBase64Encoded(true);
+		JRestlessContainerRequest containerRequest = serviceHandler.createContainerRequest(request);
+		try (InputStream is = containerRequest.getEntityStream()) {
+			byte[] actual = new byte[body.length + 1];
+			int read = 0;
+			int n;
+			while ((n = is.read(actual, read, actual.length - read)) > 0) {
+				read += n;
+			}
+			assertEquals(body.length, read);
+			assertArrayEquals(body, Arrays.copyOf(actual, read));
+		}
+	}
+
+	@Test
+	public void createContainerRequest_Base64EncodedBodyReadInSmallChunks_ShouldDecodeBody() throws IOException {
+		// the JDK 8 wrap decoder returns too many bytes for 7-byte reads of such bodies
+		for (int length : new int[] { 8, 29, 50 }) {
+			byte[] body = new byte[length];
+			for (int i = 0; i < length; i++) {
+				body[i] = (byte) (i * 31);
+			}
+			ServiceRequestAndLambdaContext request = createMinimalRequest();
+			((DefaultServiceRequest) request.getServiceRequest()).setBody(Base64.getEncoder().encodeToString(body));
+			((DefaultServiceRequest) request.getServiceRequest()).setBase64Encoded(true);
+			JRestlessContainerRequest containerRequest = serviceHandler.createContainerRequest(request);
+			try (InputStream is = containerRequest.getEntityStream()) {
+				byte[] actual = new byte[length + 7];
+				int read = 0;
+				int n;
+				while ((n = is.read(actual, read, Math.min(7, actual.length - read))) > 0) {
+					read += n;
+				}
+				assertArrayEquals(body, Arrays.copyOf(actual, read));
+			}
+		}
+	}
+
+	@Test
+	public void createResponseWriter_Base64EncodedRequestGiven_ShouldBase64EncodeResponse() throws IOException {
+		ServiceRequestAndLambdaContext request = createMinimalRequest();
+		((DefaultServiceRequest) request.getServiceRequest()).setBase64Encoded(true);
+		ServiceResponse response = writeResponse(request, new byte[] { 0, (byte) 0xFF });
+		assertEquals(Base64.getEncoder().encodeToString(new byte[] { 0, (byte) 0xFF }), response.getBody());
+		assertTrue(response.isBase64Encoded());
+	}
+
+	@Test
+	public void createResponseWriter_PlainRequestGiven_ShouldDecodeResponseAsUtf8() throws IOException {
+		ServiceResponse response = writeResponse(createMinimalRequest(), "\u00e4".getBytes(StandardCharsets.UTF_8));
+		assertEquals("\u00e4", response.getBody());
+		assertFalse(response.isBase64Encoded());
+	}
+
+	private ServiceResponse writeResponse(ServiceRequestAndLambdaContext request, byte[] entity) throws IOException {
+		SimpleResponseWriter<ServiceResponse> responseWriter = serviceHandler.createResponseWriter(request);
+		OutputStream entityOutputStream = responseWriter.getEntityOutputStream();
+		entityOutputStream.write(entity);
+		responseWriter.writeResponse(Status.OK, new HashMap<>(), entityOutputStream);
+		return responseWriter.getResponse();
+	}
+
 	@Test
 	public void createContainerRequest_HttpMethodGiven_ShouldUseHttpMethod() {
 		ServiceRequestAndLambdaContext request = createMinimalRequest();
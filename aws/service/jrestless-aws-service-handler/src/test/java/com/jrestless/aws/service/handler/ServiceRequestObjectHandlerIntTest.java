@@ -2,6 +2,7 @@ package com.jrestless.aws.service.handler;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -10,11 +11,16 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -41,6 +47,8 @@ import com.google.common.collect.ImmutableMap;
 import com.jrestless.aws.service.ServiceFeature;
 import com.jrestless.aws.service.io.DefaultServiceRequest;
 import com.jrestless.aws.service.io.DefaultServiceResponse;
+import com.jrestless.aws.service.io.ServiceBatchRequest;
+import com.jrestless.aws.service.io.ServiceBatchResponse;
 import com.jrestless.aws.service.io.ServiceRequest;
 import com.jrestless.aws.service.io.ServiceResponse;
 import com.jrestless.core.container.dpi.InstanceBinder;
@@ -53,15 +61,19 @@ public class ServiceRequestObjectHandlerIntTest {
 
 	@Before
 	public void setup() {
+		testService = mock(TestService.class);
+		handler = spy(new ServiceRequestObjectHandlerImpl());
+		handler.init(createConfig());
+		handler.start();
+	}
+
+	private ResourceConfig createConfig() {
 		ResourceConfig config = new ResourceConfig();
 		config.register(ServiceFeature.class);
-		testService = mock(TestService.class);
 		Binder binder = new InstanceBinder.Builder().addInstance(testService, TestService.class).build();
 		config.register(binder);
 		config.register(TestResource.class);
-		handler = spy(new ServiceRequestObjectHandlerImpl());
-		handler.init(config);
-		handler.start();
+		return config;
 	}
 
 	@Test
@@ -98,6 +110,21 @@ public class ServiceRequestObjectHandlerIntTest {
 		verify(testService).injectedStringArg("/inject-service-request-member1");
 	}
 
+	@Test
+	public void testLocalRequestPassesServiceRequestAsIs() {
+		DefaultServiceRequest request = new DefaultServiceRequest(null, new HashMap<>(), URI.create("/inject-service-request"), "PUT");
+		ServiceResponse response = handler.handleLocalRequest(request);
+		verify(testService).injectServiceRequest(same(request));
+		assertEquals(200, response.getStatusCode());
+	}
+
+	@Test
+	public void testLocalRequestInjectsNoLambdaContext() {
+		DefaultServiceRequest request = new DefaultServiceRequest(null, new HashMap<>(), URI.create("/"), "DELETE");
+		handler.handleLocalRequest(request);
+		verify(testService).injectLambdaContext(null);
+	}
+
 	@Test
 	public void testContainerFailureCreates500() {
 		DefaultServiceRequest request = new DefaultServiceRequest(null, new HashMap<>(), URI.create("/"), "DELETE");
@@ -120,6 +147,86 @@ public class ServiceRequestObjectHandlerIntTest {
 		assertEquals(new DefaultServiceResponse(responseBody, responseHeaders, 200, "OK"), response);
 	}
 
+	@Test
+	public void testBatchRequestRespondsInOrder() throws JsonProcessingException {
+		ServiceBatchResponse response = handler.handleBatchRequest(createBatchRequest(), context);
+		assertEquals(createExpectedBatchResponse(), response);
+		verify(testService).injectLambdaContext(context);
+	}
+
+	@Test
+	public void testBatchRequestContainerFailureCreates500ForFailedRequestOnly() {
+		DefaultServiceRequest request0 = new DefaultServiceRequest(null, new HashMap<>(), URI.create("/"), "DELETE");
+		DefaultServiceRequest request1 = new DefaultServiceRequest(null, new HashMap<>(), URI.create("/"), "PUT");
+		doThrow(new RuntimeException()).when(handler).createContainerRequest(
+				argThat(r -> r.getServiceRequest() == request1));
+		ServiceBatchResponse response = handler.handleBatchRequest(
+				new ServiceBatchRequest(Arrays.asList(request0, request1)), context);
+		assertEquals(200, response.getResponses().get(0).getStatusCode());
+		assertEquals(500, response.getResponses().get(1).getStatusCode());
+	}
+
+	@Test
+	public void testBatchRequestWithExecutorRespondsInOrder() throws JsonProcessingException {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			ServiceRequestObjectHandlerImpl parallelHandler = new ServiceRequestObjectHandlerImpl() {
+				@Override
+				protected Executor getBatchRequestExecutor() {
+					return executor;
+				}
+			};
+			parallelHandler.init(createConfig());
+			parallelHandler.start();
+			ServiceBatchResponse response = parallelHandler.handleBatchRequest(createBatchRequest(), context);
+			assertEquals(createExpectedBatchResponse(), response);
+			verify(testService).injectLambdaContext(context);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testBatchRequestObjectHandlerHandlesBatch() throws JsonProcessingException {
+		ServiceBatchRequestObjectHandler batchHandler = new ServiceBatchRequestObjectHandler() {
+		};
+		batchHandler.init(createConfig());
+		batchHandler.start();
+		assertEquals(createExpectedBatchResponse(), batchHandler.handleRequest(createBatchRequest(), context));
+	}
+
+	private static ServiceBatchRequest createBatchRequest() throws JsonProcessingException {
+		List<DefaultServiceRequest> requests = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			requests.add(createSimpleRequest(Integer.toString(i)));
+		}
+		requests.add(new DefaultServiceRequest(null, new HashMap<>(), URI.create("/"), "DELETE"));
+		return new ServiceBatchRequest(requests);
+	}
+
+	private static ServiceBatchResponse createExpectedBatchResponse() throws JsonProcessingException {
+		List<DefaultServiceResponse> responses = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			responses.add(createSimpleResponse(Integer.toString(i)));
+		}
+		responses.add(new DefaultServiceResponse("", new HashMap<>(), 200, "OK"));
+		return new ServiceBatchResponse(responses);
+	}
+
+	private static DefaultServiceRequest createSimpleRequest(String value) throws JsonProcessingException {
+		List<String> jsonMediaType = Collections.singletonList(MediaType.APPLICATION_JSON);
+		Map<String, List<String>> requestHeaders = ImmutableMap.of(HttpHeaders.ACCEPT, jsonMediaType,
+				HttpHeaders.CONTENT_TYPE, jsonMediaType);
+		return new DefaultServiceRequest(new ObjectMapper().writeValueAsString(new Entity(value)), requestHeaders,
+				URI.create("/simple"), "POST");
+	}
+
+	private static DefaultServiceResponse createSimpleResponse(String value) throws JsonProcessingException {
+		List<String> jsonMediaType = Collections.singletonList(MediaType.APPLICATION_JSON);
+		return new DefaultServiceResponse(new ObjectMapper().writeValueAsString(new Entity(value)),
+				ImmutableMap.of(HttpHeaders.CONTENT_TYPE, jsonMediaType), 200, "OK");
+	}
+
 	@Singleton
 	@Path("/")
 	public static class TestResource {
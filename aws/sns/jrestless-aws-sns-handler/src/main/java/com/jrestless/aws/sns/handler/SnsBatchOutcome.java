@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.sns.handler;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNSRecord;
+
+/**
+ * The outcome of the processing of all records of an SNS event.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class SnsBatchOutcome {
+
+	private final List<SnsRecordOutcome> recordOutcomes;
+	private final List<SnsRecordOutcome> failedRecordOutcomes;
+
+	SnsBatchOutcome(@Nonnull List<SnsRecordOutcome> recordOutcomes) {
+		this.recordOutcomes = Collections.unmodifiableList(requireNonNull(recordOutcomes));
+		List<SnsRecordOutcome> failed = new ArrayList<>();
+		for (SnsRecordOutcome recordOutcome : recordOutcomes) {
+			if (!recordOutcome.isSuccessful()) {
+				failed.add(recordOutcome);
+			}
+		}
+		this.failedRecordOutcomes = Collections.unmodifiableList(failed);
+	}
+
+	/**
+	 * @return the outcomes of all records in the order of the event
+	 */
+	@Nonnull
+	public List<SnsRecordOutcome> getRecordOutcomes() {
+		return recordOutcomes;
+	}
+
+	/**
+	 * Returns the outcomes of all records that haven't been processed
+	 * successfully; this includes records that haven't been processed at all.
+	 *
+	 * @return the outcomes of all unsuccessful records in the order of the
+	 *         event
+	 */
+	@Nonnull
+	public List<SnsRecordOutcome> getFailedRecordOutcomes() {
+		return failedRecordOutcomes;
+	}
+
+	/**
+	 * @return the records that haven't been processed successfully in the
+	 *         order of the event
+	 */
+	@Nonnull
+	public List<SNSRecord> getFailedRecords() {
+		List<SNSRecord> failedRecords = new ArrayList<>(failedRecordOutcomes.size());
+		for (SnsRecordOutcome recordOutcome : failedRecordOutcomes) {
+			failedRecords.add(recordOutcome.getSnsRecord());
+		}
+		return failedRecords;
+	}
+
+	/**
+	 * @return {@code true} if all records have been processed successfully
+	 */
+	public boolean isSuccessful() {
+		return failedRecordOutcomes.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "SnsBatchOutcome [recordCount=" + recordOutcomes.size() + ", failedRecordCount="
+				+ failedRecordOutcomes.size() + "]";
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.sns.handler;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+
+import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNSRecord;
+
+/**
+ * Thrown when the processing of one or more records of an SNS event failed.
+ * <p>
+ * The exception of the first failed record is the cause of this exception; the
+ * exceptions of all other failed records are added as suppressed exceptions.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class SnsBatchProcessingException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient SnsBatchOutcome batchOutcome;
+
+	public SnsBatchProcessingException(SnsBatchOutcome batchOutcome) {
+		super(requireNonNull(batchOutcome).getFailedRecordOutcomes().size() + " of "
+				+ batchOutcome.getRecordOutcomes().size() + " SNS records failed");
+		this.batchOutcome = batchOutcome;
+		for (SnsRecordOutcome recordOutcome : batchOutcome.getFailedRecordOutcomes()) {
+			Throwable exception = recordOutcome.getException();
+			if (exception == null) {
+				continue;
+			}
+			if (getCause() == null) {
+				initCause(exception);
+			} else {
+				addSuppressed(exception);
+			}
+		}
+	}
+
+	/**
+	 * @return the outcome of the whole batch
+	 */
+	public SnsBatchOutcome getBatchOutcome() {
+		return batchOutcome;
+	}
+
+	/**
+	 * @return the records that failed in the order of the event
+	 */
+	public List<SNSRecord> getFailedRecords() {
+		return batchOutcome.getFailedRecords();
+	}
+
+	/**
+	 * @return the total number of records in the event
+	 */
+	public int getRecordCount() {
+		return batchOutcome.getRecordOutcomes().size();
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.sns.handler;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNS;
+import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNSRecord;
+
+/**
+ * Defines which records of an SNS event must be processed in the order they
+ * have been received when the records are processed in parallel.
+ * <p>
+ * Records that share the same ordering key are processed sequentially in the
+ * order of the event; records with different keys are processed concurrently.
+ *
+ * @see SnsRequestObjectHandler#enableParallelProcessing(java.util.concurrent.ExecutorService,
+ *      SnsRecordOrdering)
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public enum SnsRecordOrdering {
+
+	/**
+	 * Records are processed independently of each other.
+	 */
+	NONE(snsRecord -> null),
+	/**
+	 * Records of the same topic are processed in order.
+	 */
+	TOPIC(snsRecord -> getSns(snsRecord).getTopicArn()),
+	/**
+	 * Records of the same topic and with the same subject are processed in
+	 * order.
+	 */
+	TOPIC_AND_SUBJECT(snsRecord -> {
+		SNS sns = getSns(snsRecord);
+		return Arrays.asList(sns.getTopicArn(), sns.getSubject());
+	});
+
+	private final Function<SNSRecord, Object> keyFunction;
+
+	SnsRecordOrdering(Function<SNSRecord, Object> keyFunction) {
+		this.keyFunction = keyFunction;
+	}
+
+	/**
+	 * Returns the ordering key of the given record. Records with the same key
+	 * must be processed in order; {@code null} means that the record can be
+	 * processed independently.
+	 *
+	 * @param snsRecord
+	 * @return the ordering key or {@code null}
+	 */
+	@Nullable
+	Object getKey(@Nonnull SNSRecord snsRecord) {
+		return keyFunction.apply(snsRecord);
+	}
+
+	private static SNS getSns(SNSRecord snsRecord) {
+		SNS sns = snsRecord.getSNS();
+		return sns == null ? new SNS() : sns;
+	}
+}
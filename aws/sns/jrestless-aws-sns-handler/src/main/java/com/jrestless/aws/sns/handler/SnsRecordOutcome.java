@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.sns.handler;
+
+import static java.util.Objects.requireNonNull;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.Response.StatusType;
+
+import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNSRecord;
+
+/**
+ * The outcome of the processing of a single record of an SNS event.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class SnsRecordOutcome {
+
+	private final SNSRecord snsRecord;
+	private final int index;
+	private final boolean processed;
+	private final StatusType status;
+	private final Throwable exception;
+	private final long latencyNanos;
+
+	SnsRecordOutcome(@Nonnull SNSRecord snsRecord, int index, boolean processed, @Nullable StatusType status,
+			@Nullable Throwable exception, long latencyNanos) {
+		this.snsRecord = requireNonNull(snsRecord);
+		this.index = index;
+		this.processed = processed;
+		this.status = status;
+		this.exception = exception;
+		this.latencyNanos = latencyNanos;
+	}
+
+	static SnsRecordOutcome skipped(@Nonnull SNSRecord snsRecord, int index) {
+		return new SnsRecordOutcome(snsRecord, index, false, null, null, 0);
+	}
+
+	@Nonnull
+	public SNSRecord getSnsRecord() {
+		return snsRecord;
+	}
+
+	/**
+	 * @return the index of the record in the SNS event
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Returns {@code true} if the record has been passed to the container. In
+	 * fail-fast mode records following a failed record are not processed.
+	 *
+	 * @return {@code true} if the record has been processed
+	 */
+	public boolean isProcessed() {
+		return processed;
+	}
+
+	/**
+	 * Returns the response status of the record's request. The status is
+	 * {@code null} if the record has not been processed or if the request
+	 * failed before a response could be written.
+	 *
+	 * @return the response status or {@code null}
+	 */
+	@Nullable
+	public StatusType getStatus() {
+		return status;
+	}
+
+	/**
+	 * Returns the exception the processing of the record failed with, if any.
+	 *
+	 * @return the exception or {@code null}
+	 */
+	@Nullable
+	public Throwable getException() {
+		return exception;
+	}
+
+	/**
+	 * @return the time it took to process the record in nanoseconds
+	 */
+	public long getLatencyNanos() {
+		return latencyNanos;
+	}
+
+	/**
+	 * A record has been processed successfully if it has been processed without
+	 * an exception and its response status is 2xx.
+	 *
+	 * @return {@code true} if the record has been processed successfully
+	 */
+	public boolean isSuccessful() {
+		return processed && exception == null && status != null
+				&& Status.Family.SUCCESSFUL.equals(status.getFamily());
+	}
+
+	@Override
+	public String toString() {
+		return "SnsRecordOutcome [index=" + index + ", processed=" + processed + ", status="
+				+ (status == null ? null : status.getStatusCode()) + ", exception=" + exception + ", latencyNanos="
+				+ latencyNanos + "]";
+	}
+}
@@ -19,9 +19,7 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
@@ -30,6 +28,7 @@ import java.util.Map;
 import java.util.function.Supplier;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -45,10 +44,12 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNS;
 import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNSRecord;
 import com.jrestless.aws.AwsFeature;
+import com.jrestless.aws.LambdaTimeouts;
 import com.jrestless.aws.sns.SnsFeature;
+import com.jrestless.core.container.handler.PooledBufferResponseWriter;
 import com.jrestless.core.container.handler.SimpleRequestHandler;
-import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.PresizableByteArrayOutputStream;
 
 /**
  * Base AWS SNS request handler.
@@ -86,7 +87,7 @@ public abstract class SnsRequestHandler extends SimpleRequestHandler<SnsRecordAn
 		Map<String, List<String>> headers = requireNonNull(createHeaders(snsRecordAndContext));
 		String httpMethod = requireNonNull(createHttpMethod(snsRecordAndContext));
 		URI requestUri = requireNonNull(createRequestUri(snsRecordAndContext));
-		return new DefaultJRestlessContainerRequest(baseUri, requestUri, httpMethod, entityStream, headers);
+		return createDefaultContainerRequest(baseUri, requestUri, httpMethod, entityStream, headers);
 	}
 
 	/**
@@ -163,6 +164,17 @@ public abstract class SnsRequestHandler extends SimpleRequestHandler<SnsRecordAn
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The default implementation uses the remaining execution time of the
+	 * function; see {@link LambdaTimeouts#getAsyncResponseTimeoutMillis(Context)}.
+	 */
+	@Override
+	protected long getAsyncResponseTimeoutMillis(SnsRecordAndLambdaContext snsRecordAndContext) {
+		return LambdaTimeouts.getAsyncResponseTimeoutMillis(snsRecordAndContext.getLambdaContext());
+	}
+
 	@Override
 	protected final SimpleResponseWriter<Void> createResponseWriter(SnsRecordAndLambdaContext snsRecordAndContext) {
 		return new ResponseWriter(snsRecordAndContext);
@@ -173,6 +185,16 @@ public abstract class SnsRequestHandler extends SimpleRequestHandler<SnsRecordAn
 			JRestlessContainerRequest containerRequest, SnsRecordAndLambdaContext snsRecordAndContext) {
 		SNSRecord snsRecord = snsRecordAndContext.getSnsRecord();
 		Context lambdaContext = snsRecordAndContext.getLambdaContext();
+		initializeRequestScope(actualContainerRequest, snsRecord, lambdaContext);
+	}
+
+	@Override
+	protected void extendWarmUpJerseyContainerRequest(ContainerRequest actualContainerRequest) {
+		initializeRequestScope(actualContainerRequest, new SNSRecord(), null);
+	}
+
+	private void initializeRequestScope(ContainerRequest actualContainerRequest, SNSRecord snsRecord,
+			@Nullable Context lambdaContext) {
 		actualContainerRequest.setRequestScopedInitializer(locator -> {
 			Ref<SNSRecord> snsRecordRef = locator.<Ref<SNSRecord>>getService(SnsFeature.SNS_RECORD_TYPE);
 			if (snsRecordRef != null) {
@@ -204,7 +226,8 @@ public abstract class SnsRequestHandler extends SimpleRequestHandler<SnsRecordAn
 	 * @param headers
 	 *            the response headers
 	 * @param entityOutputStream
-	 *            the response body
+	 *            the response body; a pooled buffer that must not be used
+	 *            after the method returned
 	 */
 	public void handleReponse(SnsRecordAndLambdaContext snsRecordAndContext, StatusType statusType,
 			Map<String, List<String>> headers, ByteArrayOutputStream entityOutputStream) {
@@ -218,6 +241,22 @@ public abstract class SnsRequestHandler extends SimpleRequestHandler<SnsRecordAn
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Keeps the exception in the {@link SnsBatchOutcome}.
+	 */
+	@Override
+	protected final void beforeRequestFailure(Exception e, SnsRecordAndLambdaContext request,
+			JRestlessContainerRequest containerRequest) {
+		recordFailure(request, e);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The default implementation logs the exception.
+	 */
 	@Override
 	protected Void onRequestFailure(Exception e, SnsRecordAndLambdaContext request,
 			JRestlessContainerRequest containerRequest) {
@@ -225,7 +264,21 @@ public abstract class SnsRequestHandler extends SimpleRequestHandler<SnsRecordAn
 		return null;
 	}
 
-	private class ResponseWriter implements SimpleResponseWriter<Void> {
+	/**
+	 * Invoked with the response status of every request before
+	 * {@link #handleReponse(SnsRecordAndLambdaContext, StatusType, Map, ByteArrayOutputStream)
+	 * handleReponse} gets called.
+	 */
+	void recordResponse(SnsRecordAndLambdaContext snsRecordAndContext, StatusType statusType) {
+	}
+
+	/**
+	 * Invoked with the exception of every failed request.
+	 */
+	void recordFailure(SnsRecordAndLambdaContext snsRecordAndContext, Exception e) {
+	}
+
+	private class ResponseWriter extends PooledBufferResponseWriter<Void> {
 		private final SnsRecordAndLambdaContext snsRecordAndContext;
 
 		ResponseWriter(SnsRecordAndLambdaContext snsRecordAndContext) {
@@ -233,15 +286,10 @@ public abstract class SnsRequestHandler extends SimpleRequestHandler<SnsRecordAn
 		}
 
 		@Override
-		public OutputStream getEntityOutputStream() {
-			return new ByteArrayOutputStream();
-		}
-
-		@Override
-		public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
-				OutputStream entityOutputStream) throws IOException {
-			SnsRequestHandler.this.handleReponse(snsRecordAndContext, statusType, headers,
-					(ByteArrayOutputStream) entityOutputStream);
+		protected void writeBufferedResponse(StatusType statusType, Map<String, List<String>> headers,
+				PresizableByteArrayOutputStream entityBuffer) {
+			recordResponse(snsRecordAndContext, statusType);
+			SnsRequestHandler.this.handleReponse(snsRecordAndContext, statusType, headers, entityBuffer);
 		}
 
 		@Override
@@ -15,7 +15,27 @@
  */
 package com.jrestless.aws.sns.handler;
 
+import static java.util.Objects.requireNonNull;
+import static jersey.repackaged.com.google.common.base.Preconditions.checkArgument;
+
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.Response.StatusType;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
@@ -27,6 +47,14 @@ import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNSRecord;
  * {@link com.jrestless.core.container.JRestlessHandlerContainer} and so Jersey
  * to process incoming requests from other Lambda functions.
  * <p>
+ * By default the records of an SNS event are processed sequentially. Parallel
+ * processing can be enabled via
+ * {@link #enableParallelProcessing(int, SnsRecordOrdering)}.
+ * <p>
+ * The status, the exception and the latency of every record are collected
+ * into an {@link SnsBatchOutcome} which is passed to
+ * {@link #onBatchProcessed(SnsBatchOutcome, Context)}.
+ * <p>
  * Implementations must provide a no-args constructor.
  *
  * @author Bjoern Bilger
@@ -34,6 +62,11 @@ import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNSRecord;
  */
 public abstract class SnsRequestObjectHandler extends SnsRequestHandler implements RequestHandler<SNSEvent, Void> {
 
+	private ExecutorService recordExecutor;
+	private boolean recordExecutorOwned;
+	private SnsRecordOrdering recordOrdering = SnsRecordOrdering.NONE;
+	private boolean failFast;
+
 	protected SnsRequestObjectHandler() {
 		super();
 	}
@@ -42,11 +75,253 @@ public abstract class SnsRequestObjectHandler extends SnsRequestHandler implemen
 		super(baseUri);
 	}
 
+	/**
+	 * Enables the parallel processing of the records of an SNS event using a
+	 * fixed pool of {@code parallelism} daemon threads.
+	 * <p>
+	 * The pool is owned by the handler and shut down once parallel processing
+	 * gets enabled again.
+	 *
+	 * @param parallelism
+	 *            the maximum number of records processed concurrently
+	 * @param recordOrdering
+	 *            defines which records must be processed in order
+	 * @see #enableParallelProcessing(ExecutorService, SnsRecordOrdering)
+	 */
+	public final void enableParallelProcessing(int parallelism, @Nonnull SnsRecordOrdering recordOrdering) {
+		checkArgument(parallelism > 0, "parallelism must be greater than 0");
+		requireNonNull(recordOrdering);
+		replaceRecordExecutor(Executors.newFixedThreadPool(parallelism, new RecordThreadFactory()), true,
+				recordOrdering);
+	}
+
+	/**
+	 * Enables the parallel processing of the records of an SNS event using the
+	 * given executor.
+	 * <p>
+	 * Every record is still processed in its own request with its own
+	 * {@link SnsRecordAndLambdaContext}, so the injection of the
+	 * {@link SNSRecord} and the {@link Context} is isolated per record. Records
+	 * sharing the same ordering key (s. {@link SnsRecordOrdering}) are
+	 * processed sequentially in the order of the event.
+	 * <p>
+	 * Failures of single records don't affect the processing of other
+	 * (unordered) records unless fail-fast mode is enabled (s.
+	 * {@link #setFailFast(boolean)}). Once all records have been processed, an
+	 * {@link SnsBatchProcessingException} aggregating all failures is thrown.
+	 * Within a group of ordered records, the processing stops at the first
+	 * exception.
+	 * <p>
+	 * The executor is not shut down by the handler. A pool created by
+	 * {@link #enableParallelProcessing(int, SnsRecordOrdering)} before is
+	 * shut down, though.
+	 *
+	 * @param executor
+	 *            the executor to process the records with
+	 * @param recordOrdering
+	 *            defines which records must be processed in order
+	 */
+	public final void enableParallelProcessing(@Nonnull ExecutorService executor,
+			@Nonnull SnsRecordOrdering recordOrdering) {
+		replaceRecordExecutor(requireNonNull(executor), false, requireNonNull(recordOrdering));
+	}
+
+	private synchronized void replaceRecordExecutor(ExecutorService executor, boolean owned,
+			SnsRecordOrdering recordOrdering) {
+		if (recordExecutorOwned && recordExecutor != executor) {
+			recordExecutor.shutdown();
+		}
+		this.recordExecutor = executor;
+		this.recordExecutorOwned = owned;
+		this.recordOrdering = recordOrdering;
+	}
+
+	/**
+	 * Enables or disables the fail-fast mode. Disabled by default.
+	 * <p>
+	 * In fail-fast mode no further records are processed once a record failed,
+	 * i.e. it didn't respond with a 2xx status or its processing threw an
+	 * exception, and an {@link SnsBatchProcessingException} is thrown after
+	 * {@link #onBatchProcessed(SnsBatchOutcome, Context)} has been invoked.
+	 * Records that are already being processed in parallel are completed.
+	 * <p>
+	 * Otherwise all records are processed and an
+	 * {@link SnsBatchProcessingException} is thrown only if an exception
+	 * escaped the processing of a record.
+	 *
+	 * @param failFast
+	 */
+	public final void setFailFast(boolean failFast) {
+		this.failFast = failFast;
+	}
+
+	/**
+	 * Hook that is invoked once all records of an SNS event have been
+	 * processed, providing the status, the exception and the latency of every
+	 * record. This allows to report slow or failed records, or to hand them
+	 * over to some dead letter queue.
+	 * <p>
+	 * The default implementation does nothing.
+	 *
+	 * @param batchOutcome
+	 *            the outcome of all records
+	 * @param lambdaContext
+	 *            the lambda context of the invocation
+	 */
+	protected void onBatchProcessed(@Nonnull SnsBatchOutcome batchOutcome, @Nullable Context lambdaContext) {
+	}
+
 	@Override
 	public Void handleRequest(SNSEvent snsEvent, Context context) {
-		for (SNSRecord snsRecord : snsEvent.getRecords()) {
-			delegateRequest(new SnsRecordAndLambdaContext(snsRecord, context));
+		List<SNSRecord> records = snsEvent.getRecords();
+		List<RecordInvocation> invocations = new ArrayList<>(records.size());
+		for (int i = 0; i < records.size(); i++) {
+			invocations.add(new RecordInvocation(records.get(i), context, i));
+		}
+		AtomicBoolean aborted = new AtomicBoolean();
+		if (recordExecutor == null || invocations.size() <= 1) {
+			processInOrder(invocations, aborted);
+		} else {
+			processInParallel(invocations, aborted);
+		}
+		List<SnsRecordOutcome> recordOutcomes = new ArrayList<>(invocations.size());
+		boolean uncaughtFailure = false;
+		for (RecordInvocation invocation : invocations) {
+			recordOutcomes.add(invocation.toOutcome());
+			uncaughtFailure |= invocation.uncaughtFailure;
+		}
+		SnsBatchOutcome batchOutcome = new SnsBatchOutcome(recordOutcomes);
+		onBatchProcessed(batchOutcome, context);
+		if (uncaughtFailure || failFast && !batchOutcome.isSuccessful()) {
+			throw new SnsBatchProcessingException(batchOutcome);
 		}
 		return null;
 	}
+
+	private void processInParallel(List<RecordInvocation> invocations, AtomicBoolean aborted) {
+		List<List<RecordInvocation>> groups = groupRecords(invocations);
+		List<Future<?>> futures = new ArrayList<>(groups.size());
+		for (List<RecordInvocation> group : groups) {
+			futures.add(recordExecutor.submit(() -> processInOrder(group, aborted)));
+		}
+		awaitAll(futures);
+	}
+
+	/*
+	 * processes the records one after another and stops at the first record
+	 * whose exception escaped (subsequent records must not overtake it)
+	 */
+	private void processInOrder(List<RecordInvocation> invocations, AtomicBoolean aborted) {
+		for (RecordInvocation invocation : invocations) {
+			if (aborted.get()) {
+				return;
+			}
+			long start = System.nanoTime();
+			try {
+				delegateRequest(invocation);
+			} catch (RuntimeException e) {
+				invocation.exception = e;
+				invocation.uncaughtFailure = true;
+			}
+			invocation.latencyNanos = System.nanoTime() - start;
+			invocation.processed = true;
+			if (failFast && !invocation.toOutcome().isSuccessful()) {
+				aborted.set(true);
+			}
+			if (invocation.uncaughtFailure) {
+				return;
+			}
+		}
+	}
+
+	private List<List<RecordInvocation>> groupRecords(List<RecordInvocation> invocations) {
+		List<List<RecordInvocation>> groups = new ArrayList<>(invocations.size());
+		Map<Object, List<RecordInvocation>> orderedGroups = new LinkedHashMap<>();
+		for (RecordInvocation invocation : invocations) {
+			Object key = recordOrdering.getKey(invocation.getSnsRecord());
+			if (key == null) {
+				groups.add(Collections.singletonList(invocation));
+			} else {
+				List<RecordInvocation> group = orderedGroups.get(key);
+				if (group == null) {
+					group = new ArrayList<>();
+					orderedGroups.put(key, group);
+					groups.add(group);
+				}
+				group.add(invocation);
+			}
+		}
+		return groups;
+	}
+
+	@Override
+	final void recordResponse(SnsRecordAndLambdaContext snsRecordAndContext, StatusType statusType) {
+		if (snsRecordAndContext instanceof RecordInvocation) {
+			((RecordInvocation) snsRecordAndContext).status = statusType;
+		}
+	}
+
+	@Override
+	final void recordFailure(SnsRecordAndLambdaContext snsRecordAndContext, Exception e) {
+		if (snsRecordAndContext instanceof RecordInvocation) {
+			((RecordInvocation) snsRecordAndContext).exception = e;
+		}
+	}
+
+	private static void awaitAll(List<Future<?>> futures) {
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while waiting for SNS records to be processed", e);
+			} catch (ExecutionException e) {
+				// record failures are captured by the task itself, errors are not
+				if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw new IllegalStateException("failed to process SNS records", e);
+			} catch (CancellationException e) {
+				throw new IllegalStateException("failed to process SNS records", e);
+			}
+		}
+	}
+
+	/*
+	 * the request passed to the container; collects the outcome of the record
+	 * and is confined to the thread processing the record
+	 */
+	private static final class RecordInvocation extends SnsRecordAndLambdaContext {
+		private final int index;
+		private boolean processed;
+		private StatusType status;
+		private Throwable exception;
+		private boolean uncaughtFailure;
+		private long latencyNanos;
+
+		RecordInvocation(SNSRecord snsRecord, Context lambdaContext, int index) {
+			super(snsRecord, lambdaContext);
+			this.index = index;
+		}
+
+		SnsRecordOutcome toOutcome() {
+			if (!processed) {
+				return SnsRecordOutcome.skipped(getSnsRecord(), index);
+			}
+			return new SnsRecordOutcome(getSnsRecord(), index, true, status, exception, latencyNanos);
+		}
+	}
+
+	private static final class RecordThreadFactory implements ThreadFactory {
+		private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+		private final AtomicInteger threadNumber = new AtomicInteger();
+		private final String namePrefix = "jrestless-sns-" + POOL_NUMBER.incrementAndGet() + "-record-";
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
 }
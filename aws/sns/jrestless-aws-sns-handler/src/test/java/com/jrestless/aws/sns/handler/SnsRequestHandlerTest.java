@@ -41,6 +41,7 @@ import com.jrestless.aws.AwsFeature;
 import com.jrestless.aws.sns.SnsFeature;
 import com.jrestless.core.container.JRestlessHandlerContainer;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessResponseWriter;
 
 public class SnsRequestHandlerTest {
 	private JRestlessHandlerContainer<JRestlessContainerRequest> container;
@@ -180,8 +181,9 @@ public class SnsRequestHandlerTest {
 
 		StatusType statusType = mock(StatusType.class);
 		Map<String, List<String>> headers = mock(Map.class);
-		ByteArrayOutputStream entityOutputStream = mock(ByteArrayOutputStream.class);
-		snsHandler.createResponseWriter(reqAndContext).writeResponse(statusType, headers, entityOutputStream);
+		JRestlessResponseWriter responseWriter = snsHandler.createResponseWriter(reqAndContext);
+		ByteArrayOutputStream entityOutputStream = (ByteArrayOutputStream) responseWriter.getEntityOutputStream();
+		responseWriter.writeResponse(statusType, headers, entityOutputStream);
 		verify(snsHandler).handleReponse(reqAndContext, statusType, headers, entityOutputStream);
 	}
 
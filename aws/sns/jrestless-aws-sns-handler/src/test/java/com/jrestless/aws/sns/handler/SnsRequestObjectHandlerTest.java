@@ -0,0 +1,432 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.sns.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.glassfish.hk2.utilities.Binder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.SNSEvent;
+import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNS;
+import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNSRecord;
+import com.jrestless.aws.sns.SnsFeature;
+import com.jrestless.core.container.dpi.InstanceBinder;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+
+public class SnsRequestObjectHandlerTest {
+
+	private static final int PARALLELISM = 4;
+	private static final long TIMEOUT_SECONDS = 5;
+
+	private SnsRequestObjectHandlerImpl handler;
+	private RecordCollector collector;
+	private ExecutorService executor;
+	private Context lambdaContext = mock(Context.class);
+
+	@Before
+	public void setup() {
+		collector = new RecordCollector();
+		ResourceConfig config = new ResourceConfig();
+		config.register(SnsFeature.class);
+		Binder binder = new InstanceBinder.Builder().addInstance(collector, RecordCollector.class).build();
+		config.register(binder);
+		config.register(TestResource.class);
+		handler = new SnsRequestObjectHandlerImpl();
+		handler.init(config);
+		handler.start();
+		executor = Executors.newFixedThreadPool(PARALLELISM);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void enableParallelProcessing_ZeroParallelismGiven_ShouldThrowIae() {
+		handler.enableParallelProcessing(0, SnsRecordOrdering.NONE);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void enableParallelProcessing_NullExecutorGiven_ShouldThrowNpe() {
+		handler.enableParallelProcessing(null, SnsRecordOrdering.NONE);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void enableParallelProcessing_NullOrderingGiven_ShouldThrowNpe() {
+		handler.enableParallelProcessing(executor, null);
+	}
+
+	@Test
+	public void enableParallelProcessing_CalledAgain_ShouldShutDownPreviouslyCreatedPool() throws InterruptedException {
+		handler.enableParallelProcessing(1, SnsRecordOrdering.NONE);
+		handler.handleRequest(createSnsEvent(
+				createSnsRecord("a:b:topic", "ok0"),
+				createSnsRecord("a:b:topic", "ok1")), lambdaContext);
+		assertEquals(1, handler.processingThreads.size());
+		Thread poolThread = handler.processingThreads.iterator().next();
+		handler.enableParallelProcessing(executor, SnsRecordOrdering.NONE);
+		poolThread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+		assertFalse(poolThread.isAlive());
+	}
+
+	@Test
+	public void enableParallelProcessing_GivenExecutorReplaced_ShouldNotShutDownExecutor() {
+		handler.enableParallelProcessing(executor, SnsRecordOrdering.NONE);
+		handler.enableParallelProcessing(PARALLELISM, SnsRecordOrdering.NONE);
+		assertFalse(executor.isShutdown());
+	}
+
+	@Test
+	public void handleRequest_ParallelProcessingEnabled_ShouldInjectOwnRecordIntoEachRequest() {
+		handler.enableParallelProcessing(PARALLELISM, SnsRecordOrdering.NONE);
+		List<SNSRecord> records = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			records.add(createSnsRecord("a:b:topic", "record" + i));
+		}
+		assertNull(handler.handleRequest(createSnsEvent(records), lambdaContext));
+		assertEquals(records.size(), collector.injectedRecords.size());
+		for (SNSRecord snsRecord : records) {
+			assertSame(snsRecord.getSNS(), collector.injectedRecords.get(snsRecord.getSNS().getSubject()));
+		}
+	}
+
+	@Test
+	public void handleRequest_NoOrdering_ShouldProcessRecordsConcurrently() {
+		handler.enableParallelProcessing(executor, SnsRecordOrdering.NONE);
+		collector.barrier = new CountDownLatch(2);
+		handler.handleRequest(createSnsEvent(
+				createSnsRecord("a:b:topic", "await0"),
+				createSnsRecord("a:b:topic", "await1")), lambdaContext);
+		// would time out if the records were processed sequentially
+		assertEquals(2, collector.injectedRecords.size());
+	}
+
+	@Test
+	public void handleRequest_TopicOrdering_ShouldProcessRecordsOfSameTopicInOrder() {
+		handler.enableParallelProcessing(executor, SnsRecordOrdering.TOPIC);
+		List<SNSRecord> records = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			records.add(createSnsRecord("a:b:topic", "ordered" + i));
+			records.add(createSnsRecord("a:b:other", "other" + i));
+		}
+		handler.handleRequest(createSnsEvent(records), lambdaContext);
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			expected.add("ordered" + i);
+		}
+		assertEquals(expected, collector.orderedSubjects);
+	}
+
+	@Test
+	public void handleRequest_TopicAndSubjectOrdering_ShouldProcessOtherSubjectsConcurrently() {
+		handler.enableParallelProcessing(executor, SnsRecordOrdering.TOPIC_AND_SUBJECT);
+		collector.barrier = new CountDownLatch(2);
+		handler.handleRequest(createSnsEvent(
+				createSnsRecord("a:b:topic", "await0"),
+				createSnsRecord("a:b:topic", "await1")), lambdaContext);
+		assertEquals(2, collector.injectedRecords.size());
+	}
+
+	@Test
+	public void handleRequest_FailingRecordsGiven_ShouldProcessAllAndAggregateFailures() {
+		handler.enableParallelProcessing(executor, SnsRecordOrdering.NONE);
+		SNSRecord fail0 = createSnsRecord("a:b:topic", "fail0");
+		SNSRecord ok = createSnsRecord("a:b:topic", "ok");
+		SNSRecord fail1 = createSnsRecord("a:b:topic", "fail1");
+		try {
+			handler.handleRequest(createSnsEvent(fail0, ok, fail1), lambdaContext);
+			fail("expected SnsBatchProcessingException");
+		} catch (SnsBatchProcessingException e) {
+			assertEquals(3, e.getRecordCount());
+			List<SNSRecord> expectedFailedRecords = new ArrayList<>();
+			expectedFailedRecords.add(fail0);
+			expectedFailedRecords.add(fail1);
+			assertEquals(expectedFailedRecords, e.getFailedRecords());
+			assertTrue(e.getCause().getMessage().contains("fail0"));
+			assertEquals(1, e.getSuppressed().length);
+			assertTrue(e.getSuppressed()[0].getMessage().contains("fail1"));
+		}
+		assertSame(ok.getSNS(), collector.injectedRecords.get("ok"));
+	}
+
+	@Test(expected = AssertionError.class)
+	public void handleRequest_ErrorThrownSequentially_ShouldPropagateError() {
+		handler.handleRequest(createSnsEvent(createSnsRecord("a:b:topic", "error0")), lambdaContext);
+	}
+
+	@Test
+	public void handleRequest_ErrorThrownInParallel_ShouldPropagateError() {
+		handler.enableParallelProcessing(executor, SnsRecordOrdering.NONE);
+		try {
+			handler.handleRequest(createSnsEvent(
+					createSnsRecord("a:b:topic", "error0"),
+					createSnsRecord("a:b:topic", "ok")), lambdaContext);
+			fail("expected AssertionError");
+		} catch (AssertionError e) {
+			assertEquals("error0", e.getMessage());
+		}
+		assertTrue(handler.batchOutcomes.isEmpty());
+	}
+
+	@Test
+	public void handleRequest_FailingOrderedRecordGiven_ShouldStopProcessingOfGroup() {
+		handler.enableParallelProcessing(executor, SnsRecordOrdering.TOPIC);
+		SNSRecord fail0 = createSnsRecord("a:b:topic", "fail0");
+		SNSRecord ordered0 = createSnsRecord("a:b:topic", "ordered0");
+		try {
+			handler.handleRequest(createSnsEvent(
+					fail0,
+					ordered0,
+					createSnsRecord("a:b:other", "ordered1")), lambdaContext);
+			fail("expected SnsBatchProcessingException");
+		} catch (SnsBatchProcessingException e) {
+			assertEquals(Arrays.asList(fail0, ordered0), e.getFailedRecords());
+			assertEquals(0, e.getSuppressed().length);
+		}
+		assertEquals(Collections.singletonList("ordered1"), collector.orderedSubjects);
+	}
+
+	@Test
+	public void handleRequest_ParallelProcessingDisabled_ShouldStopAtFirstFailureAndReportIt() {
+		SNSRecord fail0 = createSnsRecord("a:b:topic", "fail0");
+		SNSRecord ok = createSnsRecord("a:b:topic", "ok");
+		try {
+			handler.handleRequest(createSnsEvent(fail0, ok), lambdaContext);
+			fail("expected SnsBatchProcessingException");
+		} catch (SnsBatchProcessingException e) {
+			assertTrue(e.getCause().getMessage().contains("fail0"));
+			assertEquals(Arrays.asList(fail0, ok), e.getFailedRecords());
+			assertFalse(e.getBatchOutcome().getRecordOutcomes().get(1).isProcessed());
+		}
+		assertTrue(collector.injectedRecords.isEmpty());
+		assertEquals(1, handler.batchOutcomes.size());
+	}
+
+	@Test
+	public void handleRequest_RecordsGiven_ShouldPassOutcomeOfEachRecordToHook() {
+		SNSRecord ok = createSnsRecord("a:b:topic", "ok");
+		SNSRecord status500 = createSnsRecord("a:b:topic", "status/500");
+		SNSRecord status200 = createSnsRecord("a:b:topic", "status/200");
+		assertNull(handler.handleRequest(createSnsEvent(ok, status500, status200), lambdaContext));
+		assertEquals(1, handler.batchOutcomes.size());
+		SnsBatchOutcome batchOutcome = handler.batchOutcomes.get(0);
+		assertFalse(batchOutcome.isSuccessful());
+		assertEquals(Collections.singletonList(status500), batchOutcome.getFailedRecords());
+		List<SnsRecordOutcome> outcomes = batchOutcome.getRecordOutcomes();
+		assertEquals(3, outcomes.size());
+		assertOutcome(outcomes.get(0), ok, 0, Status.NO_CONTENT.getStatusCode(), true);
+		assertOutcome(outcomes.get(1), status500, 1, Status.INTERNAL_SERVER_ERROR.getStatusCode(), false);
+		assertOutcome(outcomes.get(2), status200, 2, Status.OK.getStatusCode(), true);
+	}
+
+	@Test
+	public void handleRequest_FailingRecordHandledByContainerGiven_ShouldCaptureExceptionInOutcome() {
+		handler.rethrow = false;
+		handler.handleRequest(createSnsEvent(createSnsRecord("a:b:topic", "fail0")), lambdaContext);
+		SnsRecordOutcome outcome = handler.batchOutcomes.get(0).getRecordOutcomes().get(0);
+		assertTrue(outcome.isProcessed());
+		assertFalse(outcome.isSuccessful());
+		assertNull(outcome.getStatus());
+		assertEquals("fail0", outcome.getException().getMessage());
+	}
+
+	@Test
+	public void handleRequest_FailFastAndSequential_ShouldStopAtFirstNon2xxRecord() {
+		handler.setFailFast(true);
+		SNSRecord status500 = createSnsRecord("a:b:topic", "status/500");
+		SNSRecord ok = createSnsRecord("a:b:topic", "ok");
+		try {
+			handler.handleRequest(createSnsEvent(status500, ok), lambdaContext);
+			fail("expected SnsBatchProcessingException");
+		} catch (SnsBatchProcessingException e) {
+			assertNull(e.getCause());
+			assertEquals(Arrays.asList(status500, ok), e.getFailedRecords());
+		}
+		assertTrue(collector.injectedRecords.isEmpty());
+		assertFalse(handler.batchOutcomes.get(0).getRecordOutcomes().get(1).isProcessed());
+	}
+
+	@Test
+	public void handleRequest_FailFastAndParallel_ShouldNotStartRecordsAfterFailure() {
+		ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
+		handler.enableParallelProcessing(singleThreadExecutor, SnsRecordOrdering.NONE);
+		handler.setFailFast(true);
+		try {
+			handler.handleRequest(createSnsEvent(
+					createSnsRecord("a:b:topic", "status/500"),
+					createSnsRecord("a:b:topic", "ok")), lambdaContext);
+			fail("expected SnsBatchProcessingException");
+		} catch (SnsBatchProcessingException e) {
+			assertEquals(2, e.getFailedRecords().size());
+		} finally {
+			singleThreadExecutor.shutdownNow();
+		}
+		assertTrue(collector.injectedRecords.isEmpty());
+	}
+
+	@Test
+	public void handleRequest_KeepGoingAndNon2xxRecord_ShouldNotThrow() {
+		handler.enableParallelProcessing(executor, SnsRecordOrdering.NONE);
+		handler.handleRequest(createSnsEvent(
+				createSnsRecord("a:b:topic", "status/500"),
+				createSnsRecord("a:b:topic", "ok")), lambdaContext);
+		assertEquals(1, handler.batchOutcomes.get(0).getFailedRecordOutcomes().size());
+		assertTrue(collector.injectedRecords.containsKey("ok"));
+	}
+
+	private static void assertOutcome(SnsRecordOutcome outcome, SNSRecord snsRecord, int index, int statusCode,
+			boolean successful) {
+		assertSame(snsRecord, outcome.getSnsRecord());
+		assertEquals(index, outcome.getIndex());
+		assertTrue(outcome.isProcessed());
+		assertEquals(statusCode, outcome.getStatus().getStatusCode());
+		assertNull(outcome.getException());
+		assertTrue(outcome.getLatencyNanos() > 0);
+		assertEquals(successful, outcome.isSuccessful());
+	}
+
+	private static SNSEvent createSnsEvent(SNSRecord... records) {
+		List<SNSRecord> recordList = new ArrayList<>();
+		Collections.addAll(recordList, records);
+		return createSnsEvent(recordList);
+	}
+
+	private static SNSEvent createSnsEvent(List<SNSRecord> records) {
+		SNSEvent snsEvent = new SNSEvent();
+		snsEvent.setRecords(records);
+		return snsEvent;
+	}
+
+	private static SNSRecord createSnsRecord(String topicArn, String subject) {
+		SNS sns = new SNS();
+		sns.setTopicArn(topicArn);
+		sns.setSubject(subject);
+		SNSRecord snsRecord = new SNSRecord();
+		snsRecord.setSns(sns);
+		return snsRecord;
+	}
+
+	public static class RecordCollector {
+		private final Map<String, SNS> injectedRecords = new ConcurrentHashMap<>();
+		private final List<String> orderedSubjects = Collections.synchronizedList(new ArrayList<>());
+		private volatile CountDownLatch barrier;
+
+		void collect(String subject, SNS sns) {
+			if (subject.startsWith("await")) {
+				barrier.countDown();
+				try {
+					if (!barrier.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+						throw new IllegalStateException("records haven't been processed concurrently");
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException(e);
+				}
+			} else if (subject.startsWith("ordered")) {
+				orderedSubjects.add(subject);
+			}
+			injectedRecords.put(subject, sns);
+		}
+	}
+
+	@Singleton
+	@Path("/")
+	public static class TestResource {
+		private final RecordCollector collector;
+
+		@Inject
+		public TestResource(RecordCollector collector) {
+			this.collector = collector;
+		}
+
+		@Path("{topic}/{subject}")
+		@POST
+		public void consume(@PathParam("subject") String subject,
+				@javax.ws.rs.core.Context SNSRecord snsRecord) {
+			collector.collect(subject, snsRecord.getSNS());
+		}
+
+		@Path("{topic}/status/{code}")
+		@POST
+		public Response respondWith(@PathParam("code") int code) {
+			return Response.status(code).build();
+		}
+	}
+
+	private static class SnsRequestObjectHandlerImpl extends SnsRequestObjectHandler {
+		private final List<SnsBatchOutcome> batchOutcomes = new ArrayList<>();
+		private final Set<Thread> processingThreads = ConcurrentHashMap.newKeySet();
+		private boolean rethrow = true;
+
+		@Override
+		protected void onBatchProcessed(SnsBatchOutcome batchOutcome, Context lambdaContext) {
+			batchOutcomes.add(batchOutcome);
+		}
+
+		@Override
+		protected void beforeHandleRequest(SnsRecordAndLambdaContext request,
+				JRestlessContainerRequest containerRequest) {
+			processingThreads.add(Thread.currentThread());
+			String subject = request.getSnsRecord().getSNS().getSubject();
+			if (subject.startsWith("fail")) {
+				throw new IllegalStateException(subject);
+			} else if (subject.startsWith("error")) {
+				throw new AssertionError(subject);
+			}
+		}
+
+		@Override
+		protected Void onRequestFailure(Exception e, SnsRecordAndLambdaContext request,
+				JRestlessContainerRequest containerRequest) {
+			if (rethrow) {
+				throw new RuntimeException("failed to process " + request.getSnsRecord().getSNS().getSubject(), e);
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.aws.gateway.handler;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the request URI creation of {@link GatewayRequestUriBuilder} with
+ * the former one of {@link GatewayRequestHandler} that URL encoded every
+ * query parameter and parsed every request URI.
+ * <p>
+ * The benchmark lives in the handler's package since
+ * {@link GatewayRequestUriBuilder} is package-private. The {@code gc}
+ * profiler ({@code -prof gc}) reports the bytes allocated per request URI
+ * ({@code gc.alloc.rate.norm}), as well:
+ *
+ * <pre>
+ * ./gradlew :benchmark:jrestless-benchmarks:jmh -Pjmh.include=GatewayRequestUriBuilder
+ * </pre>
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class GatewayRequestUriBuilderBenchmark {
+
+	private static final int REQUEST_URI_CACHE_SIZE = 256;
+	private static final int PATH_COUNT = 64;
+	private static final int PATH_INDEX_MASK = PATH_COUNT - 1;
+
+	/**
+	 * The number of query parameters; 0 hits the request URI cache.
+	 */
+	@Param({"0", "2", "8"})
+	private int queryParamCount;
+
+	/**
+	 * Whether the query parameter values contain characters that must be URL
+	 * encoded.
+	 */
+	@Param({"false", "true"})
+	private boolean unsafeQueryParams;
+
+	private final GatewayRequestUriBuilder requestUriBuilder = new GatewayRequestUriBuilder(REQUEST_URI_CACHE_SIZE);
+
+	private String[] paths;
+	private Map<String, String> queryParameters;
+	private int pathIndex;
+
+	@Setup
+	public void setup() {
+		paths = new String[PATH_COUNT];
+		for (int i = 0; i < PATH_COUNT; i++) {
+			paths[i] = "/api/v1/resources/" + i + "/items";
+		}
+		queryParameters = new LinkedHashMap<>();
+		for (int i = 0; i < queryParamCount; i++) {
+			queryParameters.put("param" + i, unsafeQueryParams ? "some value/" + i : "value" + i);
+		}
+	}
+
+	@Benchmark
+	public URI legacy() {
+		return URI.create(appendQueryParams(nextPath(), queryParameters));
+	}
+
+	@Benchmark
+	public URI requestUriBuilder() {
+		return requestUriBuilder.build(nextPath(), queryParameters);
+	}
+
+	private String nextPath() {
+		pathIndex = (pathIndex + 1) & PATH_INDEX_MASK;
+		return paths[pathIndex];
+	}
+
+	/*
+	 * the former GatewayRequestHandler#appendQueryParams
+	 */
+	private static String appendQueryParams(String requestUri, Map<String, String> queryParameters) {
+		if (!queryParameters.isEmpty()) {
+			StringBuilder requestUriBuilder = new StringBuilder(requestUri);
+			requestUriBuilder.append("?");
+			boolean first = true;
+			for (Map.Entry<String, String> queryParam : queryParameters.entrySet()) {
+				if (!first) {
+					requestUriBuilder.append("&");
+				}
+				requestUriBuilder.append(encodeQueryParam(queryParam.getKey()));
+				requestUriBuilder.append("=");
+				requestUriBuilder.append(encodeQueryParam(queryParam.getValue()));
+				first = false;
+			}
+			return requestUriBuilder.toString();
+		} else {
+			return requestUri;
+		}
+	}
+
+	private static String encodeQueryParam(String param) {
+		try {
+			return URLEncoder.encode(param, StandardCharsets.UTF_8.name());
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.benchmark;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+
+/**
+ * Static Lambda {@link Context} used by the benchmarks.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+final class BenchmarkLambdaContext implements Context {
+
+	static final BenchmarkLambdaContext INSTANCE = new BenchmarkLambdaContext();
+
+	private static final int REMAINING_TIME_IN_MILLIS = 300_000;
+	private static final int MEMORY_LIMIT_IN_MB = 512;
+
+	private BenchmarkLambdaContext() {
+	}
+
+	@Override
+	public String getAwsRequestId() {
+		return "00000000-0000-0000-0000-000000000000";
+	}
+
+	@Override
+	public String getLogGroupName() {
+		return "/aws/lambda/benchmark";
+	}
+
+	@Override
+	public String getLogStreamName() {
+		return "benchmark";
+	}
+
+	@Override
+	public String getFunctionName() {
+		return "benchmark";
+	}
+
+	@Override
+	public String getFunctionVersion() {
+		return "$LATEST";
+	}
+
+	@Override
+	public String getInvokedFunctionArn() {
+		return "arn:aws:lambda:eu-central-1:000000000000:function:benchmark";
+	}
+
+	@Override
+	public CognitoIdentity getIdentity() {
+		return null;
+	}
+
+	@Override
+	public ClientContext getClientContext() {
+		return null;
+	}
+
+	@Override
+	public int getRemainingTimeInMillis() {
+		return REMAINING_TIME_IN_MILLIS;
+	}
+
+	@Override
+	public int getMemoryLimitInMB() {
+		return MEMORY_LIMIT_IN_MB;
+	}
+
+	@Override
+	public LambdaLogger getLogger() {
+		return message -> { };
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.jackson.JacksonFeature;
+import org.glassfish.jersey.server.ResourceConfig;
+
+/**
+ * The small Jersey application all handler benchmarks run against.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@Path("/")
+public class BenchmarkResource {
+
+	static final int MAX_BINARY_SIZE = 1024 * 1024;
+	private static final byte[] BINARY_DATA = new byte[MAX_BINARY_SIZE];
+
+	static {
+		for (int i = 0; i < BINARY_DATA.length; i++) {
+			BINARY_DATA[i] = (byte) i;
+		}
+	}
+
+	/**
+	 * @return a new application consisting of this resource and Jackson
+	 */
+	static ResourceConfig createApplication() {
+		return new ResourceConfig()
+				.register(BenchmarkResource.class)
+				.register(JacksonFeature.class);
+	}
+
+	@GET
+	@Path("/hello")
+	@Produces(MediaType.TEXT_PLAIN)
+	public String hello(@HeaderParam("X-Name") @DefaultValue("world") String name) {
+		return "hello " + name;
+	}
+
+	@GET
+	@Path("/items")
+	@Produces(MediaType.APPLICATION_JSON)
+	public List<Item> getItems(@QueryParam("limit") @DefaultValue("10") int limit, @QueryParam("q") String query) {
+		List<Item> items = new ArrayList<>(limit);
+		for (int i = 0; i < limit; i++) {
+			items.add(new Item(i, query + i));
+		}
+		return items;
+	}
+
+	@POST
+	@Path("/items")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	public Item echoItem(Item item) {
+		return item;
+	}
+
+	@GET
+	@Path("/binary")
+	@Produces(MediaType.APPLICATION_OCTET_STREAM)
+	public byte[] getBinary(@QueryParam("size") @DefaultValue("1024") int size) {
+		byte[] data = new byte[size];
+		System.arraycopy(BINARY_DATA, 0, data, 0, size);
+		return data;
+	}
+
+	@PUT
+	@Path("/binary")
+	@Consumes(MediaType.APPLICATION_OCTET_STREAM)
+	@Produces(MediaType.TEXT_PLAIN)
+	public String putBinary(byte[] data) {
+		return Integer.toString(data.length);
+	}
+
+	@POST
+	@Path("/topic")
+	@Consumes(MediaType.APPLICATION_JSON)
+	public void consumeTopicMessage(Item item) {
+		// SNS responses are discarded; a 204 keeps the handler quiet
+	}
+
+	public static class Item {
+		private long id;
+		private String name;
+
+		public Item() {
+			// for de-serialization
+		}
+
+		public Item(long id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+}
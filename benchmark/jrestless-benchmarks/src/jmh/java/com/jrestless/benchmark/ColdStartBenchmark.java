@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.HttpMethod;
+
+import org.glassfish.jersey.jackson.JacksonFeature;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jrestless.aws.gateway.GatewayFeature;
+import com.jrestless.aws.gateway.handler.GatewayRequestObjectHandler;
+import com.jrestless.aws.gateway.io.GatewayResponse;
+import com.jrestless.core.container.index.IndexedComponents;
+import com.jrestless.core.container.index.ResourceIndex;
+
+/**
+ * Measures the cold start of a gateway function - initialization, start and
+ * the first request - in a fresh JVM per measurement.
+ * <p>
+ * Compares Jersey's package scanning with the build-time
+ * {@link ResourceIndex resource index}.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@IndexedComponents({ JacksonFeature.class, GatewayFeature.class })
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class ColdStartBenchmark {
+
+	@Benchmark
+	public GatewayResponse packageScanning() {
+		return coldStart(new ResourceConfig()
+				.packages(BenchmarkResource.class.getPackage().getName())
+				.register(JacksonFeature.class)
+				.register(GatewayFeature.class));
+	}
+
+	@Benchmark
+	public GatewayResponse resourceIndex() {
+		return coldStart(ResourceIndex.load().createResourceConfig());
+	}
+
+	private static GatewayResponse coldStart(ResourceConfig config) {
+		GatewayRequestObjectHandler handler = new GatewayRequestObjectHandler() { };
+		handler.init(config);
+		handler.start();
+		return handler.handleRequest(GatewayRequestObjectHandlerBenchmark.createRequest(HttpMethod.GET, "/hello",
+				GatewayRequestObjectHandlerBenchmark.singleEntry("X-Name", "benchmark")),
+				BenchmarkLambdaContext.INSTANCE);
+	}
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.benchmark;
+
+import static com.jrestless.benchmark.GatewayRequestObjectHandlerBenchmark.createRequest;
+import static com.jrestless.benchmark.GatewayRequestObjectHandlerBenchmark.singleEntry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.InterceptorContext;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jrestless.aws.gateway.handler.GatewayRequestObjectHandler;
+import com.jrestless.aws.gateway.io.DefaultGatewayRequest;
+import com.jrestless.aws.gateway.io.GatewayBinaryReadInterceptor;
+import com.jrestless.aws.gateway.io.GatewayBinaryResponseCheckFilter;
+import com.jrestless.aws.gateway.io.GatewayBinaryWriteInterceptor;
+import com.jrestless.aws.gateway.io.GatewayResponse;
+
+/**
+ * Measures the Base64 handling of binary API Gateway requests and responses;
+ * once in isolation by invoking {@link GatewayBinaryReadInterceptor} and
+ * {@link GatewayBinaryWriteInterceptor} directly and once end-to-end through
+ * {@link GatewayRequestObjectHandler}.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class GatewayBinaryBenchmark {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	@Param({"1024", "65536", "1048576"})
+	private int size;
+
+	private final GatewayBinaryReadInterceptor readInterceptor = new GatewayBinaryReadInterceptor();
+	private final GatewayBinaryWriteInterceptor writeInterceptor = new GatewayBinaryWriteInterceptor();
+
+	private byte[] data;
+	private byte[] base64Data;
+
+	private GatewayRequestObjectHandler handler;
+	private DefaultGatewayRequest getBinaryRequest;
+	private DefaultGatewayRequest putBinaryRequest;
+
+	@Setup
+	public void setup() {
+		data = new byte[size];
+		for (int i = 0; i < size; i++) {
+			data[i] = (byte) i;
+		}
+		base64Data = Base64.getEncoder().encode(data);
+
+		handler = GatewayRequestObjectHandlerBenchmark.createHandler();
+
+		getBinaryRequest = createRequest(HttpMethod.GET, "/binary",
+				singleEntry(HttpHeaders.ACCEPT, MediaType.APPLICATION_OCTET_STREAM));
+		getBinaryRequest.setQueryStringParameters(singleEntry("size", Integer.toString(size)));
+
+		putBinaryRequest = createRequest(HttpMethod.PUT, "/binary",
+				singleEntry(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_OCTET_STREAM));
+		putBinaryRequest.setBody(new String(base64Data, StandardCharsets.US_ASCII));
+		putBinaryRequest.setIsBase64Encoded(true);
+	}
+
+	@Benchmark
+	public Object readInterceptor() throws IOException {
+		ByteArrayReaderInterceptorContext context = new ByteArrayReaderInterceptorContext(
+				new ByteArrayInputStream(base64Data));
+		context.setProperty(GatewayBinaryReadInterceptor.PROPERTY_BASE_64_ENCODED_REQUEST, true);
+		return readInterceptor.aroundReadFrom(context);
+	}
+
+	@Benchmark
+	public ByteArrayOutputStream writeInterceptor() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteArrayWriterInterceptorContext context = new ByteArrayWriterInterceptorContext(data, out);
+		context.getHeaders().putSingle(GatewayBinaryResponseCheckFilter.HEADER_BINARY_RESPONSE, true);
+		writeInterceptor.aroundWriteTo(context);
+		return out;
+	}
+
+	@Benchmark
+	public GatewayResponse getBinary() {
+		return handler.handleRequest(getBinaryRequest, BenchmarkLambdaContext.INSTANCE);
+	}
+
+	@Benchmark
+	public GatewayResponse putBinary() {
+		return handler.handleRequest(putBinaryRequest, BenchmarkLambdaContext.INSTANCE);
+	}
+
+	/**
+	 * Minimal {@link InterceptorContext} holding properties, only.
+	 */
+	private abstract static class SimpleInterceptorContext implements InterceptorContext {
+		private final Map<String, Object> properties = new HashMap<>();
+		private Annotation[] annotations = new Annotation[0];
+		private Class<?> type = byte[].class;
+		private Type genericType = byte[].class;
+		private MediaType mediaType = MediaType.APPLICATION_OCTET_STREAM_TYPE;
+
+		@Override
+		public Object getProperty(String name) {
+			return properties.get(name);
+		}
+
+		@Override
+		public Collection<String> getPropertyNames() {
+			return Collections.unmodifiableSet(properties.keySet());
+		}
+
+		@Override
+		public void setProperty(String name, Object object) {
+			properties.put(name, object);
+		}
+
+		@Override
+		public void removeProperty(String name) {
+			properties.remove(name);
+		}
+
+		@Override
+		public Annotation[] getAnnotations() {
+			return annotations;
+		}
+
+		@Override
+		public void setAnnotations(Annotation[] annotations) {
+			this.annotations = annotations;
+		}
+
+		@Override
+		public Class<?> getType() {
+			return type;
+		}
+
+		@Override
+		public void setType(Class<?> type) {
+			this.type = type;
+		}
+
+		@Override
+		public Type getGenericType() {
+			return genericType;
+		}
+
+		@Override
+		public void setGenericType(Type genericType) {
+			this.genericType = genericType;
+		}
+
+		@Override
+		public MediaType getMediaType() {
+			return mediaType;
+		}
+
+		@Override
+		public void setMediaType(MediaType mediaType) {
+			this.mediaType = mediaType;
+		}
+	}
+
+	/**
+	 * Reads the whole (decoded) input stream into a byte array on
+	 * {@link #proceed()} - just like Jersey's byte array provider does.
+	 */
+	private static final class ByteArrayReaderInterceptorContext extends SimpleInterceptorContext
+			implements ReaderInterceptorContext {
+		private final MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+		private InputStream inputStream;
+
+		ByteArrayReaderInterceptorContext(InputStream inputStream) {
+			this.inputStream = inputStream;
+		}
+
+		@Override
+		public Object proceed() throws IOException {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int read;
+			while ((read = inputStream.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return inputStream;
+		}
+
+		@Override
+		public void setInputStream(InputStream is) {
+			this.inputStream = is;
+		}
+
+		@Override
+		public MultivaluedMap<String, String> getHeaders() {
+			return headers;
+		}
+	}
+
+	/**
+	 * Writes the byte array entity to the output stream and closes it on
+	 * {@link #proceed()} - just like Jersey does.
+	 */
+	private static final class ByteArrayWriterInterceptorContext extends SimpleInterceptorContext
+			implements WriterInterceptorContext {
+		private final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+		private Object entity;
+		private OutputStream outputStream;
+
+		ByteArrayWriterInterceptorContext(byte[] entity, OutputStream outputStream) {
+			this.entity = entity;
+			this.outputStream = outputStream;
+		}
+
+		@Override
+		public void proceed() throws IOException {
+			outputStream.write((byte[]) entity);
+			outputStream.close();
+		}
+
+		@Override
+		public Object getEntity() {
+			return entity;
+		}
+
+		@Override
+		public void setEntity(Object entity) {
+			this.entity = entity;
+		}
+
+		@Override
+		public OutputStream getOutputStream() {
+			return outputStream;
+		}
+
+		@Override
+		public void setOutputStream(OutputStream os) {
+			this.outputStream = os;
+		}
+
+		@Override
+		public MultivaluedMap<String, Object> getHeaders() {
+			return headers;
+		}
+	}
+}
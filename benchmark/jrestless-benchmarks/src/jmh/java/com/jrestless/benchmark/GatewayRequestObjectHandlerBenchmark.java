@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jrestless.aws.gateway.GatewayFeature;
+import com.jrestless.aws.gateway.handler.GatewayRequestObjectHandler;
+import com.jrestless.aws.gateway.io.DefaultGatewayRequest;
+import com.jrestless.aws.gateway.io.GatewayResponse;
+
+/**
+ * Measures {@link GatewayRequestObjectHandler#handleRequest(DefaultGatewayRequest,
+ * com.amazonaws.services.lambda.runtime.Context)} including the mapping of the
+ * API Gateway request and response.
+ * <p>
+ * Binary requests and responses are measured by
+ * {@link GatewayBinaryBenchmark}.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class GatewayRequestObjectHandlerBenchmark {
+
+	/**
+	 * Compare {@code gc.alloc.rate.norm} to see the allocations saved per request.
+	 */
+	@Param({"false", "true"})
+	public boolean requestObjectPooling;
+
+	private GatewayRequestObjectHandler handler;
+	private DefaultGatewayRequest getTextRequest;
+	private DefaultGatewayRequest getJsonRequest;
+	private DefaultGatewayRequest postJsonRequest;
+
+	@Setup
+	public void setup() {
+		handler = createHandler();
+		if (requestObjectPooling) {
+			handler.enableRequestObjectPooling();
+		}
+
+		Map<String, String> browserHeaders = new HashMap<>();
+		browserHeaders.put(HttpHeaders.ACCEPT, "text/plain,application/json;q=0.9,*/*;q=0.8");
+		browserHeaders.put(HttpHeaders.ACCEPT_LANGUAGE, "en-US,en;q=0.5");
+		browserHeaders.put(HttpHeaders.USER_AGENT, "Mozilla/5.0 (X11; Linux x86_64; rv:50.0) Gecko/20100101");
+		browserHeaders.put("X-Forwarded-For", "127.0.0.1");
+		browserHeaders.put("X-Name", "benchmark");
+
+		getTextRequest = createRequest(HttpMethod.GET, "/hello", browserHeaders);
+
+		getJsonRequest = createRequest(HttpMethod.GET, "/items", browserHeaders);
+		Map<String, String> queryParams = new HashMap<>();
+		queryParams.put("limit", "10");
+		queryParams.put("q", "some query with spaces & reserved chars");
+		getJsonRequest.setQueryStringParameters(queryParams);
+
+		postJsonRequest = createRequest(HttpMethod.POST, "/items",
+				singleEntry(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON));
+		postJsonRequest.setBody("{\"id\":1,\"name\":\"benchmark\"}");
+	}
+
+	@Benchmark
+	public GatewayResponse getText() {
+		return handler.handleRequest(getTextRequest, BenchmarkLambdaContext.INSTANCE);
+	}
+
+	@Benchmark
+	public GatewayResponse getJsonWithQueryParameters() {
+		return handler.handleRequest(getJsonRequest, BenchmarkLambdaContext.INSTANCE);
+	}
+
+	@Benchmark
+	public GatewayResponse postJson() {
+		return handler.handleRequest(postJsonRequest, BenchmarkLambdaContext.INSTANCE);
+	}
+
+	static GatewayRequestObjectHandler createHandler() {
+		GatewayRequestObjectHandler handler = new GatewayRequestObjectHandler() { };
+		handler.init(BenchmarkResource.createApplication().register(GatewayFeature.class));
+		handler.start();
+		return handler;
+	}
+
+	static DefaultGatewayRequest createRequest(String httpMethod, String path, Map<String, String> headers) {
+		DefaultGatewayRequest request = new DefaultGatewayRequest();
+		request.setHttpMethod(httpMethod);
+		request.setPath(path);
+		request.setResource(path);
+		request.setHeaders(headers);
+		return request;
+	}
+
+	static Map<String, String> singleEntry(String key, String value) {
+		Map<String, String> map = new HashMap<>();
+		map.put(key, value);
+		return map;
+	}
+}
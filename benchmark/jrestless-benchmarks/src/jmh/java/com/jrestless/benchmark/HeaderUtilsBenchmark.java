@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.benchmark;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jrestless.core.util.HeaderUtils;
+
+/**
+ * Measures {@link HeaderUtils#flattenHeaders(Map)} and
+ * {@link HeaderUtils#expandHeaders(Map)} for typical header counts.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class HeaderUtilsBenchmark {
+
+	private static final int MULTI_VALUE_HEADER_FREQUENCY = 4;
+
+	@Param({"4", "16", "32"})
+	private int headerCount;
+
+	private Map<String, List<String>> multiValueHeaders;
+	private Map<String, String> singleValueHeaders;
+
+	@Setup
+	public void setup() {
+		multiValueHeaders = new HashMap<>();
+		singleValueHeaders = new HashMap<>();
+		for (int i = 0; i < headerCount; i++) {
+			String name = "X-Benchmark-Header-" + i;
+			String value = "value-" + i;
+			if (i % MULTI_VALUE_HEADER_FREQUENCY == 0) {
+				multiValueHeaders.put(name, Arrays.asList(value, value + "-a", value + "-b"));
+			} else {
+				multiValueHeaders.put(name, Collections.singletonList(value));
+			}
+			singleValueHeaders.put(name, value);
+		}
+	}
+
+	@Benchmark
+	public Map<String, String> flattenHeaders() {
+		return HeaderUtils.flattenHeaders(multiValueHeaders);
+	}
+
+	@Benchmark
+	public Map<String, List<String>> expandHeaders() {
+		return HeaderUtils.expandHeaders(singleValueHeaders);
+	}
+}
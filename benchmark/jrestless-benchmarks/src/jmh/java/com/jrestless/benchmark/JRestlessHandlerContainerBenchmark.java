@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response.StatusType;
+import javax.ws.rs.core.SecurityContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessResponseWriter;
+import com.jrestless.core.security.AnonSecurityContext;
+
+/**
+ * Measures the bare container overhead of
+ * {@link JRestlessHandlerContainer#handleRequest(JRestlessContainerRequest, JRestlessResponseWriter,
+ * SecurityContext)} i.e. without any Lambda specific request/response mapping.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class JRestlessHandlerContainerBenchmark {
+
+	private static final URI BASE_URI = URI.create("/");
+	private static final URI HELLO_URI = URI.create("/hello");
+	private static final URI ITEMS_URI = URI.create("/items");
+	private static final byte[] ITEM_JSON = "{\"id\":1,\"name\":\"benchmark\"}".getBytes(StandardCharsets.UTF_8);
+	private static final Map<String, List<String>> JSON_HEADERS = Collections.singletonMap(HttpHeaders.CONTENT_TYPE,
+			Collections.singletonList(MediaType.APPLICATION_JSON));
+
+	private final SecurityContext securityContext = new AnonSecurityContext();
+	private JRestlessHandlerContainer<JRestlessContainerRequest> container;
+
+	@Setup
+	public void setup() {
+		container = new JRestlessHandlerContainer<>(BenchmarkResource.createApplication());
+		container.onStartup();
+	}
+
+	@TearDown
+	public void tearDown() {
+		container.onShutdown();
+	}
+
+	@Benchmark
+	public ResponseCapture getText() {
+		ResponseCapture response = new ResponseCapture();
+		container.handleRequest(new DefaultJRestlessContainerRequest(BASE_URI, HELLO_URI, HttpMethod.GET,
+				new ByteArrayInputStream(new byte[0]), Collections.emptyMap()), response, securityContext);
+		return response;
+	}
+
+	@Benchmark
+	public ResponseCapture postJson() {
+		ResponseCapture response = new ResponseCapture();
+		container.handleRequest(new DefaultJRestlessContainerRequest(BASE_URI, ITEMS_URI, HttpMethod.POST,
+				new ByteArrayInputStream(ITEM_JSON), JSON_HEADERS), response, securityContext);
+		return response;
+	}
+
+	/**
+	 * Keeps status, headers and body so that the JIT cannot eliminate
+	 * anything.
+	 */
+	public static class ResponseCapture implements JRestlessResponseWriter {
+		private final ByteArrayOutputStream entityOutputStream = new ByteArrayOutputStream();
+		private StatusType statusType;
+		private Map<String, List<String>> headers;
+
+		@Override
+		public OutputStream getEntityOutputStream() {
+			return entityOutputStream;
+		}
+
+		@Override
+		public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
+				OutputStream entityOutputStream) throws IOException {
+			this.statusType = statusType;
+			this.headers = headers;
+		}
+
+		public StatusType getStatusType() {
+			return statusType;
+		}
+
+		public Map<String, List<String>> getHeaders() {
+			return headers;
+		}
+
+		public byte[] getBody() {
+			return entityOutputStream.toByteArray();
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.benchmark;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jrestless.aws.service.ServiceFeature;
+import com.jrestless.aws.service.handler.ServiceRequestObjectHandler;
+import com.jrestless.aws.service.io.DefaultServiceRequest;
+import com.jrestless.aws.service.io.ServiceResponse;
+
+/**
+ * Measures {@link ServiceRequestObjectHandler#handleRequest(DefaultServiceRequest,
+ * com.amazonaws.services.lambda.runtime.Context)} including the mapping of the
+ * service request and response.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class ServiceRequestObjectHandlerBenchmark {
+
+	private ServiceRequestObjectHandler handler;
+	private DefaultServiceRequest getTextRequest;
+	private DefaultServiceRequest getJsonRequest;
+	private DefaultServiceRequest postJsonRequest;
+
+	@Setup
+	public void setup() {
+		handler = new ServiceRequestObjectHandler() { };
+		handler.init(BenchmarkResource.createApplication().register(ServiceFeature.class));
+		handler.start();
+
+		Map<String, List<String>> acceptHeaders = new HashMap<>();
+		acceptHeaders.put(HttpHeaders.ACCEPT, Arrays.asList(MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON));
+		acceptHeaders.put("X-Name", Collections.singletonList("benchmark"));
+
+		getTextRequest = new DefaultServiceRequest(null, acceptHeaders, URI.create("/hello"), HttpMethod.GET);
+		getJsonRequest = new DefaultServiceRequest(null, acceptHeaders, URI.create("/items?limit=10&q=benchmark"),
+				HttpMethod.GET);
+		postJsonRequest = new DefaultServiceRequest("{\"id\":1,\"name\":\"benchmark\"}",
+				Collections.singletonMap(HttpHeaders.CONTENT_TYPE,
+						Collections.singletonList(MediaType.APPLICATION_JSON)),
+				URI.create("/items"), HttpMethod.POST);
+	}
+
+	@Benchmark
+	public ServiceResponse getText() {
+		return handler.handleRequest(getTextRequest, BenchmarkLambdaContext.INSTANCE);
+	}
+
+	@Benchmark
+	public ServiceResponse getJsonWithQueryParameters() {
+		return handler.handleRequest(getJsonRequest, BenchmarkLambdaContext.INSTANCE);
+	}
+
+	@Benchmark
+	public ServiceResponse postJson() {
+		return handler.handleRequest(postJsonRequest, BenchmarkLambdaContext.INSTANCE);
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amazonaws.services.lambda.runtime.events.SNSEvent;
+import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNS;
+import com.amazonaws.services.lambda.runtime.events.SNSEvent.SNSRecord;
+import com.jrestless.aws.sns.SnsFeature;
+import com.jrestless.aws.sns.handler.SnsRequestObjectHandler;
+
+/**
+ * Measures {@link SnsRequestObjectHandler#handleRequest(SNSEvent,
+ * com.amazonaws.services.lambda.runtime.Context)} for events containing one or
+ * more records.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class SnsRequestObjectHandlerBenchmark {
+
+	@Param({"1", "10"})
+	private int records;
+
+	private SnsRequestObjectHandler handler;
+	private SNSEvent snsEvent;
+
+	@Setup
+	public void setup() {
+		handler = new SnsRequestObjectHandler() { };
+		handler.init(BenchmarkResource.createApplication().register(SnsFeature.class));
+		handler.start();
+
+		List<SNSRecord> snsRecords = new ArrayList<>(records);
+		for (int i = 0; i < records; i++) {
+			SNS sns = new SNS();
+			sns.setTopicArn("arn:aws:sns:eu-central-1:000000000000:topic");
+			sns.setMessageId(Integer.toString(i));
+			sns.setMessage("{\"id\":" + i + ",\"name\":\"benchmark\"}");
+			SNSRecord snsRecord = new SNSRecord();
+			snsRecord.setSns(sns);
+			snsRecords.add(snsRecord);
+		}
+		snsEvent = new SNSEvent();
+		snsEvent.setRecords(snsRecords);
+	}
+
+	@Benchmark
+	public Void handleRequest() {
+		return handler.handleRequest(snsEvent, BenchmarkLambdaContext.INSTANCE);
+	}
+}
@@ -16,6 +16,7 @@
 package com.jrestless.core.container;
 
 import static java.util.Objects.requireNonNull;
+import static jersey.repackaged.com.google.common.base.Preconditions.checkState;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -29,7 +30,6 @@ import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 import javax.ws.rs.core.Application;
-import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.Response.StatusType;
 import javax.ws.rs.core.SecurityContext;
@@ -47,8 +47,10 @@ import org.glassfish.jersey.server.spi.ContainerResponseWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jrestless.core.container.cache.ResponseCache;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
 import com.jrestless.core.container.io.JRestlessResponseWriter;
+import com.jrestless.core.http.HeaderMap;
 
 
 /**
@@ -62,10 +64,22 @@ import com.jrestless.core.container.io.JRestlessResponseWriter;
  */
 public class JRestlessHandlerContainer<RequestT extends JRestlessContainerRequest> implements Container {
 
+	/**
+	 * Name of the {@link ContainerRequest} property that defines how long (in
+	 * milliseconds, as {@link Long}) the container waits for a suspended
+	 * (asynchronous) response. There's no limit if the property is not set.
+	 */
+	public static final String ASYNC_RESPONSE_TIMEOUT_PROPERTY = JRestlessHandlerContainer.class.getName()
+			+ ".asyncResponseTimeout";
+
 	private static final Logger LOG = LoggerFactory.getLogger(JRestlessHandlerContainer.class);
 
 	private volatile ApplicationHandler appHandler;
 
+	private ThreadLocal<JRestlessContainerResponseWriter> reusableResponseWriters;
+
+	private volatile ResponseCache responseCache;
+
 	/**
 	 * Creates a new JRestless container.
 	 *
@@ -115,6 +129,10 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 	/**
 	 * Creates a container request from the given input and delegates it to the
 	 * application.
+	 * <p>
+	 * If the application suspends the request ({@code @Suspended AsyncResponse}),
+	 * the method blocks until the response has been written, at most for the
+	 * time set in {@link #ASYNC_RESPONSE_TIMEOUT_PROPERTY}.
 	 *
 	 * @param request
 	 * @param responseWriter
@@ -126,12 +144,161 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 	 */
 	public void handleRequest(@Nonnull RequestT request, @Nonnull JRestlessResponseWriter responseWriter,
 			@Nonnull SecurityContext securityContext, @Nonnull Consumer<ContainerRequest> containerRequestEnhancer) {
+		ResponseCache cache = responseCache;
+		if (cache == null) {
+			handleRequestWithoutCache(request, responseWriter, securityContext, containerRequestEnhancer);
+			return;
+		}
+		requireNonNull(request, "request may not be null");
+		requireNonNull(responseWriter, "responseWriter may not be null");
+		try {
+			if (cache.writeCachedResponse(request, responseWriter)) {
+				return;
+			}
+		} catch (IOException e) {
+			throw new ContainerException("failed to write cached response", e);
+		}
+		handleRequestWithoutCache(request, cache.createCachingResponseWriter(request, responseWriter),
+				securityContext, containerRequestEnhancer);
+	}
+
+	/**
+	 * Same as
+	 * {@link #handleRequest(JRestlessContainerRequest, JRestlessResponseWriter, SecurityContext, Consumer)}
+	 * but bypasses the response cache (s.
+	 * {@link #enableResponseCache(ResponseCache)}): the response is neither
+	 * taken from nor stored in the cache.
+	 *
+	 * @param request
+	 * @param responseWriter
+	 *            the response writer.
+	 * @param securityContext
+	 *            the security context of the request.
+	 * @param containerRequestEnhancer
+	 *            additional container request customizer.
+	 */
+	public void handleRequestWithoutCache(@Nonnull RequestT request, @Nonnull JRestlessResponseWriter responseWriter,
+			@Nonnull SecurityContext securityContext, @Nonnull Consumer<ContainerRequest> containerRequestEnhancer) {
 		requireNonNull(responseWriter, "responseWriter may not be null");
 		requireNonNull(containerRequestEnhancer, "containerRequestExtender may not be null");
-		ContainerRequest containerRequest = createContainerRequest(request,
-				new JRestlessContainerResponseWriter(responseWriter), securityContext);
+		JRestlessContainerResponseWriter containerResponseWriter = createContainerResponseWriter(responseWriter);
+		ContainerRequest containerRequest = createContainerRequest(request, containerResponseWriter,
+				securityContext);
 		containerRequestEnhancer.accept(containerRequest);
 		handleRequest(containerRequest);
+		if (containerResponseWriter.isSuspended()) {
+			awaitSuspendedResponse(containerRequest, containerResponseWriter);
+		}
+	}
+
+	/*
+	 * Blocks until the suspended response has been written; the response is
+	 * abandoned if that doesn't happen within the request's async response
+	 * timeout.
+	 */
+	private void awaitSuspendedResponse(ContainerRequest containerRequest,
+			JRestlessContainerResponseWriter containerResponseWriter) {
+		long timeoutMillis = getAsyncResponseTimeoutMillis(containerRequest);
+		boolean interrupted = false;
+		try {
+			boolean completed;
+			try {
+				completed = containerResponseWriter.awaitCompletion(timeoutMillis);
+			} catch (InterruptedException e) {
+				interrupted = true;
+				completed = false;
+			}
+			if (!completed && containerResponseWriter.abandon()) {
+				discardContainerResponseWriter(containerResponseWriter);
+				throw new ContainerException("async response has not been completed within " + timeoutMillis
+						+ "ms" + (interrupted ? " (interrupted)" : ""));
+			}
+			while (!completed) {
+				// committed concurrently => wait until the response has been written
+				try {
+					completed = containerResponseWriter.awaitCompletion(Long.MAX_VALUE);
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static long getAsyncResponseTimeoutMillis(ContainerRequest containerRequest) {
+		Object timeout = containerRequest.getProperty(ASYNC_RESPONSE_TIMEOUT_PROPERTY);
+		if (timeout instanceof Number) {
+			return ((Number) timeout).longValue();
+		}
+		return Long.MAX_VALUE;
+	}
+
+	private void discardContainerResponseWriter(JRestlessContainerResponseWriter containerResponseWriter) {
+		ThreadLocal<JRestlessContainerResponseWriter> reusableWriters = reusableResponseWriters;
+		if (reusableWriters != null && reusableWriters.get() == containerResponseWriter) {
+			// a late completion might still write to it
+			reusableWriters.remove();
+		}
+	}
+
+	/**
+	 * Enables the reuse of the container response writers.
+	 * <p>
+	 * Every thread keeps one {@link JRestlessContainerResponseWriter}
+	 * (including its response and headers map) and resets it for the next
+	 * request once the previous response has been written. If the previous
+	 * response has not been written, yet, a new writer is created.
+	 */
+	public void enableResponseWriterReuse() {
+		if (reusableResponseWriters == null) {
+			reusableResponseWriters = new ThreadLocal<>();
+		}
+	}
+
+	/**
+	 * Enables the given response cache.
+	 * <p>
+	 * Requests passed to
+	 * {@link #handleRequest(JRestlessContainerRequest, JRestlessResponseWriter, SecurityContext, Consumer)}
+	 * are answered from the cache if possible - without passing them to
+	 * Jersey - and cacheable responses get stored in it. See
+	 * {@link ResponseCache} for details.
+	 *
+	 * @param cache
+	 */
+	public void enableResponseCache(@Nonnull ResponseCache cache) {
+		this.responseCache = requireNonNull(cache, "cache may not be null");
+	}
+
+	/**
+	 * Creates the {@link ContainerResponseWriter} for the given response
+	 * writer or resets and returns this thread's writer if reuse has been
+	 * enabled (s. {@link #enableResponseWriterReuse()}).
+	 *
+	 * @param responseWriter
+	 * @return the container response writer
+	 */
+	@Nonnull
+	protected JRestlessContainerResponseWriter createContainerResponseWriter(
+			@Nonnull JRestlessResponseWriter responseWriter) {
+		ThreadLocal<JRestlessContainerResponseWriter> reusableWriters = reusableResponseWriters;
+		if (reusableWriters == null) {
+			return new JRestlessContainerResponseWriter(responseWriter);
+		}
+		JRestlessContainerResponseWriter containerResponseWriter = reusableWriters.get();
+		if (containerResponseWriter == null) {
+			containerResponseWriter = new JRestlessContainerResponseWriter(responseWriter);
+			reusableWriters.set(containerResponseWriter);
+		} else if (containerResponseWriter.isCommitted()) {
+			containerResponseWriter.reset(responseWriter);
+		} else {
+			// still in use (nested or pending request)
+			containerResponseWriter = new JRestlessContainerResponseWriter(responseWriter);
+		}
+		return containerResponseWriter;
 	}
 
 	/**
@@ -159,7 +326,8 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 		ContainerRequest requestContext = new ContainerRequest(baseUri, requestUri, httpMethod, securityContext,
 				new MapPropertiesDelegate());
 		requestContext.setEntityStream(entityStream);
-		requestContext.getHeaders().putAll(headers);
+		// the value lists are taken over as is - just like putAll does
+		headers.forEach(requestContext.getHeaders()::put);
 		requestContext.setWriter(containerResponseWriter);
 
 		return requestContext;
@@ -245,11 +413,11 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 		private static final Logger LOG = LoggerFactory.getLogger(JRestlessContainerResponse.class);
 
 		private StatusType statusType;
-		private final OutputStream entityOutputStream;
+		private OutputStream entityOutputStream;
 
 		private final Map<String, List<String>> headers;
 		private final AtomicBoolean closed;
-		private final JRestlessResponseWriter responseWriter;
+		private JRestlessResponseWriter responseWriter;
 
 		public JRestlessContainerResponse(@Nonnull JRestlessResponseWriter responseWriter) {
 			requireNonNull(responseWriter, "responseWriter may not be null");
@@ -257,8 +425,25 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 			this.entityOutputStream = requireNonNull(responseWriter.getEntityOutputStream());
 			this.closed = new AtomicBoolean(false);
 			this.responseWriter = responseWriter;
-			this.headers = new MultivaluedHashMap<>();
+			this.headers = new HeaderMap();
+			this.statusType = Status.OK;
+		}
+
+		/**
+		 * Resets the closed response so that it can be reused for another
+		 * request.
+		 *
+		 * @param newResponseWriter
+		 *            the response writer of the next request
+		 */
+		public void reset(@Nonnull JRestlessResponseWriter newResponseWriter) {
+			requireNonNull(newResponseWriter, "responseWriter may not be null");
+			checkState(closed.get(), "response is still in use");
+			this.entityOutputStream = requireNonNull(newResponseWriter.getEntityOutputStream());
+			this.responseWriter = newResponseWriter;
+			this.headers.clear();
 			this.statusType = Status.OK;
+			this.closed.set(false);
 		}
 
 		public void close() {
@@ -278,6 +463,26 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 			return closed.get();
 		}
 
+		/**
+		 * Lets the response writer prepare for the entity to be written.
+		 *
+		 * @param contentLength
+		 *            the length of the entity in bytes or -1 if unknown
+		 * @see JRestlessResponseWriter#beforeEntityWrite(StatusType, long, Map)
+		 */
+		public void beforeEntityWrite(long contentLength) {
+			responseWriter.beforeEntityWrite(statusType, contentLength, headers);
+		}
+
+		/**
+		 * Marks the response as closed without writing it.
+		 *
+		 * @return {@code true} if the response hasn't been closed before
+		 */
+		boolean markClosed() {
+			return closed.compareAndSet(false, true);
+		}
+
 		@Nonnull
 		public StatusType getStatusType() {
 			return statusType;
@@ -314,6 +519,13 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 
 		private final JRestlessContainerResponse response;
 
+		// guarded by this
+		private boolean suspended;
+		private TimeoutHandler timeoutHandler;
+		private long suspendDeadlineNanos;
+		private boolean completed;
+		private boolean abandoned;
+
 		protected JRestlessContainerResponseWriter(@Nonnull JRestlessContainerResponse response) {
 			this.response = requireNonNull(response, "response may not be null");
 		}
@@ -322,22 +534,138 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 			this(new JRestlessContainerResponse(requireNonNull(response, "response may not be null")));
 		}
 
+		/**
+		 * Resets the committed writer so that it can be reused for another
+		 * request.
+		 *
+		 * @param responseWriter
+		 *            the response writer of the next request
+		 */
+		public void reset(@Nonnull JRestlessResponseWriter responseWriter) {
+			response.reset(responseWriter);
+			synchronized (this) {
+				suspended = false;
+				timeoutHandler = null;
+				suspendDeadlineNanos = 0;
+				completed = false;
+				abandoned = false;
+			}
+		}
+
+		/**
+		 * @return {@code true} if the request has been suspended, i.e. the
+		 *         response will be written asynchronously
+		 */
+		public synchronized boolean isSuspended() {
+			return suspended;
+		}
+
+		/**
+		 * Blocks until the (suspended) response has been committed, at most
+		 * for {@code timeoutMillis} milliseconds.
+		 * <p>
+		 * The suspend timeout set by the application is enforced while
+		 * waiting, i.e. the {@link TimeoutHandler} is invoked on the waiting
+		 * thread.
+		 *
+		 * @param timeoutMillis
+		 *            the maximum time to wait; {@link Long#MAX_VALUE} means
+		 *            no limit
+		 * @return {@code true} if the response has been committed;
+		 *         {@code false} if the timeout elapsed before
+		 * @throws InterruptedException
+		 */
+		public boolean awaitCompletion(long timeoutMillis) throws InterruptedException {
+			final boolean unlimited = timeoutMillis == Long.MAX_VALUE;
+			final long deadline = unlimited ? 0
+					: System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(timeoutMillis, 0));
+			while (true) {
+				TimeoutHandler expiredTimeoutHandler;
+				synchronized (this) {
+					long now = System.nanoTime();
+					while (!completed && (suspendDeadlineNanos == 0 || suspendDeadlineNanos - now > 0)) {
+						long waitNanos = unlimited ? Long.MAX_VALUE : deadline - now;
+						if (waitNanos <= 0) {
+							return false;
+						}
+						if (suspendDeadlineNanos != 0) {
+							waitNanos = Math.min(waitNanos, suspendDeadlineNanos - now);
+						}
+						TimeUnit.NANOSECONDS.timedWait(this, waitNanos);
+						now = System.nanoTime();
+					}
+					if (completed) {
+						return true;
+					}
+					// the handler may set a new timeout
+					suspendDeadlineNanos = 0;
+					expiredTimeoutHandler = timeoutHandler;
+				}
+				expiredTimeoutHandler.onTimeout(this);
+			}
+		}
+
+		/**
+		 * Marks the response as abandoned after
+		 * {@link #awaitCompletion(long)} timed out. A response that gets
+		 * committed afterwards won't be written and a late entity write is
+		 * discarded since the entity output stream may already be in use by
+		 * another request.
+		 *
+		 * @return {@code true} if the response has been abandoned;
+		 *         {@code false} if it has been committed concurrently
+		 */
+		public synchronized boolean abandon() {
+			if (response.markClosed()) {
+				abandoned = true;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * @return {@code true} if the response has been written
+		 */
+		public boolean isCommitted() {
+			return response.isClosed();
+		}
+
 		@Override
-		public OutputStream writeResponseStatusAndHeaders(long contentLength, ContainerResponse context) {
+		public synchronized OutputStream writeResponseStatusAndHeaders(long contentLength,
+				ContainerResponse context) {
+			if (abandoned) {
+				return DiscardingOutputStream.INSTANCE;
+			}
 			response.setStatusType(context.getStatusInfo());
 			response.getHeaders().putAll(context.getStringHeaders());
+			response.beforeEntityWrite(contentLength);
+			if (suspended) {
+				// the response may get abandoned while the entity is being written
+				return new AbandonableOutputStream(this, response.getEntityOutputStream());
+			}
 			return response.getEntityOutputStream();
 		}
 
 		@Override
 		public void commit() {
-			response.close();
+			try {
+				response.close();
+			} finally {
+				synchronized (this) {
+					completed = true;
+					notifyAll();
+				}
+			}
 		}
 
 		@Override
 		public void failure(Throwable error) {
 			LOG.error("container failure", error);
-			response.setStatusType(Status.INTERNAL_SERVER_ERROR);
+			synchronized (this) {
+				if (!abandoned) {
+					response.setStatusType(Status.INTERNAL_SERVER_ERROR);
+				}
+			}
 			try {
 				commit();
 			} catch (RuntimeException e) {
@@ -347,18 +675,102 @@ public class JRestlessHandlerContainer<RequestT extends JRestlessContainerReques
 		}
 
 		@Override
-		public boolean suspend(long timeOut, TimeUnit timeUnit, TimeoutHandler timeoutHandler) {
-			throw new UnsupportedOperationException("#suspend is not supported by the container.");
+		public synchronized boolean suspend(long timeOut, TimeUnit timeUnit, TimeoutHandler handler) {
+			requireNonNull(handler, "timeoutHandler may not be null");
+			if (suspended) {
+				return false;
+			}
+			suspended = true;
+			timeoutHandler = handler;
+			updateSuspendTimeout(timeOut, timeUnit);
+			return true;
 		}
 
 		@Override
-		public void setSuspendTimeout(long timeOut, TimeUnit timeUnit) {
-			throw new UnsupportedOperationException("#setSuspendTimeout is not supported by the container.");
+		public synchronized void setSuspendTimeout(long timeOut, TimeUnit timeUnit) {
+			checkState(suspended, "response has not been suspended");
+			updateSuspendTimeout(timeOut, timeUnit);
+			notifyAll();
+		}
+
+		// guarded by this; a timeout <= 0 means no timeout
+		private void updateSuspendTimeout(long timeOut, TimeUnit timeUnit) {
+			if (timeOut <= 0) {
+				suspendDeadlineNanos = 0;
+			} else {
+				long deadline = System.nanoTime() + timeUnit.toNanos(timeOut);
+				// 0 is reserved for "no timeout"
+				suspendDeadlineNanos = deadline == 0 ? 1 : deadline;
+			}
 		}
 
 		@Override
 		public boolean enableResponseBuffering() {
 			return false;
 		}
+
+		/*
+		 * Writes to the entity output stream of a suspended response as long
+		 * as the response hasn't been abandoned.
+		 */
+		private static final class AbandonableOutputStream extends OutputStream {
+
+			private final JRestlessContainerResponseWriter writer;
+			private final OutputStream delegate;
+
+			AbandonableOutputStream(JRestlessContainerResponseWriter writer, OutputStream delegate) {
+				this.writer = writer;
+				this.delegate = delegate;
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				synchronized (writer) {
+					if (!writer.abandoned) {
+						delegate.write(b);
+					}
+				}
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				synchronized (writer) {
+					if (!writer.abandoned) {
+						delegate.write(b, off, len);
+					}
+				}
+			}
+
+			@Override
+			public void flush() throws IOException {
+				synchronized (writer) {
+					if (!writer.abandoned) {
+						delegate.flush();
+					}
+				}
+			}
+
+			@Override
+			public void close() throws IOException {
+				synchronized (writer) {
+					if (!writer.abandoned) {
+						delegate.close();
+					}
+				}
+			}
+		}
+
+		private static final class DiscardingOutputStream extends OutputStream {
+
+			static final DiscardingOutputStream INSTANCE = new DiscardingOutputStream();
+
+			@Override
+			public void write(int b) {
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+			}
+		}
 	}
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.Response.StatusType;
+
+import com.jrestless.core.container.io.JRestlessResponseWriter;
+import com.jrestless.core.container.io.PresizableByteArrayOutputStream;
+
+/**
+ * Response writer that passes everything on to the given response writer and
+ * captures the entity so that the response can be stored in the
+ * {@link ResponseCache}.
+ * <p>
+ * Capturing stops as soon as the entity exceeds the maximum entry size.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+final class CachingResponseWriter implements JRestlessResponseWriter {
+
+	private final ResponseCache cache;
+	private final String key;
+	private final Map<String, List<String>> requestHeaders;
+	private final JRestlessResponseWriter delegate;
+	private OutputStream delegateEntityOutputStream;
+	private PresizableByteArrayOutputStream capturedEntity;
+
+	CachingResponseWriter(ResponseCache cache, String key, Map<String, List<String>> requestHeaders,
+			JRestlessResponseWriter delegate) {
+		this.cache = cache;
+		this.key = key;
+		this.requestHeaders = requestHeaders;
+		this.delegate = delegate;
+	}
+
+	@Override
+	public OutputStream getEntityOutputStream() {
+		delegateEntityOutputStream = delegate.getEntityOutputStream();
+		capturedEntity = new PresizableByteArrayOutputStream();
+		return new CapturingOutputStream();
+	}
+
+	@Override
+	public void beforeEntityWrite(StatusType statusType, long contentLength, Map<String, List<String>> headers) {
+		delegate.beforeEntityWrite(statusType, contentLength, headers);
+		if (capturedEntity != null) {
+			if (contentLength > cache.getMaximumEntrySize()) {
+				capturedEntity = null;
+			} else {
+				capturedEntity.reserve(contentLength);
+			}
+		}
+	}
+
+	@Override
+	public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
+			OutputStream entityOutputStream) throws IOException {
+		// the delegate might depend on the type of its own stream
+		delegate.writeResponse(statusType, headers, delegateEntityOutputStream);
+		if (capturedEntity != null) {
+			cache.store(key, requestHeaders, statusType, headers, capturedEntity.toByteArray());
+		}
+	}
+
+	private final class CapturingOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) throws IOException {
+			delegateEntityOutputStream.write(b);
+			stopCapturingIfTooLarge(1);
+			if (capturedEntity != null) {
+				capturedEntity.write(b);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			delegateEntityOutputStream.write(b, off, len);
+			stopCapturingIfTooLarge(len);
+			if (capturedEntity != null) {
+				capturedEntity.write(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			delegateEntityOutputStream.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			delegateEntityOutputStream.close();
+		}
+
+		private void stopCapturingIfTooLarge(int len) {
+			if (capturedEntity != null && capturedEntity.size() + (long) len > cache.getMaximumEntrySize()) {
+				capturedEntity = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,544 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.cache;
+
+import static com.jrestless.core.http.HttpCaching.DIRECTIVE_MAX_AGE;
+import static com.jrestless.core.http.HttpCaching.DIRECTIVE_NO_CACHE;
+import static com.jrestless.core.http.HttpCaching.DIRECTIVE_NO_STORE;
+import static com.jrestless.core.http.HttpCaching.DIRECTIVE_PRIVATE;
+import static com.jrestless.core.http.HttpCaching.DIRECTIVE_PUBLIC;
+import static com.jrestless.core.http.HttpCaching.DIRECTIVE_S_MAXAGE;
+import static com.jrestless.core.http.HttpCaching.evictLeastRecentlyUsed;
+import static com.jrestless.core.http.HttpCaching.getHeader;
+import static com.jrestless.core.http.HttpCaching.newLeastRecentlyUsedMap;
+import static com.jrestless.core.http.HttpCaching.parseCacheControl;
+import static com.jrestless.core.http.HttpCaching.parseHttpDate;
+import static com.jrestless.core.http.HttpCaching.parseSeconds;
+import static java.util.Objects.requireNonNull;
+import static jersey.repackaged.com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.Response.StatusType;
+
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessResponseWriter;
+import com.jrestless.core.http.HeaderMap;
+
+/**
+ * In-memory cache for responses to {@code GET} requests that is consulted
+ * before a request is passed to Jersey (see
+ * {@link com.jrestless.core.container.JRestlessHandlerContainer#enableResponseCache(ResponseCache)
+ * JRestlessHandlerContainer#enableResponseCache}).
+ * <p>
+ * Responses are keyed on the request method, the base and the request URI
+ * and the values of the request headers listed in the response's
+ * {@code Vary} header. A response is stored only if
+ * <ol>
+ * <li>its status is 200
+ * <li>it has a {@code Cache-Control} header with a positive
+ * {@code s-maxage} or {@code max-age} directive and without any of the
+ * directives {@code no-store}, {@code no-cache} and {@code private}
+ * <li>it doesn't vary on {@code *} and doesn't set cookies
+ * <li>the request had no {@code Authorization} header - unless the response
+ * is marked {@code public} or has an {@code s-maxage} directive
+ * <li>its entity doesn't exceed the maximum entry size
+ * </ol>
+ * Since the cache is shared by all callers, resources must mark responses
+ * depending on the caller's identity (e.g. the security context) as
+ * {@code private} or not make them cacheable at all.
+ * <p>
+ * Entries are fresh for the given {@code s-maxage} or {@code max-age} and
+ * are not revalidated; stale entries are dropped. Conditional requests are
+ * answered with 304 (Not Modified) if the stored {@code ETag} matches
+ * {@code If-None-Match} or - if the request has no {@code If-None-Match}
+ * header - the stored {@code Last-Modified} date is not after
+ * {@code If-Modified-Since}. Requests with {@code Cache-Control: no-store}
+ * bypass the cache; requests with {@code Cache-Control: no-cache} or
+ * {@code max-age=0} are passed to Jersey but the fresh response gets stored.
+ * {@code POST}, {@code PUT}, {@code DELETE} and {@code PATCH} requests
+ * invalidate the cached responses of the same URI.
+ * <p>
+ * The cache is bounded by the number of entries and the total size of the
+ * stored entities. Once a bound is exceeded, the least recently used
+ * resources (with all their variants) get evicted.
+ * <p>
+ * The cache is thread-safe.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class ResponseCache {
+
+	public static final int DEFAULT_MAXIMUM_ENTRIES = 256;
+	public static final long DEFAULT_MAXIMUM_SIZE = 16L * 1024 * 1024;
+	public static final int DEFAULT_MAXIMUM_ENTRY_SIZE = 1024 * 1024;
+
+	private static final String HEADER_AGE = "Age";
+	private static final String HEADER_SET_COOKIE = "Set-Cookie";
+	private static final String WEAK_ETAG_PREFIX = "W/";
+	private static final String ANY = "*";
+	private static final long MILLIS_PER_SECOND = 1000;
+	// headers a 304 response must (or may) contain
+	private static final List<String> NOT_MODIFIED_HEADERS = Collections.unmodifiableList(Arrays.asList(
+			HttpHeaders.CACHE_CONTROL, HttpHeaders.CONTENT_LOCATION, HttpHeaders.DATE, HttpHeaders.ETAG,
+			HttpHeaders.EXPIRES, HttpHeaders.LAST_MODIFIED, HttpHeaders.VARY));
+
+	private final int maximumEntries;
+	private final long maximumSize;
+	private final int maximumEntrySize;
+	private final Clock clock;
+
+	// access-ordered => LRU
+	private final LinkedHashMap<String, Resource> resources = newLeastRecentlyUsedMap();
+	private int entryCount;
+	private long size;
+	private long hitCount;
+	private long notModifiedCount;
+	private long missCount;
+	private long evictionCount;
+
+	private ResponseCache(int maximumEntries, long maximumSize, int maximumEntrySize, Clock clock) {
+		this.maximumEntries = maximumEntries;
+		this.maximumSize = maximumSize;
+		this.maximumEntrySize = maximumEntrySize;
+		this.clock = clock;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Writes the cached response for the given request into the response
+	 * writer - if there is a fresh one.
+	 *
+	 * @param request
+	 * @param responseWriter
+	 * @return {@code true} if the cached response has been written;
+	 *         {@code false} if the request must be passed to Jersey
+	 * @throws IOException
+	 *             if the response writer fails
+	 */
+	public boolean writeCachedResponse(@Nonnull JRestlessContainerRequest request,
+			@Nonnull JRestlessResponseWriter responseWriter) throws IOException {
+		requireNonNull(responseWriter);
+		String httpMethod = request.getHttpMethod();
+		if (!HttpMethod.GET.equals(httpMethod)) {
+			if (isInvalidatingMethod(httpMethod)) {
+				invalidate(getKey(HttpMethod.GET, request));
+			}
+			return false;
+		}
+		Map<String, String> cacheControl = parseCacheControl(getHeader(request.getHeaders(),
+				HttpHeaders.CACHE_CONTROL));
+		if (cacheControl.containsKey(DIRECTIVE_NO_STORE)) {
+			return false;
+		}
+		Entry entry = null;
+		if (!cacheControl.containsKey(DIRECTIVE_NO_CACHE) && !"0".equals(cacheControl.get(DIRECTIVE_MAX_AGE))) {
+			entry = getFreshEntry(getKey(httpMethod, request), request.getHeaders());
+		}
+		if (entry == null) {
+			synchronized (this) {
+				missCount++;
+			}
+			return false;
+		}
+		boolean notModified = isNotModified(entry, request.getHeaders());
+		synchronized (this) {
+			hitCount++;
+			if (notModified) {
+				notModifiedCount++;
+			}
+		}
+		if (notModified) {
+			writeNotModifiedResponse(entry, responseWriter);
+		} else {
+			writeResponse(entry, responseWriter);
+		}
+		return true;
+	}
+
+	/**
+	 * Creates a response writer that writes into the given one and stores the
+	 * response for the given request in the cache if it is cacheable.
+	 * <p>
+	 * Must only be invoked if {@link #writeCachedResponse} returned
+	 * {@code false} for the request.
+	 *
+	 * @param request
+	 * @param responseWriter
+	 * @return the caching response writer or the given one if the request's
+	 *         response must not be stored
+	 */
+	@Nonnull
+	public JRestlessResponseWriter createCachingResponseWriter(@Nonnull JRestlessContainerRequest request,
+			@Nonnull JRestlessResponseWriter responseWriter) {
+		requireNonNull(responseWriter);
+		if (!HttpMethod.GET.equals(request.getHttpMethod())) {
+			return responseWriter;
+		}
+		Map<String, List<String>> requestHeaders = request.getHeaders();
+		if (parseCacheControl(getHeader(requestHeaders, HttpHeaders.CACHE_CONTROL)).containsKey(DIRECTIVE_NO_STORE)) {
+			return responseWriter;
+		}
+		return new CachingResponseWriter(this, getKey(request.getHttpMethod(), request), requestHeaders,
+				responseWriter);
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public synchronized void invalidateAll() {
+		resources.clear();
+		entryCount = 0;
+		size = 0;
+	}
+
+	/**
+	 * @return the number of requests answered from the cache (including
+	 *         {@link #getNotModifiedCount() 304 responses})
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return the number of requests answered from the cache with 304 (Not
+	 *         Modified)
+	 */
+	public synchronized long getNotModifiedCount() {
+		return notModifiedCount;
+	}
+
+	/**
+	 * @return the number of {@code GET} requests that could not be answered
+	 *         from the cache
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * @return the number of entries evicted due to the cache's bounds
+	 */
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * @return the number of stored entries
+	 */
+	public synchronized int getEntryCount() {
+		return entryCount;
+	}
+
+	/**
+	 * @return the total size of the stored entities in bytes
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	int getMaximumEntrySize() {
+		return maximumEntrySize;
+	}
+
+	/**
+	 * Stores the response if it is cacheable.
+	 */
+	void store(String key, Map<String, List<String>> requestHeaders, StatusType status,
+			Map<String, List<String>> headers, byte[] entity) {
+		if (status.getStatusCode() != Status.OK.getStatusCode() || getHeader(headers, HEADER_SET_COOKIE) != null
+				|| entity.length > maximumEntrySize) {
+			return;
+		}
+		Map<String, String> cacheControl = parseCacheControl(getHeader(headers, HttpHeaders.CACHE_CONTROL));
+		if (cacheControl.containsKey(DIRECTIVE_NO_STORE) || cacheControl.containsKey(DIRECTIVE_NO_CACHE)
+				|| cacheControl.containsKey(DIRECTIVE_PRIVATE)) {
+			return;
+		}
+		String sharedMaxAge = cacheControl.get(DIRECTIVE_S_MAXAGE);
+		long maxAgeSeconds = parseSeconds(sharedMaxAge != null ? sharedMaxAge : cacheControl.get(DIRECTIVE_MAX_AGE));
+		if (maxAgeSeconds <= 0) {
+			return;
+		}
+		if (getHeader(requestHeaders, HttpHeaders.AUTHORIZATION) != null && sharedMaxAge == null
+				&& !cacheControl.containsKey(DIRECTIVE_PUBLIC)) {
+			return;
+		}
+		List<String> varyHeaderNames = parseVary(getHeader(headers, HttpHeaders.VARY));
+		if (varyHeaderNames == null) {
+			return;
+		}
+		long now = clock.millis();
+		Entry entry = new Entry(status, HeaderMap.unmodifiableMultivaluedCopyOf(headers), entity, now,
+				now + Math.min(maxAgeSeconds, (Long.MAX_VALUE - now) / MILLIS_PER_SECOND) * MILLIS_PER_SECOND);
+		List<String> varyValues = getVaryValues(requestHeaders, varyHeaderNames);
+		synchronized (this) {
+			Resource resource = resources.get(key);
+			if (resource == null || !resource.varyHeaderNames.equals(varyHeaderNames)) {
+				if (resource != null) {
+					remove(resource);
+				}
+				resource = new Resource(varyHeaderNames);
+				resources.put(key, resource);
+			}
+			Entry replacedEntry = resource.variants.put(varyValues, entry);
+			if (replacedEntry != null) {
+				entryCount--;
+				size -= replacedEntry.entity.length;
+			}
+			entryCount++;
+			size += entity.length;
+			evict();
+		}
+	}
+
+	private synchronized Entry getFreshEntry(String key, Map<String, List<String>> requestHeaders) {
+		Resource resource = resources.get(key);
+		if (resource == null) {
+			return null;
+		}
+		List<String> varyValues = getVaryValues(requestHeaders, resource.varyHeaderNames);
+		Entry entry = resource.variants.get(varyValues);
+		if (entry == null) {
+			return null;
+		}
+		if (clock.millis() >= entry.expiresAtMillis) {
+			resource.variants.remove(varyValues);
+			entryCount--;
+			size -= entry.entity.length;
+			if (resource.variants.isEmpty()) {
+				resources.remove(key);
+			}
+			return null;
+		}
+		return entry;
+	}
+
+	private synchronized void invalidate(String key) {
+		Resource resource = resources.remove(key);
+		if (resource != null) {
+			remove(resource);
+		}
+	}
+
+	private void remove(Resource resource) {
+		for (Entry entry : resource.variants.values()) {
+			entryCount--;
+			size -= entry.entity.length;
+		}
+	}
+
+	private void evict() {
+		evictLeastRecentlyUsed(resources, () -> entryCount > maximumEntries || size > maximumSize, resource -> {
+			remove(resource);
+			evictionCount += resource.variants.size();
+		});
+	}
+
+	private boolean isNotModified(Entry entry, Map<String, List<String>> requestHeaders) {
+		String ifNoneMatch = getHeader(requestHeaders, HttpHeaders.IF_NONE_MATCH);
+		if (ifNoneMatch != null) {
+			String etag = entry.headers.getFirst(HttpHeaders.ETAG);
+			return etag != null && matchesWeakly(ifNoneMatch, etag);
+		}
+		String ifModifiedSince = getHeader(requestHeaders, HttpHeaders.IF_MODIFIED_SINCE);
+		if (ifModifiedSince != null) {
+			Long lastModified = parseHttpDate(entry.headers.getFirst(HttpHeaders.LAST_MODIFIED));
+			Long since = parseHttpDate(ifModifiedSince);
+			return lastModified != null && since != null && lastModified <= since;
+		}
+		return false;
+	}
+
+	private static boolean matchesWeakly(String ifNoneMatch, String etag) {
+		String opaqueTag = stripWeakPrefix(etag.trim());
+		for (String candidate : ifNoneMatch.split(",")) {
+			String trimmedCandidate = candidate.trim();
+			if (ANY.equals(trimmedCandidate) || stripWeakPrefix(trimmedCandidate).equals(opaqueTag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String stripWeakPrefix(String etag) {
+		return etag.startsWith(WEAK_ETAG_PREFIX) ? etag.substring(WEAK_ETAG_PREFIX.length()) : etag;
+	}
+
+	private void writeResponse(Entry entry, JRestlessResponseWriter responseWriter) throws IOException {
+		HeaderMap headers = new HeaderMap(entry.headers.size() + 1);
+		entry.headers.forEach(headers::put);
+		headers.putSingle(HEADER_AGE, Long.toString(getAgeSeconds(entry)));
+		OutputStream entityOutputStream = responseWriter.getEntityOutputStream();
+		responseWriter.beforeEntityWrite(entry.status, entry.entity.length, headers);
+		entityOutputStream.write(entry.entity);
+		entityOutputStream.close();
+		responseWriter.writeResponse(entry.status, headers, entityOutputStream);
+	}
+
+	private void writeNotModifiedResponse(Entry entry, JRestlessResponseWriter responseWriter) throws IOException {
+		HeaderMap headers = new HeaderMap();
+		for (String headerName : NOT_MODIFIED_HEADERS) {
+			List<String> values = entry.headers.get(headerName);
+			if (values != null) {
+				headers.put(headerName, values);
+			}
+		}
+		headers.putSingle(HEADER_AGE, Long.toString(getAgeSeconds(entry)));
+		OutputStream entityOutputStream = responseWriter.getEntityOutputStream();
+		responseWriter.beforeEntityWrite(Status.NOT_MODIFIED, 0, headers);
+		entityOutputStream.close();
+		responseWriter.writeResponse(Status.NOT_MODIFIED, headers, entityOutputStream);
+	}
+
+	private long getAgeSeconds(Entry entry) {
+		return Math.max(0, clock.millis() - entry.storedAtMillis) / MILLIS_PER_SECOND;
+	}
+
+	private static boolean isInvalidatingMethod(String httpMethod) {
+		return HttpMethod.POST.equals(httpMethod) || HttpMethod.PUT.equals(httpMethod)
+				|| HttpMethod.DELETE.equals(httpMethod) || "PATCH".equals(httpMethod);
+	}
+
+	private static String getKey(String httpMethod, JRestlessContainerRequest request) {
+		return httpMethod + ' ' + request.getBaseUri() + ' ' + request.getRequestUri();
+	}
+
+	private static List<String> getVaryValues(Map<String, List<String>> requestHeaders, List<String> varyHeaderNames) {
+		if (varyHeaderNames.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<String> varyValues = new ArrayList<>(varyHeaderNames.size());
+		for (String varyHeaderName : varyHeaderNames) {
+			varyValues.add(getHeader(requestHeaders, varyHeaderName));
+		}
+		return varyValues;
+	}
+
+	/*
+	 * Returns the lower-cased header names or null for "*".
+	 */
+	@Nullable
+	private static List<String> parseVary(@Nullable String vary) {
+		if (vary == null) {
+			return Collections.emptyList();
+		}
+		List<String> varyHeaderNames = new ArrayList<>();
+		for (String headerName : vary.split(",")) {
+			String trimmedHeaderName = headerName.trim().toLowerCase(Locale.ROOT);
+			if (ANY.equals(trimmedHeaderName)) {
+				return null;
+			} else if (!trimmedHeaderName.isEmpty() && !varyHeaderNames.contains(trimmedHeaderName)) {
+				varyHeaderNames.add(trimmedHeaderName);
+			}
+		}
+		return varyHeaderNames;
+	}
+
+	private static final class Resource {
+		private final List<String> varyHeaderNames;
+		private final Map<List<String>, Entry> variants = new HashMap<>();
+
+		Resource(List<String> varyHeaderNames) {
+			this.varyHeaderNames = varyHeaderNames;
+		}
+	}
+
+	private static final class Entry {
+		private final StatusType status;
+		private final HeaderMap headers;
+		private final byte[] entity;
+		private final long storedAtMillis;
+		private final long expiresAtMillis;
+
+		Entry(StatusType status, HeaderMap headers, byte[] entity, long storedAtMillis, long expiresAtMillis) {
+			this.status = status;
+			this.headers = headers;
+			this.entity = entity;
+			this.storedAtMillis = storedAtMillis;
+			this.expiresAtMillis = expiresAtMillis;
+		}
+	}
+
+	public static final class Builder {
+
+		private int maximumEntries = DEFAULT_MAXIMUM_ENTRIES;
+		private long maximumSize = DEFAULT_MAXIMUM_SIZE;
+		private int maximumEntrySize = DEFAULT_MAXIMUM_ENTRY_SIZE;
+		private Clock clock = Clock.systemUTC();
+
+		private Builder() {
+			// use ResponseCache#builder()
+		}
+
+		/**
+		 * Sets the maximum number of stored responses.
+		 */
+		public Builder setMaximumEntries(int maximumEntries) {
+			checkArgument(maximumEntries > 0, "maximumEntries must be positive");
+			this.maximumEntries = maximumEntries;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum total size of the stored entities in bytes.
+		 */
+		public Builder setMaximumSize(long maximumSize) {
+			checkArgument(maximumSize > 0, "maximumSize must be positive");
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum size of a single stored entity in bytes; larger
+		 * responses are not stored.
+		 */
+		public Builder setMaximumEntrySize(int maximumEntrySize) {
+			checkArgument(maximumEntrySize >= 0, "maximumEntrySize must not be negative");
+			this.maximumEntrySize = maximumEntrySize;
+			return this;
+		}
+
+		// JUnit
+		Builder setClock(Clock clock) {
+			this.clock = requireNonNull(clock);
+			return this;
+		}
+
+		public ResponseCache build() {
+			return new ResponseCache(maximumEntries, maximumSize, maximumEntrySize, clock);
+		}
+	}
+}
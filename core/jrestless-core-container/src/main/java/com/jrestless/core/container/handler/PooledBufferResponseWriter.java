@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.handler;
+
+import static java.util.Objects.requireNonNull;
+import static jersey.repackaged.com.google.common.base.Preconditions.checkState;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.core.Response.StatusType;
+
+import com.jrestless.core.container.handler.SimpleRequestHandler.SimpleResponseWriter;
+import com.jrestless.core.container.io.PresizableByteArrayOutputStream;
+import com.jrestless.core.container.io.ResponseBufferPool;
+
+/**
+ * Base response writer that buffers the response entity in a buffer taken
+ * from a {@link ResponseBufferPool} - {@link ResponseBufferPool#getShared()
+ * the shared one} by default.
+ * <p>
+ * The buffer is returned to the pool as soon as
+ * {@link #writeBufferedResponse(StatusType, Map, PresizableByteArrayOutputStream)}
+ * returns, so implementations must not hold on to it.
+ * <p>
+ * If {@link #writeResponse(StatusType, Map, OutputStream) writeResponse} is
+ * passed another {@link ByteArrayOutputStream} than the one returned by
+ * {@link #getEntityOutputStream()}, its content is copied into a pooled
+ * buffer.
+ *
+ * @author Bjoern Bilger
+ *
+ * @param <ResponseT>
+ */
+public abstract class PooledBufferResponseWriter<ResponseT> implements SimpleResponseWriter<ResponseT> {
+
+	private final ResponseBufferPool bufferPool;
+	private PresizableByteArrayOutputStream entityBuffer;
+
+	protected PooledBufferResponseWriter() {
+		this(ResponseBufferPool.getShared());
+	}
+
+	protected PooledBufferResponseWriter(@Nonnull ResponseBufferPool bufferPool) {
+		this.bufferPool = requireNonNull(bufferPool);
+	}
+
+	@Override
+	public OutputStream getEntityOutputStream() {
+		return acquireEntityBuffer();
+	}
+
+	@Override
+	public void beforeEntityWrite(StatusType statusType, long contentLength, Map<String, List<String>> headers) {
+		if (entityBuffer != null) {
+			entityBuffer.reserve(contentLength);
+		}
+	}
+
+	@Override
+	public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
+			OutputStream entityOutputStream) throws IOException {
+		PresizableByteArrayOutputStream buffer = entityBuffer;
+		entityBuffer = null;
+		if (buffer == null) {
+			// the entity has not been written into an acquired buffer
+			buffer = bufferPool.acquire();
+			((ByteArrayOutputStream) entityOutputStream).writeTo(buffer);
+		}
+		try {
+			writeBufferedResponse(statusType, headers, buffer);
+		} finally {
+			bufferPool.release(buffer);
+		}
+	}
+
+	/**
+	 * Acquires the buffer for the response entity from the pool.
+	 *
+	 * @return the entity buffer
+	 */
+	@Nonnull
+	protected final PresizableByteArrayOutputStream acquireEntityBuffer() {
+		checkState(entityBuffer == null, "an entity buffer has been acquired already");
+		entityBuffer = bufferPool.acquire();
+		return entityBuffer;
+	}
+
+	/**
+	 * Creates the response from the buffered entity.
+	 *
+	 * @param statusType
+	 *            the response status
+	 * @param headers
+	 *            the response headers
+	 * @param entityBuffer
+	 *            the buffered entity; must not be used after the method
+	 *            returned
+	 * @throws IOException
+	 */
+	protected abstract void writeBufferedResponse(@Nonnull StatusType statusType,
+			@Nonnull Map<String, List<String>> headers, @Nonnull PresizableByteArrayOutputStream entityBuffer)
+			throws IOException;
+}
@@ -15,19 +15,34 @@
  */
 package com.jrestless.core.container.handler;
 
+import static com.jrestless.core.container.JRestlessHandlerContainer.ASYNC_RESPONSE_TIMEOUT_PROPERTY;
 import static java.util.Objects.requireNonNull;
+import static jersey.repackaged.com.google.common.base.Preconditions.checkArgument;
 import static jersey.repackaged.com.google.common.base.Preconditions.checkState;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response.StatusType;
 import javax.ws.rs.core.SecurityContext;
 
 import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.utilities.Binder;
 import org.glassfish.jersey.server.ContainerRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.cache.ResponseCache;
+import com.jrestless.core.container.index.ResourceIndex;
+import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
 import com.jrestless.core.container.io.JRestlessResponseWriter;
 import com.jrestless.core.security.AnonSecurityContext;
@@ -43,11 +58,15 @@ import com.jrestless.core.security.AnonSecurityContext;
  */
 public abstract class SimpleRequestHandler<RequestT, ResponseT> {
 
+	private static final Logger LOG = LoggerFactory.getLogger(SimpleRequestHandler.class);
+
 	private JRestlessHandlerContainer<JRestlessContainerRequest> container;
 
 	private boolean initialized = false;
 	private boolean started = false;
 
+	private ThreadLocal<RequestObjectPool> requestObjectPools;
+
 	/**
 	 * Initializes the container using the given application.
 	 * <p>
@@ -75,6 +94,21 @@ public abstract class SimpleRequestHandler<RequestT, ResponseT> {
 	}
 
 
+	/**
+	 * Initializes the container using an application consisting of all
+	 * classes of the given build-time resource index.
+	 * <p>
+	 * This avoids Jersey's package scanning.
+	 * <p>
+	 * May be called once, only.
+	 *
+	 * @param resourceIndex
+	 */
+	public final void init(@Nonnull ResourceIndex resourceIndex) {
+		requireNonNull(resourceIndex);
+		init(resourceIndex.createResourceConfig());
+	}
+
 	/**
 	 * Initializes the container using the given application, binder and locator.
 	 *
@@ -101,6 +135,95 @@ public abstract class SimpleRequestHandler<RequestT, ResponseT> {
 		started = true;
 	}
 
+	/**
+	 * Warms the container up by passing the requests returned by
+	 * {@link #createWarmUpRequests()} through it once.
+	 * <p>
+	 * See {@link #warmUp(int)}.
+	 */
+	public final void warmUp() {
+		warmUp(1);
+	}
+
+	/**
+	 * Warms the container up by passing the requests returned by
+	 * {@link #createWarmUpRequests()} through it - {@code iterations} times.
+	 * <p>
+	 * The first request handled by the container pays for Jersey's lazy
+	 * initialization, class loading and so on. Calling this right after
+	 * {@link #start()} moves that work into the initialization of the
+	 * function. Additional iterations give the JIT the chance to collect
+	 * profiles.
+	 * <p>
+	 * The responses are discarded and failures are logged, only.
+	 * <p>
+	 * The container must have been started.
+	 *
+	 * @param iterations
+	 *            how often all warm-up requests get passed to the container
+	 */
+	public final void warmUp(int iterations) {
+		checkState(started, "handler has not been started");
+		checkArgument(iterations > 0, "iterations must be positive");
+		for (int i = 0; i < iterations; i++) {
+			// requests are re-created since their entity streams get consumed
+			for (JRestlessContainerRequest warmUpRequest : createWarmUpRequests()) {
+				warmUp(warmUpRequest);
+			}
+		}
+	}
+
+	private void warmUp(JRestlessContainerRequest warmUpRequest) {
+		WarmUpResponseWriter responseWriter = new WarmUpResponseWriter();
+		try {
+			// warm-up responses must not end up in the response cache
+			container.handleRequestWithoutCache(warmUpRequest, responseWriter, new AnonSecurityContext(),
+					this::extendWarmUpJerseyContainerRequest);
+			LOG.debug("warm-up request {} {} returned {}", warmUpRequest.getHttpMethod(),
+					warmUpRequest.getRequestUri(), responseWriter.statusCode);
+		} catch (RuntimeException e) {
+			LOG.warn("warm-up request {} {} failed", warmUpRequest.getHttpMethod(), warmUpRequest.getRequestUri(), e);
+		}
+	}
+
+	/**
+	 * Enables the pooled reuse of the objects created for every request.
+	 * <p>
+	 * Every thread keeps one set of request objects - the container request
+	 * created via
+	 * {@link #createDefaultContainerRequest(URI, URI, String, InputStream, Map)}
+	 * and the container's response writer - and resets them for the next
+	 * request. Lambda processes one request per container at a time, so
+	 * usually a single set gets reused for all requests. Nested requests on
+	 * the same thread fall back to new objects.
+	 * <p>
+	 * Implementations must not hold on to the container request after
+	 * {@link #delegateRequest(Object)} returned.
+	 * <p>
+	 * The handler must have been initialized.
+	 */
+	public final void enableRequestObjectPooling() {
+		checkState(initialized, "handler has not been initialized");
+		container.enableResponseWriterReuse();
+		if (requestObjectPools == null) {
+			requestObjectPools = ThreadLocal.withInitial(RequestObjectPool::new);
+		}
+	}
+
+	/**
+	 * Enables the given response cache so that responses to {@code GET}
+	 * requests get answered from memory if possible - without passing the
+	 * request to Jersey. See {@link ResponseCache} for the caching rules.
+	 * <p>
+	 * The handler must have been initialized.
+	 *
+	 * @param responseCache
+	 */
+	public final void enableResponseCache(@Nonnull ResponseCache responseCache) {
+		checkState(initialized, "handler has not been initialized");
+		container.enableResponseCache(responseCache);
+	}
+
 	/**
 	 * Handles the request by passing it to the container and so Jersey.
 	 *
@@ -108,6 +231,20 @@ public abstract class SimpleRequestHandler<RequestT, ResponseT> {
 	 * @return
 	 */
 	public final ResponseT delegateRequest(@Nonnull RequestT request) {
+		ThreadLocal<RequestObjectPool> pools = requestObjectPools;
+		if (pools == null) {
+			return delegateRequestToContainer(request);
+		}
+		RequestObjectPool pool = pools.get();
+		pool.depth++;
+		try {
+			return delegateRequestToContainer(request);
+		} finally {
+			pool.release();
+		}
+	}
+
+	private ResponseT delegateRequestToContainer(RequestT request) {
 		ResponseT containerResponse;
 		JRestlessContainerRequest containerRequest = null;
 		try {
@@ -118,19 +255,60 @@ public abstract class SimpleRequestHandler<RequestT, ResponseT> {
 			beforeHandleRequest(request, containerRequest);
 			SimpleResponseWriter<ResponseT> responseWriter = createResponseWriter(request);
 			container.handleRequest(containerRequest, responseWriter, createSecurityContext(request, containerRequest),
-					cReq -> extendActualJerseyContainerRequest(cReq, containerRequestFinal, request));
+					cReq -> {
+						setAsyncResponseTimeout(cReq, request);
+						extendActualJerseyContainerRequest(cReq, containerRequestFinal, request);
+					});
 			containerResponse = responseWriter.getResponse();
 			containerResponse = onRequestSuccess(containerResponse, request, containerRequest);
 		} catch (Exception e) {
+			beforeRequestFailure(e, request, containerRequest);
 			containerResponse = onRequestFailure(e, request, containerRequest);
 		}
 		return containerResponse;
 	}
 
+	private void setAsyncResponseTimeout(ContainerRequest actualContainerRequest, RequestT request) {
+		long timeoutMillis = getAsyncResponseTimeoutMillis(request);
+		if (timeoutMillis != Long.MAX_VALUE) {
+			actualContainerRequest.setProperty(ASYNC_RESPONSE_TIMEOUT_PROPERTY, timeoutMillis);
+		}
+	}
+
 	protected abstract SimpleResponseWriter<ResponseT> createResponseWriter(@Nonnull RequestT request);
 
 	protected abstract JRestlessContainerRequest createContainerRequest(RequestT request);
 
+	/**
+	 * Creates a {@link DefaultJRestlessContainerRequest} or - if request object
+	 * pooling has been enabled (s. {@link #enableRequestObjectPooling()}) -
+	 * resets and returns this thread's pooled instance.
+	 * <p>
+	 * Meant to be used by
+	 * {@link #createContainerRequest(Object) createContainerRequest}.
+	 *
+	 * @param baseUri
+	 * @param requestUri
+	 * @param httpMethod
+	 * @param entityStream
+	 * @param headers
+	 * @return the container request
+	 */
+	@Nonnull
+	protected final DefaultJRestlessContainerRequest createDefaultContainerRequest(@Nonnull URI baseUri,
+			@Nonnull URI requestUri, @Nonnull String httpMethod, @Nonnull InputStream entityStream,
+			@Nonnull Map<String, List<String>> headers) {
+		ThreadLocal<RequestObjectPool> pools = requestObjectPools;
+		if (pools != null) {
+			DefaultJRestlessContainerRequest pooledRequest = pools.get().acquireContainerRequest(baseUri, requestUri,
+					httpMethod, entityStream, headers);
+			if (pooledRequest != null) {
+				return pooledRequest;
+			}
+		}
+		return new DefaultJRestlessContainerRequest(baseUri, requestUri, httpMethod, entityStream, headers);
+	}
+
 	/**
 	 * Hook that is invoked before the request is handled by the container.
 	 *
@@ -154,6 +332,23 @@ public abstract class SimpleRequestHandler<RequestT, ResponseT> {
 		return response;
 	}
 
+	/**
+	 * Hook that is invoked when the request couldn't be handled by the
+	 * container, right before
+	 * {@link #onRequestFailure(Exception, Object, JRestlessContainerRequest)
+	 * onRequestFailure}.
+	 * <p>
+	 * Meant to be used by handlers that need to track failures independently
+	 * of how {@code onRequestFailure} gets overridden.
+	 *
+	 * @param e
+	 * @param request
+	 * @param containerRequest
+	 */
+	protected void beforeRequestFailure(Exception e, RequestT request,
+			@Nullable JRestlessContainerRequest containerRequest) {
+	}
+
 	/**
 	 * Hook that is invoked when the request couldn't be handled by the
 	 * container.
@@ -178,6 +373,22 @@ public abstract class SimpleRequestHandler<RequestT, ResponseT> {
 			JRestlessContainerRequest containerRequest, RequestT request) {
 	}
 
+	/**
+	 * Hook that returns how long {@link #delegateRequest(Object)} waits for a
+	 * suspended (asynchronous) response, e.g. of a resource method using
+	 * {@code @Suspended AsyncResponse}.
+	 * <p>
+	 * If the response hasn't been written in time, the request fails.
+	 * <p>
+	 * By default there's no limit ({@link Long#MAX_VALUE}).
+	 *
+	 * @param request
+	 * @return the timeout in milliseconds
+	 */
+	protected long getAsyncResponseTimeoutMillis(RequestT request) {
+		return Long.MAX_VALUE;
+	}
+
 	/**
 	 * Hook that allows creation of a {@link SecurityContext}.
 	 * <p>
@@ -191,7 +402,93 @@ public abstract class SimpleRequestHandler<RequestT, ResponseT> {
 		return new AnonSecurityContext();
 	}
 
+	/**
+	 * Hook that allows to provide the requests used by {@link #warmUp(int)}.
+	 * <p>
+	 * Invoked once per warm-up iteration. By default an OPTIONS request is
+	 * created for every resource path; see
+	 * {@link WarmUpRequestFactory#createOptionsRequests(JRestlessHandlerContainer)}.
+	 * Any custom request must be free of side effects.
+	 *
+	 * @return the warm-up requests
+	 */
+	@Nonnull
+	protected Collection<? extends JRestlessContainerRequest> createWarmUpRequests() {
+		return WarmUpRequestFactory.createOptionsRequests(container);
+	}
+
+	/**
+	 * Hook that allows to extend the actual containerRequest passed to the
+	 * Jersey container during {@link #warmUp(int)}.
+	 * <p>
+	 * This is the warm-up counterpart of
+	 * {@link #extendActualJerseyContainerRequest(ContainerRequest, JRestlessContainerRequest, Object)}.
+	 *
+	 * @param actualContainerRequest
+	 */
+	protected void extendWarmUpJerseyContainerRequest(ContainerRequest actualContainerRequest) {
+	}
+
 	public interface SimpleResponseWriter<ResponseT> extends JRestlessResponseWriter {
 		ResponseT getResponse();
 	}
+
+	/*
+	 * Thread-confined set of reusable request objects. The container request is
+	 * owned by the (possibly nested) delegateRequest invocation that acquired
+	 * it and released once that invocation completes.
+	 */
+	private static final class RequestObjectPool {
+		private DefaultJRestlessContainerRequest containerRequest;
+		private int depth;
+		private int containerRequestOwner;
+
+		DefaultJRestlessContainerRequest acquireContainerRequest(URI baseUri, URI requestUri, String httpMethod,
+				InputStream entityStream, Map<String, List<String>> headers) {
+			if (depth == 0 || containerRequestOwner != 0) {
+				// not invoked via delegateRequest or already in use
+				return null;
+			}
+			if (containerRequest == null) {
+				containerRequest = new DefaultJRestlessContainerRequest(baseUri, requestUri, httpMethod,
+						entityStream, headers);
+			} else {
+				containerRequest.reset(baseUri, requestUri, httpMethod, entityStream, headers);
+			}
+			containerRequestOwner = depth;
+			return containerRequest;
+		}
+
+		void release() {
+			if (containerRequestOwner == depth) {
+				containerRequestOwner = 0;
+			}
+			depth--;
+		}
+	}
+
+	private static final class WarmUpResponseWriter implements JRestlessResponseWriter {
+		private int statusCode;
+
+		@Override
+		public OutputStream getEntityOutputStream() {
+			return new OutputStream() {
+				@Override
+				public void write(int b) {
+					// discard
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) {
+					// discard
+				}
+			};
+		}
+
+		@Override
+		public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
+				OutputStream entityOutputStream) {
+			statusCode = statusType.getStatusCode();
+		}
+	}
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.handler;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.HttpMethod;
+
+import org.glassfish.jersey.server.ExtendedResourceContext;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceModel;
+import org.glassfish.jersey.uri.UriTemplate;
+
+import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+
+/**
+ * Creates synthetic requests that can be used to warm up a
+ * {@link JRestlessHandlerContainer}.
+ * <p>
+ * An {@link HttpMethod#OPTIONS OPTIONS} request is created for every resource
+ * path of the application's resource model. Jersey answers those requests
+ * itself - unless a resource declares an OPTIONS method explicitly - so the
+ * resource methods are never invoked and the requests have no side effects.
+ * Path parameters are replaced by {@value #PATH_PARAM_VALUE}. Resources
+ * backed by a sub-resource locator are skipped since the locator would have to
+ * be invoked. Extended resources (e.g. WADL) are skipped, as well.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class WarmUpRequestFactory {
+
+	static final String PATH_PARAM_VALUE = "0";
+
+	private static final URI BASE_URI = URI.create("/");
+
+	private WarmUpRequestFactory() {
+		// no instance
+	}
+
+	/**
+	 * Creates an OPTIONS request for every resource path of the container's
+	 * application.
+	 * <p>
+	 * The container must have been started.
+	 *
+	 * @param container
+	 *            the started container
+	 * @return the warm-up requests
+	 */
+	@Nonnull
+	public static List<JRestlessContainerRequest> createOptionsRequests(
+			@Nonnull JRestlessHandlerContainer<?> container) {
+		requireNonNull(container);
+		ExtendedResourceContext resourceContext = container.getApplicationHandler().getServiceLocator()
+				.getService(ExtendedResourceContext.class);
+		return createOptionsRequests(resourceContext.getResourceModel());
+	}
+
+	/**
+	 * Creates an OPTIONS request for every resource path of the given resource
+	 * model.
+	 *
+	 * @param resourceModel
+	 *            the application's resource model
+	 * @return the warm-up requests
+	 */
+	@Nonnull
+	public static List<JRestlessContainerRequest> createOptionsRequests(@Nonnull ResourceModel resourceModel) {
+		requireNonNull(resourceModel);
+		Set<String> paths = new LinkedHashSet<>();
+		for (Resource resource : resourceModel.getRootResources()) {
+			collectPaths(resource, "", paths);
+		}
+		List<JRestlessContainerRequest> requests = new ArrayList<>(paths.size());
+		for (String path : paths) {
+			requests.add(new DefaultJRestlessContainerRequest(BASE_URI, URI.create(path), HttpMethod.OPTIONS,
+					new ByteArrayInputStream(new byte[0]), Collections.emptyMap()));
+		}
+		return Collections.unmodifiableList(requests);
+	}
+
+	private static void collectPaths(Resource resource, String parentPath, Set<String> paths) {
+		if (resource.getResourceLocator() != null || resource.isExtended()) {
+			return;
+		}
+		String path = joinPaths(parentPath, resource.getPath());
+		if (!resource.getResourceMethods().isEmpty()) {
+			paths.add(resolvePath(path));
+		}
+		for (Resource childResource : resource.getChildResources()) {
+			collectPaths(childResource, path, paths);
+		}
+	}
+
+	private static String joinPaths(String parentPath, String path) {
+		if (path == null || path.isEmpty()) {
+			return parentPath;
+		}
+		boolean parentEndsWithSlash = parentPath.endsWith("/");
+		boolean pathStartsWithSlash = path.startsWith("/");
+		if (parentEndsWithSlash && pathStartsWithSlash) {
+			return parentPath + path.substring(1);
+		} else if (parentEndsWithSlash || pathStartsWithSlash) {
+			return parentPath + path;
+		} else {
+			return parentPath + "/" + path;
+		}
+	}
+
+	private static String resolvePath(String pathTemplate) {
+		UriTemplate uriTemplate = new UriTemplate(pathTemplate);
+		Map<String, String> values = new HashMap<>();
+		for (String variable : uriTemplate.getTemplateVariables()) {
+			values.put(variable, PATH_PARAM_VALUE);
+		}
+		String path = uriTemplate.createURI(values);
+		return path.startsWith("/") ? path : "/" + path;
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.index;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Adds components to the build-time {@link ResourceIndex resource index}
+ * that are not part of the compiled sources - e.g. features like
+ * {@code GatewayFeature} or {@code JacksonFeature}.
+ * <p>
+ * The annotation can be put on any class of the application. It is evaluated
+ * by the {@code ResourceIndexProcessor} (jrestless-core-index-processor) only.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface IndexedComponents {
+	/**
+	 * @return the component classes to add to the index
+	 */
+	Class<?>[] value();
+}
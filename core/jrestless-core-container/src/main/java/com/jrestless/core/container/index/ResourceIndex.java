@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.index;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+import org.glassfish.jersey.server.ResourceConfig;
+
+/**
+ * Index of all resources ({@link javax.ws.rs.Path}), providers
+ * ({@link javax.ws.rs.ext.Provider}) and {@link IndexedComponents additional
+ * components} of an application generated at build time by the
+ * {@code ResourceIndexProcessor} (jrestless-core-index-processor).
+ * <p>
+ * Registering the indexed classes avoids Jersey's package scanning which is
+ * expensive on a cold start.
+ * <p>
+ * The index is read from all {@value #LOCATION} resources visible to the class
+ * loader. Each line of an index file contains the binary name of a class;
+ * empty lines and lines starting with {@code #} are ignored.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class ResourceIndex {
+
+	public static final String LOCATION = "META-INF/jrestless/resource-index";
+
+	private static final char COMMENT = '#';
+
+	private final Set<Class<?>> classes;
+
+	private ResourceIndex(Set<Class<?>> classes) {
+		this.classes = Collections.unmodifiableSet(classes);
+	}
+
+	/**
+	 * Loads the index using the class loader of this class.
+	 *
+	 * @return the loaded index; empty if no index exists
+	 */
+	@Nonnull
+	public static ResourceIndex load() {
+		return load(ResourceIndex.class.getClassLoader());
+	}
+
+	/**
+	 * Loads the index from all {@value #LOCATION} resources visible to the
+	 * given class loader.
+	 *
+	 * @param classLoader
+	 *            the class loader used to load the index files and the
+	 *            indexed classes
+	 * @return the loaded index; empty if no index exists
+	 * @throws IllegalStateException
+	 *             if an index file cannot be read or an indexed class cannot
+	 *             be loaded
+	 */
+	@Nonnull
+	public static ResourceIndex load(@Nonnull ClassLoader classLoader) {
+		requireNonNull(classLoader);
+		Set<String> classNames = new LinkedHashSet<>();
+		try {
+			Enumeration<URL> indexFiles = classLoader.getResources(LOCATION);
+			while (indexFiles.hasMoreElements()) {
+				readClassNames(indexFiles.nextElement(), classNames);
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("failed to read resource index", e);
+		}
+		Set<Class<?>> classes = new LinkedHashSet<>();
+		for (String className : classNames) {
+			try {
+				classes.add(Class.forName(className, false, classLoader));
+			} catch (ClassNotFoundException e) {
+				throw new IllegalStateException("indexed class '" + className + "' cannot be loaded", e);
+			}
+		}
+		return new ResourceIndex(classes);
+	}
+
+	private static void readClassNames(URL indexFile, Set<String> classNames) throws IOException {
+		try (InputStream is = indexFile.openStream();
+				BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String className = line.trim();
+				if (!className.isEmpty() && className.charAt(0) != COMMENT) {
+					classNames.add(className);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the indexed classes
+	 */
+	@Nonnull
+	public Set<Class<?>> getClasses() {
+		return classes;
+	}
+
+	/**
+	 * @return true if no class has been indexed
+	 */
+	public boolean isEmpty() {
+		return classes.isEmpty();
+	}
+
+	/**
+	 * Creates a new resource config with all indexed classes registered.
+	 *
+	 * @return the populated resource config
+	 */
+	@Nonnull
+	public ResourceConfig createResourceConfig() {
+		return new ResourceConfig().registerClasses(classes);
+	}
+}
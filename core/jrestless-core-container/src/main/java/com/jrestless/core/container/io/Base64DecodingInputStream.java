@@ -0,0 +1,178 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Input stream that lazily decodes base64-encoded characters (RFC 4648,
+ * basic alphabet) read from a {@link CharSequence}.
+ * <p>
+ * In contrast to {@code Base64.getDecoder().wrap(new ByteArrayInputStream(
+ * chars.getBytes()))} neither the characters nor the decoded bytes get
+ * buffered: at most three decoded bytes are held at any time. Padding is
+ * optional, line separators and other characters not being part of the
+ * alphabet are rejected with an {@link IOException} - just like the decoder
+ * returned by {@link java.util.Base64#getDecoder()} does.
+ * <p>
+ * The stream is not thread-safe.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class Base64DecodingInputStream extends InputStream {
+
+	private static final char PADDING = '=';
+	private static final int BITS_PER_CHAR = 6;
+	private static final int CHARS_PER_QUANTUM = 4;
+	private static final int BYTE_MASK = 0xFF;
+	private static final int BYTE_SHIFT = 8;
+	private static final int[] DECODE_TABLE = createDecodeTable();
+
+	private final CharSequence chars;
+	private final int length;
+	private int position;
+	private int pendingBytes;
+	private int pendingCount;
+	private boolean endOfData;
+
+	public Base64DecodingInputStream(@Nonnull CharSequence chars) {
+		this.chars = requireNonNull(chars, "chars may not be null");
+		this.length = chars.length();
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (pendingCount == 0 && !decodeQuantum()) {
+			return -1;
+		}
+		return nextPendingByte();
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		requireNonNull(b);
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (len == 0) {
+			return 0;
+		}
+		int count = 0;
+		while (count < len && (pendingCount > 0 || decodeQuantum())) {
+			b[off + count++] = (byte) nextPendingByte();
+		}
+		return count == 0 ? -1 : count;
+	}
+
+	/**
+	 * Returns the exact number of bytes that are left, assuming the remaining
+	 * characters are valid.
+	 */
+	@Override
+	public int available() {
+		int remainingChars = length - position;
+		if (remainingChars > 0 && chars.charAt(length - 1) == PADDING) {
+			remainingChars--;
+			if (remainingChars > 0 && chars.charAt(length - 2) == PADDING) {
+				remainingChars--;
+			}
+		}
+		return pendingCount + remainingChars * BITS_PER_CHAR / BYTE_SHIFT;
+	}
+
+	private int nextPendingByte() {
+		pendingCount--;
+		return (pendingBytes >>> (pendingCount * BYTE_SHIFT)) & BYTE_MASK;
+	}
+
+	/*
+	 * Decodes the next (up to) four characters into (up to) three pending
+	 * bytes.
+	 */
+	private boolean decodeQuantum() throws IOException {
+		if (endOfData || position >= length) {
+			return false;
+		}
+		int bits = 0;
+		int sextets = 0;
+		while (sextets < CHARS_PER_QUANTUM && position < length) {
+			char c = chars.charAt(position);
+			if (c == PADDING) {
+				break;
+			}
+			bits = (bits << BITS_PER_CHAR) | decode(c);
+			sextets++;
+			position++;
+		}
+		if (sextets < CHARS_PER_QUANTUM) {
+			consumePadding(sextets);
+		}
+		if (sextets == 1) {
+			throw new IOException("the last unit of the base64 data has a single character, only");
+		}
+		// drop the bits not belonging to a full byte
+		int byteCount = sextets * BITS_PER_CHAR / BYTE_SHIFT;
+		pendingBytes = bits >>> (sextets * BITS_PER_CHAR - byteCount * BYTE_SHIFT);
+		pendingCount = byteCount;
+		return byteCount > 0;
+	}
+
+	private void consumePadding(int sextets) throws IOException {
+		endOfData = true;
+		if (position == length) {
+			// padding is optional
+			return;
+		}
+		if (sextets < 2) {
+			throw new IOException("illegal base64 padding at position " + position);
+		}
+		int expectedPaddingChars = CHARS_PER_QUANTUM - sextets;
+		for (int i = 0; i < expectedPaddingChars; i++) {
+			if (position >= length || chars.charAt(position) != PADDING) {
+				throw new IOException("illegal base64 padding at position " + position);
+			}
+			position++;
+		}
+		if (position < length) {
+			throw new IOException("base64 data after padding at position " + position);
+		}
+	}
+
+	private int decode(char c) throws IOException {
+		int sextet = c < DECODE_TABLE.length ? DECODE_TABLE[c] : -1;
+		if (sextet < 0) {
+			throw new IOException("illegal base64 character '" + c + "' at position " + position);
+		}
+		return sextet;
+	}
+
+	private static int[] createDecodeTable() {
+		String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+		int[] table = new int[Byte.MAX_VALUE + 1];
+		Arrays.fill(table, -1);
+		for (int i = 0; i < alphabet.length(); i++) {
+			table[alphabet.charAt(i)] = i;
+		}
+		return table;
+	}
+}
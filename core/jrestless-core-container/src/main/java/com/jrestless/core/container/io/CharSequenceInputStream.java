@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import javax.annotation.Nonnull;
+
+/**
+ * {@link InputStream} that encodes a {@link CharSequence} lazily.
+ * <p>
+ * In contrast to {@code new ByteArrayInputStream(string.getBytes(charset))}
+ * the character sequence doesn't get copied into a byte array of its full
+ * length, instead it gets encoded chunk by chunk while being read. Malformed
+ * input and unmappable characters are replaced - just like
+ * {@link String#getBytes(Charset)} does.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class CharSequenceInputStream extends InputStream {
+
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+	private static final int BYTE_MASK = 0xFF;
+
+	private final CharsetEncoder encoder;
+	private final CharBuffer chars;
+	private final ByteBuffer bytes;
+	private boolean encoded;
+	private boolean flushed;
+
+	public CharSequenceInputStream(@Nonnull CharSequence charSequence, @Nonnull Charset charset) {
+		this(charSequence, charset, DEFAULT_BUFFER_SIZE);
+	}
+
+	public CharSequenceInputStream(@Nonnull CharSequence charSequence, @Nonnull Charset charset, int bufferSize) {
+		requireNonNull(charSequence, "charSequence may not be null");
+		requireNonNull(charset, "charset may not be null");
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("bufferSize must be greater than 0");
+		}
+		this.encoder = charset.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.chars = CharBuffer.wrap(charSequence);
+		// a surrogate pair must fit into the buffer
+		int minBufferSize = 2 * (int) Math.ceil(encoder.maxBytesPerChar());
+		this.bytes = ByteBuffer.allocate(Math.max(bufferSize, minBufferSize));
+		this.bytes.flip();
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!fill()) {
+			return -1;
+		}
+		return bytes.get() & BYTE_MASK;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		requireNonNull(b);
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (len == 0) {
+			return 0;
+		}
+		int read = 0;
+		while (read < len && fill()) {
+			int chunk = Math.min(len - read, bytes.remaining());
+			bytes.get(b, off + read, chunk);
+			read += chunk;
+		}
+		return read == 0 ? -1 : read;
+	}
+
+	@Override
+	public int available() {
+		return bytes.remaining();
+	}
+
+	/**
+	 * Makes sure there are bytes available in the buffer.
+	 *
+	 * @return false if the end of the stream has been reached
+	 */
+	private boolean fill() throws IOException {
+		while (!bytes.hasRemaining()) {
+			if (flushed) {
+				return false;
+			}
+			bytes.clear();
+			CoderResult result;
+			if (!encoded) {
+				result = encoder.encode(chars, bytes, true);
+				encoded = result.isUnderflow();
+			} else {
+				result = encoder.flush(bytes);
+				flushed = result.isUnderflow();
+			}
+			bytes.flip();
+			if (result.isError()) {
+				result.throwException();
+			}
+		}
+		return true;
+	}
+}
@@ -24,10 +24,12 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 
+import com.jrestless.core.http.HeaderMap;
+import com.jrestless.core.util.HeaderUtils;
+
 /**
  * Default implementation of {@link DefaultJRestlessContainerRequest}.
  *
@@ -40,27 +42,51 @@ public class DefaultJRestlessContainerRequest implements JRestlessContainerReque
 	private URI requestUri;
 	private String httpMethod;
 	private InputStream entityStream;
+	private final HeaderMap headerValues = new HeaderMap();
+	private final Map<String, List<String>> unmodifiableHeaderValues = Collections.unmodifiableMap(headerValues);
 	private Map<String, List<String>> headers;
 
 	public DefaultJRestlessContainerRequest(@Nonnull URI baseUri, @Nonnull URI requestUri, @Nonnull String httpMethod,
 			@Nonnull InputStream entityStream, @Nonnull Map<String, List<String>> headers) {
+		reset(baseUri, requestUri, httpMethod, entityStream, headers);
+	}
+
+	/**
+	 * Re-initializes the request with the given values so that the instance
+	 * can be reused for another request.
+	 * <p>
+	 * Should only be used by whoever created the request and only after the
+	 * previous request has been processed completely.
+	 * <p>
+	 * The headers are copied unless they are read-only already (see
+	 * {@link HeaderUtils#isReadOnly(Map)}) - e.g. an unmodifiable
+	 * {@link HeaderMap} or the view created by
+	 * {@link HeaderUtils#expandHeaders(Map)}.
+	 *
+	 * @param baseUri
+	 * @param requestUri
+	 * @param httpMethod
+	 * @param entityStream
+	 * @param headers
+	 */
+	public final void reset(@Nonnull URI baseUri, @Nonnull URI requestUri, @Nonnull String httpMethod,
+			@Nonnull InputStream entityStream, @Nonnull Map<String, List<String>> headers) {
 		this.baseUri = requireNonNull(baseUri);
 		this.requestUri = requireNonNull(requestUri);
 		this.httpMethod = requireNonNull(httpMethod);
 		this.entityStream = requireNonNull(entityStream);
 		requireNonNull(headers);
-		this.headers = headers.entrySet().stream()
-				.filter(e -> e.getKey() != null)
-				.filter(e -> e.getValue() != null)
-				.collect(Collectors.collectingAndThen(
-						Collectors.toMap(
-								Map.Entry::getKey,
-								DefaultJRestlessContainerRequest::toImmutableList),
-						Collections::unmodifiableMap));
-	}
-
-	private static List<String> toImmutableList(Map.Entry<String, List<String>> entry) {
-		return Collections.unmodifiableList(new ArrayList<>(entry.getValue()));
+		headerValues.clear();
+		if (HeaderUtils.isReadOnly(headers)) {
+			this.headers = headers;
+			return;
+		}
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			if (header.getKey() != null && header.getValue() != null) {
+				headerValues.put(header.getKey(), Collections.unmodifiableList(new ArrayList<>(header.getValue())));
+			}
+		}
+		this.headers = unmodifiableHeaderValues;
 	}
 
 	@Override
@@ -41,6 +41,24 @@ public interface JRestlessResponseWriter {
 	 */
 	OutputStream getEntityOutputStream();
 
+	/**
+	 * Invoked once the response's status and headers are known and right
+	 * before the entity gets written to the entity output stream.
+	 * <p>
+	 * Allows to size the entity output stream upfront. Does nothing by
+	 * default.
+	 *
+	 * @param statusType
+	 *            the response status
+	 * @param contentLength
+	 *            the length of the entity in bytes or -1 if unknown
+	 * @param headers
+	 *            the response headers (must not be modified)
+	 */
+	default void beforeEntityWrite(@Nonnull StatusType statusType, long contentLength,
+			@Nonnull Map<String, List<String>> headers) {
+	}
+
 	/**
 	 * Writes the response.
 	 *
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.io;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import javax.annotation.Nonnull;
+
+/**
+ * {@link ByteArrayOutputStream} whose buffer can be sized upfront if the
+ * number of bytes to be written is known, so that it doesn't have to grow by
+ * doubling (and copying) over and over again.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class PresizableByteArrayOutputStream extends ByteArrayOutputStream {
+
+	// some VMs reserve some header words in an array
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+	public PresizableByteArrayOutputStream() {
+		super();
+	}
+
+	public PresizableByteArrayOutputStream(int initialCapacity) {
+		super(initialCapacity);
+	}
+
+	/**
+	 * Makes sure that the given number of bytes can be written without the
+	 * buffer having to grow.
+	 * <p>
+	 * Negative values are ignored and values exceeding the maximum array size
+	 * are capped.
+	 *
+	 * @param additionalBytes
+	 *            the number of bytes that are about to be written
+	 */
+	public synchronized void reserve(long additionalBytes) {
+		if (additionalBytes <= 0) {
+			return;
+		}
+		int minCapacity = (int) Math.min(count + additionalBytes, MAX_ARRAY_SIZE);
+		if (minCapacity > buf.length) {
+			buf = Arrays.copyOf(buf, minCapacity);
+		}
+	}
+
+	/**
+	 * @return the current capacity of the buffer
+	 */
+	public synchronized int capacity() {
+		return buf.length;
+	}
+
+	/**
+	 * Decodes the buffer's content using the given charset - without looking
+	 * up the charset by its name as {@link #toString(String)} does.
+	 *
+	 * @param charset
+	 * @return the decoded content
+	 */
+	@Nonnull
+	public synchronized String toString(@Nonnull Charset charset) {
+		return new String(buf, 0, count, requireNonNull(charset));
+	}
+
+	/**
+	 * Encodes the buffer's content using Base64 - without copying the
+	 * content into a new array first as
+	 * {@code Base64.getEncoder().encodeToString(toByteArray())} does.
+	 *
+	 * @return the Base64 encoded content
+	 */
+	@Nonnull
+	public synchronized String toBase64String() {
+		ByteBuffer encoded = Base64.getEncoder().encode(ByteBuffer.wrap(buf, 0, count));
+		// Base64 is plain ASCII and ISO-8859-1 the cheapest charset to decode ASCII with
+		return new String(encoded.array(), encoded.arrayOffset() + encoded.position(), encoded.remaining(),
+				StandardCharsets.ISO_8859_1);
+	}
+}
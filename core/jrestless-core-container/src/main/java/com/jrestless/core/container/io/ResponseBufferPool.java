@@ -0,0 +1,181 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.io;
+
+import static java.util.Objects.requireNonNull;
+import static jersey.repackaged.com.google.common.base.Preconditions.checkArgument;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Thread-confined pool of reusable response buffers.
+ * <p>
+ * Every thread keeps at most one idle buffer per size class. Size classes are
+ * powers of two, starting at {@value #MINIMUM_CAPACITY} bytes and ending at
+ * the maximum retained capacity. A buffer is handed out with the size class
+ * of the previous response of the same thread in mind so that - in a warm
+ * container serving responses of similar sizes - neither new buffers are
+ * allocated nor existing ones have to grow.
+ * <p>
+ * The pool shrinks after outliers:
+ * <ul>
+ * <li>buffers that have grown beyond the maximum retained capacity are not
+ * pooled
+ * <li>idle buffers more than twice as large as needed are dropped once they
+ * have been passed over for {@value #MAXIMUM_IDLE_ACQUISITIONS} acquisitions
+ * </ul>
+ * <p>
+ * A buffer acquired by a thread should be released by the same thread. A
+ * buffer must not be used after it has been released.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class ResponseBufferPool {
+
+	public static final int MINIMUM_CAPACITY = 1024;
+	public static final int DEFAULT_MAXIMUM_RETAINED_CAPACITY = 1024 * 1024;
+	static final int MAXIMUM_IDLE_ACQUISITIONS = 32;
+
+	private static final ResponseBufferPool SHARED = new ResponseBufferPool(DEFAULT_MAXIMUM_RETAINED_CAPACITY);
+
+	private final int maximumRetainedCapacity;
+	private final int sizeClassCount;
+	private final ThreadLocal<IdleBuffers> idleBuffers;
+
+	/**
+	 * @param maximumRetainedCapacity
+	 *            the capacity a buffer may have at most in order to be
+	 *            pooled; must be a power of two and at least
+	 *            {@value #MINIMUM_CAPACITY}
+	 */
+	public ResponseBufferPool(int maximumRetainedCapacity) {
+		checkArgument(maximumRetainedCapacity >= MINIMUM_CAPACITY,
+				"maximumRetainedCapacity must be at least " + MINIMUM_CAPACITY);
+		checkArgument(Integer.bitCount(maximumRetainedCapacity) == 1,
+				"maximumRetainedCapacity must be a power of two");
+		this.maximumRetainedCapacity = maximumRetainedCapacity;
+		this.sizeClassCount = Integer.numberOfTrailingZeros(maximumRetainedCapacity / MINIMUM_CAPACITY) + 1;
+		this.idleBuffers = ThreadLocal.withInitial(() -> new IdleBuffers(sizeClassCount));
+	}
+
+	/**
+	 * @return the pool shared by the response writers of all handlers
+	 */
+	@Nonnull
+	public static ResponseBufferPool getShared() {
+		return SHARED;
+	}
+
+	/**
+	 * Returns an empty buffer - an idle one if there's one of a fitting size
+	 * class or a new one.
+	 *
+	 * @return an empty buffer
+	 */
+	@Nonnull
+	public PresizableByteArrayOutputStream acquire() {
+		IdleBuffers idle = idleBuffers.get();
+		int expectedSizeClass = idle.lastUsedSizeClass;
+		PresizableByteArrayOutputStream buffer = null;
+		// the expected size class or the next larger one, only => at most twice as large as needed
+		int maxSizeClass = Math.min(expectedSizeClass + 1, sizeClassCount - 1);
+		for (int sizeClass = expectedSizeClass; sizeClass <= maxSizeClass && buffer == null; sizeClass++) {
+			buffer = idle.take(sizeClass);
+		}
+		idle.age(maxSizeClass + 1);
+		if (buffer == null) {
+			buffer = new PresizableByteArrayOutputStream(getCapacity(expectedSizeClass));
+		}
+		return buffer;
+	}
+
+	/**
+	 * Returns the buffer to the pool.
+	 *
+	 * @param buffer
+	 *            the buffer acquired from this pool
+	 */
+	public void release(@Nonnull PresizableByteArrayOutputStream buffer) {
+		requireNonNull(buffer);
+		IdleBuffers idle = idleBuffers.get();
+		idle.lastUsedSizeClass = getCeilingSizeClass(buffer.size());
+		int capacity = buffer.capacity();
+		if (capacity < MINIMUM_CAPACITY || capacity > maximumRetainedCapacity) {
+			// outlier
+			return;
+		}
+		buffer.reset();
+		idle.offer(getFloorSizeClass(capacity), buffer);
+	}
+
+	private int getCapacity(int sizeClass) {
+		return MINIMUM_CAPACITY << sizeClass;
+	}
+
+	private int getCeilingSizeClass(int size) {
+		int sizeClass = 0;
+		while (sizeClass < sizeClassCount - 1 && getCapacity(sizeClass) < size) {
+			sizeClass++;
+		}
+		return sizeClass;
+	}
+
+	private int getFloorSizeClass(int capacity) {
+		int sizeClass = sizeClassCount - 1;
+		while (sizeClass > 0 && getCapacity(sizeClass) > capacity) {
+			sizeClass--;
+		}
+		return sizeClass;
+	}
+
+	private static final class IdleBuffers {
+		private final PresizableByteArrayOutputStream[] buffers;
+		// number of acquisitions the idle buffer has been passed over for
+		private final int[] idleAcquisitions;
+		private int lastUsedSizeClass;
+
+		IdleBuffers(int sizeClassCount) {
+			buffers = new PresizableByteArrayOutputStream[sizeClassCount];
+			idleAcquisitions = new int[sizeClassCount];
+		}
+
+		PresizableByteArrayOutputStream take(int sizeClass) {
+			PresizableByteArrayOutputStream buffer = buffers[sizeClass];
+			buffers[sizeClass] = null;
+			return buffer;
+		}
+
+		void offer(int sizeClass, PresizableByteArrayOutputStream buffer) {
+			if (buffers[sizeClass] == null) {
+				buffers[sizeClass] = buffer;
+				idleAcquisitions[sizeClass] = 0;
+			}
+		}
+
+		/*
+		 * Drops the idle buffers of the given and all larger size classes that
+		 * haven't been used for too long.
+		 */
+		void age(int fromSizeClass) {
+			for (int sizeClass = fromSizeClass; sizeClass < buffers.length; sizeClass++) {
+				if (buffers[sizeClass] != null && ++idleAcquisitions[sizeClass] > MAXIMUM_IDLE_ACQUISITIONS) {
+					buffers[sizeClass] = null;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.util;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only multi-value view on single-value headers.
+ * <p>
+ * The view does not copy the underlying headers but reflects them. Headers
+ * having a null key or a null value are hidden, each remaining value is
+ * exposed as a singleton list. Comma separated values are not split.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+final class ExpandedHeaders extends AbstractMap<String, List<String>> {
+
+	private final Map<String, String> headers;
+	private final Set<Map.Entry<String, List<String>>> entrySet = new EntrySet();
+
+	ExpandedHeaders(Map<String, String> headers) {
+		this.headers = requireNonNull(headers);
+	}
+
+	@Override
+	public List<String> get(Object key) {
+		if (key == null) {
+			return null;
+		}
+		String value = headers.get(key);
+		return value == null ? null : Collections.singletonList(value);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key != null && headers.get(key) != null;
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (Map.Entry<String, String> header : headers.entrySet()) {
+			if (isVisible(header)) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (Map.Entry<String, String> header : headers.entrySet()) {
+			if (isVisible(header)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public Set<Map.Entry<String, List<String>>> entrySet() {
+		return entrySet;
+	}
+
+	private static boolean isVisible(Map.Entry<String, String> header) {
+		return header.getKey() != null && header.getValue() != null;
+	}
+
+	private final class EntrySet extends AbstractSet<Map.Entry<String, List<String>>> {
+
+		@Override
+		public Iterator<Map.Entry<String, List<String>>> iterator() {
+			return new EntryIterator(headers.entrySet().iterator());
+		}
+
+		@Override
+		public int size() {
+			return ExpandedHeaders.this.size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return ExpandedHeaders.this.isEmpty();
+		}
+	}
+
+	private static final class EntryIterator implements Iterator<Map.Entry<String, List<String>>> {
+
+		private final Iterator<Map.Entry<String, String>> delegate;
+		private Map.Entry<String, String> next;
+
+		EntryIterator(Iterator<Map.Entry<String, String>> delegate) {
+			this.delegate = delegate;
+			advance();
+		}
+
+		private void advance() {
+			next = null;
+			while (delegate.hasNext()) {
+				Map.Entry<String, String> candidate = delegate.next();
+				if (isVisible(candidate)) {
+					next = candidate;
+					return;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Map.Entry<String, List<String>> next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			Map.Entry<String, List<String>> entry = new SimpleImmutableEntry<>(next.getKey(),
+					Collections.singletonList(next.getValue()));
+			advance();
+			return entry;
+		}
+	}
+}
@@ -15,14 +15,12 @@
  */
 package com.jrestless.core.util;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
-import javax.ws.rs.ext.RuntimeDelegate;
+import com.jrestless.core.http.CaseInsensitiveMap;
+import com.jrestless.core.http.HeaderMap;
 
 /**
  * Utility class to convert between headers in the form
@@ -54,30 +52,52 @@ public final class HeaderUtils {
 	 * <li>null header values (within the list) are filtered out
 	 * <li>lists of values are merged into a single string (in most cases
 	 * separated by a comma)
+	 * <li>values of headers differing in case, only, are merged, too
 	 * </ol>
 	 *
 	 * @param headers
 	 * @param headerNameFilter
-	 * @return flattened headers (unmodifiable!)
+	 * @return flattened, case-insensitive headers (unmodifiable!)
 	 */
 	public static Map<String, String> flattenHeaders(Map<String, List<String>> headers,
 			Predicate<String> headerNameFilter) {
-		return headers.entrySet().stream()
-				.filter(h -> h.getKey() != null)
-				.filter(h -> h.getValue() != null)
-				.filter(h -> !h.getValue().isEmpty())
-				.filter(h -> headerNameFilter.test(h.getKey()))
-				.collect(Collectors.collectingAndThen(
-						Collectors.toMap(
-								Map.Entry::getKey,
-								h -> asHeaderString(h.getValue())),
-						Collections::unmodifiableMap));
+		CaseInsensitiveMap<String> flattenedHeaders = new CaseInsensitiveMap<>(headers.size());
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			String headerName = header.getKey();
+			List<String> headerValues = header.getValue();
+			if (headerName != null && headerValues != null && !headerValues.isEmpty()
+					&& headerNameFilter.test(headerName)) {
+				String headerString = asHeaderString(headerValues);
+				String otherHeaderString = flattenedHeaders.put(headerName, headerString);
+				if (otherHeaderString != null) {
+					flattenedHeaders.put(headerName, otherHeaderString + "," + headerString);
+				}
+			}
+		}
+		return flattenedHeaders.makeUnmodifiable();
 	}
 
+	/*
+	 * Joins the non-null values separated by a comma - just like Jersey's
+	 * HeaderUtils#asHeaderString does for string values but without looking up
+	 * the RuntimeDelegate and without copying the values.
+	 */
 	private static String asHeaderString(List<String> headerValues) {
-		return org.glassfish.jersey.message.internal.HeaderUtils.asHeaderString(
-				headerValues.stream().filter(Objects::nonNull).collect(Collectors.toList()),
-				RuntimeDelegate.getInstance());
+		if (headerValues.size() == 1) {
+			String headerValue = headerValues.get(0);
+			return headerValue == null ? "" : headerValue;
+		}
+		StringBuilder headerString = null;
+		for (String headerValue : headerValues) {
+			if (headerValue != null) {
+				if (headerString == null) {
+					headerString = new StringBuilder(headerValue);
+				} else {
+					headerString.append(',').append(headerValue);
+				}
+			}
+		}
+		return headerString == null ? "" : headerString.toString();
 	}
 
 	/**
@@ -87,21 +107,27 @@ public final class HeaderUtils {
 	 * <li>headers having a null value are filtered out
 	 * <li>header values are put into a list
 	 * </ol>
+	 * The headers are not copied: the returned map is a read-only view and
+	 * reflects the given headers.
+	 *
 	 * @param headers
 	 * @return expanded headers (unmodifiable!)
 	 */
 	public static Map<String, List<String>> expandHeaders(Map<String, String> headers) {
-		return headers.entrySet().stream()
-				.filter(h -> h.getKey() != null)
-				.filter(h -> h.getValue() != null)
-				.collect(Collectors.collectingAndThen(
-						Collectors.toMap(
-								Map.Entry::getKey,
-								HeaderUtils::expandHeaders),
-						Collections::unmodifiableMap));
+		return new ExpandedHeaders(headers);
 	}
 
-	private static List<String> expandHeaders(Map.Entry<String, String> entry) {
-		return Collections.singletonList(entry.getValue());
+	/**
+	 * Checks if the headers cannot be modified through the given map so that
+	 * they can be taken by reference instead of being copied. This is the case
+	 * for unmodifiable {@link HeaderMap}s and for the views returned by
+	 * {@link #expandHeaders(Map)}.
+	 *
+	 * @param headers
+	 * @return true if the headers are read-only
+	 */
+	public static boolean isReadOnly(Map<String, List<String>> headers) {
+		return headers instanceof ExpandedHeaders
+				|| headers instanceof HeaderMap && ((HeaderMap) headers).isUnmodifiable();
 	}
 }
@@ -16,8 +16,14 @@
 package com.jrestless.core.container;
 
 import static com.jrestless.test.MockitoExt.eqBaos;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNotNull;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
@@ -95,6 +101,30 @@ public class JRestlessContainerResponseTest {
 		verifyZeroInteractions(responseWriter);
 	}
 
+	@Test(expected = IllegalStateException.class)
+	public void reset_ResponseNotYetClosed_ShouldThrowIse() {
+		containerResponse.reset(responseWriter);
+	}
+
+	@Test
+	public void reset_ResponseClosed_ShouldResetStateAndUseNewWriter() throws IOException {
+		containerResponse.setStatusType(Status.CONFLICT);
+		containerResponse.getHeaders().put("a", asList("a0"));
+		containerResponse.close();
+		JRestlessResponseWriter newResponseWriter = mock(JRestlessResponseWriter.class);
+		ByteArrayOutputStream newEntityOutputStream = new ByteArrayOutputStream();
+		when(newResponseWriter.getEntityOutputStream()).thenReturn(newEntityOutputStream);
+		containerResponse.reset(newResponseWriter);
+		assertFalse(containerResponse.isClosed());
+		assertEquals(Status.OK, containerResponse.getStatusType());
+		assertTrue(containerResponse.getHeaders().isEmpty());
+		assertSame(newEntityOutputStream, containerResponse.getEntityOutputStream());
+		containerResponse.close();
+		verify(newResponseWriter, times(1)).writeResponse(eq(Status.OK), eq(new MultivaluedHashMap<>()),
+				same(newEntityOutputStream));
+		verify(responseWriter, times(1)).writeResponse(any(), any(), any());
+	}
+
 	@SafeVarargs
 	private static <T> List<T> asList(T... values) {
 		List<T> list = new ArrayList<>();
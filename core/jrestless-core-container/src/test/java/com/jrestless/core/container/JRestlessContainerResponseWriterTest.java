@@ -15,24 +15,34 @@
  */
 package com.jrestless.core.container;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response.Status;
 
 import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.spi.ContainerResponseWriter.TimeoutHandler;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -42,12 +52,15 @@ import com.jrestless.core.container.io.JRestlessResponseWriter;
 
 public class JRestlessContainerResponseWriterTest {
 
+	private static final long SHORT_DELAY_MILLIS = 50;
+
 	private JRestlessContainerResponseWriter containerResponseWriter;
 	private JRestlessContainerResponse response;
+	private JRestlessResponseWriter responseWriter;
 
 	@Before
 	public void setup() {
-		JRestlessResponseWriter responseWriter = mock(JRestlessResponseWriter.class);
+		responseWriter = mock(JRestlessResponseWriter.class);
 		when(responseWriter.getEntityOutputStream()).thenReturn(new ByteArrayOutputStream());
 		response = spy(new JRestlessContainerResponse(responseWriter));
 		containerResponseWriter = new JRestlessContainerResponseWriter(response);
@@ -89,6 +102,18 @@ public class JRestlessContainerResponseWriterTest {
 		assertSame(response.getEntityOutputStream(), entityOutputStream);
 	}
 
+	@Test
+	public void writeResponseStatusAndHeaders_ShouldPassContentLengthAndHeadersToResponseWriter() {
+		MultivaluedMap<String, String> actualHeaders = new MultivaluedHashMap<>();
+		actualHeaders.add("header0", "value0_0");
+		ContainerResponse context = mock(ContainerResponse.class);
+		when(context.getStringHeaders()).thenReturn(actualHeaders);
+		when(context.getStatusInfo()).thenReturn(Status.OK);
+		containerResponseWriter.writeResponseStatusAndHeaders(123, context);
+		verify(responseWriter).beforeEntityWrite(Status.OK, 123, response.getHeaders());
+		assertEquals(actualHeaders, response.getHeaders());
+	}
+
 	@Test
 	public void failure_ResponseNotYetCommitted_ShouldSetInternalServerErrorStatusOnFail() {
 		ContainerResponse context = mock(ContainerResponse.class);
@@ -119,14 +144,135 @@ public class JRestlessContainerResponseWriterTest {
 		assertFalse(containerResponseWriter.enableResponseBuffering());
 	}
 
-	@Test(expected = UnsupportedOperationException.class)
-	public void setSuspendTimeout_Always_ShouldBeUnsupported() {
-		containerResponseWriter.setSuspendTimeout(1, null);
+	@Test(expected = IllegalStateException.class)
+	public void setSuspendTimeout_NotSuspended_ShouldThrowIse() {
+		containerResponseWriter.setSuspendTimeout(1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void suspend_NotSuspended_ShouldSuspend() {
+		assertFalse(containerResponseWriter.isSuspended());
+		assertTrue(containerResponseWriter.suspend(0, TimeUnit.SECONDS, mock(TimeoutHandler.class)));
+		assertTrue(containerResponseWriter.isSuspended());
+	}
+
+	@Test
+	public void suspend_AlreadySuspended_ShouldReturnFalse() {
+		containerResponseWriter.suspend(0, TimeUnit.SECONDS, mock(TimeoutHandler.class));
+		assertFalse(containerResponseWriter.suspend(0, TimeUnit.SECONDS, mock(TimeoutHandler.class)));
+	}
+
+	@Test
+	public void awaitCompletion_Committed_ShouldReturnTrue() throws InterruptedException {
+		containerResponseWriter.commit();
+		assertTrue(containerResponseWriter.awaitCompletion(0));
+	}
+
+	@Test
+	public void awaitCompletion_CommittedByOtherThread_ShouldReturnTrue() throws InterruptedException {
+		containerResponseWriter.suspend(0, TimeUnit.SECONDS, mock(TimeoutHandler.class));
+		Thread committer = new Thread(() -> {
+			sleep(SHORT_DELAY_MILLIS);
+			containerResponseWriter.commit();
+		});
+		committer.start();
+		assertTrue(containerResponseWriter.awaitCompletion(Long.MAX_VALUE));
+		verify(response, times(1)).close();
+		committer.join();
+	}
+
+	@Test
+	public void awaitCompletion_NotCommittedInTime_ShouldReturnFalse() throws InterruptedException {
+		containerResponseWriter.suspend(0, TimeUnit.SECONDS, mock(TimeoutHandler.class));
+		assertFalse(containerResponseWriter.awaitCompletion(SHORT_DELAY_MILLIS));
+	}
+
+	@Test
+	public void awaitCompletion_SuspendTimeoutElapsed_ShouldInvokeTimeoutHandler() throws InterruptedException {
+		TimeoutHandler timeoutHandler = mock(TimeoutHandler.class);
+		doAnswer(invocation -> {
+			containerResponseWriter.commit();
+			return null;
+		}).when(timeoutHandler).onTimeout(containerResponseWriter);
+		containerResponseWriter.suspend(SHORT_DELAY_MILLIS, TimeUnit.MILLISECONDS, timeoutHandler);
+		assertTrue(containerResponseWriter.awaitCompletion(Long.MAX_VALUE));
+		verify(timeoutHandler, times(1)).onTimeout(containerResponseWriter);
+	}
+
+	@Test
+	public void awaitCompletion_SuspendTimeoutExtendedByTimeoutHandler_ShouldInvokeTimeoutHandlerAgain()
+			throws InterruptedException {
+		TimeoutHandler timeoutHandler = mock(TimeoutHandler.class);
+		AtomicInteger timeouts = new AtomicInteger();
+		doAnswer(invocation -> {
+			if (timeouts.incrementAndGet() == 1) {
+				containerResponseWriter.setSuspendTimeout(SHORT_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+			} else {
+				containerResponseWriter.commit();
+			}
+			return null;
+		}).when(timeoutHandler).onTimeout(containerResponseWriter);
+		containerResponseWriter.suspend(SHORT_DELAY_MILLIS, TimeUnit.MILLISECONDS, timeoutHandler);
+		assertTrue(containerResponseWriter.awaitCompletion(Long.MAX_VALUE));
+		assertEquals(2, timeouts.get());
+	}
+
+	@Test
+	public void abandon_NotCommitted_ShouldPreventResponseFromBeingWritten() throws IOException {
+		assertTrue(containerResponseWriter.abandon());
+		containerResponseWriter.commit();
+		verify(responseWriter, never()).writeResponse(any(), any(), any());
+	}
+
+	@Test
+	public void abandon_Committed_ShouldReturnFalse() {
+		containerResponseWriter.commit();
+		assertFalse(containerResponseWriter.abandon());
+	}
+
+	@Test
+	public void abandon_LateWriteOfStatusAndHeaders_ShouldNotTouchResponse() throws IOException {
+		ByteArrayOutputStream entityOutputStream = (ByteArrayOutputStream) response.getEntityOutputStream();
+		MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+		headers.add("header0", "value0_0");
+		ContainerResponse context = mock(ContainerResponse.class);
+		when(context.getStatusInfo()).thenReturn(Status.CONFLICT);
+		when(context.getStringHeaders()).thenReturn(headers);
+
+		assertTrue(containerResponseWriter.abandon());
+		OutputStream lateEntityOutputStream = containerResponseWriter.writeResponseStatusAndHeaders(1, context);
+		lateEntityOutputStream.write(1);
+		containerResponseWriter.failure(new RuntimeException());
+
+		verify(responseWriter, never()).beforeEntityWrite(any(), anyLong(), any());
+		assertEquals(Status.OK, response.getStatusType());
+		assertTrue(response.getHeaders().isEmpty());
+		assertEquals(0, entityOutputStream.size());
+	}
+
+	@Test
+	public void abandon_SuspendedEntityBeingWritten_ShouldDiscardFurtherWrites() throws IOException {
+		ByteArrayOutputStream entityOutputStream = (ByteArrayOutputStream) response.getEntityOutputStream();
+		ContainerResponse context = mock(ContainerResponse.class);
+		when(context.getStatusInfo()).thenReturn(Status.OK);
+		when(context.getStringHeaders()).thenReturn(new MultivaluedHashMap<>());
+		containerResponseWriter.suspend(0, TimeUnit.SECONDS, mock(TimeoutHandler.class));
+
+		OutputStream suspendedEntityOutputStream = containerResponseWriter.writeResponseStatusAndHeaders(-1, context);
+		suspendedEntityOutputStream.write(new byte[] { 1, 2 });
+		assertTrue(containerResponseWriter.abandon());
+		suspendedEntityOutputStream.write(new byte[] { 3, 4 });
+		suspendedEntityOutputStream.write(5);
+
+		assertArrayEquals(new byte[] { 1, 2 }, entityOutputStream.toByteArray());
 	}
 
-	@Test(expected = UnsupportedOperationException.class)
-	public void suspend_Always_ShouldBeUnsupported() {
-		containerResponseWriter.suspend(1, null, null);
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
 	}
 
 	@SuppressWarnings("serial")
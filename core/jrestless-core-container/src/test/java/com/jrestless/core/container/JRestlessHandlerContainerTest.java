@@ -16,6 +16,8 @@
 package com.jrestless.core.container;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -28,6 +30,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 
@@ -42,7 +46,9 @@ import org.glassfish.jersey.server.spi.ContainerResponseWriter;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.jrestless.core.container.JRestlessHandlerContainer.JRestlessContainerResponseWriter;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessResponseWriter;
 
 //@RunWith(PowerMockRunner.class)
 //@PrepareForTest(ApplicationHandler.class)
@@ -64,6 +70,37 @@ public class JRestlessHandlerContainerTest {
 		assertSame(config, container.getConfiguration());
 	}
 
+	@Test
+	public void createContainerResponseWriter_ReuseNotEnabled_ShouldCreateNewWriters() {
+		JRestlessContainerResponseWriter writer0 = container.createContainerResponseWriter(createResponseWriter());
+		writer0.commit();
+		JRestlessContainerResponseWriter writer1 = container.createContainerResponseWriter(createResponseWriter());
+		assertNotSame(writer0, writer1);
+	}
+
+	@Test
+	public void createContainerResponseWriter_ReuseEnabledAndPreviousCommitted_ShouldReuseWriter() throws IOException {
+		container.enableResponseWriterReuse();
+		JRestlessContainerResponseWriter writer0 = container.createContainerResponseWriter(createResponseWriter());
+		writer0.commit();
+		JRestlessResponseWriter responseWriter = createResponseWriter();
+		JRestlessContainerResponseWriter writer1 = container.createContainerResponseWriter(responseWriter);
+		assertSame(writer0, writer1);
+		assertFalse(writer1.isCommitted());
+		writer1.commit();
+		verify(responseWriter).writeResponse(any(), any(), any());
+	}
+
+	@Test
+	public void createContainerResponseWriter_ReuseEnabledAndPreviousNotCommitted_ShouldCreateNewWriter() {
+		container.enableResponseWriterReuse();
+		JRestlessContainerResponseWriter writer0 = container.createContainerResponseWriter(createResponseWriter());
+		JRestlessContainerResponseWriter writer1 = container.createContainerResponseWriter(createResponseWriter());
+		assertNotSame(writer0, writer1);
+		writer0.commit();
+		assertSame(writer0, container.createContainerResponseWriter(createResponseWriter()));
+	}
+
 	@Test
 	public void onStartup_ShouldStartAppHandler() {
 		container.onStartup();
@@ -235,4 +272,10 @@ public class JRestlessHandlerContainerTest {
 		when(request.getHeaders()).thenReturn(headers);
 		return request;
 	}
+
+	private static JRestlessResponseWriter createResponseWriter() {
+		JRestlessResponseWriter responseWriter = mock(JRestlessResponseWriter.class);
+		when(responseWriter.getEntityOutputStream()).thenReturn(new ByteArrayOutputStream());
+		return responseWriter;
+	}
 }
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.StatusType;
+import javax.ws.rs.core.SecurityContext;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+import com.jrestless.core.container.io.JRestlessResponseWriter;
+import com.jrestless.core.http.HttpCaching;
+import com.jrestless.test.AbstractTestRequest;
+import com.jrestless.test.MutableClock;
+
+public class ResponseCacheIntTest {
+
+	private static final String LAST_MODIFIED = "Tue, 15 Nov 1994 12:45:26 GMT";
+
+	private static final AtomicInteger INVOCATIONS = new AtomicInteger();
+
+	private MutableClock clock;
+	private ResponseCache cache;
+	private JRestlessHandlerContainer<JRestlessContainerRequest> container;
+
+	@Before
+	public void setup() {
+		INVOCATIONS.set(0);
+		clock = new MutableClock(Instant.parse("2017-01-01T00:00:00Z"));
+		cache = ResponseCache.builder().setClock(clock).build();
+		container = new JRestlessHandlerContainer<>(new ResourceConfig().register(TestResource.class));
+		container.enableResponseCache(cache);
+		container.onStartup();
+	}
+
+	@Test
+	public void get_CacheableResponse_ShouldBeServedFromCache() {
+		TestResponseWriter first = handle("GET", "/cacheable/1");
+		TestResponseWriter second = handle("GET", "/cacheable/1");
+		assertEquals(1, INVOCATIONS.get());
+		assertEquals(200, first.status.getStatusCode());
+		assertEquals("1-1", first.body);
+		assertEquals(200, second.status.getStatusCode());
+		assertEquals("1-1", second.body);
+		assertEquals("\"1\"", second.getHeader(HttpHeaders.ETAG));
+		assertEquals("0", second.getHeader("Age"));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getEntryCount());
+		assertEquals(3, cache.getSize());
+	}
+
+	@Test
+	public void get_DifferentUri_ShouldNotBeServedFromCache() {
+		handle("GET", "/cacheable/1");
+		assertEquals("2-2", handle("GET", "/cacheable/2").body);
+		assertEquals(2, INVOCATIONS.get());
+	}
+
+	@Test
+	public void get_ExpiredEntry_ShouldPassRequestToJersey() {
+		handle("GET", "/cacheable/1");
+		clock.advanceSeconds(59);
+		TestResponseWriter hit = handle("GET", "/cacheable/1");
+		assertEquals("59", hit.getHeader("Age"));
+		clock.advanceSeconds(1);
+		assertEquals("1-2", handle("GET", "/cacheable/1").body);
+		assertEquals(2, INVOCATIONS.get());
+	}
+
+	@Test
+	public void get_NonCacheableResponses_ShouldNotBeCached() {
+		for (String path : new String[] { "/uncacheable", "/private", "/no-store", "/vary-any", "/not-found" }) {
+			handle("GET", path);
+			handle("GET", path);
+		}
+		assertEquals(10, INVOCATIONS.get());
+		assertEquals(0, cache.getEntryCount());
+	}
+
+	@Test
+	public void get_VaryingResponse_ShouldBeCachedPerVariant() {
+		assertEquals("en", handle("GET", "/vary", "Accept-Language", "en").body);
+		assertEquals("de", handle("GET", "/vary", "accept-language", "de").body);
+		assertEquals("en", handle("GET", "/vary", "Accept-Language", "en").body);
+		assertEquals("de", handle("GET", "/vary", "Accept-Language", "de").body);
+		assertEquals(2, INVOCATIONS.get());
+		assertEquals(2, cache.getEntryCount());
+	}
+
+	@Test
+	public void get_MatchingIfNoneMatch_ShouldReturnNotModified() {
+		handle("GET", "/cacheable/1");
+		TestResponseWriter response = handle("GET", "/cacheable/1", HttpHeaders.IF_NONE_MATCH, "\"0\", W/\"1\"");
+		assertEquals(304, response.status.getStatusCode());
+		assertEquals("", response.body);
+		assertEquals("\"1\"", response.getHeader(HttpHeaders.ETAG));
+		assertEquals("max-age=60", response.getHeader(HttpHeaders.CACHE_CONTROL));
+		assertNull(response.getHeader(HttpHeaders.CONTENT_TYPE));
+		assertEquals(1, cache.getNotModifiedCount());
+		assertEquals(1, INVOCATIONS.get());
+	}
+
+	@Test
+	public void get_NonMatchingIfNoneMatch_ShouldReturnCachedResponse() {
+		handle("GET", "/cacheable/1");
+		TestResponseWriter response = handle("GET", "/cacheable/1", HttpHeaders.IF_NONE_MATCH, "\"2\"");
+		assertEquals(200, response.status.getStatusCode());
+		assertEquals("1-1", response.body);
+	}
+
+	@Test
+	public void get_IfModifiedSince_ShouldReturnNotModifiedIfNotModified() {
+		handle("GET", "/cacheable/1");
+		assertEquals(304, handle("GET", "/cacheable/1", HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED)
+				.status.getStatusCode());
+		assertEquals(200, handle("GET", "/cacheable/1", HttpHeaders.IF_MODIFIED_SINCE,
+				"Tue, 15 Nov 1994 12:45:25 GMT").status.getStatusCode());
+		assertEquals(1, INVOCATIONS.get());
+	}
+
+	@Test
+	public void get_RequestNoCache_ShouldPassRequestToJerseyAndStoreResponse() {
+		handle("GET", "/cacheable/1");
+		assertEquals("1-2", handle("GET", "/cacheable/1", HttpHeaders.CACHE_CONTROL, "no-cache").body);
+		assertEquals("1-2", handle("GET", "/cacheable/1").body);
+		assertEquals(2, INVOCATIONS.get());
+	}
+
+	@Test
+	public void get_RequestNoStore_ShouldBypassCache() {
+		handle("GET", "/cacheable/1", HttpHeaders.CACHE_CONTROL, "no-store");
+		assertEquals(0, cache.getEntryCount());
+		assertEquals(0, cache.getMissCount());
+	}
+
+	@Test
+	public void get_AuthorizedRequest_ShouldOnlyBeCachedIfPublic() {
+		handle("GET", "/cacheable/1", HttpHeaders.AUTHORIZATION, "secret");
+		assertEquals(0, cache.getEntryCount());
+		handle("GET", "/public", HttpHeaders.AUTHORIZATION, "secret");
+		assertEquals(1, cache.getEntryCount());
+	}
+
+	@Test
+	public void post_CachedUri_ShouldInvalidateEntry() {
+		handle("GET", "/cacheable/1");
+		handle("POST", "/cacheable/1");
+		assertEquals(0, cache.getEntryCount());
+		assertEquals("1-2", handle("GET", "/cacheable/1").body);
+	}
+
+	@Test
+	public void get_MaximumEntriesExceeded_ShouldEvictLeastRecentlyUsed() {
+		cache = ResponseCache.builder().setClock(clock).setMaximumEntries(2).build();
+		container.enableResponseCache(cache);
+		handle("GET", "/cacheable/1");
+		handle("GET", "/cacheable/2");
+		handle("GET", "/cacheable/1");
+		handle("GET", "/cacheable/3");
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(2, cache.getEntryCount());
+		handle("GET", "/cacheable/1");
+		assertEquals(3, INVOCATIONS.get());
+		handle("GET", "/cacheable/2");
+		assertEquals(4, INVOCATIONS.get());
+	}
+
+	@Test
+	public void get_MaximumSizeExceeded_ShouldEvict() {
+		cache = ResponseCache.builder().setClock(clock).setMaximumSize(5).build();
+		container.enableResponseCache(cache);
+		handle("GET", "/cacheable/1");
+		handle("GET", "/cacheable/2");
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(3, cache.getSize());
+	}
+
+	@Test
+	public void get_EntityExceedingMaximumEntrySize_ShouldNotBeCached() {
+		cache = ResponseCache.builder().setClock(clock).setMaximumEntrySize(2).build();
+		container.enableResponseCache(cache);
+		TestResponseWriter response = handle("GET", "/cacheable/1");
+		assertEquals("1-1", response.body);
+		assertEquals(0, cache.getEntryCount());
+	}
+
+	@Test
+	public void handleRequestWithoutCache_ShouldBypassCache() {
+		handle("GET", "/cacheable/1");
+		TestResponseWriter responseWriter = new TestResponseWriter();
+		container.handleRequestWithoutCache(new TestRequest("GET", "/cacheable/1"), responseWriter,
+				mock(SecurityContext.class), req -> { });
+		assertEquals("1-2", responseWriter.body);
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void invalidateAll_ShouldRemoveAllEntries() {
+		handle("GET", "/cacheable/1");
+		handle("GET", "/cacheable/2");
+		cache.invalidateAll();
+		assertEquals(0, cache.getEntryCount());
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void builder_NonPositiveMaximumEntries_ShouldThrowIae() {
+		ResponseCache.builder().setMaximumEntries(0);
+	}
+
+	private TestResponseWriter handle(String httpMethod, String path, String... headers) {
+		TestRequest request = new TestRequest(httpMethod, path);
+		for (int i = 0; i < headers.length; i += 2) {
+			request.headers.add(headers[i], headers[i + 1]);
+		}
+		TestResponseWriter responseWriter = new TestResponseWriter();
+		container.handleRequest(request, responseWriter, mock(SecurityContext.class));
+		assertTrue(responseWriter.written);
+		return responseWriter;
+	}
+
+	@Path("/")
+	public static class TestResource {
+		@GET
+		@Path("cacheable/{id}")
+		public Response getCacheable(@PathParam("id") String id) {
+			return Response.ok(id + "-" + INVOCATIONS.incrementAndGet())
+					.header(HttpHeaders.CACHE_CONTROL, "max-age=60")
+					.header(HttpHeaders.ETAG, "\"" + id + "\"")
+					.header(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED)
+					.build();
+		}
+
+		@POST
+		@Path("cacheable/{id}")
+		public void updateCacheable() {
+		}
+
+		@GET
+		@Path("uncacheable")
+		public String getUncacheable() {
+			return Integer.toString(INVOCATIONS.incrementAndGet());
+		}
+
+		@GET
+		@Path("private")
+		public Response getPrivate() {
+			return Response.ok("private" + INVOCATIONS.incrementAndGet())
+					.header(HttpHeaders.CACHE_CONTROL, "private, max-age=60").build();
+		}
+
+		@GET
+		@Path("no-store")
+		public Response getNoStore() {
+			return Response.ok("no-store" + INVOCATIONS.incrementAndGet())
+					.header(HttpHeaders.CACHE_CONTROL, "no-store, max-age=60").build();
+		}
+
+		@GET
+		@Path("vary-any")
+		public Response getVaryAny() {
+			return Response.ok("vary-any" + INVOCATIONS.incrementAndGet())
+					.header(HttpHeaders.CACHE_CONTROL, "max-age=60").header(HttpHeaders.VARY, "*").build();
+		}
+
+		@GET
+		@Path("not-found")
+		public Response getNotFound() {
+			INVOCATIONS.incrementAndGet();
+			return Response.status(404).header(HttpHeaders.CACHE_CONTROL, "max-age=60").build();
+		}
+
+		@GET
+		@Path("public")
+		public Response getPublic() {
+			return Response.ok("public" + INVOCATIONS.incrementAndGet())
+					.header(HttpHeaders.CACHE_CONTROL, "public, max-age=60").build();
+		}
+
+		@GET
+		@Path("vary")
+		public Response getVarying(@HeaderParam(HttpHeaders.ACCEPT_LANGUAGE) String language) {
+			INVOCATIONS.incrementAndGet();
+			return Response.ok(language).header(HttpHeaders.CACHE_CONTROL, "max-age=60")
+					.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE).build();
+		}
+	}
+
+	private static class TestRequest extends AbstractTestRequest {
+		private final MultivaluedMap<String, String> headers;
+
+		TestRequest(String httpMethod, String requestUri) {
+			this(httpMethod, requestUri, new MultivaluedHashMap<>());
+		}
+
+		private TestRequest(String httpMethod, String requestUri, MultivaluedMap<String, String> headers) {
+			super(URI.create("/"), URI.create(requestUri), httpMethod, headers);
+			this.headers = headers;
+		}
+
+		@Override
+		public ByteArrayInputStream getEntityStream() {
+			return new ByteArrayInputStream(new byte[0]);
+		}
+	}
+
+	private static class TestResponseWriter implements JRestlessResponseWriter {
+		private final ByteArrayOutputStream entity = new ByteArrayOutputStream();
+		private StatusType status;
+		private Map<String, List<String>> headers;
+		private String body;
+		private boolean written;
+
+		@Override
+		public OutputStream getEntityOutputStream() {
+			return entity;
+		}
+
+		@Override
+		public void writeResponse(StatusType statusType, Map<String, List<String>> headers,
+				OutputStream entityOutputStream) {
+			this.status = statusType;
+			this.headers = headers;
+			this.body = new String(((ByteArrayOutputStream) entityOutputStream).toByteArray());
+			this.written = true;
+		}
+
+		String getHeader(String name) {
+			return HttpCaching.getHeader(headers, name);
+		}
+	}
+}
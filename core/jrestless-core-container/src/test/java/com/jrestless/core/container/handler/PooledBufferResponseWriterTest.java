@@ -0,0 +1,120 @@
+package com.jrestless.core.container.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.Response.StatusType;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jrestless.core.container.io.PresizableByteArrayOutputStream;
+import com.jrestless.core.container.io.ResponseBufferPool;
+
+public class PooledBufferResponseWriterTest {
+
+	private ResponseBufferPool pool;
+	private PresizableByteArrayOutputStream buffer;
+	private StringResponseWriter responseWriter;
+
+	@Before
+	public void setup() {
+		pool = mock(ResponseBufferPool.class);
+		buffer = new PresizableByteArrayOutputStream();
+		when(pool.acquire()).thenReturn(buffer);
+		responseWriter = new StringResponseWriter(pool);
+	}
+
+	@Test
+	public void getEntityOutputStream_ShouldAcquireBuffer() {
+		assertSame(buffer, responseWriter.getEntityOutputStream());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void getEntityOutputStream_AlreadyAcquired_ShouldThrowIse() {
+		responseWriter.getEntityOutputStream();
+		responseWriter.getEntityOutputStream();
+	}
+
+	@Test
+	public void beforeEntityWrite_ShouldReserveContentLength() {
+		responseWriter.getEntityOutputStream();
+		responseWriter.beforeEntityWrite(Status.OK, 2048, Collections.emptyMap());
+		assertEquals(2048, buffer.capacity());
+	}
+
+	@Test
+	public void writeResponse_ShouldPassBufferAndReleaseIt() throws IOException {
+		OutputStream entityOutputStream = responseWriter.getEntityOutputStream();
+		entityOutputStream.write("abc".getBytes(StandardCharsets.UTF_8));
+		responseWriter.writeResponse(Status.OK, Collections.emptyMap(), entityOutputStream);
+		assertEquals("abc", responseWriter.getResponse());
+		verify(pool).release(buffer);
+	}
+
+	@Test
+	public void writeResponse_ForeignStreamGiven_ShouldCopyIntoPooledBuffer() throws IOException {
+		ByteArrayOutputStream entityOutputStream = new ByteArrayOutputStream();
+		entityOutputStream.write("abc".getBytes(StandardCharsets.UTF_8));
+		responseWriter.writeResponse(Status.OK, Collections.emptyMap(), entityOutputStream);
+		assertEquals("abc", responseWriter.getResponse());
+		verify(pool).release(buffer);
+	}
+
+	@Test
+	public void writeResponse_WriteFails_ShouldReleaseBuffer() throws IOException {
+		responseWriter = new StringResponseWriter(pool) {
+			@Override
+			protected void writeBufferedResponse(StatusType statusType, Map<String, List<String>> headers,
+					PresizableByteArrayOutputStream entityBuffer) throws IOException {
+				throw new IOException();
+			}
+		};
+		OutputStream entityOutputStream = responseWriter.getEntityOutputStream();
+		try {
+			responseWriter.writeResponse(Status.OK, Collections.emptyMap(), entityOutputStream);
+		} catch (IOException e) {
+			verify(pool).release(buffer);
+			return;
+		}
+		throw new AssertionError("expected an IOException");
+	}
+
+	@Test
+	public void getEntityOutputStream_AfterWriteResponse_ShouldAcquireNewBuffer() throws IOException {
+		OutputStream entityOutputStream = responseWriter.getEntityOutputStream();
+		responseWriter.writeResponse(Status.OK, Collections.emptyMap(), entityOutputStream);
+		responseWriter.getEntityOutputStream();
+	}
+
+	private static class StringResponseWriter extends PooledBufferResponseWriter<String> {
+		private String response;
+
+		StringResponseWriter(ResponseBufferPool pool) {
+			super(pool);
+		}
+
+		@Override
+		protected void writeBufferedResponse(StatusType statusType, Map<String, List<String>> headers,
+				PresizableByteArrayOutputStream entityBuffer) throws IOException {
+			response = entityBuffer.toString(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public String getResponse() {
+			return response;
+		}
+	}
+}
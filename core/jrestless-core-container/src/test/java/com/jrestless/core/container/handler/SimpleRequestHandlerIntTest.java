@@ -18,7 +18,9 @@ package com.jrestless.core.container.handler;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -31,6 +33,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.ws.rs.Consumes;
@@ -40,6 +46,8 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
@@ -66,9 +74,17 @@ import com.jrestless.core.container.io.JRestlessContainerRequest;
 public class SimpleRequestHandlerIntTest {
 
 	private static final URI BASE_URI = URI.create("/");
+	private static final long ASYNC_DELAY_MILLIS = 50;
+	private static final ExecutorService ASYNC_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable);
+		thread.setDaemon(true);
+		return thread;
+	});
 	private static final ByteArrayInputStream EMPTY_ENTITY_STREAM = new ByteArrayInputStream(new byte[0]);
 	private static final List<String> APPLICATION_JSON_HEADER = singletonList("application/json");
 	private static final Map<String, List<String>> JSON_CONTENT_HEADER = ImmutableMap.of("Content-Type", APPLICATION_JSON_HEADER);
+	private static volatile CountDownLatch lateResumeAllowed;
+	private static volatile CountDownLatch lateResumeDone;
 	private SimpleRequestHandler<JRestlessContainerRequest, SimpleContainerResponse> handler;
 	private TestService testService;
 
@@ -176,6 +192,80 @@ public class SimpleRequestHandlerIntTest {
 		verify(testService).requestHeaders(headers);
 	}
 
+	@Test
+	public void warmUp_DefaultRequests_ShouldNotInvokeResources() {
+		handler.warmUp(2);
+		verifyZeroInteractions(testService);
+	}
+
+	@Test
+	public void warmUp_CustomRequests_ShouldPassRequestsToContainer() {
+		SimpleRequestHandlerImpl customHandler = new SimpleRequestHandlerImpl() {
+			@Override
+			protected List<JRestlessContainerRequest> createWarmUpRequests() {
+				return singletonList(createJsonRequest("/httpmethod", "GET", null));
+			}
+		};
+		ResourceConfig config = new ResourceConfig();
+		config.register(new InstanceBinder.Builder().addInstance(testService, TestService.class).build());
+		config.register(TestResource.class);
+		customHandler.init(config);
+		customHandler.start();
+		customHandler.warmUp(3);
+		verify(testService, times(3)).httpMethod("GET");
+	}
+
+	@Test
+	public void testAsyncResponse() {
+		JRestlessContainerRequest request = createJsonRequest("/async/value", "GET", null);
+		SimpleContainerResponse response = handler.delegateRequest(request);
+		assertEquals(new SimpleContainerResponse(Status.OK, "{\"value\":\"value\"}", JSON_CONTENT_HEADER), response);
+	}
+
+	@Test
+	public void testAsyncResponseSuspendTimeout() {
+		JRestlessContainerRequest request = createJsonRequest("/async-suspend-timeout", "GET", null);
+		SimpleContainerResponse response = handler.delegateRequest(request);
+		assertEquals(Status.SERVICE_UNAVAILABLE, response.getStatusType());
+	}
+
+	@Test
+	public void testAsyncResponseNotCompletedInTime() {
+		((SimpleRequestHandlerImpl) handler).asyncResponseTimeoutMillis = 50;
+		JRestlessContainerRequest request = createJsonRequest("/async-never", "GET", null);
+		SimpleContainerResponse response = handler.delegateRequest(request);
+		assertEquals(Status.INTERNAL_SERVER_ERROR, response.getStatusType());
+	}
+
+	@Test
+	public void testAsyncResponseWithRequestObjectPooling() {
+		handler.enableRequestObjectPooling();
+		for (int i = 0; i < 3; i++) {
+			JRestlessContainerRequest request = createJsonRequest("/async/value" + i, "GET", null);
+			SimpleContainerResponse response = handler.delegateRequest(request);
+			assertEquals(new SimpleContainerResponse(Status.OK, "{\"value\":\"value" + i + "\"}", JSON_CONTENT_HEADER),
+					response);
+		}
+	}
+
+	@Test
+	public void testAsyncResponseResumedAfterTimeoutDoesNotLeakIntoNextResponse() {
+		SimpleRequestHandlerImpl handlerImpl = (SimpleRequestHandlerImpl) handler;
+		// a buffer shared by all responses - just like a thread-local one
+		handlerImpl.sharedEntityBuffer = new ByteArrayOutputStream();
+		handlerImpl.asyncResponseTimeoutMillis = ASYNC_DELAY_MILLIS;
+		lateResumeAllowed = new CountDownLatch(1);
+		lateResumeDone = new CountDownLatch(1);
+
+		SimpleContainerResponse lateResponse = handler.delegateRequest(createJsonRequest("/async-late", "GET", null));
+		assertEquals(Status.INTERNAL_SERVER_ERROR, lateResponse.getStatusType());
+
+		handlerImpl.asyncResponseTimeoutMillis = Long.MAX_VALUE;
+		JRestlessContainerRequest request = createJsonRequest("/async-after-late/value", "GET", null);
+		SimpleContainerResponse response = handler.delegateRequest(request);
+		assertEquals(new SimpleContainerResponse(Status.OK, "{\"value\":\"value\"}", JSON_CONTENT_HEADER), response);
+	}
+
 	@Path("/")
 	public static class TestResource {
 
@@ -205,6 +295,55 @@ public class SimpleRequestHandlerIntTest {
 			service.httpMethod("DELETE");
 		}
 
+		@Path("/async/{value}")
+		@GET
+		public void asyncResponse(@PathParam("value") String value, @Suspended AsyncResponse asyncResponse) {
+			ASYNC_EXECUTOR.execute(() -> {
+				sleep(ASYNC_DELAY_MILLIS);
+				asyncResponse.resume(Response.ok(new Entity(value)).build());
+			});
+		}
+
+		@Path("/async-suspend-timeout")
+		@GET
+		public void asyncResponseSuspendTimeout(@Suspended AsyncResponse asyncResponse) {
+			asyncResponse.setTimeout(ASYNC_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+		}
+
+		@Path("/async-late")
+		@GET
+		public void asyncResponseLate(@Suspended AsyncResponse asyncResponse) {
+			CountDownLatch resumeAllowed = lateResumeAllowed;
+			CountDownLatch resumeDone = lateResumeDone;
+			ASYNC_EXECUTOR.execute(() -> {
+				await(resumeAllowed);
+				try {
+					asyncResponse.resume(Response.ok(new Entity("late")).build());
+				} finally {
+					resumeDone.countDown();
+				}
+			});
+		}
+
+		@Path("/async-after-late/{value}")
+		@GET
+		public void asyncResponseAfterLate(@PathParam("value") String value,
+				@Suspended AsyncResponse asyncResponse) {
+			CountDownLatch resumeAllowed = lateResumeAllowed;
+			CountDownLatch resumeDone = lateResumeDone;
+			ASYNC_EXECUTOR.execute(() -> {
+				// let the abandoned response be resumed while this one is in flight
+				resumeAllowed.countDown();
+				await(resumeDone);
+				asyncResponse.resume(Response.ok(new Entity(value)).build());
+			});
+		}
+
+		@Path("/async-never")
+		@GET
+		public void asyncResponseNever(@Suspended AsyncResponse asyncResponse) {
+		}
+
 		@Path("/default")
 		@GET
 		public Response defaultResponse() {
@@ -261,8 +400,32 @@ public class SimpleRequestHandlerIntTest {
 		void requestHeaders(Map<String, List<String>> headers);
 	}
 
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 	private static class SimpleRequestHandlerImpl extends SimpleRequestHandler<JRestlessContainerRequest, SimpleContainerResponse> {
 
+		private long asyncResponseTimeoutMillis = Long.MAX_VALUE;
+		private ByteArrayOutputStream sharedEntityBuffer;
+
+		@Override
+		protected long getAsyncResponseTimeoutMillis(JRestlessContainerRequest request) {
+			return asyncResponseTimeoutMillis;
+		}
+
 		@Override
 		public SimpleResponseWriter<SimpleContainerResponse> createResponseWriter(JRestlessContainerRequest containerRequest) {
 			return new SimpleResponseWriter<SimpleContainerResponse>() {
@@ -271,6 +434,10 @@ public class SimpleRequestHandlerIntTest {
 
 				@Override
 				public OutputStream getEntityOutputStream() {
+					if (sharedEntityBuffer != null) {
+						sharedEntityBuffer.reset();
+						return sharedEntityBuffer;
+					}
 					return new ByteArrayOutputStream();
 				}
 
@@ -1,12 +1,15 @@
 package com.jrestless.core.container.handler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -15,6 +18,7 @@ import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,11 +29,13 @@ import javax.ws.rs.core.Response.Status;
 import org.glassfish.hk2.api.ServiceLocator;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.jrestless.core.container.JRestlessHandlerContainer;
 import com.jrestless.core.container.handler.SimpleRequestHandler.SimpleResponseWriter;
+import com.jrestless.core.container.index.ResourceIndex;
 import com.jrestless.core.container.io.DefaultJRestlessContainerRequest;
 import com.jrestless.core.container.io.JRestlessContainerRequest;
 
@@ -67,6 +73,11 @@ public class SimpleRequestHandlerTest {
 		new SimpleRequestHandlerImpl().init((JRestlessHandlerContainer<JRestlessContainerRequest>) null);
 	}
 
+	@Test(expected = NullPointerException.class)
+	public void init3_NullResourceIndexGiven_ShouldThrowNpe() {
+		new SimpleRequestHandlerImpl().init((ResourceIndex) null);
+	}
+
 	@Test(expected = IllegalStateException.class)
 	public void init2_MultiInit_ShouldThrowIse() {
 		handler.init(container);
@@ -82,6 +93,28 @@ public class SimpleRequestHandlerTest {
 		handler.start();
 	}
 
+	@Test(expected = IllegalStateException.class)
+	public void warmUp_NotStarted_ShouldThrowIse() {
+		new SimpleRequestHandlerImpl().warmUp();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void warmUp_NonPositiveIterationsGiven_ShouldThrowIae() {
+		handler.warmUp(0);
+	}
+
+	@Test
+	public void warmUp_ContainerException_ShouldContinueWithNextRequest() {
+		JRestlessContainerRequest request0 = createMinimalRequest();
+		JRestlessContainerRequest request1 = createMinimalRequest();
+		doReturn(ImmutableList.of(request0, request1)).when(handler).createWarmUpRequests();
+		doThrow(new RuntimeException()).when(container).handleRequestWithoutCache(same(request0), any(), any(), any());
+		handler.warmUp(2);
+		verify(container, times(2)).handleRequestWithoutCache(same(request0), any(), any(), any());
+		verify(container, times(2)).handleRequestWithoutCache(same(request1), any(), any(), any());
+		verify(handler, times(2)).createWarmUpRequests();
+	}
+
 	@Test
 	public void delegateRequest_NotStarted_ShouldReturnInternalServerError() {
 		SimpleContainerResponse response = new SimpleRequestHandlerImpl().delegateRequest(mock(JRestlessContainerRequest.class));
@@ -109,7 +142,9 @@ public class SimpleRequestHandlerTest {
 		assertTrue(response.getHeaders().isEmpty());
 		assertEquals(null, response.getBody());
 		verify(handler, times(1)).beforeHandleRequest(eq(request), any());
-		verify(handler, times(1)).onRequestFailure(same(containerException), eq(request), any());
+		InOrder inOrder = inOrder(handler);
+		inOrder.verify(handler).beforeRequestFailure(same(containerException), eq(request), any());
+		inOrder.verify(handler).onRequestFailure(same(containerException), eq(request), any());
 	}
 
 	@Test
@@ -154,6 +189,68 @@ public class SimpleRequestHandlerTest {
 		verify(handler).onRequestSuccess(eq(containerResponse), eq(request), any());
 	}
 
+	@Test(expected = IllegalStateException.class)
+	public void enableRequestObjectPooling_NotInitialized_ShouldThrowIse() {
+		new SimpleRequestHandlerImpl().enableRequestObjectPooling();
+	}
+
+	@Test
+	public void enableRequestObjectPooling_ShouldEnableResponseWriterReuse() {
+		handler.enableRequestObjectPooling();
+		verify(container).enableResponseWriterReuse();
+	}
+
+	@Test
+	public void delegateRequest_PoolingDisabled_ShouldCreateNewContainerRequests() {
+		PoolingRequestHandlerImpl poolingHandler = createPoolingHandler();
+		poolingHandler.delegateRequest(createMinimalRequest());
+		poolingHandler.delegateRequest(createMinimalRequest());
+		assertEquals(2, poolingHandler.containerRequests.size());
+		assertNotSame(poolingHandler.containerRequests.get(0), poolingHandler.containerRequests.get(1));
+	}
+
+	@Test
+	public void delegateRequest_PoolingEnabled_ShouldReuseContainerRequest() {
+		PoolingRequestHandlerImpl poolingHandler = createPoolingHandler();
+		poolingHandler.enableRequestObjectPooling();
+		poolingHandler.delegateRequest(createMinimalRequest());
+		JRestlessContainerRequest request = new DefaultJRestlessContainerRequest(URI.create("/"), URI.create("/a"),
+				"POST", new ByteArrayInputStream(new byte[0]), ImmutableMap.of("k", ImmutableList.of("v")));
+		poolingHandler.delegateRequest(request);
+		assertEquals(2, poolingHandler.containerRequests.size());
+		assertSame(poolingHandler.containerRequests.get(0), poolingHandler.containerRequests.get(1));
+		assertEquals(request, poolingHandler.containerRequests.get(1));
+	}
+
+	@Test
+	public void delegateRequest_PoolingEnabledAndNestedRequest_ShouldNotShareContainerRequest() {
+		PoolingRequestHandlerImpl poolingHandler = createPoolingHandler();
+		poolingHandler.enableRequestObjectPooling();
+		poolingHandler.nestedRequest = createMinimalRequest();
+		poolingHandler.delegateRequest(createMinimalRequest());
+		poolingHandler.delegateRequest(createMinimalRequest());
+		assertEquals(3, poolingHandler.containerRequests.size());
+		JRestlessContainerRequest outer = poolingHandler.containerRequests.get(0);
+		assertNotSame(outer, poolingHandler.containerRequests.get(1));
+		assertSame(outer, poolingHandler.containerRequests.get(2));
+	}
+
+	@Test
+	public void createDefaultContainerRequest_PoolingEnabledButNotWithinRequest_ShouldCreateNewRequest() {
+		PoolingRequestHandlerImpl poolingHandler = createPoolingHandler();
+		poolingHandler.enableRequestObjectPooling();
+		poolingHandler.delegateRequest(createMinimalRequest());
+		assertNotSame(poolingHandler.containerRequests.get(0),
+				poolingHandler.createContainerRequest(createMinimalRequest()));
+	}
+
+	private PoolingRequestHandlerImpl createPoolingHandler() {
+		PoolingRequestHandlerImpl poolingHandler = new PoolingRequestHandlerImpl();
+		poolingHandler.init(container);
+		poolingHandler.start();
+		return poolingHandler;
+	}
+
 	private JRestlessContainerRequest createMinimalRequest() {
 		JRestlessContainerRequest request = new DefaultJRestlessContainerRequest(URI.create("/"), URI.create("/"), "GET",
 				new ByteArrayInputStream(new byte[0]), new HashMap<>());
@@ -179,4 +276,27 @@ public class SimpleRequestHandlerTest {
 			return new SimpleContainerResponse(Status.INTERNAL_SERVER_ERROR, null, new HashMap<>());
 		}
 	}
+
+	private static class PoolingRequestHandlerImpl extends SimpleRequestHandlerImpl {
+		private final List<JRestlessContainerRequest> containerRequests = new ArrayList<>();
+		private JRestlessContainerRequest nestedRequest;
+
+		@Override
+		public JRestlessContainerRequest createContainerRequest(JRestlessContainerRequest request) {
+			JRestlessContainerRequest containerRequest = createDefaultContainerRequest(request.getBaseUri(),
+					request.getRequestUri(), request.getHttpMethod(), request.getEntityStream(), request.getHeaders());
+			containerRequests.add(containerRequest);
+			return containerRequest;
+		}
+
+		@Override
+		protected void beforeHandleRequest(JRestlessContainerRequest request,
+				JRestlessContainerRequest containerRequest) {
+			JRestlessContainerRequest nested = nestedRequest;
+			nestedRequest = null;
+			if (nested != null) {
+				delegateRequest(nested);
+			}
+		}
+	}
 }
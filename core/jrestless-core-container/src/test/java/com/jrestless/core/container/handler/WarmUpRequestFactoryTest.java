@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.handler;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.jrestless.core.container.JRestlessHandlerContainer;
+import com.jrestless.core.container.io.JRestlessContainerRequest;
+
+public class WarmUpRequestFactoryTest {
+
+	@Test(expected = NullPointerException.class)
+	public void createOptionsRequests_NullContainerGiven_ShouldThrowNpe() {
+		WarmUpRequestFactory.createOptionsRequests((JRestlessHandlerContainer<?>) null);
+	}
+
+	@Test
+	public void createOptionsRequests_ShouldCreateOptionsRequestPerResourcePath() throws IOException {
+		JRestlessHandlerContainer<JRestlessContainerRequest> container = new JRestlessHandlerContainer<>(
+				new ResourceConfig(RootResource.class, OtherResource.class));
+		container.onStartup();
+		List<JRestlessContainerRequest> requests = WarmUpRequestFactory.createOptionsRequests(container);
+		List<String> paths = requests.stream()
+				.map(r -> r.getRequestUri().toString())
+				.sorted()
+				.collect(Collectors.toList());
+		assertEquals(ImmutableList.of("/", "/items", "/items/0", "/items/0/tags", "/other"), paths);
+		for (JRestlessContainerRequest request : requests) {
+			assertEquals("OPTIONS", request.getHttpMethod());
+			assertEquals("/", request.getBaseUri().toString());
+			assertEquals(-1, request.getEntityStream().read());
+		}
+	}
+
+	@Path("/")
+	public static class RootResource {
+		@GET
+		public String root() {
+			return null;
+		}
+
+		@GET
+		@Path("items")
+		public String items() {
+			return null;
+		}
+
+		@POST
+		@Path("/items")
+		public void addItem(String item) {
+		}
+
+		@GET
+		@Path("items/{id: [0-9]+}")
+		public String item(@PathParam("id") long id) {
+			return null;
+		}
+
+		@GET
+		@Path("items/{id}/tags")
+		public String tags(@PathParam("id") long id) {
+			return null;
+		}
+
+		@Path("locator")
+		public OtherResource locator() {
+			return new OtherResource();
+		}
+	}
+
+	@Path("other")
+	public static class OtherResource {
+		@GET
+		public String get() {
+			return null;
+		}
+	}
+}
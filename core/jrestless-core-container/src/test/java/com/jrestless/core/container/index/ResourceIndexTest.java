@@ -0,0 +1,100 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.container.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableSet;
+
+public class ResourceIndexTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test(expected = NullPointerException.class)
+	public void load_NullClassLoaderGiven_ShouldThrowNpe() {
+		ResourceIndex.load(null);
+	}
+
+	@Test
+	public void load_NoIndexGiven_ShouldReturnEmptyIndex() throws IOException {
+		ResourceIndex index = ResourceIndex.load(createClassLoader());
+		assertTrue(index.isEmpty());
+		assertTrue(index.getClasses().isEmpty());
+	}
+
+	@Test
+	public void load_IndexFilesGiven_ShouldLoadAllClasses() throws IOException {
+		ResourceIndex index = ResourceIndex.load(createClassLoader(
+				"# comment\n\n" + TestResource.class.getName() + "\n  " + String.class.getName() + "  \n",
+				TestResource.class.getName() + "\n" + Integer.class.getName()));
+		assertEquals(ImmutableSet.of(TestResource.class, String.class, Integer.class), index.getClasses());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void load_UnknownClassGiven_ShouldThrowIse() throws IOException {
+		ResourceIndex.load(createClassLoader("com.jrestless.core.container.index.DoesNotExist"));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getClasses_ShouldBeUnmodifiable() throws IOException {
+		ResourceIndex.load(createClassLoader()).getClasses().add(String.class);
+	}
+
+	@Test
+	public void createResourceConfig_ShouldRegisterIndexedClasses() throws IOException {
+		ResourceConfig config = ResourceIndex.load(createClassLoader(TestResource.class.getName()))
+				.createResourceConfig();
+		assertEquals(ImmutableSet.of(TestResource.class), config.getClasses());
+	}
+
+	private ClassLoader createClassLoader(String... indexFiles) throws IOException {
+		URL[] urls = new URL[indexFiles.length];
+		for (int i = 0; i < indexFiles.length; i++) {
+			File root = tmp.newFolder();
+			File indexFile = new File(root, ResourceIndex.LOCATION);
+			assertTrue(indexFile.getParentFile().mkdirs());
+			Files.write(indexFile.toPath(), Arrays.asList(indexFiles[i]), StandardCharsets.UTF_8);
+			urls[i] = root.toURI().toURL();
+		}
+		return new URLClassLoader(urls, getClass().getClassLoader());
+	}
+
+	@Path("/")
+	public static class TestResource {
+		@GET
+		public String get() {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package com.jrestless.core.container.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class Base64DecodingInputStreamTest {
+
+	@Test
+	public void read_AllLengthsGiven_ShouldDecode() throws IOException {
+		Random random = new Random(42);
+		for (int length = 0; length < 64; length++) {
+			byte[] bytes = new byte[length];
+			random.nextBytes(bytes);
+			String encoded = Base64.getEncoder().encodeToString(bytes);
+			assertArrayEquals(bytes, readBulk(new Base64DecodingInputStream(encoded), 7));
+			assertArrayEquals(bytes, readSingle(new Base64DecodingInputStream(encoded)));
+		}
+	}
+
+	@Test
+	public void read_UnpaddedDataGiven_ShouldDecode() throws IOException {
+		assertEquals("a", new String(readSingle(new Base64DecodingInputStream("YQ"))));
+		assertEquals("ab", new String(readSingle(new Base64DecodingInputStream("YWI"))));
+		assertEquals("abc", new String(readSingle(new Base64DecodingInputStream("YWJj"))));
+	}
+
+	@Test
+	public void read_UrlSafeCharsGiven_ShouldDecodeStandardAlphabet() throws IOException {
+		byte[] bytes = {(byte) 0xFB, (byte) 0xFF, (byte) 0xBF};
+		assertArrayEquals(bytes, readSingle(new Base64DecodingInputStream("+/+/")));
+	}
+
+	@Test(expected = IOException.class)
+	public void read_IllegalCharGiven_ShouldThrowIoException() throws IOException {
+		readSingle(new Base64DecodingInputStream("YW-j"));
+	}
+
+	@Test(expected = IOException.class)
+	public void read_NonAsciiCharGiven_ShouldThrowIoException() throws IOException {
+		readSingle(new Base64DecodingInputStream("YWä="));
+	}
+
+	@Test(expected = IOException.class)
+	public void read_LineSeparatorGiven_ShouldThrowIoException() throws IOException {
+		readSingle(new Base64DecodingInputStream("YWJj\r\nYWJj"));
+	}
+
+	@Test(expected = IOException.class)
+	public void read_SingleTrailingCharGiven_ShouldThrowIoException() throws IOException {
+		readSingle(new Base64DecodingInputStream("YWJjY"));
+	}
+
+	@Test(expected = IOException.class)
+	public void read_DataAfterPaddingGiven_ShouldThrowIoException() throws IOException {
+		readSingle(new Base64DecodingInputStream("YQ==YQ=="));
+	}
+
+	@Test(expected = IOException.class)
+	public void read_IncompletePaddingGiven_ShouldThrowIoException() throws IOException {
+		readSingle(new Base64DecodingInputStream("YQ=a"));
+	}
+
+	@Test(expected = IOException.class)
+	public void read_MisplacedPaddingGiven_ShouldThrowIoException() throws IOException {
+		readSingle(new Base64DecodingInputStream("Y==="));
+	}
+
+	@Test
+	public void available_ShouldReturnRemainingBytes() throws IOException {
+		InputStream in = new Base64DecodingInputStream(Base64.getEncoder().encodeToString("abcde".getBytes()));
+		assertEquals(5, in.available());
+		in.read();
+		assertEquals(4, in.available());
+		in.read(new byte[3]);
+		assertEquals(1, in.available());
+		in.read();
+		assertEquals(0, in.available());
+		assertEquals(-1, in.read());
+	}
+
+	@Test
+	public void read_EmptyBufferGiven_ShouldReturnZero() throws IOException {
+		assertEquals(0, new Base64DecodingInputStream("YQ==").read(new byte[1], 0, 0));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void read_InvalidRangeGiven_ShouldThrowIoobe() throws IOException {
+		new Base64DecodingInputStream("YQ==").read(new byte[1], 1, 1);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullCharsGiven_ShouldThrowNpe() {
+		new Base64DecodingInputStream(null);
+	}
+
+	private static byte[] readBulk(InputStream in, int bufferSize) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[bufferSize];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] readSingle(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int b;
+		while ((b = in.read()) != -1) {
+			out.write(b);
+		}
+		return out.toByteArray();
+	}
+}
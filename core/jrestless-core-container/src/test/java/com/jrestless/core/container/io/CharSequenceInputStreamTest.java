@@ -0,0 +1,107 @@
+package com.jrestless.core.container.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class CharSequenceInputStreamTest {
+
+	@Test
+	public void read_EmptyCharSequenceGiven_ShouldReturnEndOfStream() throws IOException {
+		InputStream is = new CharSequenceInputStream("", StandardCharsets.UTF_8);
+		assertEquals(-1, is.read());
+		assertEquals(-1, is.read(new byte[1], 0, 1));
+	}
+
+	@Test
+	public void read_AsciiGiven_ShouldEncode() throws IOException {
+		testEncoding("abc", StandardCharsets.UTF_8, 8192);
+	}
+
+	@Test
+	public void read_MultiByteCharactersGiven_ShouldEncode() throws IOException {
+		testEncoding("ä€😀abc", StandardCharsets.UTF_8, 8192);
+	}
+
+	@Test
+	public void read_MultiByteCharactersAndSmallBufferGiven_ShouldEncode() throws IOException {
+		testEncoding("ä€😀abcä€😀", StandardCharsets.UTF_8, 1);
+	}
+
+	@Test
+	public void read_OtherCharsetGiven_ShouldEncode() throws IOException {
+		testEncoding("äbc", StandardCharsets.ISO_8859_1, 2);
+		testEncoding("äbc", StandardCharsets.UTF_16, 3);
+	}
+
+	@Test
+	public void read_MalformedInputGiven_ShouldReplaceLikeGetBytes() throws IOException {
+		testEncoding("a\ud83db", StandardCharsets.UTF_8, 8192);
+		testEncoding("ab\ud83d", StandardCharsets.UTF_8, 8192);
+	}
+
+	@Test
+	public void read_LargeInputGiven_ShouldEncode() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 10_000; i++) {
+			sb.append(i).append('€');
+		}
+		testEncoding(sb.toString(), StandardCharsets.UTF_8, 8192);
+	}
+
+	@Test
+	public void read_SingleBytes_ShouldEncode() throws IOException {
+		String value = "a€b";
+		InputStream is = new CharSequenceInputStream(value, StandardCharsets.UTF_8, 1);
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		int b;
+		while ((b = is.read()) != -1) {
+			baos.write(b);
+		}
+		assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), baos.toByteArray());
+	}
+
+	@Test
+	public void read_ZeroLengthGiven_ShouldReturnZero() throws IOException {
+		InputStream is = new CharSequenceInputStream("abc", StandardCharsets.UTF_8);
+		assertEquals(0, is.read(new byte[1], 0, 0));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void read_InvalidOffsetGiven_ShouldThrowIoobe() throws IOException {
+		new CharSequenceInputStream("abc", StandardCharsets.UTF_8).read(new byte[1], 1, 1);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullCharSequenceGiven_ShouldThrowNpe() {
+		new CharSequenceInputStream(null, StandardCharsets.UTF_8);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void init_NullCharsetGiven_ShouldThrowNpe() {
+		new CharSequenceInputStream("", null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void init_InvalidBufferSizeGiven_ShouldThrowIae() {
+		new CharSequenceInputStream("", StandardCharsets.UTF_8, 0);
+	}
+
+	private static void testEncoding(String value, Charset charset, int bufferSize) throws IOException {
+		InputStream is = new CharSequenceInputStream(value, charset, bufferSize);
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		byte[] buffer = new byte[3];
+		int read;
+		while ((read = is.read(buffer, 0, buffer.length)) != -1) {
+			baos.write(buffer, 0, read);
+		}
+		assertArrayEquals(value.getBytes(charset), baos.toByteArray());
+	}
+}
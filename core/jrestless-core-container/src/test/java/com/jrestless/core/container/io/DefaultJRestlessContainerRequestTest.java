@@ -3,6 +3,7 @@ package com.jrestless.core.container.io;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
@@ -21,6 +22,8 @@ import org.junit.Test;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.CharStreams;
+import com.jrestless.core.http.HeaderMap;
+import com.jrestless.core.util.HeaderUtils;
 import com.jrestless.test.ConstructorPreconditionsTester;
 import com.jrestless.test.CopyConstructorEqualsTester;
 
@@ -44,6 +47,33 @@ public class DefaultJRestlessContainerRequestTest {
 		assertNotSame(headers, request.getHeaders());
 	}
 
+	@Test
+	public void testUnmodifiableHeaderMapNotCopied() throws IOException {
+		HeaderMap headers = new HeaderMap();
+		headers.add("a", "a0");
+		headers.makeUnmodifiable();
+		JRestlessContainerRequest request = new DefaultJRestlessContainerRequest(URI.create("/123"), URI.create("/456"), "DELETE",
+				new ByteArrayInputStream("123".getBytes()), headers);
+		assertSame(headers, request.getHeaders());
+	}
+
+	@Test
+	public void testExpandedHeadersNotCopied() throws IOException {
+		Map<String, List<String>> headers = HeaderUtils.expandHeaders(ImmutableMap.of("a", "a0"));
+		JRestlessContainerRequest request = new DefaultJRestlessContainerRequest(URI.create("/123"), URI.create("/456"), "DELETE",
+				new ByteArrayInputStream("123".getBytes()), headers);
+		assertSame(headers, request.getHeaders());
+	}
+
+	@Test
+	public void testModifiableHeaderMapCopied() throws IOException {
+		HeaderMap headers = new HeaderMap();
+		JRestlessContainerRequest request = new DefaultJRestlessContainerRequest(URI.create("/123"), URI.create("/456"), "DELETE",
+				new ByteArrayInputStream("123".getBytes()), headers);
+		headers.add("0", "0");
+		assertTrue(request.getHeaders().isEmpty());
+	}
+
 	@Test
 	public void testHeadersCopied() throws IOException {
 		Map<String, List<String>> headers = new HashMap<>();
@@ -0,0 +1,67 @@
+package com.jrestless.core.container.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.Test;
+
+public class PresizableByteArrayOutputStreamTest {
+
+	@Test
+	public void reserve_ShouldGrowBufferToExactSize() {
+		PresizableByteArrayOutputStream out = new PresizableByteArrayOutputStream(4);
+		out.write(1);
+		out.reserve(100);
+		assertEquals(101, out.capacity());
+		out.write(new byte[100], 0, 100);
+		assertEquals(101, out.capacity());
+		assertEquals(101, out.size());
+	}
+
+	@Test
+	public void reserve_EnoughCapacityGiven_ShouldNotGrow() {
+		PresizableByteArrayOutputStream out = new PresizableByteArrayOutputStream(10);
+		out.reserve(10);
+		assertEquals(10, out.capacity());
+	}
+
+	@Test
+	public void reserve_NegativeOrZeroGiven_ShouldBeIgnored() {
+		PresizableByteArrayOutputStream out = new PresizableByteArrayOutputStream(4);
+		out.reserve(-1);
+		out.reserve(0);
+		assertEquals(4, out.capacity());
+	}
+
+	@Test
+	public void reserve_ShouldKeepContent() {
+		PresizableByteArrayOutputStream out = new PresizableByteArrayOutputStream(1);
+		out.write('a');
+		out.reserve(10);
+		out.write('b');
+		assertEquals("ab", out.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void toString_CharsetGiven_ShouldDecodeContent() {
+		PresizableByteArrayOutputStream out = new PresizableByteArrayOutputStream();
+		byte[] bytes = "äöü".getBytes(StandardCharsets.UTF_8);
+		out.write(bytes, 0, bytes.length);
+		assertEquals("äöü", out.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void toBase64String_ShouldEncodeWrittenBytesOnly() {
+		PresizableByteArrayOutputStream out = new PresizableByteArrayOutputStream(100);
+		byte[] bytes = { 0, (byte) 0xFF, 1, (byte) 0x80, 2 };
+		out.write(bytes, 0, bytes.length);
+		assertEquals(Base64.getEncoder().encodeToString(bytes), out.toBase64String());
+	}
+
+	@Test
+	public void toBase64String_NothingWritten_ShouldReturnEmptyString() {
+		assertEquals("", new PresizableByteArrayOutputStream().toBase64String());
+	}
+}
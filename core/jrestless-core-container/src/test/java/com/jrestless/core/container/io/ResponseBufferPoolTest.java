@@ -0,0 +1,109 @@
+package com.jrestless.core.container.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class ResponseBufferPoolTest {
+
+	private static final int MAX_CAPACITY = 8 * 1024;
+
+	private final ResponseBufferPool pool = new ResponseBufferPool(MAX_CAPACITY);
+
+	@Test(expected = IllegalArgumentException.class)
+	public void init_TooSmallMaximumCapacityGiven_ShouldThrowIae() {
+		new ResponseBufferPool(512);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void init_NonPowerOfTwoMaximumCapacityGiven_ShouldThrowIae() {
+		new ResponseBufferPool(3 * 1024);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void release_NullGiven_ShouldThrowNpe() {
+		pool.release(null);
+	}
+
+	@Test
+	public void acquire_NothingReleased_ShouldAllocateMinimumCapacity() {
+		PresizableByteArrayOutputStream buffer = pool.acquire();
+		assertEquals(ResponseBufferPool.MINIMUM_CAPACITY, buffer.capacity());
+		assertEquals(0, buffer.size());
+	}
+
+	@Test
+	public void acquire_BufferReleased_ShouldReuseEmptiedBuffer() {
+		PresizableByteArrayOutputStream buffer = pool.acquire();
+		buffer.write(1);
+		pool.release(buffer);
+		PresizableByteArrayOutputStream reused = pool.acquire();
+		assertSame(buffer, reused);
+		assertEquals(0, reused.size());
+	}
+
+	@Test
+	public void acquire_LargeBufferReleased_ShouldAllocateLastUsedSize() {
+		PresizableByteArrayOutputStream buffer = pool.acquire();
+		buffer.write(new byte[3 * 1024], 0, 3 * 1024);
+		pool.release(buffer);
+		assertEquals(4 * 1024, pool.acquire().capacity());
+	}
+
+	@Test
+	public void acquire_OnlyMuchLargerBufferIdle_ShouldAllocateNewBuffer() {
+		PresizableByteArrayOutputStream large = new PresizableByteArrayOutputStream(MAX_CAPACITY);
+		pool.release(large);
+		PresizableByteArrayOutputStream small = pool.acquire();
+		small.write(1);
+		pool.release(small);
+		// last used: 1 KiB size class => 8 KiB is too large
+		PresizableByteArrayOutputStream buffer = pool.acquire();
+		assertSame(small, buffer);
+		assertNotSame(large, pool.acquire());
+	}
+
+	@Test
+	public void acquire_LargerBufferIdleForTooLong_ShouldDropIt() {
+		PresizableByteArrayOutputStream large = new PresizableByteArrayOutputStream(MAX_CAPACITY);
+		pool.release(large);
+		for (int i = 0; i < ResponseBufferPool.MAXIMUM_IDLE_ACQUISITIONS; i++) {
+			pool.release(pool.acquire());
+		}
+		// make the large buffer's size class the expected one
+		PresizableByteArrayOutputStream buffer = pool.acquire();
+		buffer.write(new byte[MAX_CAPACITY], 0, MAX_CAPACITY);
+		pool.release(buffer);
+		assertNotSame(large, pool.acquire());
+	}
+
+	@Test
+	public void acquire_LargerBufferIdleForNotTooLong_ShouldKeepIt() {
+		PresizableByteArrayOutputStream large = new PresizableByteArrayOutputStream(MAX_CAPACITY);
+		pool.release(large);
+		for (int i = 0; i < ResponseBufferPool.MAXIMUM_IDLE_ACQUISITIONS - 1; i++) {
+			pool.release(pool.acquire());
+		}
+		PresizableByteArrayOutputStream buffer = pool.acquire();
+		buffer.write(new byte[MAX_CAPACITY], 0, MAX_CAPACITY);
+		pool.release(buffer);
+		assertSame(large, pool.acquire());
+	}
+
+	@Test
+	public void release_TooLargeBufferGiven_ShouldNotPoolIt() {
+		PresizableByteArrayOutputStream huge = new PresizableByteArrayOutputStream(2 * MAX_CAPACITY);
+		pool.release(huge);
+		assertNotSame(huge, pool.acquire());
+		assertNotSame(huge, pool.acquire());
+	}
+
+	@Test
+	public void release_TooSmallBufferGiven_ShouldNotPoolIt() {
+		PresizableByteArrayOutputStream tiny = new PresizableByteArrayOutputStream(16);
+		pool.release(tiny);
+		assertNotSame(tiny, pool.acquire());
+	}
+}
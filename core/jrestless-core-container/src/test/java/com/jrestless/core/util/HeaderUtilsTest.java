@@ -4,15 +4,24 @@ import static com.jrestless.core.util.HeaderUtils.expandHeaders;
 import static com.jrestless.core.util.HeaderUtils.flattenHeaders;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.junit.Test;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.jrestless.core.http.HeaderMap;
 
 import jersey.repackaged.com.google.common.collect.ImmutableList;
 
@@ -131,4 +140,107 @@ public class HeaderUtilsTest {
 	public void exandHeaders_AnyGiven_ShouldReturnImmutableList() {
 		expandHeaders(ImmutableMap.of("k", "v0")).get("k").add("v1");
 	}
+
+	@Test
+	public void flattenHeaders_NullValuesWithinListGiven_ShouldSkipNullValues() {
+		Map<String, List<String>> listHeaders = new HashMap<>();
+		listHeaders.put("a_k", Arrays.asList(null, "a_v0", null, "a_v1"));
+		Map<String, String> flattenedHeaders = flattenHeaders(listHeaders);
+		assertEquals(ImmutableMap.of("a_k", "a_v0,a_v1"), flattenedHeaders);
+	}
+
+	@Test
+	public void flattenHeaders_OnlyNullValuesWithinListGiven_ShouldPassEmptyHeader() {
+		Map<String, List<String>> listHeaders = new HashMap<>();
+		listHeaders.put("a_k", singletonList(null));
+		listHeaders.put("b_k", Arrays.asList(null, null));
+		Map<String, String> flattenedHeaders = flattenHeaders(listHeaders);
+		assertEquals(ImmutableMap.of("a_k", "", "b_k", ""), flattenedHeaders);
+	}
+
+	@Test
+	public void expandHeaders_NullKeyAndValueGiven_ShouldNotCountThem() {
+		Map<String, String> flatHeaders = new HashMap<>();
+		flatHeaders.put("a_k", "a_v");
+		flatHeaders.put(null, "b_v");
+		flatHeaders.put("c_k", null);
+		Map<String, List<String>> expandedHeaders = expandHeaders(flatHeaders);
+		assertEquals(1, expandedHeaders.size());
+		assertFalse(expandedHeaders.isEmpty());
+		assertTrue(expandedHeaders.containsKey("a_k"));
+		assertFalse(expandedHeaders.containsKey(null));
+		assertFalse(expandedHeaders.containsKey("c_k"));
+		assertNull(expandedHeaders.get(null));
+		assertNull(expandedHeaders.get("c_k"));
+		assertEquals(ImmutableSet.of("a_k"), expandedHeaders.keySet());
+	}
+
+	@Test
+	public void expandHeaders_OnlyNullValuesGiven_ShouldBeEmpty() {
+		Map<String, String> flatHeaders = new HashMap<>();
+		flatHeaders.put("a_k", null);
+		Map<String, List<String>> expandedHeaders = expandHeaders(flatHeaders);
+		assertTrue(expandedHeaders.isEmpty());
+		assertEquals(0, expandedHeaders.size());
+		assertFalse(expandedHeaders.entrySet().iterator().hasNext());
+	}
+
+	@Test
+	public void expandHeaders_HeadersChanged_ShouldReflectChanges() {
+		Map<String, String> flatHeaders = new HashMap<>();
+		flatHeaders.put("a_k", "a_v");
+		Map<String, List<String>> expandedHeaders = expandHeaders(flatHeaders);
+		flatHeaders.put("b_k", "b_v");
+		flatHeaders.put("a_k", "a_v1");
+		assertEquals(ImmutableMap.of("a_k", singletonList("a_v1"), "b_k", singletonList("b_v")), expandedHeaders);
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void expandHeaders_IteratorExhausted_ShouldThrowNoSuchElementException() {
+		Iterator<Map.Entry<String, List<String>>> iterator = expandHeaders(ImmutableMap.of("k", "v")).entrySet()
+				.iterator();
+		iterator.next();
+		iterator.next();
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void exandHeaders_AnyGiven_ShouldReturnImmutableEntries() {
+		expandHeaders(ImmutableMap.of("k", "v0")).entrySet().iterator().next().setValue(new ArrayList<>());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void exandHeaders_AnyGiven_ShouldNotSupportRemoval() {
+		expandHeaders(new HashMap<>(ImmutableMap.of("k", "v0"))).remove("k");
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void expandHeaders_NullHeadersGiven_ShouldThrowNpe() {
+		expandHeaders(null);
+	}
+
+	@Test
+	public void flattenHeaders_HeadersDifferingInCaseGiven_ShouldMergeValues() {
+		Map<String, List<String>> listHeaders = new LinkedHashMap<>();
+		listHeaders.put("a_k", singletonList("a_v0"));
+		listHeaders.put("A_K", singletonList("a_v1"));
+		Map<String, String> flattenedHeaders = flattenHeaders(listHeaders);
+		assertEquals(ImmutableMap.of("a_k", "a_v0,a_v1"), flattenedHeaders);
+		assertEquals("a_v0,a_v1", flattenedHeaders.get("A_k"));
+	}
+
+	@Test
+	public void isReadOnly_ExpandedHeadersGiven_ShouldReturnTrue() {
+		assertTrue(HeaderUtils.isReadOnly(expandHeaders(new HashMap<>())));
+	}
+
+	@Test
+	public void isReadOnly_UnmodifiableHeaderMapGiven_ShouldReturnTrue() {
+		assertTrue(HeaderUtils.isReadOnly(new HeaderMap().makeUnmodifiable()));
+	}
+
+	@Test
+	public void isReadOnly_ModifiableHeadersGiven_ShouldReturnFalse() {
+		assertFalse(HeaderUtils.isReadOnly(new HeaderMap()));
+		assertFalse(HeaderUtils.isReadOnly(new HashMap<>()));
+	}
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.index.processor;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor generating the resource index consumed by
+ * {@code com.jrestless.core.container.index.ResourceIndex}.
+ * <p>
+ * The index contains all public, concrete, top-level or static nested classes
+ * annotated with {@link javax.ws.rs.Path} or {@link javax.ws.rs.ext.Provider}
+ * and all classes listed in
+ * {@code com.jrestless.core.container.index.IndexedComponents}.
+ * <p>
+ * Add this module to the annotation processor path (or the compile-only
+ * classpath) of the application to enable the processor.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+@SupportedAnnotationTypes({
+	ResourceIndexProcessor.PATH_ANNOTATION,
+	ResourceIndexProcessor.PROVIDER_ANNOTATION,
+	ResourceIndexProcessor.INDEXED_COMPONENTS_ANNOTATION
+})
+public class ResourceIndexProcessor extends AbstractProcessor {
+
+	static final String PATH_ANNOTATION = "javax.ws.rs.Path";
+	static final String PROVIDER_ANNOTATION = "javax.ws.rs.ext.Provider";
+	static final String INDEXED_COMPONENTS_ANNOTATION = "com.jrestless.core.container.index.IndexedComponents";
+	static final String INDEX_LOCATION = "META-INF/jrestless/resource-index";
+
+	private final Set<String> indexedClasses = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			writeIndex();
+			return false;
+		}
+		for (TypeElement annotation : annotations) {
+			boolean indexedComponents = annotation.getQualifiedName().contentEquals(INDEXED_COMPONENTS_ANNOTATION);
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (indexedComponents) {
+					addIndexedComponents(element);
+				} else if (isRegistrable(element)) {
+					indexedClasses.add(getBinaryName((TypeElement) element));
+				}
+			}
+		}
+		// other processors might be interested in the annotations, too
+		return false;
+	}
+
+	/**
+	 * Interfaces, abstract classes and non-static inner classes cannot be
+	 * registered. Note: {@link javax.ws.rs.Path} might be put on methods, too.
+	 */
+	private static boolean isRegistrable(Element element) {
+		if (element.getKind() != ElementKind.CLASS) {
+			return false;
+		}
+		Set<Modifier> modifiers = element.getModifiers();
+		if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT)) {
+			return false;
+		}
+		Element enclosingElement = element.getEnclosingElement();
+		return enclosingElement.getKind() == ElementKind.PACKAGE || modifiers.contains(Modifier.STATIC);
+	}
+
+	private void addIndexedComponents(Element element) {
+		for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+			TypeElement annotationType = (TypeElement) annotationMirror.getAnnotationType().asElement();
+			if (!annotationType.getQualifiedName().contentEquals(INDEXED_COMPONENTS_ANNOTATION)) {
+				continue;
+			}
+			for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+					: annotationMirror.getElementValues().entrySet()) {
+				@SuppressWarnings("unchecked")
+				List<? extends AnnotationValue> values = (List<? extends AnnotationValue>) entry.getValue().getValue();
+				for (AnnotationValue value : values) {
+					addIndexedComponent(element, (TypeMirror) value.getValue());
+				}
+			}
+		}
+	}
+
+	private void addIndexedComponent(Element element, TypeMirror component) {
+		if (component instanceof DeclaredType) {
+			indexedClasses.add(getBinaryName((TypeElement) ((DeclaredType) component).asElement()));
+		} else {
+			processingEnv.getMessager().printMessage(Kind.ERROR,
+					"'" + component + "' cannot be added to the resource index", element);
+		}
+	}
+
+	private String getBinaryName(TypeElement typeElement) {
+		return processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+	}
+
+	private void writeIndex() {
+		if (indexedClasses.isEmpty()) {
+			return;
+		}
+		try {
+			FileObject indexFile = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+					INDEX_LOCATION);
+			try (Writer writer = new OutputStreamWriter(indexFile.openOutputStream(), StandardCharsets.UTF_8)) {
+				writer.write("# generated by " + ResourceIndexProcessor.class.getName() + "\n");
+				for (String indexedClass : indexedClasses) {
+					writer.write(indexedClass);
+					writer.write('\n');
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR, "failed to write resource index: " + e.getMessage());
+		}
+	}
+}
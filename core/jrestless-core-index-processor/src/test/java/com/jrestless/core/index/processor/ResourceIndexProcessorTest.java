@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.index.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResourceIndexProcessorTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private File outputDir;
+
+	@Before
+	public void setup() throws IOException {
+		outputDir = tmp.newFolder();
+	}
+
+	@Test
+	public void process_ResourcesAndProvidersGiven_ShouldIndexRegistrableClasses() throws IOException {
+		assertTrue(compile(
+				source("a.RootResource", "package a; @javax.ws.rs.Path(\"/\") public class RootResource {"
+						+ " @javax.ws.rs.GET @javax.ws.rs.Path(\"sub\") public String get() { return null; }"
+						+ " @javax.ws.rs.Path(\"nested\") public static class NestedResource { }"
+						+ " @javax.ws.rs.Path(\"inner\") public class InnerResource { }"
+						+ "}"),
+				source("a.SomeProvider", "package a; @javax.ws.rs.ext.Provider public class SomeProvider { }"),
+				source("a.ResourceInterface", "package a; @javax.ws.rs.Path(\"/\") public interface ResourceInterface { }"),
+				source("a.AbstractResource", "package a; @javax.ws.rs.Path(\"/\") public abstract class AbstractResource { }"),
+				source("a.NonPublicResource", "package a; @javax.ws.rs.Path(\"/\") class NonPublicResource { }")));
+		assertEquals(Arrays.asList("a.RootResource", "a.RootResource$NestedResource", "a.SomeProvider"),
+				readIndex());
+	}
+
+	@Test
+	public void process_IndexedComponentsGiven_ShouldIndexComponents() throws IOException {
+		assertTrue(compile(
+				source("a.Application", "package a;"
+						+ " @com.jrestless.core.container.index.IndexedComponents("
+						+ "{java.lang.String.class, java.util.Map.Entry.class})"
+						+ " public class Application { }")));
+		assertEquals(Arrays.asList("java.lang.String", "java.util.Map$Entry"), readIndex());
+	}
+
+	@Test
+	public void process_IndexedPrimitiveGiven_ShouldFail() throws IOException {
+		assertFalse(compile(
+				source("a.Application", "package a;"
+						+ " @com.jrestless.core.container.index.IndexedComponents(int.class)"
+						+ " public class Application { }")));
+	}
+
+	@Test
+	public void process_NothingToIndex_ShouldNotWriteIndex() throws IOException {
+		assertTrue(compile(source("a.Plain", "package a; public class Plain { }")));
+		assertFalse(new File(outputDir, ResourceIndexProcessor.INDEX_LOCATION).exists());
+	}
+
+	private boolean compile(JavaFileObject... sources) {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		List<String> options = new ArrayList<>();
+		options.add("-classpath");
+		options.add(System.getProperty("java.class.path"));
+		options.add("-d");
+		options.add(outputDir.getAbsolutePath());
+		options.add("-proc:only");
+		JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null,
+				Arrays.asList(sources));
+		task.setProcessors(Collections.singletonList(new ResourceIndexProcessor()));
+		return task.call();
+	}
+
+	private List<String> readIndex() throws IOException {
+		List<String> lines = new ArrayList<>(Files.readAllLines(
+				new File(outputDir, ResourceIndexProcessor.INDEX_LOCATION).toPath(), StandardCharsets.UTF_8));
+		assertTrue(lines.remove(0).startsWith("#"));
+		return lines;
+	}
+
+	private static JavaFileObject source(String className, String code) {
+		URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+		return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return code;
+			}
+		};
+	}
+}
@@ -0,0 +1,379 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.http;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact map with case-insensitive {@link String} keys - designed for HTTP
+ * headers.
+ * <p>
+ * Keys are compared using {@link String#equalsIgnoreCase(String)} but the
+ * case of the first inserted key is preserved. Iteration happens in insertion
+ * order. {@code null} keys are not supported but {@code null} values are.
+ * <p>
+ * The entries are stored in plain arrays and looked up via an open-addressing
+ * (linear probing) index which is kept at most half full. This is a lot more
+ * compact than a {@link java.util.HashMap} for the typical 10 to 30 headers
+ * of a request or response. Removals are expensive (linear) since they are
+ * rare for headers.
+ * <p>
+ * A map can be made unmodifiable ({@link #makeUnmodifiable()}) so that it can
+ * be passed on by reference instead of getting copied.
+ * <p>
+ * The map is not thread-safe.
+ *
+ * @author Bjoern Bilger
+ *
+ * @param <V>
+ *            the type of the values
+ */
+public class CaseInsensitiveMap<V> extends AbstractMap<String, V> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final int MIN_CAPACITY = 4;
+	private static final int HASH_MULTIPLIER = 31;
+	private static final int HASH_SPREAD_SHIFT = 16;
+	private static final char FIRST_NON_ASCII_CHAR = 0x80;
+
+	private String[] keys;
+	private Object[] values;
+	private int[] hashes;
+	/*
+	 * index into keys/values/hashes + 1; 0 marks a free slot; the length is a
+	 * power of two and at least twice the capacity
+	 */
+	private int[] slots;
+	private int size;
+	private boolean unmodifiable;
+	private Set<Map.Entry<String, V>> entrySet;
+
+	public CaseInsensitiveMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a map that can hold the given number of entries without being
+	 * resized.
+	 *
+	 * @param expectedSize
+	 */
+	public CaseInsensitiveMap(int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("expectedSize must not be negative");
+		}
+		int capacity = Math.max(expectedSize, MIN_CAPACITY);
+		keys = new String[capacity];
+		values = new Object[capacity];
+		hashes = new int[capacity];
+		slots = new int[tableSizeFor(2 * capacity)];
+	}
+
+	/**
+	 * Returns the given map if it is an unmodifiable {@link CaseInsensitiveMap}
+	 * already; otherwise an unmodifiable copy of it.
+	 * <p>
+	 * Entries having a {@code null} key are skipped. If the given map contains
+	 * keys differing in case, only, then the value of the last one wins.
+	 *
+	 * @param map
+	 * @return an unmodifiable case-insensitive map
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> CaseInsensitiveMap<V> unmodifiableCopyOf(Map<String, ? extends V> map) {
+		requireNonNull(map);
+		if (map instanceof CaseInsensitiveMap && ((CaseInsensitiveMap<?>) map).isUnmodifiable()) {
+			return (CaseInsensitiveMap<V>) map;
+		}
+		CaseInsensitiveMap<V> copy = new CaseInsensitiveMap<>(map.size());
+		for (Map.Entry<String, ? extends V> entry : map.entrySet()) {
+			if (entry.getKey() != null) {
+				copy.put(entry.getKey(), entry.getValue());
+			}
+		}
+		copy.makeUnmodifiable();
+		return copy;
+	}
+
+	/**
+	 * Makes this map unmodifiable. All further modifications will result in
+	 * an {@link UnsupportedOperationException}.
+	 * <p>
+	 * Each value will be passed to {@link #toUnmodifiableValue(Object)}.
+	 *
+	 * @return this map
+	 */
+	public CaseInsensitiveMap<V> makeUnmodifiable() {
+		if (!unmodifiable) {
+			for (int i = 0; i < size; i++) {
+				values[i] = toUnmodifiableValue(valueAt(i));
+			}
+			unmodifiable = true;
+		}
+		return this;
+	}
+
+	public final boolean isUnmodifiable() {
+		return unmodifiable;
+	}
+
+	/**
+	 * Hook to make a value unmodifiable when the map is made unmodifiable.
+	 * <p>
+	 * The value is returned as is by default.
+	 *
+	 * @param value
+	 * @return the value to store instead
+	 */
+	protected V toUnmodifiableValue(V value) {
+		return value;
+	}
+
+	/**
+	 * Throws an {@link UnsupportedOperationException} if the map has been made
+	 * unmodifiable.
+	 */
+	protected final void checkModifiable() {
+		if (unmodifiable) {
+			throw new UnsupportedOperationException("the map is unmodifiable");
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+
+	@Override
+	public V get(Object key) {
+		int index = indexOf(key);
+		return index < 0 ? null : valueAt(index);
+	}
+
+	@Override
+	public V put(String key, V value) {
+		checkModifiable();
+		requireNonNull(key, "key may not be null");
+		int hash = hash(key);
+		int index = indexOf(key, hash);
+		if (index >= 0) {
+			V oldValue = valueAt(index);
+			values[index] = value;
+			return oldValue;
+		}
+		if (size == keys.length) {
+			grow();
+		}
+		keys[size] = key;
+		values[size] = value;
+		hashes[size] = hash;
+		insertSlot(hash, size);
+		size++;
+		return null;
+	}
+
+	@Override
+	public V remove(Object key) {
+		checkModifiable();
+		int index = indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+		V oldValue = valueAt(index);
+		removeAt(index);
+		return oldValue;
+	}
+
+	@Override
+	public void clear() {
+		checkModifiable();
+		Arrays.fill(keys, 0, size, null);
+		Arrays.fill(values, 0, size, null);
+		Arrays.fill(slots, 0);
+		size = 0;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super String, ? super V> action) {
+		requireNonNull(action);
+		for (int i = 0; i < size; i++) {
+			action.accept(keys[i], valueAt(i));
+		}
+	}
+
+	@Override
+	public Set<Map.Entry<String, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+		}
+		return entrySet;
+	}
+
+	@SuppressWarnings("unchecked")
+	private V valueAt(int index) {
+		return (V) values[index];
+	}
+
+	private int indexOf(Object key) {
+		if (!(key instanceof String)) {
+			return -1;
+		}
+		String name = (String) key;
+		return indexOf(name, hash(name));
+	}
+
+	private int indexOf(String key, int hash) {
+		int mask = slots.length - 1;
+		for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+			int entry = slots[slot];
+			if (entry == 0) {
+				return -1;
+			}
+			int index = entry - 1;
+			if (hashes[index] == hash && keys[index].equalsIgnoreCase(key)) {
+				return index;
+			}
+		}
+	}
+
+	private void insertSlot(int hash, int index) {
+		int mask = slots.length - 1;
+		int slot = hash & mask;
+		while (slots[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		slots[slot] = index + 1;
+	}
+
+	private void grow() {
+		int capacity = 2 * keys.length;
+		keys = Arrays.copyOf(keys, capacity);
+		values = Arrays.copyOf(values, capacity);
+		hashes = Arrays.copyOf(hashes, capacity);
+		slots = new int[tableSizeFor(2 * capacity)];
+		rebuildSlots();
+	}
+
+	private void removeAt(int index) {
+		int tail = size - index - 1;
+		System.arraycopy(keys, index + 1, keys, index, tail);
+		System.arraycopy(values, index + 1, values, index, tail);
+		System.arraycopy(hashes, index + 1, hashes, index, tail);
+		size--;
+		keys[size] = null;
+		values[size] = null;
+		Arrays.fill(slots, 0);
+		rebuildSlots();
+	}
+
+	private void rebuildSlots() {
+		for (int i = 0; i < size; i++) {
+			insertSlot(hashes[i], i);
+		}
+	}
+
+	private static int tableSizeFor(int minSize) {
+		int tableSize = Integer.highestOneBit(minSize);
+		return tableSize == minSize ? tableSize : tableSize << 1;
+	}
+
+	/*
+	 * Consistent with String#equalsIgnoreCase: ASCII characters are folded
+	 * directly; all other characters the same way equalsIgnoreCase compares
+	 * them.
+	 */
+	static int hash(String key) {
+		int hash = 0;
+		for (int i = 0, length = key.length(); i < length; i++) {
+			char c = key.charAt(i);
+			if (c >= 'A' && c <= 'Z') {
+				c = (char) (c + ('a' - 'A'));
+			} else if (c >= FIRST_NON_ASCII_CHAR) {
+				c = Character.toLowerCase(Character.toUpperCase(c));
+			}
+			hash = HASH_MULTIPLIER * hash + c;
+		}
+		return hash ^ (hash >>> HASH_SPREAD_SHIFT);
+	}
+
+	private final class EntrySet extends AbstractSet<Map.Entry<String, V>> {
+
+		@Override
+		public Iterator<Map.Entry<String, V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public void clear() {
+			CaseInsensitiveMap.this.clear();
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Map.Entry<String, V>> {
+
+		private int next;
+		private int last = -1;
+
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		@Override
+		public Map.Entry<String, V> next() {
+			if (next >= size) {
+				throw new NoSuchElementException();
+			}
+			last = next++;
+			return new SimpleImmutableEntry<>(keys[last], valueAt(last));
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			checkModifiable();
+			removeAt(last);
+			next = last;
+			last = -1;
+		}
+	}
+}
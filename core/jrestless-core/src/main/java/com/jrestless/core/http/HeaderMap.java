@@ -0,0 +1,162 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.http;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * Case-insensitive multi-value map for HTTP headers.
+ * <p>
+ * See {@link CaseInsensitiveMap} for the details. Once the map is made
+ * unmodifiable, all value lists are unmodifiable as well.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class HeaderMap extends CaseInsensitiveMap<List<String>> implements MultivaluedMap<String, String> {
+
+	public HeaderMap() {
+		super();
+	}
+
+	public HeaderMap(int expectedSize) {
+		super(expectedSize);
+	}
+
+	/**
+	 * Returns the given headers if they are an unmodifiable {@link HeaderMap}
+	 * already; otherwise an unmodifiable copy of them.
+	 * <p>
+	 * Headers having a {@code null} key or a {@code null} value list are
+	 * skipped. The value lists are copied. Values of headers differing in
+	 * case, only, are merged.
+	 *
+	 * @param headers
+	 * @return unmodifiable headers
+	 */
+	public static HeaderMap unmodifiableMultivaluedCopyOf(Map<String, ? extends List<String>> headers) {
+		requireNonNull(headers);
+		if (headers instanceof HeaderMap && ((HeaderMap) headers).isUnmodifiable()) {
+			return (HeaderMap) headers;
+		}
+		HeaderMap copy = new HeaderMap(headers.size());
+		for (Map.Entry<String, ? extends List<String>> header : headers.entrySet()) {
+			String headerName = header.getKey();
+			List<String> headerValues = header.getValue();
+			if (headerName != null && headerValues != null) {
+				List<String> copiedValues = copy.get(headerName);
+				if (copiedValues == null) {
+					copy.put(headerName, new ArrayList<>(headerValues));
+				} else {
+					copiedValues.addAll(headerValues);
+				}
+			}
+		}
+		copy.makeUnmodifiable();
+		return copy;
+	}
+
+	@Override
+	public HeaderMap makeUnmodifiable() {
+		super.makeUnmodifiable();
+		return this;
+	}
+
+	@Override
+	protected List<String> toUnmodifiableValue(List<String> value) {
+		return value == null ? null : Collections.unmodifiableList(value);
+	}
+
+	@Override
+	public void putSingle(String key, String value) {
+		List<String> values = new ArrayList<>(1);
+		values.add(value);
+		put(key, values);
+	}
+
+	@Override
+	public void add(String key, String value) {
+		getOrCreateValues(key).add(value);
+	}
+
+	@Override
+	public void addAll(String key, String... newValues) {
+		requireNonNull(newValues, "newValues may not be null");
+		if (newValues.length > 0) {
+			getOrCreateValues(key).addAll(Arrays.asList(newValues));
+		}
+	}
+
+	@Override
+	public void addAll(String key, List<String> valueList) {
+		requireNonNull(valueList, "valueList may not be null");
+		if (!valueList.isEmpty()) {
+			getOrCreateValues(key).addAll(valueList);
+		}
+	}
+
+	@Override
+	public void addFirst(String key, String value) {
+		getOrCreateValues(key).add(0, value);
+	}
+
+	@Override
+	public String getFirst(String key) {
+		List<String> values = get(key);
+		return values == null || values.isEmpty() ? null : values.get(0);
+	}
+
+	@Override
+	public boolean equalsIgnoreValueOrder(MultivaluedMap<String, String> otherMap) {
+		if (this == otherMap) {
+			return true;
+		}
+		if (otherMap == null || size() != otherMap.size()) {
+			return false;
+		}
+		for (Map.Entry<String, List<String>> header : entrySet()) {
+			List<String> values = header.getValue();
+			List<String> otherValues = otherMap.get(header.getKey());
+			if (values == null || otherValues == null) {
+				if (values != otherValues) {
+					return false;
+				}
+			} else if (values.size() != otherValues.size() || !values.containsAll(otherValues)
+					|| !otherValues.containsAll(values)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private List<String> getOrCreateValues(String key) {
+		checkModifiable();
+		List<String> values = get(key);
+		if (values == null) {
+			values = new ArrayList<>();
+			put(key, values);
+		}
+		return values;
+	}
+}
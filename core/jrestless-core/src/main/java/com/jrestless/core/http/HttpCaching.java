@@ -0,0 +1,177 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.core.http;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+/**
+ * Helpers shared by the HTTP response caches: parsing of
+ * {@code Cache-Control} directives, delta-seconds and HTTP-dates,
+ * case-insensitive header lookups and least-recently-used eviction.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public final class HttpCaching {
+
+	public static final String DIRECTIVE_NO_STORE = "no-store";
+	public static final String DIRECTIVE_NO_CACHE = "no-cache";
+	public static final String DIRECTIVE_PRIVATE = "private";
+	public static final String DIRECTIVE_PUBLIC = "public";
+	public static final String DIRECTIVE_MAX_AGE = "max-age";
+	public static final String DIRECTIVE_S_MAXAGE = "s-maxage";
+
+	private static final int INITIAL_CAPACITY = 16;
+	private static final float LOAD_FACTOR = 0.75f;
+
+	private HttpCaching() {
+	}
+
+	/**
+	 * Parses a {@code Cache-Control} header value.
+	 *
+	 * @param cacheControl
+	 *            the header value; may be null
+	 * @return the directives (lower-cased) mapped to their (unquoted) values
+	 *         or to null if they don't have a value
+	 */
+	public static Map<String, String> parseCacheControl(@Nullable String cacheControl) {
+		if (cacheControl == null) {
+			return Collections.emptyMap();
+		}
+		Map<String, String> directives = new HashMap<>();
+		for (String directive : cacheControl.split(",")) {
+			int separator = directive.indexOf('=');
+			if (separator < 0) {
+				directives.put(directive.trim().toLowerCase(Locale.ROOT), null);
+			} else {
+				String value = directive.substring(separator + 1).trim();
+				if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+					value = value.substring(1, value.length() - 1);
+				}
+				directives.put(directive.substring(0, separator).trim().toLowerCase(Locale.ROOT), value);
+			}
+		}
+		return directives;
+	}
+
+	/**
+	 * Parses delta-seconds - e.g. the value of a {@code max-age} directive.
+	 *
+	 * @param seconds
+	 *            the seconds; may be null
+	 * @return the seconds or -1 if they are missing or invalid
+	 */
+	public static long parseSeconds(@Nullable String seconds) {
+		if (seconds == null) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(seconds);
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Parses an (RFC 1123) HTTP-date.
+	 *
+	 * @param date
+	 *            the date; may be null
+	 * @return the date in milliseconds since the epoch or null if it is
+	 *         missing or invalid
+	 */
+	@Nullable
+	public static Long parseHttpDate(@Nullable String date) {
+		if (date == null) {
+			return null;
+		}
+		try {
+			return ZonedDateTime.parse(date.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Looks up a header; the name is matched case-insensitively.
+	 *
+	 * @param headers
+	 *            the headers
+	 * @param headerName
+	 *            the header's name
+	 * @return the comma-separated values of the header or null if there is
+	 *         no such header
+	 */
+	@Nullable
+	public static String getHeader(Map<String, List<String>> headers, String headerName) {
+		List<String> values = headers.get(headerName);
+		if (values == null && !(headers instanceof HeaderMap)) {
+			for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+				if (headerName.equalsIgnoreCase(header.getKey())) {
+					values = header.getValue();
+					break;
+				}
+			}
+		}
+		if (values == null || values.isEmpty()) {
+			return null;
+		}
+		return values.size() == 1 ? values.get(0) : String.join(",", values);
+	}
+
+	/**
+	 * @return an empty, access-ordered map for
+	 *         {@link #evictLeastRecentlyUsed(LinkedHashMap, BooleanSupplier, Consumer)}
+	 */
+	public static <K, V> LinkedHashMap<K, V> newLeastRecentlyUsedMap() {
+		return new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+	}
+
+	/**
+	 * Removes the least recently used values from an access-ordered map as
+	 * long as a bound is exceeded.
+	 *
+	 * @param map
+	 *            the map created by {@link #newLeastRecentlyUsedMap()}
+	 * @param boundExceeded
+	 *            whether to remove another value
+	 * @param evicted
+	 *            called for each removed value - e.g. to update the bound
+	 */
+	public static <V> void evictLeastRecentlyUsed(LinkedHashMap<?, V> map, BooleanSupplier boundExceeded,
+			Consumer<? super V> evicted) {
+		Iterator<V> iterator = map.values().iterator();
+		while (boundExceeded.getAsBoolean() && iterator.hasNext()) {
+			V value = iterator.next();
+			iterator.remove();
+			evicted.accept(value);
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package com.jrestless.core.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class CaseInsensitiveMapTest {
+
+	@Test
+	public void get_DifferentCaseGiven_ShouldFindValue() {
+		CaseInsensitiveMap<String> map = new CaseInsensitiveMap<>();
+		map.put("Content-Type", "text/plain");
+		assertEquals("text/plain", map.get("content-type"));
+		assertEquals("text/plain", map.get("CONTENT-TYPE"));
+		assertTrue(map.containsKey("cOnTeNt-TyPe"));
+		assertFalse(map.containsKey("content-length"));
+		assertNull(map.get("content-length"));
+	}
+
+	@Test
+	public void get_NonStringKeyGiven_ShouldReturnNull() {
+		CaseInsensitiveMap<String> map = new CaseInsensitiveMap<>();
+		map.put("1", "v");
+		assertNull(map.get(1));
+		assertNull(map.get(null));
+		assertFalse(map.containsKey(null));
+	}
+
+	@Test
+	public void put_DifferentCaseGiven_ShouldReplaceValueAndPreserveFirstKey() {
+		CaseInsensitiveMap<String> map = new CaseInsensitiveMap<>();
+		assertNull(map.put("Accept", "a"));
+		assertEquals("a", map.put("ACCEPT", "b"));
+		assertEquals(1, map.size());
+		assertEquals("Accept", map.keySet().iterator().next());
+		assertEquals("b", map.get("accept"));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void put_NullKeyGiven_ShouldThrowNpe() {
+		new CaseInsensitiveMap<String>().put(null, "v");
+	}
+
+	@Test
+	public void put_NullValueGiven_ShouldStoreNullValue() {
+		CaseInsensitiveMap<String> map = new CaseInsensitiveMap<>();
+		map.put("k", null);
+		assertTrue(map.containsKey("K"));
+		assertNull(map.get("k"));
+	}
+
+	@Test
+	public void put_ManyEntriesGiven_ShouldGrowAndKeepInsertionOrder() {
+		CaseInsensitiveMap<Integer> map = new CaseInsensitiveMap<>(0);
+		Map<String, Integer> expected = new LinkedHashMap<>();
+		for (int i = 0; i < 100; i++) {
+			map.put("Header-" + i, i);
+			expected.put("Header-" + i, i);
+		}
+		assertEquals(100, map.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(Integer.valueOf(i), map.get("HEADER-" + i));
+		}
+		assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+	}
+
+	@Test
+	public void remove_ExistingKeyGiven_ShouldRemoveEntryAndKeepOthers() {
+		CaseInsensitiveMap<String> map = new CaseInsensitiveMap<>();
+		map.put("a", "0");
+		map.put("b", "1");
+		map.put("c", "2");
+		assertEquals("1", map.remove("B"));
+		assertNull(map.remove("b"));
+		assertEquals(2, map.size());
+		assertEquals(Arrays.asList("a", "c"), new ArrayList<>(map.keySet()));
+		assertEquals("0", map.get("A"));
+		assertEquals("2", map.get("C"));
+	}
+
+	@Test
+	public void iteratorRemove_ShouldRemoveEntries() {
+		CaseInsensitiveMap<String> map = new CaseInsensitiveMap<>();
+		map.put("a", "0");
+		map.put("b", "1");
+		map.put("c", "2");
+		Iterator<Map.Entry<String, String>> iterator = map.entrySet().iterator();
+		while (iterator.hasNext()) {
+			if (!"b".equals(iterator.next().getKey())) {
+				iterator.remove();
+			}
+		}
+		assertEquals(1, map.size());
+		assertEquals("1", map.get("B"));
+	}
+
+	@Test
+	public void clear_ShouldRemoveAllEntries() {
+		CaseInsensitiveMap<String> map = new CaseInsensitiveMap<>();
+		map.put("a", "0");
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertNull(map.get("a"));
+		map.put("A", "1");
+		assertEquals("1", map.get("a"));
+	}
+
+	@Test
+	public void equals_ShouldBeEqualToOtherMapWithSameEntries() {
+		CaseInsensitiveMap<String> map = new CaseInsensitiveMap<>();
+		map.put("a", "0");
+		map.put("b", "1");
+		Map<String, String> other = new HashMap<>();
+		other.put("b", "1");
+		other.put("a", "0");
+		assertEquals(other, map);
+		assertEquals(map, other);
+		assertEquals(other.hashCode(), map.hashCode());
+	}
+
+	@Test
+	public void hash_ShouldBeConsistentWithEqualsIgnoreCase() {
+		List<String[]> pairs = Arrays.asList(
+				new String[] {"x-amz-Date", "X-AMZ-DATE"},
+				new String[] {"ı", "I"},
+				new String[] {"K", "k"},
+				new String[] {"ä", "Ä"});
+		for (String[] pair : pairs) {
+			assertTrue(pair[0].equalsIgnoreCase(pair[1]));
+			assertEquals(CaseInsensitiveMap.hash(pair[0]), CaseInsensitiveMap.hash(pair[1]));
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void makeUnmodifiable_PutGiven_ShouldThrowUoe() {
+		CaseInsensitiveMap<String> map = new CaseInsensitiveMap<>();
+		map.makeUnmodifiable().put("k", "v");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void makeUnmodifiable_RemoveGiven_ShouldThrowUoe() {
+		CaseInsensitiveMap<String> map = new CaseInsensitiveMap<>();
+		map.put("k", "v");
+		map.makeUnmodifiable().remove("k");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void makeUnmodifiable_IteratorRemoveGiven_ShouldThrowUoe() {
+		CaseInsensitiveMap<String> map = new CaseInsensitiveMap<>();
+		map.put("k", "v");
+		Iterator<Map.Entry<String, String>> iterator = map.makeUnmodifiable().entrySet().iterator();
+		iterator.next();
+		iterator.remove();
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void makeUnmodifiable_ClearGiven_ShouldThrowUoe() {
+		new CaseInsensitiveMap<String>().makeUnmodifiable().clear();
+	}
+
+	@Test
+	public void unmodifiableCopyOf_UnmodifiableMapGiven_ShouldReturnSameInstance() {
+		CaseInsensitiveMap<String> map = new CaseInsensitiveMap<String>().makeUnmodifiable();
+		assertSame(map, CaseInsensitiveMap.unmodifiableCopyOf(map));
+	}
+
+	@Test
+	public void unmodifiableCopyOf_ModifiableMapGiven_ShouldCopy() {
+		CaseInsensitiveMap<String> map = new CaseInsensitiveMap<>();
+		map.put("k", "v");
+		CaseInsensitiveMap<String> copy = CaseInsensitiveMap.unmodifiableCopyOf(map);
+		map.put("k", "v2");
+		assertTrue(copy.isUnmodifiable());
+		assertEquals("v", copy.get("K"));
+	}
+
+	@Test
+	public void unmodifiableCopyOf_NullKeyGiven_ShouldSkipEntry() {
+		Map<String, String> map = new HashMap<>();
+		map.put(null, "a");
+		map.put("b", null);
+		CaseInsensitiveMap<String> copy = CaseInsensitiveMap.unmodifiableCopyOf(map);
+		assertEquals(1, copy.size());
+		assertTrue(copy.containsKey("B"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void init_NegativeExpectedSizeGiven_ShouldThrowIae() {
+		new CaseInsensitiveMap<String>(-1);
+	}
+}
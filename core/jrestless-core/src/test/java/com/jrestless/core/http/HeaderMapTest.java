@@ -0,0 +1,106 @@
+package com.jrestless.core.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.junit.Test;
+
+public class HeaderMapTest {
+
+	@Test
+	public void add_ShouldAppendValuesCaseInsensitively() {
+		HeaderMap headers = new HeaderMap();
+		headers.add("Accept", "a");
+		headers.add("accept", "b");
+		headers.addAll("ACCEPT", "c", "d");
+		headers.addAll("Accept", Arrays.asList("e"));
+		headers.addFirst("accept", "0");
+		assertEquals(Arrays.asList("0", "a", "b", "c", "d", "e"), headers.get("Accept"));
+		assertEquals("0", headers.getFirst("aCCEPT"));
+		assertEquals(1, headers.size());
+	}
+
+	@Test
+	public void addAll_NoValuesGiven_ShouldNotCreateHeader() {
+		HeaderMap headers = new HeaderMap();
+		headers.addAll("a");
+		headers.addAll("b", Collections.emptyList());
+		assertTrue(headers.isEmpty());
+	}
+
+	@Test
+	public void putSingle_ShouldReplaceValues() {
+		HeaderMap headers = new HeaderMap();
+		headers.add("a", "0");
+		headers.add("a", "1");
+		headers.putSingle("A", "2");
+		assertEquals(Collections.singletonList("2"), headers.get("a"));
+	}
+
+	@Test
+	public void getFirst_NoValuesGiven_ShouldReturnNull() {
+		HeaderMap headers = new HeaderMap();
+		headers.put("a", new ArrayList<>());
+		assertNull(headers.getFirst("a"));
+		assertNull(headers.getFirst("b"));
+	}
+
+	@Test
+	public void equalsIgnoreValueOrder_ShouldIgnoreValueOrder() {
+		HeaderMap headers = new HeaderMap();
+		headers.addAll("a", "0", "1");
+		HeaderMap other = new HeaderMap();
+		other.addAll("A", "1", "0");
+		assertTrue(headers.equalsIgnoreValueOrder(other));
+		other.add("a", "2");
+		assertFalse(headers.equalsIgnoreValueOrder(other));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void makeUnmodifiable_AddGiven_ShouldThrowUoe() {
+		HeaderMap headers = new HeaderMap();
+		headers.add("a", "0");
+		headers.makeUnmodifiable().add("a", "1");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void makeUnmodifiable_ValueListModificationGiven_ShouldThrowUoe() {
+		HeaderMap headers = new HeaderMap();
+		headers.add("a", "0");
+		headers.makeUnmodifiable().get("a").add("1");
+	}
+
+	@Test
+	public void unmodifiableMultivaluedCopyOf_UnmodifiableHeaderMapGiven_ShouldReturnSameInstance() {
+		HeaderMap headers = new HeaderMap().makeUnmodifiable();
+		assertSame(headers, HeaderMap.unmodifiableMultivaluedCopyOf(headers));
+	}
+
+	@Test
+	public void unmodifiableMultivaluedCopyOf_MapGiven_ShouldCopyFilterAndMerge() {
+		Map<String, List<String>> map = new HashMap<>();
+		List<String> values = new ArrayList<>(Arrays.asList("0"));
+		map.put("a", values);
+		map.put("A", Arrays.asList("1"));
+		map.put(null, Arrays.asList("2"));
+		map.put("b", null);
+		MultivaluedMap<String, String> copy = HeaderMap.unmodifiableMultivaluedCopyOf(map);
+		values.add("3");
+		assertEquals(1, copy.size());
+		List<String> copiedValues = new ArrayList<>(copy.get("a"));
+		Collections.sort(copiedValues);
+		assertEquals(Arrays.asList("0", "1"), copiedValues);
+	}
+}
@@ -0,0 +1,65 @@
+package com.jrestless.core.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class HttpCachingTest {
+
+	@Test
+	public void parseCacheControl_DirectivesGiven_ShouldLowerCaseNamesAndUnquoteValues() {
+		Map<String, String> expected = new HashMap<>();
+		expected.put("no-cache", null);
+		expected.put("max-age", "60");
+		expected.put("private", "Set-Cookie");
+		assertEquals(expected, HttpCaching.parseCacheControl("No-Cache, MAX-AGE=60, private=\"Set-Cookie\""));
+	}
+
+	@Test
+	public void parseCacheControl_NullGiven_ShouldReturnEmptyMap() {
+		assertEquals(Collections.emptyMap(), HttpCaching.parseCacheControl(null));
+	}
+
+	@Test
+	public void parseSeconds_InvalidSecondsGiven_ShouldReturnMinusOne() {
+		assertEquals(60, HttpCaching.parseSeconds("60"));
+		assertEquals(-1, HttpCaching.parseSeconds("abc"));
+		assertEquals(-1, HttpCaching.parseSeconds(null));
+	}
+
+	@Test
+	public void parseHttpDate_ValidAndInvalidDatesGiven_ShouldParseValidDatesOnly() {
+		assertEquals(Long.valueOf(784111777000L), HttpCaching.parseHttpDate(" Sun, 06 Nov 1994 08:49:37 GMT"));
+		assertNull(HttpCaching.parseHttpDate("yesterday"));
+		assertNull(HttpCaching.parseHttpDate(null));
+	}
+
+	@Test
+	public void getHeader_HeaderDifferingInCaseGiven_ShouldJoinValues() {
+		Map<String, List<String>> headers = Collections.singletonMap("ETag", Arrays.asList("a", "b"));
+		assertEquals("a,b", HttpCaching.getHeader(headers, "etag"));
+		assertNull(HttpCaching.getHeader(headers, "Vary"));
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed_BoundExceeded_ShouldEvictLeastRecentlyUsedValues() {
+		LinkedHashMap<String, Integer> map = HttpCaching.newLeastRecentlyUsedMap();
+		map.put("a", 1);
+		map.put("b", 2);
+		map.put("c", 3);
+		map.get("a");
+		List<Integer> evicted = new ArrayList<>();
+		HttpCaching.evictLeastRecentlyUsed(map, () -> map.size() > 1, evicted::add);
+		assertEquals(Arrays.asList(2, 3), evicted);
+		assertEquals(Collections.singleton("a"), map.keySet());
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016 Bjoern Bilger
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jrestless.test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * UTC clock for tests that only moves when it is advanced explicitly.
+ *
+ * @author Bjoern Bilger
+ *
+ */
+public class MutableClock extends Clock {
+
+	private static final long MILLIS_PER_SECOND = 1000;
+
+	private long millis;
+
+	/**
+	 * Creates a clock set to the epoch.
+	 */
+	public MutableClock() {
+		this(Instant.EPOCH);
+	}
+
+	public MutableClock(Instant instant) {
+		this.millis = instant.toEpochMilli();
+	}
+
+	public void advanceSeconds(long seconds) {
+		millis += seconds * MILLIS_PER_SECOND;
+	}
+
+	@Override
+	public long millis() {
+		return millis;
+	}
+
+	@Override
+	public Instant instant() {
+		return Instant.ofEpochMilli(millis);
+	}
+
+	@Override
+	public ZoneId getZone() {
+		return ZoneOffset.UTC;
+	}
+
+	@Override
+	public Clock withZone(ZoneId zone) {
+		return this;
+	}
+}